@@ -0,0 +1,35 @@
+package co.com.capacitanet.model.curso;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Archivo recibido para un recurso. El contenido se lee como flujo cuando se necesita; si el tamaño no se
+ * conoce de antemano, {@code tamano} es negativo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class Archivo {
+    private String nombre;
+    private long tamano;
+    private String tipoContenido;
+    private Contenido contenido;
+
+    /**
+     * Fuente del contenido del archivo. Según el origen puede abrirse varias veces, cada una desde el
+     * inicio, o una sola vez cuando el contenido se lee directamente de la solicitud.
+     */
+    @FunctionalInterface
+    public interface Contenido {
+        InputStream abrir() throws IOException;
+    }
+}
@@ -0,0 +1,24 @@
+package co.com.capacitanet.model.curso;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Estadísticas acumuladas de un curso: usuarios suscritos, usuarios que lo completaron y módulos
+ * visualizados por todos sus suscriptores.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class EstadisticasCurso {
+
+    private String cursoId;
+    private long suscriptores;
+    private long completados;
+    private long visualizaciones;
+}
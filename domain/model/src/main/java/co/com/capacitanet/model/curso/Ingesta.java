@@ -0,0 +1,31 @@
+package co.com.capacitanet.model.curso;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Estado de la ingesta asíncrona de un recurso. El progreso lo actualiza la carga en segundo plano
+ * mientras el cliente lo consulta, por lo que los campos que cambian son volátiles.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class Ingesta {
+
+    public enum Estado {
+        EN_CURSO, COMPLETADA, FALLIDA
+    }
+
+    private String id;
+    private String cursoId;
+    private String recursoId;
+    private long bytesTotales;
+    private volatile long bytesTransferidos;
+    private volatile Estado estado;
+    private volatile String mensaje;
+}
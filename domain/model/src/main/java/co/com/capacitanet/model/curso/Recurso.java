@@ -14,6 +14,7 @@ import lombok.Setter;
 public class Recurso {
     private String id;
     private int order;
+    private Integer posicion;
     private boolean visualizado;
     private String tipo;
     private String nombre;
@@ -0,0 +1,17 @@
+package co.com.capacitanet.model.curso.gateways;
+
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface CursoAsyncRepository {
+
+    CompletableFuture<ResponseApp> obtenerUrlRecurso(String cursoId, String recursoId, String userId);
+
+    CompletableFuture<ResponseApp> obtenerUrlsRecursos(String cursoId, String userId);
+
+    CompletableFuture<Resultado<EstadisticasCurso>> obtenerEstadisticas(String cursoId);
+
+}
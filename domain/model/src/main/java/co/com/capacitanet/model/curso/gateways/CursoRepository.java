@@ -1,20 +1,33 @@
 package co.com.capacitanet.model.curso.gateways;
 
 
+import co.com.capacitanet.model.curso.Archivo;
 import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.Ingesta;
 import co.com.capacitanet.model.curso.Recurso;
 import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
 
-import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface CursoRepository {
 
     ResponseApp crearCurso(Curso curso);
 
-    ResponseApp obtenerCursos(String userId, boolean estado);
+    Resultado<Void> obtenerCursos(String userId, boolean estado, Consumer<Curso> consumidor);
 
-    ResponseApp agregarRecurso(String cursoId, Recurso recurso, File file);
+    ResponseApp agregarRecurso(String cursoId, Recurso recurso, Archivo archivo);
+
+    CompletableFuture<ResponseApp> agregarRecursoAsync(String cursoId, Recurso recurso, Archivo archivo, Ingesta ingesta);
 
     ResponseApp activarCurso(String cursoId, String userId);
 
+    ResponseApp obtenerUrlRecurso(String cursoId, String recursoId, String userId);
+
+    ResponseApp obtenerUrlsRecursos(String cursoId, String userId);
+
+    Resultado<EstadisticasCurso> obtenerEstadisticas(String cursoId);
+
 }
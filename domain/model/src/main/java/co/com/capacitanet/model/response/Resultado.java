@@ -0,0 +1,34 @@
+package co.com.capacitanet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Resultado tipado de una operación: el estado HTTP, el valor cuando la operación es exitosa
+ * o el mensaje de error en caso contrario. A diferencia de {@link ResponseApp}, el valor no se
+ * serializa a texto, de modo que el punto de entrada decide cómo escribirlo en la respuesta.
+ *
+ * @param <T> Tipo del valor.
+ */
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class Resultado<T> {
+
+    private final int status;
+    private final String message;
+    private final T valor;
+
+    public static <T> Resultado<T> ok(T valor) {
+        return new Resultado<>(200, null, valor);
+    }
+
+    public static <T> Resultado<T> error(int status, String message) {
+        return new Resultado<>(status, message, null);
+    }
+
+    public boolean isExitoso() {
+        return status == 200;
+    }
+}
@@ -0,0 +1,20 @@
+package co.com.capacitanet.model.usuario;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Usuario cuyas credenciales ya fueron verificadas, junto con la versión del registro que se leyó.
+ * Las modificaciones se escriben sobre esa misma lectura y solo se aplican si el registro no cambió
+ * desde la verificación.
+ */
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class UsuarioVerificado {
+
+    private final Usuario usuario;
+    private final Long version;
+
+}
@@ -0,0 +1,11 @@
+package co.com.capacitanet.model.usuario.gateways;
+
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.model.usuario.Usuario;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface UsuarioAsyncRepository {
+
+    CompletableFuture<Resultado<Usuario>> perfilUsuario(String userId);
+}
@@ -2,22 +2,29 @@ package co.com.capacitanet.model.usuario.gateways;
 
 import co.com.capacitanet.model.curso.VerModulo;
 import co.com.capacitanet.model.response.ResponseApp;
-import co.com.capacitanet.model.usuario.ChangePassword;
+import co.com.capacitanet.model.response.Resultado;
 import co.com.capacitanet.model.usuario.Usuario;
+import co.com.capacitanet.model.usuario.UsuarioVerificado;
+
+import java.util.List;
 
 public interface UsuarioRepository {
 
     ResponseApp registrarUsuario(Usuario usuario);
 
-    ResponseApp actualizarUsuario(ChangePassword usuario);
+    ResponseApp actualizarUsuario(UsuarioVerificado usuario, String passwordNueva);
 
-    ResponseApp perfilUsuario(String userId);
+    Resultado<Usuario> perfilUsuario(String userId);
 
     ResponseApp login(Usuario usuario);
 
-    ResponseApp eliminarUsuario(Usuario usuario);
+    Resultado<UsuarioVerificado> verificarCredenciales(String username, String password);
+
+    ResponseApp eliminarUsuario(UsuarioVerificado usuario);
 
     ResponseApp suscribirCurso(String userId, String idCurso);
 
     ResponseApp verModulo(String userId, VerModulo verModulo);
+
+    ResponseApp verModulos(String userId, List<VerModulo> eventos);
 }
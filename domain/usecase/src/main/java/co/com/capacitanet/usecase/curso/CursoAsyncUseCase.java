@@ -0,0 +1,52 @@
+package co.com.capacitanet.usecase.curso;
+
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.gateways.CursoAsyncRepository;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Consultas de cursos que no bloquean al llamador: cada operación devuelve un futuro que se completa
+ * cuando llega la respuesta de la base de datos.
+ */
+@RequiredArgsConstructor
+public class CursoAsyncUseCase {
+
+    private final CursoAsyncRepository cursoAsyncRepository;
+
+    /**
+     * Obtiene la URL de descarga de un recurso de un curso.
+     *
+     * @param cursoId   ID del curso al que pertenece el recurso.
+     * @param recursoId ID del recurso.
+     * @param userId    ID del usuario que solicita la URL.
+     * @return Futuro con la URL prefirmada del recurso.
+     */
+    public CompletableFuture<ResponseApp> obtenerUrlRecurso(String cursoId, String recursoId, String userId) {
+        return cursoAsyncRepository.obtenerUrlRecurso(cursoId, recursoId, userId);
+    }
+
+    /**
+     * Obtiene las URLs de descarga de todos los recursos de un curso.
+     *
+     * @param cursoId ID del curso.
+     * @param userId  ID del usuario que solicita las URLs.
+     * @return Futuro con las URLs prefirmadas de los recursos del curso.
+     */
+    public CompletableFuture<ResponseApp> obtenerUrlsRecursos(String cursoId, String userId) {
+        return cursoAsyncRepository.obtenerUrlsRecursos(cursoId, userId);
+    }
+
+    /**
+     * Obtiene las estadísticas de un curso: suscriptores, usuarios que lo completaron y módulos visualizados.
+     *
+     * @param cursoId ID del curso.
+     * @return Futuro con las estadísticas del curso.
+     */
+    public CompletableFuture<Resultado<EstadisticasCurso>> obtenerEstadisticas(String cursoId) {
+        return cursoAsyncRepository.obtenerEstadisticas(cursoId);
+    }
+}
@@ -1,12 +1,17 @@
 package co.com.capacitanet.usecase.curso;
 
+import co.com.capacitanet.model.curso.Archivo;
 import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.Ingesta;
 import co.com.capacitanet.model.curso.Recurso;
 import co.com.capacitanet.model.curso.gateways.CursoRepository;
 import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
 import lombok.RequiredArgsConstructor;
 
-import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Clase que contiene la lógica de negocio relacionada con los cursos.
@@ -28,14 +33,15 @@ public class CursoUseCase {
     }
 
     /**
-     * Obtiene la lista de cursos asociados a un usuario.
+     * Recorre los cursos asociados a un usuario, entregándolos uno a uno a medida que se leen.
      *
-     * @param userId ID del usuario para el cual se obtendrán los cursos.
-     * @param estado Estado de los cursos a filtrar (activos/inactivos).
-     * @return Respuesta con la lista de cursos obtenidos.
+     * @param userId     ID del usuario para el cual se obtendrán los cursos.
+     * @param estado     Estado de los cursos a filtrar (activos/inactivos).
+     * @param consumidor Recibe cada curso obtenido.
+     * @return Resultado de la consulta; si no es exitoso, el consumidor pudo haber recibido solo parte de los cursos.
      */
-    public ResponseApp obtenerCursos(String userId, boolean estado) {
-        return cursoRepository.obtenerCursos(userId, estado);
+    public Resultado<Void> obtenerCursos(String userId, boolean estado, Consumer<Curso> consumidor) {
+        return cursoRepository.obtenerCursos(userId, estado, consumidor);
     }
 
     /**
@@ -43,11 +49,25 @@ public class CursoUseCase {
      *
      * @param cursoId ID del curso al que se agregará el recurso.
      * @param recurso Objeto Recurso con la información del recurso a agregar.
-     * @param file    Archivo asociado al recurso.
+     * @param archivo Archivo asociado al recurso.
      * @return Respuesta indicando el resultado de la operación.
      */
-    public ResponseApp agregarRecurso(String cursoId, Recurso recurso, File file) {
-        return cursoRepository.agregarRecurso(cursoId, recurso, file);
+    public ResponseApp agregarRecurso(String cursoId, Recurso recurso, Archivo archivo) {
+        return cursoRepository.agregarRecurso(cursoId, recurso, archivo);
+    }
+
+    /**
+     * Agrega un recurso a un curso sin bloquear al llamador mientras se transfiere el archivo.
+     *
+     * @param cursoId ID del curso al que se agregará el recurso.
+     * @param recurso Objeto Recurso con la información del recurso a agregar.
+     * @param archivo Archivo asociado al recurso, ya recibido por completo.
+     * @param ingesta Estado de la ingesta, donde se reporta el progreso de la transferencia.
+     * @return Futuro con la respuesta de la operación.
+     */
+    public CompletableFuture<ResponseApp> agregarRecursoAsync(String cursoId, Recurso recurso, Archivo archivo,
+                                                             Ingesta ingesta) {
+        return cursoRepository.agregarRecursoAsync(cursoId, recurso, archivo, ingesta);
     }
 
     /**
@@ -61,4 +81,37 @@ public class CursoUseCase {
         return cursoRepository.activarCurso(cursoId, userId);
     }
 
+    /**
+     * Obtiene la URL de descarga de un recurso de un curso.
+     *
+     * @param cursoId   ID del curso al que pertenece el recurso.
+     * @param recursoId ID del recurso.
+     * @param userId    ID del usuario que solicita la URL.
+     * @return Respuesta con la URL prefirmada del recurso.
+     */
+    public ResponseApp obtenerUrlRecurso(String cursoId, String recursoId, String userId) {
+        return cursoRepository.obtenerUrlRecurso(cursoId, recursoId, userId);
+    }
+
+    /**
+     * Obtiene las URLs de descarga de todos los recursos de un curso.
+     *
+     * @param cursoId ID del curso.
+     * @param userId  ID del usuario que solicita las URLs.
+     * @return Respuesta con las URLs prefirmadas de los recursos del curso.
+     */
+    public ResponseApp obtenerUrlsRecursos(String cursoId, String userId) {
+        return cursoRepository.obtenerUrlsRecursos(cursoId, userId);
+    }
+
+    /**
+     * Obtiene las estadísticas de un curso: suscriptores, usuarios que lo completaron y módulos visualizados.
+     *
+     * @param cursoId ID del curso.
+     * @return Resultado con las estadísticas del curso.
+     */
+    public Resultado<EstadisticasCurso> obtenerEstadisticas(String cursoId) {
+        return cursoRepository.obtenerEstadisticas(cursoId);
+    }
+
 }
@@ -0,0 +1,28 @@
+package co.com.capacitanet.usecase.usuario;
+
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.model.usuario.Usuario;
+import co.com.capacitanet.model.usuario.gateways.UsuarioAsyncRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Consultas de usuarios que no bloquean al llamador: cada operación devuelve un futuro que se completa
+ * cuando llega la respuesta de la base de datos.
+ */
+@RequiredArgsConstructor
+public class UsuarioAsyncUseCase {
+
+    private final UsuarioAsyncRepository usuarioAsyncRepository;
+
+    /**
+     * Obtiene el perfil de un usuario por su ID.
+     *
+     * @param userId ID del usuario a buscar.
+     * @return Futuro con el perfil del usuario.
+     */
+    public CompletableFuture<Resultado<Usuario>> perfilUsuario(String userId) {
+        return usuarioAsyncRepository.perfilUsuario(userId);
+    }
+}
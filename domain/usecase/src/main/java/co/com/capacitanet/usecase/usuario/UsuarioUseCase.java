@@ -2,8 +2,10 @@ package co.com.capacitanet.usecase.usuario;
 
 import co.com.capacitanet.model.curso.VerModulo;
 import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
 import co.com.capacitanet.model.usuario.ChangePassword;
 import co.com.capacitanet.model.usuario.Usuario;
+import co.com.capacitanet.model.usuario.UsuarioVerificado;
 import co.com.capacitanet.model.usuario.gateways.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 
@@ -19,6 +21,7 @@ public class UsuarioUseCase {
     private final UsuarioRepository usuarioRepository;
 
     private static final List<String> ALLOWED_DOMAINS = List.of("@bancodebogota.com.co");
+    private static final int MAXIMO_EVENTOS = 500;
 
 
     /**
@@ -52,46 +55,43 @@ public class UsuarioUseCase {
     }
 
     /**
-     * Actualiza la información de un usuario existente.
+     * Actualiza la contraseña de un usuario existente. Las credenciales actuales se verifican sobre
+     * la misma lectura en que luego se escribe la nueva contraseña.
      *
      * @param usuario Objeto ChangePassword con la información del usuario y la nueva contraseña.
      * @return Respuesta indicando el resultado de la operación.
      */
     public ResponseApp actualizarUsuario(ChangePassword usuario) {
-        Usuario usuario1 = Usuario.builder()
-                .username(usuario.getUsername())
-                .password(usuario.getPassword())
-                .build();
-        ResponseApp token = usuarioRepository.login(usuario1);
-        if (token.getMessage().split("\\.").length == 3) {
-            return usuarioRepository.actualizarUsuario(usuario);
-        } else {
-            return ResponseApp.builder().status(401).message("Cambios no autorizados").build();
+        Resultado<UsuarioVerificado> verificado =
+                usuarioRepository.verificarCredenciales(usuario.getUsername(), usuario.getPassword());
+        if (!verificado.isExitoso()) {
+            return noAutorizado(verificado);
         }
+        return usuarioRepository.actualizarUsuario(verificado.getValor(), usuario.getPasswordNew());
     }
 
     /**
-     * Elimina (desactiva) un usuario existente.
+     * Elimina (desactiva) un usuario existente, previa verificación de sus credenciales.
      *
      * @param usuario Objeto Usuario con la información del usuario a eliminar.
      * @return Respuesta indicando el resultado de la operación.
      */
     public ResponseApp eliminarUsuario(Usuario usuario) {
-        ResponseApp token = usuarioRepository.login(usuario);
-        if (token.getMessage().split("\\.").length == 3) {
-            return usuarioRepository.eliminarUsuario(usuario);
-        } else {
-            return ResponseApp.builder().status(401).message("Cambios no autorizados").build();
+        Resultado<UsuarioVerificado> verificado =
+                usuarioRepository.verificarCredenciales(usuario.getUsername(), usuario.getPassword());
+        if (!verificado.isExitoso()) {
+            return noAutorizado(verificado);
         }
+        return usuarioRepository.eliminarUsuario(verificado.getValor());
     }
 
     /**
      * Obtiene el perfil de un usuario por su ID.
      *
      * @param userId ID del usuario a buscar.
-     * @return Respuesta con la información del perfil del usuario.
+     * @return Resultado con el perfil del usuario.
      */
-    public ResponseApp perfilUsuario(String userId) {
+    public Resultado<Usuario> perfilUsuario(String userId) {
         return usuarioRepository.perfilUsuario(userId);
     }
 
@@ -126,4 +126,30 @@ public class UsuarioUseCase {
     public ResponseApp verModulo(String userId, VerModulo verModulo) {
         return usuarioRepository.verModulo(userId, verModulo);
     }
+
+    /**
+     * Registra varios módulos visualizados por un usuario en una sola solicitud. Los eventos se
+     * escriben en lotes, por lo que la respuesta solo confirma que fueron recibidos.
+     *
+     * @param userId  ID del usuario que visualizó los módulos.
+     * @param eventos Módulos visualizados, hasta 500 por solicitud.
+     * @return Respuesta indicando el resultado de la operación.
+     */
+    public ResponseApp verModulos(String userId, List<VerModulo> eventos) {
+        if (eventos == null || eventos.isEmpty()) {
+            return ResponseApp.builder().status(400).message("No hay módulos para registrar").build();
+        }
+        if (eventos.size() > MAXIMO_EVENTOS) {
+            return ResponseApp.builder().status(400)
+                    .message("Se permiten hasta " + MAXIMO_EVENTOS + " módulos por solicitud").build();
+        }
+        return usuarioRepository.verModulos(userId, eventos);
+    }
+
+    private static ResponseApp noAutorizado(Resultado<UsuarioVerificado> verificado) {
+        if (verificado.getStatus() >= 500) {
+            return ResponseApp.builder().status(verificado.getStatus()).message(verificado.getMessage()).build();
+        }
+        return ResponseApp.builder().status(401).message("Cambios no autorizados").build();
+    }
 }
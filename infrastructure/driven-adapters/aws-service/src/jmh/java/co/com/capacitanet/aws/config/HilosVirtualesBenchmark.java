@@ -0,0 +1,132 @@
+package co.com.capacitanet.aws.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el pool fijo de workers de Undertow con un hilo virtual por solicitud cuando llegan muchas
+ * solicitudes a la vez. Cada solicitud hace dos lecturas bloqueantes con {@link DynamoDbClient} contra un
+ * servidor local que responde con la latencia configurada, como lo haría el perfil de un usuario. El pool de
+ * plataforma tiene el tamaño por defecto de Undertow (8 workers por núcleo) y el cliente HTTP es el de la
+ * aplicación, con un pool de {@code conexiones} acotado por {@link ConexionesHttpAcotadas}.
+ * <p>
+ * Cada operación es una ráfaga de {@code concurrencia} solicitudes; el resultado es el tiempo hasta que
+ * termina la última. Se ejecuta con {@code gradle :aws-service:jmh -Pjmh.includes=HilosVirtualesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HilosVirtualesBenchmark {
+
+    private static final String RESPUESTA = "{\"Item\":{\"username\":{\"S\":\"usuario\"}}}";
+
+    @Param({"plataforma", "virtuales"})
+    private String hilos;
+
+    @Param({"200", "2000"})
+    private int concurrencia;
+
+    @Param({"10"})
+    private int latenciaMs;
+
+    @Param({"200"})
+    private int conexiones;
+
+    private HttpServer servidor;
+    private ExecutorService solicitudes;
+    private SdkHttpClient http;
+    private DynamoDbClient client;
+
+    @Setup
+    public void preparar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), conexiones);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/", intercambio -> {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] cuerpo = RESPUESTA.getBytes(StandardCharsets.UTF_8);
+            intercambio.getRequestBody().readAllBytes();
+            intercambio.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+
+        http = new ConexionesHttpAcotadas(ApacheHttpClient.builder().maxConnections(conexiones).build(),
+                conexiones, Duration.ofMinutes(1));
+        client = DynamoDbClient.builder()
+                .httpClient(http)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("clave", "secreto")))
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create("http://127.0.0.1:" + servidor.getAddress().getPort()))
+                .build();
+        solicitudes = "virtuales".equals(hilos)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(Math.max(Runtime.getRuntime().availableProcessors(), 2) * 8);
+    }
+
+    @TearDown
+    public void cerrar() {
+        solicitudes.shutdownNow();
+        client.close();
+        http.close();
+        servidor.stop(0);
+    }
+
+    @Benchmark
+    public int rafaga() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> pendientes = new ArrayList<>(concurrencia);
+        for (int i = 0; i < concurrencia; i++) {
+            String username = "usuario" + i;
+            pendientes.add(solicitudes.submit(() -> solicitud(username)));
+        }
+        int atributos = 0;
+        for (Future<Integer> pendiente : pendientes) {
+            atributos += pendiente.get();
+        }
+        return atributos;
+    }
+
+    private int solicitud(String username) {
+        Map<String, AttributeValue> llave = Map.of("username", AttributeValue.builder().s(username).build());
+        int perfil = client.getItem(builder -> builder.tableName("capacitanet_user").key(llave)).item().size();
+        int suscripciones = client.getItem(builder -> builder.tableName("capacitanet_suscripciones").key(llave))
+                .item().size();
+        return perfil + suscripciones;
+    }
+}
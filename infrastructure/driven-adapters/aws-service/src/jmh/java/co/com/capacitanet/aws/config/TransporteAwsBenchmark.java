@@ -0,0 +1,237 @@
+package co.com.capacitanet.aws.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compara los perfiles de transporte de {@link TransporteAws} leyendo un registro de DynamoDB desde 64 hilos a
+ * la vez: {@code rendimiento} mide las lecturas por segundo y {@code latencia} la distribución del tiempo de
+ * cada lectura, con sus percentiles; {@code rendimiento:fallidas} cuenta las lecturas que terminaron en
+ * error, que se miden igual que las exitosas. Los perfiles difieren en el cliente HTTP (Apache síncrono o Netty
+ * asíncrono), el tamaño del pool, el keep-alive de TCP y el modo de reintentos.
+ * <p>
+ * Sin {@code endpoint} las lecturas van a un servidor local que responde con la latencia configurada y
+ * rechaza por límite de capacidad el porcentaje {@code limitados} de los primeros intentos, para ver el
+ * efecto de los reintentos. Con {@code endpoint} van a esa instancia de DynamoDB Local, donde se crea la
+ * tabla del benchmark si no existe; ahí {@code latenciaMs} y {@code limitados} no aplican. Se ejecuta con
+ * {@code gradle :aws-service:jmhJar} y
+ * {@code java -jar aws-service/build/libs/aws-service-jmh.jar TransporteAwsBenchmark -p endpoint=http://localhost:8000}.
+ */
+@State(Scope.Benchmark)
+@Threads(64)
+public class TransporteAwsBenchmark {
+
+    private static final String TABLA = "capacitanet_benchmark";
+    private static final String USERNAME = "username";
+    private static final String RESPUESTA = "{\"Item\":{\"username\":{\"S\":\"usuario\"},\"perfil\":{\"S\":\"{}\"}}}";
+    private static final String LIMITE = "{\"__type\":\"com.amazonaws.dynamodb.v20120810#ThrottlingException\","
+            + "\"message\":\"Rate of requests exceeds the allowed throughput.\"}";
+
+    @Param({"apache-50", "apache-200", "apache-200-adaptativo", "netty-200"})
+    private String perfil;
+
+    @Param({"0", "20"})
+    private int limitados;
+
+    @Param({"5"})
+    private int latenciaMs;
+
+    @Param({""})
+    private String endpoint;
+
+    private final AtomicInteger primerosIntentos = new AtomicInteger();
+    private HttpServer servidor;
+    private SdkHttpClient http;
+    private DynamoDbClient sincrono;
+    private DynamoDbAsyncClient asincrono;
+    private GetItemRequest lectura;
+
+    @Setup
+    public void preparar() throws IOException {
+        URI destino = endpoint.isEmpty() ? iniciarServidor() : URI.create(endpoint);
+        TransporteAws transporte = switch (perfil) {
+            case "apache-50" -> transporte(50, false, RetryMode.STANDARD);
+            case "apache-200", "netty-200" -> transporte(200, true, RetryMode.STANDARD);
+            case "apache-200-adaptativo" -> transporte(200, true, RetryMode.ADAPTIVE_V2);
+            default -> throw new IllegalArgumentException("Perfil desconocido: " + perfil);
+        };
+        ClientOverrideConfiguration configuracion = transporte.configuracion(Duration.ofSeconds(10), Duration.ofSeconds(3));
+        StaticCredentialsProvider credenciales = StaticCredentialsProvider.create(AwsBasicCredentials.create("clave", "secreto"));
+
+        http = transporte.clienteSincrono();
+        sincrono = DynamoDbClient.builder()
+                .httpClient(http)
+                .overrideConfiguration(configuracion)
+                .credentialsProvider(credenciales)
+                .region(Region.US_EAST_1)
+                .endpointOverride(destino)
+                .build();
+        if (!endpoint.isEmpty()) {
+            prepararTabla();
+        }
+        if (perfil.startsWith("netty")) {
+            asincrono = DynamoDbAsyncClient.builder()
+                    .httpClientBuilder(transporte.clienteAsincrono(200, 10000))
+                    .overrideConfiguration(configuracion)
+                    .credentialsProvider(credenciales)
+                    .region(Region.US_EAST_1)
+                    .endpointOverride(destino)
+                    .build();
+        }
+        lectura = GetItemRequest.builder()
+                .tableName(TABLA)
+                .key(Map.of(USERNAME, AttributeValue.builder().s("usuario").build()))
+                .build();
+    }
+
+    @TearDown
+    public void cerrar() {
+        if (asincrono != null) {
+            asincrono.close();
+        }
+        sincrono.close();
+        http.close();
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+    }
+
+    /**
+     * Cuenta por segundo las lecturas que terminaron en error.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Fallos {
+        public long fallidas;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int rendimiento(Fallos fallos) {
+        int atributos = leer();
+        if (atributos < 0) {
+            fallos.fallidas++;
+        }
+        return atributos;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int latencia() {
+        return leer();
+    }
+
+    /**
+     * Una lectura que falla, por ejemplo al agotar su tiempo máximo, cuenta con el tiempo que tardó en fallar.
+     */
+    private int leer() {
+        try {
+            return asincrono != null
+                    ? asincrono.getItem(lectura).join().item().size()
+                    : sincrono.getItem(lectura).item().size();
+        } catch (SdkException | CompletionException e) {
+            return -1;
+        }
+    }
+
+    private static TransporteAws transporte(int conexiones, boolean tcpKeepAlive, RetryMode modo) {
+        return new TransporteAws(conexiones, Duration.ofSeconds(10), Duration.ofSeconds(2), Duration.ofSeconds(30),
+                Duration.ofSeconds(60), Duration.ZERO, tcpKeepAlive, modo, 3);
+    }
+
+    private URI iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 200);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/", intercambio -> {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            intercambio.getRequestBody().readAllBytes();
+            if (limitar(intercambio)) {
+                responder(intercambio, 400, LIMITE);
+            } else {
+                responder(intercambio, 200, RESPUESTA);
+            }
+        });
+        servidor.start();
+        return URI.create("http://127.0.0.1:" + servidor.getAddress().getPort());
+    }
+
+    /**
+     * Solo se rechazan primeros intentos, de modo que cada lectura termina bien dentro de sus reintentos.
+     */
+    private boolean limitar(HttpExchange intercambio) {
+        String intento = intercambio.getRequestHeaders().getFirst("amz-sdk-request");
+        return intento != null && intento.startsWith("attempt=1;")
+                && primerosIntentos.getAndIncrement() % 100 < limitados;
+    }
+
+    private static void responder(HttpExchange intercambio, int status, String json) throws IOException {
+        byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+        intercambio.sendResponseHeaders(status, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    private void prepararTabla() {
+        try {
+            sincrono.describeTable(builder -> builder.tableName(TABLA));
+        } catch (ResourceNotFoundException e) {
+            sincrono.createTable(builder -> builder.tableName(TABLA)
+                    .keySchema(KeySchemaElement.builder().attributeName(USERNAME).keyType(KeyType.HASH).build())
+                    .attributeDefinitions(AttributeDefinition.builder()
+                            .attributeName(USERNAME).attributeType(ScalarAttributeType.S).build())
+                    .billingMode(BillingMode.PAY_PER_REQUEST));
+            sincrono.waiter().waitUntilTableExists(builder -> builder.tableName(TABLA));
+        }
+        sincrono.putItem(builder -> builder.tableName(TABLA).item(Map.of(
+                USERNAME, AttributeValue.builder().s("usuario").build(),
+                "perfil", AttributeValue.builder().s("{}").build())));
+    }
+}
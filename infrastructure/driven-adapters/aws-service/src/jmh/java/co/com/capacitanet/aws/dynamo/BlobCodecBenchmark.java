@@ -0,0 +1,115 @@
+package co.com.capacitanet.aws.dynamo;
+
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la codificación de los datos de un curso como JSON de texto y como Smile comprimido.
+ * Además del tiempo de cada operación, las de codificación reportan en {@code codificarJson:bytes} y
+ * {@code codificarSmile:bytes} el tamaño del atributo resultante, que determina las unidades de lectura y
+ * escritura que consume en DynamoDB.
+ * <p>
+ * Se ejecuta con {@code gradle :aws-service:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlobCodecBenchmark {
+
+    @Param({"5", "50"})
+    private int recursos;
+
+    private Curso curso;
+    private BlobCodec json;
+    private BlobCodec smile;
+    private AttributeValue cursoJson;
+    private AttributeValue cursoSmile;
+    private int bytesJson;
+    private int bytesSmile;
+
+    @Setup
+    public void preparar() throws IOException {
+        curso = curso(recursos);
+        json = new BlobCodec(BlobCodec.Formato.JSON, 1024);
+        smile = new BlobCodec(BlobCodec.Formato.SMILE, 1024);
+        cursoJson = json.codificar(curso);
+        cursoSmile = smile.codificar(curso);
+        bytesJson = cursoJson.s().getBytes(StandardCharsets.UTF_8).length;
+        bytesSmile = cursoSmile.b().asByteArrayUnsafe().length;
+    }
+
+    /**
+     * Tamaño en bytes del atributo codificado, que se reporta junto al tiempo de cada iteración.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamano {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public AttributeValue codificarJson(Tamano tamano) throws IOException {
+        tamano.bytes = bytesJson;
+        return json.codificar(curso);
+    }
+
+    @Benchmark
+    public AttributeValue codificarSmile(Tamano tamano) throws IOException {
+        tamano.bytes = bytesSmile;
+        return smile.codificar(curso);
+    }
+
+    @Benchmark
+    public Curso decodificarJson() throws IOException {
+        return json.decodificar(cursoJson, Curso.class);
+    }
+
+    @Benchmark
+    public Curso decodificarSmile() throws IOException {
+        return smile.decodificar(cursoSmile, Curso.class);
+    }
+
+    private static Curso curso(int cantidad) {
+        List<Recurso> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(Recurso.builder()
+                    .id("7c9e6679-7425-40de-944b-e07fc1f90a" + String.format("%02d", i))
+                    .order(i)
+                    .tipo(i % 3 == 0 ? "documento" : "video")
+                    .nombre("Módulo " + i + " - Introducción al tema " + i + ".mp4")
+                    .s3Key("recursos/sha256/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a0" + i % 10 + ".mp4")
+                    .build());
+        }
+        return Curso.builder()
+                .cursoId("b3f1c2d4-5e6f-4a7b-8c9d-0e1f2a3b4c5d")
+                .titulo("Fundamentos de seguridad de la información")
+                .descripcion("Curso obligatorio sobre políticas, clasificación de la información y respuesta a incidentes.")
+                .creadorUsername("instructor@capacitanet.com")
+                .active(true)
+                .tags(List.of("seguridad", "obligatorio", "cumplimiento"))
+                .recursos(lista)
+                .build();
+    }
+}
@@ -1,24 +1,55 @@
 package co.com.capacitanet.aws.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class AWSConfig {
 
+    /**
+     * Cliente HTTP del cliente síncrono de DynamoDB, con los ajustes de {@link TransporteAws} y su propio pool.
+     */
+    @Bean
+    public SdkHttpClient dynamoDbHttpClient(@Value("${aws.dynamodb.conexiones:${aws.http.conexiones:50}}") int conexiones,
+                                            TransporteAws transporte) {
+        return transporte.clienteSincrono(conexiones);
+    }
+
+    /**
+     * Cliente HTTP del cliente síncrono de S3, separado del de DynamoDB para que las cargas largas no ocupen
+     * las conexiones de las consultas.
+     */
+    @Bean
+    public SdkHttpClient s3HttpClient(@Value("${aws.s3.conexiones:${aws.http.conexiones:50}}") int conexiones,
+                                      TransporteAws transporte) {
+        return transporte.clienteSincrono(conexiones);
+    }
+
     @Bean
     public DynamoDbClient amazonDynamoDBLocal(@Value("${aws.region}") String region,
-                                              @Value("${aws.dynamodb.endpoint}") String endpoint) {
+                                              @Value("${aws.dynamodb.endpoint}") String endpoint,
+                                              @Value("${aws.dynamodb.timeout-llamada:PT10S}") Duration timeoutLlamada,
+                                              @Value("${aws.dynamodb.timeout-intento:PT3S}") Duration timeoutIntento,
+                                              @Qualifier("dynamoDbHttpClient") SdkHttpClient httpClient,
+                                              TransporteAws transporte) {
         return DynamoDbClient.builder()
+                .httpClient(httpClient)
+                .overrideConfiguration(transporte.configuracion(timeoutLlamada, timeoutIntento))
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(System.getenv("AWS_ACCESS_KEY_ID_DYNAMO"),
                                 System.getenv("AWS_SECRET_ACCESS_KEY_DYNAMO"))
@@ -28,14 +59,74 @@ public class AWSConfig {
                 .build();
     }
 
+    /**
+     * Cliente asíncrono de DynamoDB para las consultas que no bloquean al llamador. Las solicitudes que
+     * exceden las conexiones esperan en la cola del cliente Netty, no en un hilo.
+     */
     @Bean
-    public S3Client s3Client(@Value("${aws.region}") String region) {
+    public DynamoDbAsyncClient dynamoDbAsyncClient(@Value("${aws.region}") String region,
+                                                   @Value("${aws.dynamodb.endpoint}") String endpoint,
+                                                   @Value("${aws.dynamodb.async.conexiones:200}") int conexiones,
+                                                   @Value("${aws.dynamodb.async.pendientes:10000}") int pendientes,
+                                                   @Value("${aws.dynamodb.timeout-llamada:PT10S}") Duration timeoutLlamada,
+                                                   @Value("${aws.dynamodb.timeout-intento:PT3S}") Duration timeoutIntento,
+                                                   TransporteAws transporte) {
+        return DynamoDbAsyncClient.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(System.getenv("AWS_ACCESS_KEY_ID_DYNAMO"),
+                                System.getenv("AWS_SECRET_ACCESS_KEY_DYNAMO"))
+                ))
+                .region(Region.of(region))
+                .endpointOverride(URI.create(endpoint))
+                .httpClientBuilder(transporte.clienteAsincrono(conexiones, pendientes))
+                .overrideConfiguration(transporte.configuracion(timeoutLlamada, timeoutIntento))
+                .build();
+    }
+
+    /**
+     * Cliente síncrono de S3. Por defecto sus llamadas no tienen tiempo máximo, porque una carga dura lo que
+     * tarde en transferirse el archivo.
+     */
+    @Bean
+    public S3Client s3Client(@Value("${aws.region}") String region,
+                             @Value("${aws.s3.timeout-llamada:PT0S}") Duration timeoutLlamada,
+                             @Value("${aws.s3.timeout-intento:PT0S}") Duration timeoutIntento,
+                             @Qualifier("s3HttpClient") SdkHttpClient httpClient,
+                             TransporteAws transporte) {
         return S3Client.builder()
+                .httpClient(httpClient)
+                .overrideConfiguration(transporte.configuracion(timeoutLlamada, timeoutIntento))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(System.getenv("AWS_ACCESS_KEY_ID_S3"),
+                                System.getenv("AWS_SECRET_ACCESS_KEY_S3"))
+                ))
+                .region(Region.of(region))
+                .build();
+    }
+
+    @Bean
+    public S3AsyncClient s3AsyncClient(@Value("${aws.region}") String region,
+                                       @Value("${aws.s3.async.conexiones:32}") int conexiones,
+                                       @Value("${aws.s3.async.pendientes:10000}") int pendientes,
+                                       @Value("${aws.s3.timeout-llamada:PT0S}") Duration timeoutLlamada,
+                                       @Value("${aws.s3.timeout-intento:PT0S}") Duration timeoutIntento,
+                                       TransporteAws transporte) {
+        return S3AsyncClient.builder()
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(System.getenv("AWS_ACCESS_KEY_ID_S3"),
                                 System.getenv("AWS_SECRET_ACCESS_KEY_S3"))
                 ))
                 .region(Region.of(region))
+                .httpClientBuilder(transporte.clienteAsincrono(conexiones, pendientes))
+                .overrideConfiguration(transporte.configuracion(timeoutLlamada, timeoutIntento))
+                .multipartEnabled(true)
+                .build();
+    }
+
+    @Bean
+    public S3TransferManager s3TransferManager(S3AsyncClient s3AsyncClient) {
+        return S3TransferManager.builder()
+                .s3Client(s3AsyncClient)
                 .build();
     }
 
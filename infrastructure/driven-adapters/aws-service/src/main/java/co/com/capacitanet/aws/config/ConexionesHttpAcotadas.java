@@ -0,0 +1,123 @@
+package co.com.capacitanet.aws.config;
+
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cliente HTTP síncrono del SDK que limita las solicitudes en curso al tamaño del pool de conexiones del
+ * cliente que envuelve. El cliente Apache espera una conexión libre dentro de un bloque {@code synchronized},
+ * lo que fija un hilo virtual a su portador mientras dura la espera; con este límite esa espera nunca ocurre,
+ * porque quien no tiene permiso espera en un semáforo, que sí libera al portador.
+ * <p>
+ * El permiso se conserva hasta que se cierra o aborta el cuerpo de la respuesta, que es cuando la conexión
+ * vuelve al pool. Si no se obtiene un permiso dentro de la espera configurada, la solicitud falla con una
+ * {@link IOException}, igual que al agotarse la espera de una conexión, y el SDK la reintenta.
+ */
+public class ConexionesHttpAcotadas implements SdkHttpClient {
+
+    private final SdkHttpClient delegado;
+    private final Semaphore permisos;
+    private final long esperaNanos;
+
+    /**
+     * Constructor de la clase ConexionesHttpAcotadas.
+     *
+     * @param delegado   Cliente HTTP que envía las solicitudes.
+     * @param conexiones Número máximo de conexiones del pool del delegado.
+     * @param espera     Tiempo máximo que una solicitud espera una conexión libre.
+     */
+    public ConexionesHttpAcotadas(SdkHttpClient delegado, int conexiones, Duration espera) {
+        this.delegado = delegado;
+        this.permisos = new Semaphore(conexiones, true);
+        this.esperaNanos = espera.toNanos();
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+        ExecutableHttpRequest ejecutable = delegado.prepareRequest(request);
+        return new ExecutableHttpRequest() {
+            @Override
+            public HttpExecuteResponse call() throws IOException {
+                return ejecutar(ejecutable);
+            }
+
+            @Override
+            public void abort() {
+                ejecutable.abort();
+            }
+        };
+    }
+
+    private HttpExecuteResponse ejecutar(ExecutableHttpRequest ejecutable) throws IOException {
+        try {
+            if (!permisos.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                throw new IOException("Tiempo de espera agotado para obtener una conexión HTTP");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido mientras esperaba una conexión HTTP", e);
+        }
+        AtomicBoolean liberado = new AtomicBoolean();
+        Runnable liberar = () -> {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release();
+            }
+        };
+        try {
+            HttpExecuteResponse response = ejecutable.call();
+            if (response.responseBody().isEmpty()) {
+                liberar.run();
+                return response;
+            }
+            AbortableInputStream cuerpo = response.responseBody().get();
+            return HttpExecuteResponse.builder()
+                    .response(response.httpResponse())
+                    .responseBody(AbortableInputStream.create(new FilterInputStream(cuerpo) {
+                        @Override
+                        public void close() throws IOException {
+                            try {
+                                super.close();
+                            } finally {
+                                liberar.run();
+                            }
+                        }
+                    }, () -> {
+                        cuerpo.abort();
+                        liberar.run();
+                    }))
+                    .build();
+        } catch (IOException | RuntimeException | Error e) {
+            liberar.run();
+            throw e;
+        }
+    }
+
+    /**
+     * Permisos disponibles, es decir, conexiones que pueden usarse sin esperar.
+     *
+     * @return Número de permisos libres.
+     */
+    public int disponibles() {
+        return permisos.availablePermits();
+    }
+
+    @Override
+    public String clientName() {
+        return delegado.clientName();
+    }
+
+    @Override
+    public void close() {
+        delegado.close();
+    }
+}
@@ -0,0 +1,141 @@
+package co.com.capacitanet.aws.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+
+import java.time.Duration;
+
+/**
+ * Configuración del transporte de los clientes de AWS: el pool de conexiones, los tiempos de espera de
+ * conexión y lectura, el keep-alive de TCP y la estrategia de reintentos. Los clientes síncronos usan el
+ * cliente HTTP de Apache y los asíncronos el de Netty, ambos con los mismos ajustes. Cada servicio crea su
+ * propio cliente HTTP, con su propio pool, para que las solicitudes de uno no agoten las conexiones del otro.
+ */
+@Component
+public class TransporteAws {
+
+    private final int conexiones;
+    private final Duration esperaConexion;
+    private final Duration timeoutConexion;
+    private final Duration timeoutLectura;
+    private final Duration inactividadMaxima;
+    private final Duration vidaConexion;
+    private final boolean tcpKeepAlive;
+    private final RetryMode modoReintentos;
+    private final int intentos;
+
+    /**
+     * Constructor de la clase TransporteAws.
+     *
+     * @param conexiones        Número de conexiones por defecto de los clientes síncronos.
+     * @param esperaConexion    Tiempo máximo que una solicitud espera una conexión libre.
+     * @param timeoutConexion   Tiempo máximo para establecer una conexión TCP.
+     * @param timeoutLectura    Tiempo máximo sin recibir datos de una conexión abierta.
+     * @param inactividadMaxima Tiempo que una conexión puede quedar ociosa en el pool antes de cerrarse.
+     * @param vidaConexion      Tiempo máximo que se reutiliza una conexión; cero para no limitarlo.
+     * @param tcpKeepAlive      Si las conexiones envían sondas de keep-alive de TCP.
+     * @param modoReintentos    Modo de reintentos del SDK: {@code STANDARD}, {@code ADAPTIVE_V2} o {@code LEGACY}.
+     * @param intentos          Número máximo de intentos de cada llamada, incluido el primero.
+     */
+    public TransporteAws(@Value("${aws.http.conexiones:50}") int conexiones,
+                         @Value("${aws.http.espera-conexion:PT10S}") Duration esperaConexion,
+                         @Value("${aws.http.timeout-conexion:PT2S}") Duration timeoutConexion,
+                         @Value("${aws.http.timeout-lectura:PT30S}") Duration timeoutLectura,
+                         @Value("${aws.http.inactividad-maxima:PT60S}") Duration inactividadMaxima,
+                         @Value("${aws.http.vida-conexion:PT0S}") Duration vidaConexion,
+                         @Value("${aws.http.tcp-keepalive:false}") boolean tcpKeepAlive,
+                         @Value("${aws.reintentos.modo:STANDARD}") RetryMode modoReintentos,
+                         @Value("${aws.reintentos.intentos:3}") int intentos) {
+        this.conexiones = conexiones;
+        this.esperaConexion = esperaConexion;
+        this.timeoutConexion = timeoutConexion;
+        this.timeoutLectura = timeoutLectura;
+        this.inactividadMaxima = inactividadMaxima;
+        this.vidaConexion = vidaConexion;
+        this.tcpKeepAlive = tcpKeepAlive;
+        this.modoReintentos = modoReintentos;
+        this.intentos = intentos;
+    }
+
+    /**
+     * Crea un cliente HTTP síncrono con el número de conexiones por defecto.
+     *
+     * @return Cliente HTTP de Apache con los ajustes del transporte.
+     */
+    public SdkHttpClient clienteSincrono() {
+        return clienteSincrono(conexiones);
+    }
+
+    /**
+     * Crea un cliente HTTP síncrono con su propio pool. Las solicitudes en curso se limitan al tamaño del pool
+     * con {@link ConexionesHttpAcotadas}, de modo que esperar una conexión no fija los hilos virtuales.
+     *
+     * @param conexiones Número máximo de conexiones del pool.
+     * @return Cliente HTTP de Apache con los ajustes del transporte.
+     */
+    public SdkHttpClient clienteSincrono(int conexiones) {
+        ApacheHttpClient.Builder builder = ApacheHttpClient.builder()
+                .maxConnections(conexiones)
+                .connectionAcquisitionTimeout(esperaConexion)
+                .connectionTimeout(timeoutConexion)
+                .socketTimeout(timeoutLectura)
+                .connectionMaxIdleTime(inactividadMaxima)
+                .useIdleConnectionReaper(true)
+                .tcpKeepAlive(tcpKeepAlive);
+        if (!vidaConexion.isZero()) {
+            builder.connectionTimeToLive(vidaConexion);
+        }
+        return new ConexionesHttpAcotadas(builder.build(), conexiones, esperaConexion);
+    }
+
+    /**
+     * Crea el constructor del cliente HTTP asíncrono. El cliente lo construye y lo cierra el cliente de AWS
+     * que lo recibe.
+     *
+     * @param concurrencia Número máximo de solicitudes en curso.
+     * @param pendientes   Número máximo de solicitudes que esperan una conexión.
+     * @return Constructor del cliente HTTP de Netty con los ajustes del transporte.
+     */
+    public NettyNioAsyncHttpClient.Builder clienteAsincrono(int concurrencia, int pendientes) {
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(concurrencia)
+                .maxPendingConnectionAcquires(pendientes)
+                .connectionAcquisitionTimeout(esperaConexion)
+                .connectionTimeout(timeoutConexion)
+                .readTimeout(timeoutLectura)
+                .writeTimeout(timeoutLectura)
+                .connectionMaxIdleTime(inactividadMaxima)
+                .useIdleConnectionReaper(true)
+                .tcpKeepAlive(tcpKeepAlive);
+        if (!vidaConexion.isZero()) {
+            builder.connectionTimeToLive(vidaConexion);
+        }
+        return builder;
+    }
+
+    /**
+     * Crea la configuración de un cliente de AWS con la estrategia de reintentos del transporte y los tiempos
+     * máximos de sus llamadas.
+     *
+     * @param timeoutLlamada Tiempo máximo de una llamada, incluidos sus reintentos; cero para no limitarlo.
+     * @param timeoutIntento Tiempo máximo de cada intento de una llamada; cero para no limitarlo.
+     * @return Configuración para el cliente de AWS.
+     */
+    public ClientOverrideConfiguration configuracion(Duration timeoutLlamada, Duration timeoutIntento) {
+        ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder()
+                .retryStrategy(AwsRetryStrategy.forRetryMode(modoReintentos).toBuilder().maxAttempts(intentos).build());
+        if (!timeoutLlamada.isZero()) {
+            builder.apiCallTimeout(timeoutLlamada);
+        }
+        if (!timeoutIntento.isZero()) {
+            builder.apiCallAttemptTimeout(timeoutIntento);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,129 @@
+package co.com.capacitanet.aws.dynamo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codifica los objetos que se guardan como un único atributo de DynamoDB ({@code datosCurso},
+ * {@code perfil}). Los lectores y escritores de Jackson se construyen una sola vez y se comparten
+ * entre hilos.
+ * <p>
+ * Con el formato {@link Formato#JSON} el objeto se guarda como texto, igual que siempre. Con
+ * {@link Formato#SMILE} se guarda como binario Smile, comprimido con gzip cuando supera el umbral
+ * configurado. La lectura reconoce los tres casos sin importar el formato configurado, de modo que
+ * los elementos existentes siguen leyéndose y cada uno cambia de formato cuando se vuelve a escribir.
+ */
+@Component
+public class BlobCodec {
+
+    /**
+     * Formato con que se escriben los objetos.
+     */
+    public enum Formato {
+        JSON,
+        SMILE
+    }
+
+    private static final int GZIP_MAGIA_1 = 0x1f;
+    private static final int GZIP_MAGIA_2 = 0x8b;
+
+    private final ObjectWriter escritorJson;
+    private final ObjectWriter escritorSmile;
+    private final ClassValue<Lectores> lectores;
+    private final Formato formato;
+    private final int compresionMinima;
+
+    /**
+     * Constructor de la clase BlobCodec.
+     *
+     * @param formato          Formato con que se escriben los objetos.
+     * @param compresionMinima Tamaño en bytes a partir del cual el binario Smile se comprime.
+     */
+    public BlobCodec(@Value("${aws.dynamodb.blobs.formato:JSON}") Formato formato,
+                     @Value("${aws.dynamodb.blobs.compresion-minima:1024}") int compresionMinima) {
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        this.escritorJson = json.writer();
+        this.escritorSmile = smile.writer();
+        this.lectores = new ClassValue<>() {
+            @Override
+            protected Lectores computeValue(Class<?> tipo) {
+                return new Lectores(json.readerFor(tipo), smile.readerFor(tipo));
+            }
+        };
+        this.formato = formato;
+        this.compresionMinima = compresionMinima;
+    }
+
+    /**
+     * Codifica un objeto en el formato configurado.
+     *
+     * @param valor Objeto a codificar.
+     * @return Atributo de texto (JSON) o binario (Smile) con el objeto.
+     * @throws IOException Si el objeto no puede serializarse.
+     */
+    public AttributeValue codificar(Object valor) throws IOException {
+        if (formato == Formato.JSON) {
+            return AttributeValue.builder().s(escritorJson.writeValueAsString(valor)).build();
+        }
+        byte[] smile = escritorSmile.writeValueAsBytes(valor);
+        byte[] contenido = smile.length >= compresionMinima ? comprimir(smile) : smile;
+        return AttributeValue.builder().b(SdkBytes.fromByteArrayUnsafe(contenido)).build();
+    }
+
+    /**
+     * Decodifica un atributo escrito en cualquiera de los formatos admitidos.
+     *
+     * @param valor Atributo con el objeto.
+     * @param tipo  Clase del objeto.
+     * @param <T>   Tipo del objeto.
+     * @return Objeto decodificado.
+     * @throws IOException Si el contenido no corresponde a un objeto válido.
+     */
+    public <T> T decodificar(AttributeValue valor, Class<T> tipo) throws IOException {
+        Lectores lector = lectores.get(tipo);
+        if (valor.s() != null) {
+            return lector.json().readValue(valor.s());
+        }
+        if (valor.b() == null) {
+            throw new IOException("El atributo no contiene un objeto codificado");
+        }
+        byte[] contenido = valor.b().asByteArrayUnsafe();
+        if (comprimido(contenido)) {
+            try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(contenido))) {
+                return lector.smile().readValue(entrada);
+            }
+        }
+        return lector.smile().readValue(contenido);
+    }
+
+    private static boolean comprimido(byte[] contenido) {
+        return contenido.length > 2
+                && (contenido[0] & 0xff) == GZIP_MAGIA_1
+                && (contenido[1] & 0xff) == GZIP_MAGIA_2;
+    }
+
+    private static byte[] comprimir(byte[] contenido) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(contenido.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(contenido);
+        }
+        return salida.toByteArray();
+    }
+
+    private record Lectores(ObjectReader json, ObjectReader smile) {
+    }
+}
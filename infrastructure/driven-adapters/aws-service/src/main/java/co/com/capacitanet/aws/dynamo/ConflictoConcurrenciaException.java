@@ -0,0 +1,12 @@
+package co.com.capacitanet.aws.dynamo;
+
+/**
+ * Indica que una actualización optimista no pudo aplicarse porque el elemento siguió cambiando
+ * en cada uno de los intentos permitidos.
+ */
+public class ConflictoConcurrenciaException extends RuntimeException {
+
+    public ConflictoConcurrenciaException(String tabla, int intentos) {
+        super("El elemento de " + tabla + " cambió en cada uno de los " + intentos + " intentos de actualización");
+    }
+}
@@ -0,0 +1,134 @@
+package co.com.capacitanet.aws.dynamo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Lecturas agrupadas de DynamoDB ({@code BatchGetItem}) que vuelven a pedir las llaves no procesadas. DynamoDB
+ * devuelve llaves sin procesar cuando la tabla está al límite de su capacidad, así que pedirlas de inmediato
+ * solo agrava la limitación: antes de cada ronda se espera un tiempo aleatorio entre cero y una pausa que se
+ * duplica en cada ronda, hasta la pausa máxima, y tras el número máximo de rondas se devuelven las llaves que
+ * quedaron sin leer para que el llamador decida qué hacer con ellas.
+ */
+@Component
+public class LecturaAgrupada {
+
+    private static final Logger logger = LogManager.getLogger(LecturaAgrupada.class);
+
+    private final DynamoDbClient client;
+    private final DynamoDbAsyncClient asyncClient;
+    private final int rondas;
+    private final long esperaNanos;
+    private final long esperaMaximaNanos;
+
+    /**
+     * Constructor de la clase LecturaAgrupada.
+     *
+     * @param client        Cliente de DynamoDB.
+     * @param asyncClient   Cliente asíncrono de DynamoDB.
+     * @param rondas        Número máximo de lecturas por grupo de llaves, incluida la primera.
+     * @param espera        Pausa base antes de la segunda ronda; se duplica en cada ronda siguiente.
+     * @param esperaMaxima  Pausa máxima antes de una ronda.
+     */
+    public LecturaAgrupada(DynamoDbClient client, DynamoDbAsyncClient asyncClient,
+                           @Value("${aws.dynamodb.lotes.rondas:8}") int rondas,
+                           @Value("${aws.dynamodb.lotes.espera:PT0.025S}") Duration espera,
+                           @Value("${aws.dynamodb.lotes.espera-maxima:PT1S}") Duration esperaMaxima) {
+        if (rondas < 1) {
+            throw new IllegalArgumentException("Las rondas de lectura agrupada deben ser mayores a cero");
+        }
+        this.client = client;
+        this.asyncClient = asyncClient;
+        this.rondas = rondas;
+        this.esperaNanos = espera.toNanos();
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    /**
+     * Lee las llaves y vuelve a pedir las no procesadas hasta leerlas todas o agotar las rondas.
+     *
+     * @param llaves    Llaves a leer, por tabla.
+     * @param respuesta Recibe la respuesta de cada ronda.
+     * @return Llaves que quedaron sin leer; vacío si se leyeron todas.
+     */
+    public Map<String, KeysAndAttributes> leer(Map<String, KeysAndAttributes> llaves,
+                                               Consumer<BatchGetItemResponse> respuesta) {
+        Map<String, KeysAndAttributes> pendientes = llaves;
+        for (int ronda = 1; ronda <= rondas && !pendientes.isEmpty(); ronda++) {
+            if (ronda > 1) {
+                LockSupport.parkNanos(pausa(ronda));
+            }
+            BatchGetItemResponse response = client.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(pendientes).build());
+            respuesta.accept(response);
+            pendientes = noProcesadas(response);
+        }
+        return restantes(pendientes);
+    }
+
+    /**
+     * Lee las llaves sin bloquear al llamador y vuelve a pedir las no procesadas hasta leerlas todas o
+     * agotar las rondas. Las pausas entre rondas se programan sin ocupar un hilo.
+     *
+     * @param llaves    Llaves a leer, por tabla.
+     * @param respuesta Recibe la respuesta de cada ronda.
+     * @return Futuro con las llaves que quedaron sin leer; vacío si se leyeron todas.
+     */
+    public CompletableFuture<Map<String, KeysAndAttributes>> leerAsync(Map<String, KeysAndAttributes> llaves,
+                                                                       Consumer<BatchGetItemResponse> respuesta) {
+        return ronda(llaves, respuesta, 1);
+    }
+
+    private CompletableFuture<Map<String, KeysAndAttributes>> ronda(Map<String, KeysAndAttributes> pendientes,
+                                                                    Consumer<BatchGetItemResponse> respuesta,
+                                                                    int ronda) {
+        if (pendientes.isEmpty() || ronda > rondas) {
+            return CompletableFuture.completedFuture(restantes(pendientes));
+        }
+        CompletableFuture<Void> espera = ronda == 1
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(pausa(ronda), TimeUnit.NANOSECONDS));
+        return espera
+                .thenCompose(listo -> asyncClient.batchGetItem(BatchGetItemRequest.builder().requestItems(pendientes).build()))
+                .thenCompose(response -> {
+                    respuesta.accept(response);
+                    return ronda(noProcesadas(response), respuesta, ronda + 1);
+                });
+    }
+
+    /**
+     * Pausa aleatoria antes de una ronda: entre cero y la pausa base duplicada por cada ronda previa,
+     * sin pasar de la pausa máxima.
+     */
+    private long pausa(int ronda) {
+        long maximo = Math.min(esperaMaximaNanos, esperaNanos << Math.min(ronda - 2, 30));
+        return maximo > 0 ? ThreadLocalRandom.current().nextLong(maximo) : 0;
+    }
+
+    private Map<String, KeysAndAttributes> restantes(Map<String, KeysAndAttributes> pendientes) {
+        if (!pendientes.isEmpty()) {
+            logger.warn("Lectura agrupada incompleta tras {} rondas: {} llaves sin leer", rondas,
+                    pendientes.values().stream().mapToInt(llaves -> llaves.keys().size()).sum());
+        }
+        return pendientes;
+    }
+
+    private static Map<String, KeysAndAttributes> noProcesadas(BatchGetItemResponse response) {
+        return response.hasUnprocessedKeys() ? response.unprocessedKeys() : Map.of();
+    }
+}
@@ -0,0 +1,234 @@
+package co.com.capacitanet.aws.dynamo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Aplica actualizaciones de lectura-modificación-escritura sobre elementos de DynamoDB con control de
+ * concurrencia optimista. Cada elemento lleva un atributo numérico {@code version}; la escritura se
+ * condiciona a que la versión no haya cambiado desde la lectura y la incrementa. Si otro escritor se
+ * adelantó, se vuelve a leer el elemento, se reaplica el cambio sobre el estado nuevo y se reintenta,
+ * hasta un número acotado de intentos.
+ * <p>
+ * Los conflictos se publican en el contador {@code capacitanet.dynamodb.conflictos}, etiquetado por tabla
+ * y por resultado ({@code reintentado} o {@code agotado}).
+ */
+@Component
+public class OptimisticUpdater {
+
+    private static final Logger logger = LogManager.getLogger(OptimisticUpdater.class);
+
+    public static final String VERSION = "version";
+
+    /**
+     * Valor que, devuelto por un {@link Cambio}, elimina el atributo del elemento en lugar de escribirlo.
+     */
+    public static final AttributeValue ELIMINAR = AttributeValue.builder().nul(true).build();
+
+    /**
+     * Resultado de una actualización.
+     */
+    public enum Actualizacion {
+        APLICADA, SIN_CAMBIOS, NO_ENCONTRADO
+    }
+
+    /**
+     * Cambio a aplicar sobre el estado actual de un elemento. Puede ejecutarse varias veces,
+     * una por intento, por lo que no debe tener efectos fuera del elemento.
+     */
+    @FunctionalInterface
+    public interface Cambio {
+        /**
+         * @param actual Atributos actuales del elemento.
+         * @return Atributos a escribir, o un mapa vacío si el elemento no requiere cambios. Los atributos con
+         * valor {@link #ELIMINAR} se eliminan.
+         * @throws IOException Si el contenido del elemento no puede procesarse.
+         */
+        Map<String, AttributeValue> aplicar(Map<String, AttributeValue> actual) throws IOException;
+    }
+
+    private final DynamoDbClient client;
+    private final MeterRegistry registry;
+    private final int intentos;
+    private final Duration espera;
+
+    /**
+     * Constructor de la clase OptimisticUpdater.
+     *
+     * @param client   Cliente de DynamoDB para interactuar con la base de datos.
+     * @param registry Registro de métricas donde se publican los conflictos.
+     * @param intentos Número máximo de intentos de escritura por actualización.
+     * @param espera   Pausa base entre intentos; la pausa real es aleatoria y crece con cada intento.
+     */
+    public OptimisticUpdater(DynamoDbClient client, MeterRegistry registry,
+                             @Value("${aws.dynamodb.concurrencia.intentos:5}") int intentos,
+                             @Value("${aws.dynamodb.concurrencia.espera:PT0.005S}") Duration espera) {
+        if (intentos < 1) {
+            throw new IllegalArgumentException("Los intentos de actualización deben ser mayores a cero");
+        }
+        this.client = client;
+        this.registry = registry;
+        this.intentos = intentos;
+        this.espera = espera;
+    }
+
+    /**
+     * Atributo de versión con el que se crea un elemento nuevo.
+     *
+     * @return Mapa con la versión inicial.
+     */
+    public static Map<String, AttributeValue> versionInicial() {
+        return Map.of(VERSION, AttributeValue.builder().n("1").build());
+    }
+
+    /**
+     * Lee el elemento, aplica el cambio y lo escribe condicionado a su versión, reintentando
+     * sobre el estado más reciente cuando otro escritor se adelantó.
+     *
+     * @param tabla  Tabla del elemento.
+     * @param llave  Llave del elemento.
+     * @param cambio Cambio a aplicar sobre el estado actual.
+     * @return Resultado de la actualización.
+     * @throws ConflictoConcurrenciaException Si el elemento cambió en todos los intentos.
+     */
+    public Actualizacion actualizar(String tabla, Map<String, AttributeValue> llave, Cambio cambio) {
+        for (int intento = 1; intento <= intentos; intento++) {
+            var response = client.getItem(builder -> builder.tableName(tabla).key(llave).consistentRead(true));
+            if (response == null || !response.hasItem()) {
+                return Actualizacion.NO_ENCONTRADO;
+            }
+            Map<String, AttributeValue> actual = response.item();
+            Map<String, AttributeValue> cambios;
+            try {
+                cambios = cambio.aplicar(actual);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (cambios.isEmpty()) {
+                return Actualizacion.SIN_CAMBIOS;
+            }
+            try {
+                client.updateItem(escritura(tabla, llave, actual.get(VERSION), cambios));
+                return Actualizacion.APLICADA;
+            } catch (ConditionalCheckFailedException e) {
+                logger.debug("Conflicto de versión en {} (intento {} de {})", tabla, intento, intentos);
+                if (intento < intentos) {
+                    conflictos(tabla, "reintentado").increment();
+                    pausa(intento);
+                }
+            }
+        }
+        conflictos(tabla, "agotado").increment();
+        logger.warn("Actualización descartada en {} tras {} conflictos de versión", tabla, intentos);
+        throw new ConflictoConcurrenciaException(tabla, intentos);
+    }
+
+    /**
+     * Escribe los cambios sobre un estado leído previamente, en un único intento condicionado a que
+     * el elemento siga en la versión leída. Se usa cuando el cambio depende de una verificación hecha
+     * sobre esa lectura, que no puede reaplicarse sobre un estado distinto.
+     *
+     * @param tabla   Tabla del elemento.
+     * @param llave   Llave del elemento.
+     * @param version Versión leída, o {@code null} si el elemento aún no estaba versionado.
+     * @param cambios Atributos a escribir.
+     * @throws ConflictoConcurrenciaException Si el elemento cambió desde la lectura.
+     */
+    public void escribir(String tabla, Map<String, AttributeValue> llave, Long version,
+                         Map<String, AttributeValue> cambios) {
+        AttributeValue leida = version == null ? null : AttributeValue.builder().n(Long.toString(version)).build();
+        try {
+            client.updateItem(escritura(tabla, llave, leida, cambios));
+        } catch (ConditionalCheckFailedException e) {
+            conflictos(tabla, "agotado").increment();
+            logger.warn("Escritura descartada en {}: el elemento cambió desde la lectura", tabla);
+            throw new ConflictoConcurrenciaException(tabla, 1);
+        }
+    }
+
+    /**
+     * Versión de un elemento leído.
+     *
+     * @param item Atributos del elemento.
+     * @return La versión, o {@code null} si el elemento aún no está versionado.
+     */
+    public static Long version(Map<String, AttributeValue> item) {
+        AttributeValue version = item.get(VERSION);
+        return version == null ? null : Long.valueOf(version.n());
+    }
+
+    private static UpdateItemRequest escritura(String tabla, Map<String, AttributeValue> llave,
+                                               AttributeValue version, Map<String, AttributeValue> cambios) {
+        Map<String, String> nombres = new HashMap<>();
+        Map<String, AttributeValue> valores = new HashMap<>();
+        StringJoiner asignaciones = new StringJoiner(", ", "SET ", "");
+        StringJoiner eliminaciones = new StringJoiner(", ", " REMOVE ", "").setEmptyValue("");
+        int indice = 0;
+        for (Map.Entry<String, AttributeValue> atributo : cambios.entrySet()) {
+            nombres.put("#a" + indice, atributo.getKey());
+            if (atributo.getValue() == ELIMINAR) {
+                eliminaciones.add("#a" + indice);
+            } else {
+                valores.put(":a" + indice, atributo.getValue());
+                asignaciones.add("#a" + indice + " = :a" + indice);
+            }
+            indice++;
+        }
+        nombres.put("#version", VERSION);
+        asignaciones.add("#version = :siguiente");
+
+        String condicion;
+        long siguiente;
+        if (version == null) {
+            // Elemento creado antes del control de versiones: el primer escritor lo versiona.
+            condicion = "attribute_not_exists(#version)";
+            siguiente = 1;
+        } else {
+            condicion = "#version = :version";
+            valores.put(":version", version);
+            siguiente = Long.parseLong(version.n()) + 1;
+        }
+        valores.put(":siguiente", AttributeValue.builder().n(Long.toString(siguiente)).build());
+
+        return UpdateItemRequest.builder()
+                .tableName(tabla)
+                .key(llave)
+                .updateExpression(asignaciones.toString() + eliminaciones)
+                .conditionExpression(condicion)
+                .expressionAttributeNames(nombres)
+                .expressionAttributeValues(valores)
+                .build();
+    }
+
+    private Counter conflictos(String tabla, String resultado) {
+        return Counter.builder("capacitanet.dynamodb.conflictos")
+                .description("Escrituras optimistas rechazadas por un cambio concurrente")
+                .tag("tabla", tabla)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private void pausa(int intento) {
+        long maximo = espera.toNanos() * intento;
+        if (maximo > 0) {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(maximo));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package co.com.capacitanet.aws.dynamo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Motor de escaneo para DynamoDB que recorre una tabla completa siguiendo la paginación
+ * ({@code LastEvaluatedKey}) y dividiéndola en segmentos paralelos ({@code Segment}/{@code TotalSegments}).
+ * Cada página se decodifica y filtra apenas llega, mientras el segmento solicita la siguiente.
+ */
+@Component
+public class ParallelScanner implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(ParallelScanner.class);
+
+    private final DynamoDbClient client;
+    private final int totalSegmentos;
+    private final ExecutorService segmentos;
+
+    /**
+     * Constructor de la clase ParallelScanner.
+     *
+     * @param client         Cliente de DynamoDB para interactuar con la base de datos.
+     * @param totalSegmentos Número de segmentos en que se divide cada escaneo.
+     * @param hilos          Número máximo de segmentos que se consultan al mismo tiempo.
+     */
+    public ParallelScanner(DynamoDbClient client,
+                           @Value("${aws.dynamodb.scan.segmentos:4}") int totalSegmentos,
+                           @Value("${aws.dynamodb.scan.hilos:16}") int hilos) {
+        if (totalSegmentos < 1 || hilos < 1) {
+            throw new IllegalArgumentException("Los segmentos y los hilos del escaneo deben ser mayores a cero");
+        }
+        this.client = client;
+        this.totalSegmentos = totalSegmentos;
+        AtomicInteger contador = new AtomicInteger();
+        this.segmentos = Executors.newFixedThreadPool(hilos, runnable -> {
+            Thread hilo = new Thread(runnable, "scan-segmento-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Escanea la tabla indicada en la solicitud y devuelve los elementos decodificados que cumplen el filtro.
+     * Los resultados conservan el orden de los segmentos y, dentro de cada segmento, el de las páginas.
+     *
+     * @param request        Solicitud base del escaneo (tabla, proyección, filtros del lado de DynamoDB).
+     * @param decodificador  Función que convierte cada elemento de DynamoDB al tipo requerido.
+     * @param filtro         Condición que deben cumplir los elementos decodificados.
+     * @param <T>            Tipo de los elementos decodificados.
+     * @return Lista con los elementos que cumplen el filtro.
+     */
+    public <T> List<T> escanear(ScanRequest request,
+                                Function<Map<String, AttributeValue>, T> decodificador,
+                                Predicate<T> filtro) {
+        if (totalSegmentos == 1) {
+            return escanearSegmento(request, decodificador, filtro);
+        }
+
+        List<CompletableFuture<List<T>>> resultados = new ArrayList<>(totalSegmentos);
+        for (int segmento = 0; segmento < totalSegmentos; segmento++) {
+            ScanRequest requestSegmento = request.toBuilder()
+                    .segment(segmento)
+                    .totalSegments(totalSegmentos)
+                    .build();
+            resultados.add(CompletableFuture.supplyAsync(
+                    () -> escanearSegmento(requestSegmento, decodificador, filtro), segmentos));
+        }
+        return unir(resultados);
+    }
+
+    /**
+     * Recorre todas las páginas de un segmento. La decodificación de cada página se delega al pool
+     * común para que se solape con la consulta de la página siguiente.
+     */
+    private <T> List<T> escanearSegmento(ScanRequest request,
+                                         Function<Map<String, AttributeValue>, T> decodificador,
+                                         Predicate<T> filtro) {
+        List<CompletableFuture<List<T>>> paginas = new ArrayList<>();
+        Map<String, AttributeValue> inicio = null;
+        do {
+            ScanResponse response = client.scan(request.toBuilder().exclusiveStartKey(inicio).build());
+            List<Map<String, AttributeValue>> items = response.items();
+            paginas.add(CompletableFuture.supplyAsync(
+                    () -> decodificar(items, decodificador, filtro), ForkJoinPool.commonPool()));
+            inicio = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey()
+                    : null;
+        } while (inicio != null);
+
+        logger.debug("Segmento {} de {} escaneado en {} páginas", request.segment(), request.totalSegments(), paginas.size());
+        return unir(paginas);
+    }
+
+    private static <T> List<T> decodificar(List<Map<String, AttributeValue>> items,
+                                           Function<Map<String, AttributeValue>, T> decodificador,
+                                           Predicate<T> filtro) {
+        List<T> decodificados = new ArrayList<>(items.size());
+        for (Map<String, AttributeValue> item : items) {
+            T valor = decodificador.apply(item);
+            if (filtro.test(valor)) {
+                decodificados.add(valor);
+            }
+        }
+        return decodificados;
+    }
+
+    /**
+     * Espera todos los resultados parciales y los concatena en orden. Si alguno falla se cancelan
+     * los pendientes y se relanza la causa original.
+     */
+    private static <T> List<T> unir(List<CompletableFuture<List<T>>> parciales) {
+        List<T> resultado = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> parcial : parciales) {
+                resultado.addAll(parcial.join());
+            }
+            return resultado;
+        } catch (CompletionException e) {
+            parciales.forEach(parcial -> parcial.cancel(true));
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        segmentos.shutdownNow();
+    }
+}
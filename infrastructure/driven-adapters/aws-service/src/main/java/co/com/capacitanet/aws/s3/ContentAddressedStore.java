@@ -0,0 +1,209 @@
+package co.com.capacitanet.aws.s3;
+
+import co.com.capacitanet.model.curso.Archivo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongConsumer;
+
+/**
+ * Almacena archivos en S3 bajo una llave derivada de su contenido ({@code recursos/sha256/<hash>.<ext>}),
+ * de modo que el mismo archivo subido a varios cursos, o reintentado tras un fallo, se guarda una sola vez
+ * y todos sus recursos apuntan al mismo objeto.
+ * <p>
+ * Las cargas síncronas leen el contenido una sola vez, como llega en la solicitud: se envía a una llave
+ * temporal ({@code recursos/tmp/}) mientras se calcula el hash y, al terminar, se copia dentro del bucket a
+ * la llave definitiva solo si esta aún no existe; la llave temporal se elimina en ambos casos. Las cargas
+ * asíncronas reciben el archivo ya guardado por completo, así que calculan el hash antes de transferir y
+ * omiten la transferencia si el objeto ya existe.
+ * <p>
+ * Las cargas se publican en el contador {@code capacitanet.s3.recursos}, etiquetado con
+ * {@code resultado=transferido} o {@code resultado=deduplicado}.
+ */
+@Component
+public class ContentAddressedStore {
+
+    private static final Logger logger = LogManager.getLogger(ContentAddressedStore.class);
+
+    static final String PREFIJO = "recursos/sha256/";
+    static final String TEMPORAL = "recursos/tmp/";
+    private static final int BUFER = 64 * 1024;
+
+    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final S3MultipartUploader cargas;
+    private final S3AsyncUploader cargasAsync;
+    private final Counter transferidos;
+    private final Counter deduplicados;
+
+    /**
+     * Constructor de la clase ContentAddressedStore.
+     *
+     * @param s3Client      Cliente de S3 para consultar si un objeto existe.
+     * @param s3AsyncClient Cliente asíncrono de S3 para consultar si un objeto existe sin bloquear.
+     * @param cargas        Cargas de archivos a S3 leídas como flujo.
+     * @param cargasAsync   Cargas de archivos a S3 que no bloquean al llamador.
+     * @param registry      Registro de métricas donde se publican las cargas.
+     */
+    public ContentAddressedStore(S3Client s3Client, S3AsyncClient s3AsyncClient, S3MultipartUploader cargas,
+                                 S3AsyncUploader cargasAsync, MeterRegistry registry) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.cargas = cargas;
+        this.cargasAsync = cargasAsync;
+        this.transferidos = contador(registry, "transferido");
+        this.deduplicados = contador(registry, "deduplicado");
+    }
+
+    /**
+     * Guarda el archivo si su contenido aún no está en el bucket. El contenido se lee una sola vez.
+     *
+     * @param bucket  Bucket de destino.
+     * @param archivo Archivo a guardar; su contenido puede abrirse una sola vez.
+     * @return Llave del objeto con el contenido del archivo.
+     * @throws IOException Si el contenido del archivo no puede leerse.
+     */
+    public String guardar(String bucket, Archivo archivo) throws IOException {
+        MessageDigest digest = sha256();
+        String temporal = TEMPORAL + UUID.randomUUID() + extension(archivo.getNombre());
+        try {
+            cargas.subir(bucket, temporal, archivo.toBuilder()
+                    .contenido(() -> new DigestInputStream(archivo.getContenido().abrir(), digest))
+                    .build());
+            String key = PREFIJO + HexFormat.of().formatHex(digest.digest()) + extension(archivo.getNombre());
+            if (existe(bucket, key)) {
+                deduplicados.increment();
+                logger.debug("Contenido ya almacenado en {}, se descarta la copia temporal", key);
+                return key;
+            }
+            s3Client.copyObject(builder -> builder.sourceBucket(bucket).sourceKey(temporal)
+                    .destinationBucket(bucket).destinationKey(key));
+            transferidos.increment();
+            return key;
+        } finally {
+            eliminar(bucket, temporal);
+        }
+    }
+
+    /**
+     * Guarda el archivo si su contenido aún no está en el bucket, sin bloquear durante la transferencia.
+     * El hash se calcula en el hilo del llamador, sobre el contenido ya recibido.
+     *
+     * @param bucket   Bucket de destino.
+     * @param archivo  Archivo a guardar.
+     * @param progreso Recibe el total de bytes transferidos cada vez que avanza la carga.
+     * @return Futuro con la llave del objeto con el contenido del archivo.
+     */
+    public CompletableFuture<String> guardarAsync(String bucket, Archivo archivo, LongConsumer progreso) {
+        String key;
+        try {
+            key = llave(archivo);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return s3AsyncClient.headObject(builder -> builder.bucket(bucket).key(key))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return true;
+                    }
+                    if (noExiste(error)) {
+                        return false;
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                })
+                .thenCompose(existe -> {
+                    if (existe) {
+                        deduplicados.increment();
+                        logger.debug("Contenido ya almacenado en {}, se omite la transferencia", key);
+                        return CompletableFuture.completedFuture(key);
+                    }
+                    return cargasAsync.subir(bucket, key, archivo, progreso).thenApply(completada -> {
+                        transferidos.increment();
+                        return key;
+                    });
+                });
+    }
+
+    /**
+     * Calcula la llave de un archivo a partir del SHA-256 de su contenido y la extensión de su nombre.
+     *
+     * @param archivo Archivo del que se calcula la llave.
+     * @return Llave del objeto.
+     * @throws IOException Si el contenido del archivo no puede leerse.
+     */
+    static String llave(Archivo archivo) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] bufer = new byte[BUFER];
+        try (InputStream contenido = archivo.getContenido().abrir()) {
+            int leidos;
+            while ((leidos = contenido.read(bufer)) != -1) {
+                digest.update(bufer, 0, leidos);
+            }
+        }
+        return PREFIJO + HexFormat.of().formatHex(digest.digest()) + extension(archivo.getNombre());
+    }
+
+    private boolean existe(String bucket, String key) {
+        try {
+            s3Client.headObject(builder -> builder.bucket(bucket).key(key));
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private void eliminar(String bucket, String key) {
+        try {
+            s3Client.deleteObject(builder -> builder.bucket(bucket).key(key));
+        } catch (RuntimeException e) {
+            logger.error("No fue posible eliminar el objeto temporal {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static boolean noExiste(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return causa instanceof S3Exception s3 && s3.statusCode() == 404;
+    }
+
+    private static String extension(String nombre) {
+        if (nombre == null) {
+            return "";
+        }
+        int punto = nombre.lastIndexOf('.');
+        return punto < 0 ? "" : nombre.substring(punto).toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado) {
+        return Counter.builder("capacitanet.s3.recursos")
+                .description("Archivos de recursos guardados en S3")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
@@ -0,0 +1,184 @@
+package co.com.capacitanet.aws.s3;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caché de URLs prefirmadas de S3. Cada URL se firma una vez y se reutiliza hasta que a su firma
+ * le quede el margen de seguridad configurado, evitando recalcular la firma SigV4 en cada listado.
+ * Las firmas pendientes de un lote se calculan en un pool acotado; si el pool está saturado o ya se
+ * cerró, el hilo solicitante firma por su cuenta. Al cerrar, las firmas que quedaban en la cola se
+ * calculan en el hilo que cierra, de modo que ningún lote queda esperando un futuro sin completar.
+ * <p>
+ * Publica el contador {@code capacitanet.s3.presign} con la etiqueta {@code resultado}
+ * ({@code firmada} o {@code reutilizada}).
+ */
+@Component
+public class PresignedUrlCache implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(PresignedUrlCache.class);
+    private static final String METRICA = "capacitanet.s3.presign";
+
+    private final S3Presigner presigner;
+    private final Duration vigencia;
+    private final Cache<String, String> urls;
+    private final ThreadPoolExecutor firmadores;
+    private final Counter firmadas;
+    private final Counter reutilizadas;
+
+    /**
+     * Constructor de la clase PresignedUrlCache.
+     *
+     * @param presigner Cliente para generar URLs prefirmadas de S3.
+     * @param registry  Registro de métricas.
+     * @param vigencia  Duración de la firma de cada URL.
+     * @param margen    Tiempo de vigencia que debe quedarle a una URL para seguir entregándola.
+     * @param maximo    Número máximo de URLs en caché.
+     * @param hilos     Número de hilos que firman URLs en paralelo.
+     */
+    public PresignedUrlCache(S3Presigner presigner, MeterRegistry registry,
+                             @Value("${aws.s3.presign.vigencia:PT5M}") Duration vigencia,
+                             @Value("${aws.s3.presign.margen:PT2M}") Duration margen,
+                             @Value("${aws.s3.presign.maximo:10000}") long maximo,
+                             @Value("${aws.s3.presign.hilos:4}") int hilos) {
+        if (margen.compareTo(vigencia) >= 0) {
+            throw new IllegalArgumentException("El margen de las URLs prefirmadas debe ser menor que su vigencia");
+        }
+        this.presigner = presigner;
+        this.vigencia = vigencia;
+        this.urls = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(vigencia.minus(margen))
+                .build();
+        AtomicInteger contador = new AtomicInteger();
+        this.firmadores = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hilos * 64),
+                runnable -> {
+                    Thread hilo = new Thread(runnable, "s3-presign-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.firmadas = Counter.builder(METRICA).tag("resultado", "firmada")
+                .description("URLs prefirmadas de S3 calculadas").register(registry);
+        this.reutilizadas = Counter.builder(METRICA).tag("resultado", "reutilizada")
+                .description("URLs prefirmadas de S3 servidas desde la caché").register(registry);
+    }
+
+    /**
+     * Obtiene la URL prefirmada de un objeto, firmándola solo si no hay una vigente en caché.
+     *
+     * @param bucket Bucket del objeto.
+     * @param key    Clave del objeto en S3.
+     * @return URL prefirmada o null en caso de error.
+     */
+    public String obtenerUrl(String bucket, String key) {
+        boolean[] firmada = {false};
+        try {
+            String url = urls.get(bucket + "/" + key, llave -> {
+                firmada[0] = true;
+                return firmar(bucket, key);
+            });
+            if (!firmada[0]) {
+                reutilizadas.increment();
+            }
+            return url;
+        } catch (Exception e) {
+            logger.error("Error al generar la URL de S3 para {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene las URLs prefirmadas de un lote de objetos. Las que no están en caché se firman
+     * en paralelo en el pool acotado.
+     *
+     * @param bucket Bucket de los objetos.
+     * @param keys   Claves de los objetos en S3.
+     * @return Mapa de clave a URL prefirmada; las claves que no se pudieron firmar quedan con null.
+     */
+    public Map<String, String> obtenerUrls(String bucket, Collection<String> keys) {
+        return obtenerUrlsAsync(bucket, keys).join();
+    }
+
+    /**
+     * Obtiene las URLs prefirmadas de un lote de objetos sin esperar a que se firmen. Las que están en
+     * caché se entregan de inmediato y las demás se firman en el pool acotado.
+     *
+     * @param bucket Bucket de los objetos.
+     * @param keys   Claves de los objetos en S3.
+     * @return Futuro con el mapa de clave a URL prefirmada; las claves que no se pudieron firmar quedan con null.
+     */
+    public CompletableFuture<Map<String, String>> obtenerUrlsAsync(String bucket, Collection<String> keys) {
+        Map<String, CompletableFuture<String>> pendientes = new HashMap<>();
+        Map<String, String> resultado = new HashMap<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            String url = urls.getIfPresent(bucket + "/" + key);
+            if (url != null) {
+                reutilizadas.increment();
+                resultado.put(key, url);
+            } else {
+                pendientes.put(key, firmarEnPool(bucket, key));
+            }
+        }
+        return CompletableFuture.allOf(pendientes.values().toArray(CompletableFuture[]::new))
+                .thenApply(completadas -> {
+                    pendientes.forEach((key, url) -> resultado.put(key, url.join()));
+                    return resultado;
+                });
+    }
+
+    private CompletableFuture<String> firmarEnPool(String bucket, String key) {
+        try {
+            return CompletableFuture.supplyAsync(() -> obtenerUrl(bucket, key), firmadores);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(obtenerUrl(bucket, key));
+        }
+    }
+
+    private String firmar(String bucket, String key) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(vigencia)
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        String url = presigner.presignGetObject(presignRequest).url().toString();
+        firmadas.increment();
+        logger.debug("URL de S3 generada para: {}", key);
+        return url;
+    }
+
+    @Override
+    public void destroy() {
+        List<Runnable> descartadas = firmadores.shutdownNow();
+        descartadas.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,94 @@
+package co.com.capacitanet.aws.s3;
+
+import co.com.capacitanet.model.curso.Archivo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+import software.amazon.awssdk.transfer.s3.progress.TransferListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Sube archivos a S3 sin bloquear al llamador, mediante el administrador de transferencias sobre el
+ * cliente asíncrono de S3. El cliente divide los archivos grandes en partes y limita las conexiones
+ * simultáneas, de modo que las cargas en exceso esperan turno en lugar de abrir más conexiones.
+ */
+@Component
+public class S3AsyncUploader implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(S3AsyncUploader.class);
+
+    private final S3TransferManager transferencias;
+    private final ExecutorService lecturas;
+
+    /**
+     * Constructor de la clase S3AsyncUploader.
+     *
+     * @param transferencias Administrador de transferencias de S3.
+     */
+    public S3AsyncUploader(S3TransferManager transferencias) {
+        this.transferencias = transferencias;
+        AtomicInteger contador = new AtomicInteger();
+        this.lecturas = Executors.newCachedThreadPool(runnable -> {
+            Thread hilo = new Thread(runnable, "s3-lectura-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Inicia la carga del archivo y devuelve un futuro que se completa cuando S3 confirma el objeto.
+     *
+     * @param bucket   Bucket de destino.
+     * @param key      Llave del objeto.
+     * @param archivo  Archivo a subir.
+     * @param progreso Recibe el total de bytes transferidos cada vez que avanza la carga.
+     * @return Futuro de la carga.
+     */
+    public CompletableFuture<Void> subir(String bucket, String key, Archivo archivo, LongConsumer progreso) {
+        InputStream contenido;
+        try {
+            contenido = archivo.getContenido().abrir();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        UploadRequest request = UploadRequest.builder()
+                .putObjectRequest(builder -> builder.bucket(bucket).key(key).contentType(archivo.getTipoContenido()))
+                .requestBody(AsyncRequestBody.fromInputStream(contenido, archivo.getTamano(), lecturas))
+                .addTransferListener(new TransferListener() {
+                    @Override
+                    public void bytesTransferred(Context.BytesTransferred context) {
+                        progreso.accept(context.progressSnapshot().transferredBytes());
+                    }
+                })
+                .build();
+
+        return transferencias.upload(request).completionFuture()
+                .whenComplete((completada, error) -> cerrar(contenido, key))
+                .thenApply(completada -> null);
+    }
+
+    private static void cerrar(InputStream contenido, String key) {
+        try {
+            contenido.close();
+        } catch (IOException e) {
+            logger.warn("No fue posible cerrar el contenido de {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lecturas.shutdownNow();
+    }
+}
@@ -0,0 +1,198 @@
+package co.com.capacitanet.aws.s3;
+
+import co.com.capacitanet.model.curso.Archivo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sube archivos a S3 leyendo su contenido como flujo, una sola vez. Los archivos que caben en una parte se
+ * envían con un único PutObject; los demás se dividen en partes de una carga multiparte que se envían en
+ * paralelo. Si el tamaño no se conoce de antemano, se lee la primera parte y solo se inicia la carga
+ * multiparte si el archivo no cabe en ella.
+ * <p>
+ * Cada parte en vuelo ocupa un búfer del tamaño de la parte. El número de búferes está limitado por un
+ * presupuesto de memoria compartido entre todas las cargas: cuando se agota, la lectura de la siguiente
+ * parte espera a que otra termine de enviarse.
+ */
+@Component
+public class S3MultipartUploader implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(S3MultipartUploader.class);
+
+    /**
+     * Tamaño mínimo de parte que admite S3, salvo para la última.
+     */
+    static final int PARTE_MINIMA = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final int tamanoParte;
+    private final Semaphore bufers;
+    private final ExecutorService envios;
+
+    /**
+     * Constructor de la clase S3MultipartUploader.
+     *
+     * @param s3Client    Cliente de S3 para interactuar con el almacenamiento de objetos.
+     * @param tamanoParte Tamaño en bytes de cada parte de la carga multiparte.
+     * @param memoria     Memoria máxima en bytes que ocupan las partes en vuelo de todas las cargas.
+     * @param hilos       Número de partes que se envían al mismo tiempo.
+     */
+    public S3MultipartUploader(S3Client s3Client,
+                               @Value("${aws.s3.multipart.tamano-parte:8388608}") int tamanoParte,
+                               @Value("${aws.s3.multipart.memoria:67108864}") long memoria,
+                               @Value("${aws.s3.multipart.hilos:8}") int hilos) {
+        if (tamanoParte < PARTE_MINIMA) {
+            throw new IllegalArgumentException("El tamaño de parte debe ser de al menos " + PARTE_MINIMA + " bytes");
+        }
+        if (memoria < tamanoParte) {
+            throw new IllegalArgumentException("La memoria de las cargas debe alcanzar al menos para una parte");
+        }
+        this.s3Client = s3Client;
+        this.tamanoParte = tamanoParte;
+        this.bufers = new Semaphore((int) Math.min(Integer.MAX_VALUE, memoria / tamanoParte));
+        AtomicInteger contador = new AtomicInteger();
+        this.envios = Executors.newFixedThreadPool(hilos, runnable -> {
+            Thread hilo = new Thread(runnable, "s3-parte-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Sube el contenido del archivo al bucket con la llave indicada.
+     *
+     * @param bucket  Bucket de destino.
+     * @param key     Llave del objeto.
+     * @param archivo Archivo a subir; con tamaño negativo si no se conoce.
+     * @throws IOException Si el contenido del archivo no puede leerse.
+     */
+    public void subir(String bucket, String key, Archivo archivo) throws IOException {
+        try (InputStream contenido = archivo.getContenido().abrir()) {
+            if (archivo.getTamano() >= 0 && archivo.getTamano() <= tamanoParte) {
+                s3Client.putObject(builder -> builder.bucket(bucket).key(key).contentType(archivo.getTipoContenido()),
+                        RequestBody.fromInputStream(contenido, archivo.getTamano()));
+                return;
+            }
+            subirPorPartes(bucket, key, archivo.getTipoContenido(), contenido);
+        }
+    }
+
+    private void subirPorPartes(String bucket, String key, String tipoContenido, InputStream contenido)
+            throws IOException {
+        adquirirBufer();
+        byte[] primera;
+        try {
+            primera = contenido.readNBytes(tamanoParte);
+        } catch (IOException | RuntimeException e) {
+            bufers.release();
+            throw e;
+        }
+        if (primera.length < tamanoParte) {
+            try {
+                s3Client.putObject(builder -> builder.bucket(bucket).key(key).contentType(tipoContenido),
+                        RequestBody.fromBytes(primera));
+            } finally {
+                bufers.release();
+            }
+            return;
+        }
+        String uploadId;
+        try {
+            uploadId = s3Client.createMultipartUpload(builder -> builder
+                    .bucket(bucket).key(key).contentType(tipoContenido)).uploadId();
+        } catch (RuntimeException e) {
+            bufers.release();
+            throw e;
+        }
+        List<CompletableFuture<CompletedPart>> partes = new ArrayList<>();
+        try {
+            int numero = 0;
+            byte[] siguiente = primera;
+            while (true) {
+                byte[] parte;
+                if (siguiente != null) {
+                    parte = siguiente;
+                    siguiente = null;
+                } else {
+                    adquirirBufer();
+                    try {
+                        parte = contenido.readNBytes(tamanoParte);
+                    } catch (IOException | RuntimeException e) {
+                        bufers.release();
+                        throw e;
+                    }
+                }
+                if (parte.length == 0) {
+                    bufers.release();
+                    break;
+                }
+                int numeroParte = ++numero;
+                partes.add(CompletableFuture.supplyAsync(() -> enviarParte(bucket, key, uploadId, numeroParte, parte), envios)
+                        .whenComplete((completada, error) -> bufers.release()));
+                if (parte.length < tamanoParte) {
+                    break;
+                }
+            }
+
+            List<CompletedPart> completadas = new ArrayList<>(partes.size());
+            for (CompletableFuture<CompletedPart> parte : partes) {
+                completadas.add(parte.join());
+            }
+            s3Client.completeMultipartUpload(builder -> builder.bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completadas)));
+            logger.debug("Carga multiparte de {} completada en {} partes", key, completadas.size());
+        } catch (IOException | RuntimeException e) {
+            abortar(bucket, key, uploadId);
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private CompletedPart enviarParte(String bucket, String key, String uploadId, int numero, byte[] parte) {
+        String eTag = s3Client.uploadPart(builder -> builder.bucket(bucket).key(key).uploadId(uploadId)
+                        .partNumber(numero).contentLength((long) parte.length),
+                RequestBody.fromBytes(parte)).eTag();
+        return CompletedPart.builder().partNumber(numero).eTag(eTag).build();
+    }
+
+    private void adquirirBufer() throws IOException {
+        try {
+            bufers.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga interrumpida mientras esperaba memoria disponible", e);
+        }
+    }
+
+    private void abortar(String bucket, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(builder -> builder.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (RuntimeException e) {
+            logger.error("No fue posible abortar la carga multiparte de {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        envios.shutdownNow();
+    }
+}
@@ -0,0 +1,234 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.LecturaAgrupada;
+import co.com.capacitanet.aws.s3.PresignedUrlCache;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.curso.gateways.CursoAsyncRepository;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.BUCKET_NAME;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.CLAVE;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.DATOS;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.LOTE_LECTURA;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.TABLE_NAME;
+
+/**
+ * Implementación asíncrona de las consultas de cursos sobre el cliente asíncrono de DynamoDB. Ninguna
+ * operación bloquea al llamador: cada lectura devuelve un futuro y la siguiente se encadena cuando llega la
+ * respuesta, de modo que miles de consultas pueden estar en curso sin ocupar un hilo cada una. Las
+ * respuestas son las mismas que las de {@link CursoProcess}.
+ */
+@Component
+public class CursoAsyncProcess implements CursoAsyncRepository {
+
+    private static final Logger logger = LogManager.getLogger(CursoAsyncProcess.class);
+
+    private final DynamoDbAsyncClient client;
+    private final BlobCodec codec;
+    private final PresignedUrlCache urlFirmadas;
+    private final RecursoStore recursos;
+    private final EstadisticasCursos estadisticas;
+    private final LecturaAgrupada lecturas;
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructor de la clase CursoAsyncProcess.
+     *
+     * @param client       Cliente asíncrono de DynamoDB.
+     * @param codec        Codificación de los datos de los cursos guardados en DynamoDB.
+     * @param urlFirmadas  Caché de URLs prefirmadas de S3.
+     * @param recursos     Acceso a la tabla de recursos de los cursos.
+     * @param estadisticas Contadores de estadísticas de los cursos.
+     * @param lecturas     Lecturas agrupadas con reintento de las llaves no procesadas.
+     * @param mapper       Mapeador JSON compartido de la aplicación, para escribir las URLs de los recursos.
+     */
+    public CursoAsyncProcess(DynamoDbAsyncClient client, BlobCodec codec, PresignedUrlCache urlFirmadas,
+                             RecursoStore recursos, EstadisticasCursos estadisticas, LecturaAgrupada lecturas,
+                             ObjectMapper mapper) {
+        this.client = client;
+        this.codec = codec;
+        this.urlFirmadas = urlFirmadas;
+        this.recursos = recursos;
+        this.estadisticas = estadisticas;
+        this.lecturas = lecturas;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Obtiene la URL prefirmada de un recurso de un curso.
+     *
+     * @param cursoId   ID del curso al que pertenece el recurso.
+     * @param recursoId ID del recurso.
+     * @param userId    ID del usuario que solicita la URL.
+     * @return Futuro con la URL prefirmada o un mensaje de error.
+     */
+    @Override
+    public CompletableFuture<ResponseApp> obtenerUrlRecurso(String cursoId, String recursoId, String userId) {
+        return obtenerCursoPorIdAsync(cursoId)
+                .thenApply(curso -> {
+                    ResponseApp denegado = CursoProcess.validarAcceso(curso, cursoId, userId);
+                    return denegado != null ? denegado : CursoProcess.urlRecurso(urlFirmadas, curso, cursoId, recursoId);
+                })
+                .exceptionally(e -> {
+                    logger.error("Error al obtener la URL del recurso: {}", e.getMessage());
+                    return ResponseApp.builder().status(500).message("Error al generar la URL del recurso").build();
+                });
+    }
+
+    /**
+     * Obtiene las URLs prefirmadas de todos los recursos de un curso en un solo lote.
+     *
+     * @param cursoId ID del curso.
+     * @param userId  ID del usuario que solicita las URLs.
+     * @return Futuro con un JSON que asocia el ID de cada recurso con su URL, o un mensaje de error.
+     */
+    @Override
+    public CompletableFuture<ResponseApp> obtenerUrlsRecursos(String cursoId, String userId) {
+        return obtenerCursoPorIdAsync(cursoId)
+                .thenCompose(curso -> {
+                    ResponseApp denegado = CursoProcess.validarAcceso(curso, cursoId, userId);
+                    if (denegado != null) {
+                        return CompletableFuture.completedFuture(denegado);
+                    }
+                    List<Recurso> ordenados = CursoProcess.enOrden(curso);
+                    return urlFirmadas.obtenerUrlsAsync(BUCKET_NAME, ordenados.stream().map(Recurso::getS3Key).toList())
+                            .thenApply(urlsPorKey -> ResponseApp.builder().status(200)
+                                    .message(json(CursoProcess.urlsPorId(ordenados, urlsPorKey))).build());
+                })
+                .exceptionally(e -> {
+                    logger.error("Error al obtener las URLs de los recursos: {}", e.getMessage());
+                    return ResponseApp.builder().status(500).message("Error al generar las URLs de los recursos").build();
+                });
+    }
+
+    /**
+     * Obtiene las estadísticas de un curso sumando sus contadores fragmentados. Solo cuando todos los
+     * contadores están en cero se lee el curso, para distinguir un curso sin actividad de uno que no existe.
+     *
+     * @param cursoId ID del curso.
+     * @return Futuro con las estadísticas del curso, 404 si el curso no existe o un mensaje de error.
+     */
+    @Override
+    public CompletableFuture<Resultado<EstadisticasCurso>> obtenerEstadisticas(String cursoId) {
+        return estadisticas.obtenerAsync(cursoId)
+                .thenCompose(suma -> {
+                    if (!CursoProcess.sinActividad(suma)) {
+                        return CompletableFuture.completedFuture(Resultado.ok(suma));
+                    }
+                    return client.getItem(builder -> builder.tableName(TABLE_NAME)
+                                    .key(Map.of(CLAVE, AttributeValue.builder().s(cursoId).build()))
+                                    .projectionExpression("#clave")
+                                    .expressionAttributeNames(Map.of("#clave", CLAVE)))
+                            .thenApply(response -> {
+                                if (!response.hasItem()) {
+                                    logger.error("Curso no encontrado: {}", cursoId);
+                                    return Resultado.<EstadisticasCurso>error(404, "Curso no encontrado");
+                                }
+                                return Resultado.ok(suma);
+                            });
+                })
+                .exceptionally(e -> {
+                    logger.error("Error al obtener las estadísticas del curso {}: {}", cursoId, e.getMessage());
+                    return Resultado.error(500, "Error al obtener las estadísticas del curso");
+                });
+    }
+
+    /**
+     * Obtiene un curso por su ID con sus recursos.
+     *
+     * @param cursoId ID del curso a buscar.
+     * @return Futuro con el curso, o con null si no existe o no puede leerse.
+     */
+    public CompletableFuture<Curso> obtenerCursoPorIdAsync(String cursoId) {
+        return client.getItem(builder -> builder.tableName(TABLE_NAME)
+                        .key(Map.of(CLAVE, AttributeValue.builder().s(cursoId).build())))
+                .thenCompose(response -> {
+                    Curso curso = response.hasItem() ? leerCurso(response.item()) : null;
+                    if (curso == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return recursos.porCursoAsync(cursoId)
+                            .thenApply(separados -> CursoProcess.conRecursos(curso, separados));
+                });
+    }
+
+    /**
+     * Obtiene varios cursos por su ID con lecturas agrupadas de hasta 100 cursos, todas en curso a la vez,
+     * y luego consulta sus recursos también a la vez. Los cursos que no existen o no pueden leerse, incluidos
+     * los que DynamoDB no procesó en ninguna de las rondas de {@link LecturaAgrupada}, se omiten.
+     *
+     * @param cursoIds IDs de los cursos a buscar.
+     * @return Futuro con el mapa de ID de curso al curso encontrado.
+     */
+    public CompletableFuture<Map<String, Curso>> obtenerCursosPorIdsAsync(Collection<String> cursoIds) {
+        List<String> ids = List.copyOf(new LinkedHashSet<>(cursoIds));
+        List<CompletableFuture<Map<String, Curso>>> lotes = new ArrayList<>();
+        for (int desde = 0; desde < ids.size(); desde += LOTE_LECTURA) {
+            List<Map<String, AttributeValue>> llaves = ids.subList(desde, Math.min(desde + LOTE_LECTURA, ids.size()))
+                    .stream()
+                    .map(id -> Map.of(CLAVE, AttributeValue.builder().s(id).build()))
+                    .toList();
+            lotes.add(leerLote(Map.of(TABLE_NAME, KeysAndAttributes.builder().keys(llaves).build())));
+        }
+        return CompletableFuture.allOf(lotes.toArray(CompletableFuture[]::new))
+                .thenCompose(leidos -> {
+                    Map<String, Curso> cursos = new LinkedHashMap<>();
+                    lotes.forEach(lote -> cursos.putAll(lote.join()));
+                    return recursos.porCursosAsync(cursos.keySet()).thenApply(recursosCursos -> {
+                        cursos.forEach((id, curso) -> CursoProcess.conRecursos(curso, recursosCursos.getOrDefault(id, List.of())));
+                        return cursos;
+                    });
+                });
+    }
+
+    private CompletableFuture<Map<String, Curso>> leerLote(Map<String, KeysAndAttributes> llaves) {
+        Map<String, Curso> cursos = new LinkedHashMap<>();
+        return lecturas.leerAsync(llaves, response -> {
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(TABLE_NAME, List.of())) {
+                Curso curso = leerCurso(item);
+                if (curso != null) {
+                    cursos.put(item.get(CLAVE).s(), curso);
+                }
+            }
+        }).thenApply(restantes -> cursos);
+    }
+
+    private Curso leerCurso(Map<String, AttributeValue> item) {
+        try {
+            return codec.decodificar(item.get(DATOS), Curso.class);
+        } catch (IOException e) {
+            logger.error("Error al convertir el JSON a Curso: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String json(Map<String, String> urls) {
+        try {
+            return mapper.writeValueAsString(urls);
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
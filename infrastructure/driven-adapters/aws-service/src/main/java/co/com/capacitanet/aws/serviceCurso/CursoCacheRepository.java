@@ -0,0 +1,335 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.model.curso.Archivo;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.Ingesta;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.curso.gateways.CursoRepository;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de CursoRepository que mantiene en memoria los listados de cursos. Los listados se leen de
+ * DynamoDB solo cuando no están en caché; cada escritura exitosa invalida los listados que pudo modificar.
+ * Los cursos se guardan como objetos, no como JSON, y se comparten entre las solicitudes que los recorren,
+ * por lo que no deben modificarse. La caché está acotada por el tamaño estimado de los listados y publica sus
+ * estadísticas (aciertos, fallos, desalojos) en el actuator con el nombre {@code cursos}.
+ * <p>
+ * La consulta a DynamoDB se hace fuera del mapa de la caché: la caché solo registra un futuro que completa
+ * la solicitud que lo creó, así un hilo virtual que espera la consulta no queda fijado a su hilo portador.
+ * Esa solicitud recibe los cursos a medida que llegan de DynamoDB y solo guarda una copia para la caché
+ * mientras el listado no supere {@code cache.cursos.peso-listado}; un listado más grande no se almacena y la
+ * memoria de cada solicitud no crece con el tamaño del catálogo. El futuro se completa siempre, también
+ * cuando la consulta termina con un error no previsto, y las demás solicitudes lo esperan a lo sumo
+ * {@code cache.cursos.espera}: la consulta avanza al ritmo del cliente que la originó, y si este es lento,
+ * cada una consulta el listado por su cuenta.
+ */
+@Primary
+@Component
+public class CursoCacheRepository implements CursoRepository {
+
+    private static final Logger logger = LogManager.getLogger(CursoCacheRepository.class);
+
+    private static final String ACTIVOS = "activos";
+    private static final String PENDIENTES = "pendientes:";
+    private static final int OBJETO = 48;
+
+    private final CursoRepository delegado;
+    private final AsyncCache<String, List<Curso>> listados;
+    private final long pesoListado;
+    private final Duration espera;
+
+    /**
+     * Constructor de la clase CursoCacheRepository.
+     *
+     * @param delegado    Repositorio de cursos que consulta DynamoDB.
+     * @param registry    Registro de métricas donde se publican las estadísticas de la caché.
+     * @param pesoMaximo  Tamaño máximo estimado en bytes de los listados almacenados.
+     * @param pesoListado Tamaño máximo estimado en bytes de un listado para almacenarlo.
+     * @param expiracion  Tiempo máximo que un listado permanece en caché.
+     * @param espera      Tiempo máximo que una solicitud espera el listado que consulta otra.
+     */
+    public CursoCacheRepository(CursoProcess delegado, MeterRegistry registry,
+                                @Value("${cache.cursos.peso-maximo:33554432}") long pesoMaximo,
+                                @Value("${cache.cursos.peso-listado:4194304}") long pesoListado,
+                                @Value("${cache.cursos.expiracion:PT1M}") Duration expiracion,
+                                @Value("${cache.cursos.espera:PT5S}") Duration espera) {
+        this.delegado = delegado;
+        this.pesoListado = pesoListado;
+        this.espera = espera;
+        this.listados = Caffeine.newBuilder()
+                .maximumWeight(pesoMaximo)
+                .weigher((String key, List<Curso> cursos) -> pesoEnBytes(cursos))
+                .expireAfterWrite(expiracion)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, listados, "cursos");
+    }
+
+    /**
+     * Recorre los cursos desde la caché. Las solicitudes concurrentes del mismo listado que no está
+     * en caché esperan una única consulta a DynamoDB, que recibe los cursos a medida que llegan. Los
+     * listados con error no se almacenan y las solicitudes que los esperaban no reciben cursos; si el listado
+     * era demasiado grande para almacenarlo, cada una lo consulta por su cuenta.
+     *
+     * @param userId     ID del usuario que solicita los cursos.
+     * @param estado     Estado de los cursos a filtrar (activos/inactivos).
+     * @param consumidor Recibe cada curso del listado.
+     * @return Resultado de la consulta o un mensaje de error.
+     */
+    @Override
+    public Resultado<Void> obtenerCursos(String userId, boolean estado, Consumer<Curso> consumidor) {
+        CompletableFuture<List<Curso>> propio = new CompletableFuture<>();
+        CompletableFuture<List<Curso>> listado = listados.get(llave(userId, estado), (llave, executor) -> propio);
+        if (listado == propio) {
+            return consultar(userId, estado, propio, consumidor);
+        }
+        List<Curso> cursos;
+        try {
+            cursos = listado.copy().orTimeout(espera.toNanos(), TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                logger.warn("El listado de cursos {} no se consultó en {}, se consulta por separado",
+                        llave(userId, estado), espera);
+                return delegado.obtenerCursos(userId, estado, consumidor);
+            }
+            if (e.getCause() instanceof ListadoFallido fallido) {
+                return fallido.resultado;
+            }
+            if (e.getCause() instanceof ListadoNoAlmacenado) {
+                return delegado.obtenerCursos(userId, estado, consumidor);
+            }
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+        cursos.forEach(consumidor);
+        return Resultado.ok(null);
+    }
+
+    /**
+     * Consulta el listado en DynamoDB entregando cada curso al consumidor y completa el futuro que esperan
+     * las demás solicitudes. Un futuro fallido se retira de la caché, por lo que los errores y los listados
+     * que no se almacenan no quedan en ella. Cualquier error, incluidos los que no son excepciones en tiempo
+     * de ejecución, completa el futuro antes de propagarse, para que ninguna solicitud quede esperándolo.
+     */
+    private Resultado<Void> consultar(String userId, boolean estado, CompletableFuture<List<Curso>> listado,
+                                      Consumer<Curso> consumidor) {
+        Copia copia = new Copia(consumidor, pesoListado);
+        try {
+            Resultado<Void> resultado = delegado.obtenerCursos(userId, estado, copia);
+            if (copia.entregaFallida || (resultado.isExitoso() && copia.cursos == null)) {
+                listado.completeExceptionally(new ListadoNoAlmacenado());
+            } else if (resultado.isExitoso()) {
+                listado.complete(List.copyOf(copia.cursos));
+            } else {
+                listado.completeExceptionally(new ListadoFallido(resultado));
+            }
+            return resultado;
+        } catch (Throwable e) {
+            listado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Crea un curso e invalida el listado de cursos pendientes de su creador.
+     *
+     * @param curso Objeto Curso con la información del curso a registrar.
+     * @return Respuesta indicando el resultado de la operación.
+     */
+    @Override
+    public ResponseApp crearCurso(Curso curso) {
+        ResponseApp response = delegado.crearCurso(curso);
+        if (response.getStatus() == 200 && curso.getCreadorUsername() != null) {
+            listados.synchronous().invalidate(llave(curso.getCreadorUsername(), false));
+        }
+        return response;
+    }
+
+    /**
+     * Agrega un recurso a un curso e invalida todos los listados, ya que el curso puede
+     * aparecer tanto en el catálogo como en los pendientes de su creador.
+     *
+     * @param cursoId ID del curso al que se desea agregar el recurso.
+     * @param recurso Objeto Recurso con la información del recurso a agregar.
+     * @param archivo Archivo asociado al recurso.
+     * @return Respuesta indicando el resultado de la operación.
+     */
+    @Override
+    public ResponseApp agregarRecurso(String cursoId, Recurso recurso, Archivo archivo) {
+        ResponseApp response = delegado.agregarRecurso(cursoId, recurso, archivo);
+        if (response.getStatus() == 200) {
+            listados.synchronous().invalidateAll();
+        }
+        return response;
+    }
+
+    /**
+     * Agrega un recurso sin bloquear al llamador e invalida todos los listados cuando la carga termina.
+     *
+     * @param cursoId ID del curso al que se desea agregar el recurso.
+     * @param recurso Objeto Recurso con la información del recurso a agregar.
+     * @param archivo Archivo asociado al recurso.
+     * @param ingesta Estado de la ingesta.
+     * @return Futuro con la respuesta de la operación.
+     */
+    @Override
+    public CompletableFuture<ResponseApp> agregarRecursoAsync(String cursoId, Recurso recurso, Archivo archivo,
+                                                             Ingesta ingesta) {
+        return delegado.agregarRecursoAsync(cursoId, recurso, archivo, ingesta).thenApply(response -> {
+            if (response.getStatus() == 200) {
+                listados.synchronous().invalidateAll();
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Activa o desactiva un curso e invalida el catálogo y los pendientes del creador.
+     *
+     * @param cursoId ID del curso a activar o desactivar.
+     * @param userId  ID del usuario que realiza la operación.
+     * @return Respuesta indicando el resultado de la operación.
+     */
+    @Override
+    public ResponseApp activarCurso(String cursoId, String userId) {
+        ResponseApp response = delegado.activarCurso(cursoId, userId);
+        if (response.getStatus() == 200) {
+            listados.synchronous().invalidate(ACTIVOS);
+            listados.synchronous().invalidate(llave(userId, false));
+            logger.debug("Listados invalidados por activación del curso {}", cursoId);
+        }
+        return response;
+    }
+
+    /**
+     * Las URLs de los recursos no pasan por esta caché; su reutilización la maneja
+     * la caché de URLs prefirmadas.
+     */
+    @Override
+    public ResponseApp obtenerUrlRecurso(String cursoId, String recursoId, String userId) {
+        return delegado.obtenerUrlRecurso(cursoId, recursoId, userId);
+    }
+
+    @Override
+    public ResponseApp obtenerUrlsRecursos(String cursoId, String userId) {
+        return delegado.obtenerUrlsRecursos(cursoId, userId);
+    }
+
+    /**
+     * Las estadísticas tienen su propia caché, con una vigencia corta e independiente de los listados.
+     */
+    @Override
+    public Resultado<EstadisticasCurso> obtenerEstadisticas(String cursoId) {
+        return delegado.obtenerEstadisticas(cursoId);
+    }
+
+    private static String llave(String userId, boolean estado) {
+        return estado ? ACTIVOS : PENDIENTES + userId.toLowerCase(Locale.ROOT);
+    }
+
+    private static int pesoEnBytes(List<Curso> cursos) {
+        long peso = 0;
+        for (Curso curso : cursos) {
+            peso += pesoEnBytes(curso);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, peso);
+    }
+
+    /**
+     * Estima la memoria que ocupa un curso a partir de la longitud de sus textos, que dominan su tamaño,
+     * más una cantidad fija por objeto.
+     */
+    private static long pesoEnBytes(Curso curso) {
+        long peso = OBJETO + texto(curso.getCursoId()) + texto(curso.getTitulo()) + texto(curso.getDescripcion())
+                + texto(curso.getCreadorUsername());
+        for (String tag : curso.getTags()) {
+            peso += OBJETO + texto(tag);
+        }
+        for (Recurso recurso : curso.getRecursos()) {
+            peso += OBJETO + texto(recurso.getId()) + texto(recurso.getTipo()) + texto(recurso.getNombre())
+                    + texto(recurso.getS3Key());
+        }
+        return peso;
+    }
+
+    private static long texto(String valor) {
+        return valor == null ? 0 : OBJETO + 2L * valor.length();
+    }
+
+    /**
+     * Entrega cada curso consultado al consumidor de la solicitud y guarda una copia para la caché mientras
+     * el peso del listado no supere el máximo; al superarlo descarta la copia.
+     */
+    private static final class Copia implements Consumer<Curso> {
+        private final Consumer<Curso> consumidor;
+        private final long pesoMaximo;
+        private List<Curso> cursos = new ArrayList<>();
+        private long peso;
+        private boolean entregaFallida;
+
+        private Copia(Consumer<Curso> consumidor, long pesoMaximo) {
+            this.consumidor = consumidor;
+            this.pesoMaximo = pesoMaximo;
+        }
+
+        @Override
+        public void accept(Curso curso) {
+            if (cursos != null) {
+                peso += pesoEnBytes(curso);
+                if (peso <= pesoMaximo) {
+                    cursos.add(curso);
+                } else {
+                    cursos = null;
+                }
+            }
+            try {
+                consumidor.accept(curso);
+            } catch (Throwable e) {
+                entregaFallida = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Listado consultado con éxito que no se almacenó, por su tamaño o porque no pudo entregarse a la
+     * solicitud que lo consultó; las solicitudes que lo esperaban lo consultan por su cuenta.
+     */
+    private static final class ListadoNoAlmacenado extends RuntimeException {
+        private ListadoNoAlmacenado() {
+            super("Listado no almacenado en caché", null, false, false);
+        }
+    }
+
+    /**
+     * Resultado sin éxito de una consulta de listado, entregado a todas las solicitudes que la esperaban.
+     */
+    private static final class ListadoFallido extends RuntimeException {
+        private final transient Resultado<Void> resultado;
+
+        private ListadoFallido(Resultado<Void> resultado) {
+            super(resultado.getMessage(), null, false, false);
+            this.resultado = resultado;
+        }
+    }
+}
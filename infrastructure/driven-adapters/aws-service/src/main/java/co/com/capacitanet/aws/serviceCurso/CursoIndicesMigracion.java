@@ -0,0 +1,137 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.ParallelScanner;
+import co.com.capacitanet.model.curso.Curso;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.ACTIVO;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.CATALOGO;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.CLAVE;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.CREADOR;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.DATOS;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.TABLE_NAME;
+
+/**
+ * Migración que completa los atributos de primer nivel {@code active}, {@code catalogo} y
+ * {@code creadorUsername} en los cursos creados antes de que existieran los índices secundarios. Sin estos
+ * atributos los cursos no aparecen en las consultas de cursos activos y pendientes.
+ * <p>
+ * Se ejecuta al iniciar la aplicación cuando {@code aws.dynamodb.migraciones.indices-cursos} está
+ * habilitado. Es idempotente: solo toca los cursos a los que les faltan los atributos y cada
+ * actualización está condicionada a que el JSON del curso no haya cambiado desde que se leyó.
+ */
+@Component
+public class CursoIndicesMigracion {
+
+    private static final Logger logger = LogManager.getLogger(CursoIndicesMigracion.class);
+    private final DynamoDbClient client;
+    private final BlobCodec codec;
+    private final ParallelScanner scanner;
+    private final boolean habilitada;
+
+    /**
+     * Constructor de la clase CursoIndicesMigracion.
+     *
+     * @param client     Cliente de DynamoDB para interactuar con la base de datos.
+     * @param codec      Codificación de los datos de los cursos guardados en DynamoDB.
+     * @param scanner    Motor de escaneo paginado y paralelo de DynamoDB.
+     * @param habilitada Indica si la migración se ejecuta al iniciar la aplicación.
+     */
+    public CursoIndicesMigracion(DynamoDbClient client, BlobCodec codec, ParallelScanner scanner,
+                                 @Value("${aws.dynamodb.migraciones.indices-cursos:false}") boolean habilitada) {
+        this.client = client;
+        this.codec = codec;
+        this.scanner = scanner;
+        this.habilitada = habilitada;
+    }
+
+    /**
+     * Ejecuta la migración una vez el contexto de la aplicación está listo.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void alIniciar() {
+        if (habilitada) {
+            migrar();
+        }
+    }
+
+    /**
+     * Recorre los cursos sin atributos de índice y los completa a partir del JSON almacenado.
+     *
+     * @return Número de cursos migrados.
+     */
+    public int migrar() {
+        ScanRequest request = ScanRequest.builder()
+                .tableName(TABLE_NAME)
+                .filterExpression("attribute_not_exists(#activo) OR attribute_not_exists(#creador)"
+                        + " OR (#activo = :activo AND attribute_not_exists(#catalogo))")
+                .expressionAttributeNames(Map.of("#activo", ACTIVO, "#creador", CREADOR, "#catalogo", CATALOGO))
+                .expressionAttributeValues(Map.of(":activo", AttributeValue.builder().n("1").build()))
+                .build();
+        List<Map<String, AttributeValue>> pendientes = scanner.escanear(request, Function.identity(), item -> true);
+
+        int migrados = 0;
+        for (Map<String, AttributeValue> item : pendientes) {
+            if (migrarCurso(item)) {
+                migrados++;
+            }
+        }
+        logger.info("Migración de índices de cursos finalizada: {} de {} cursos actualizados", migrados, pendientes.size());
+        return migrados;
+    }
+
+    private boolean migrarCurso(Map<String, AttributeValue> item) {
+        String cursoId = item.get(CLAVE).s();
+        AttributeValue datos = item.get(DATOS);
+        try {
+            Curso curso = codec.decodificar(datos, Curso.class);
+
+            Map<String, String> nombres = new HashMap<>();
+            Map<String, AttributeValue> valores = new HashMap<>();
+            StringBuilder expresion = new StringBuilder("SET ");
+            for (Map.Entry<String, AttributeValue> atributo : CursoProcess.atributosIndices(curso).entrySet()) {
+                String nombre = "#" + atributo.getKey();
+                String valor = ":" + atributo.getKey();
+                if (!valores.isEmpty()) {
+                    expresion.append(", ");
+                }
+                expresion.append(nombre).append(" = ").append(valor);
+                nombres.put(nombre, atributo.getKey());
+                valores.put(valor, atributo.getValue());
+            }
+            nombres.put("#datos", DATOS);
+            valores.put(":datos", datos);
+
+            client.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of(CLAVE, item.get(CLAVE)))
+                    .updateExpression(expresion.toString())
+                    .conditionExpression("#datos = :datos")
+                    .expressionAttributeNames(nombres)
+                    .expressionAttributeValues(valores)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.info("El curso {} cambió durante la migración, se omite", cursoId);
+        } catch (Exception e) {
+            logger.error("Error al migrar los índices del curso {}: {}", cursoId, e.getMessage());
+        }
+        return false;
+    }
+}
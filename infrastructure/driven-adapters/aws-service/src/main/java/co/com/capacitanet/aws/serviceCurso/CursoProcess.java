@@ -1,10 +1,20 @@
 package co.com.capacitanet.aws.serviceCurso;
 
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.ConflictoConcurrenciaException;
+import co.com.capacitanet.aws.dynamo.LecturaAgrupada;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater.Actualizacion;
+import co.com.capacitanet.aws.s3.ContentAddressedStore;
+import co.com.capacitanet.aws.s3.PresignedUrlCache;
+import co.com.capacitanet.model.curso.Archivo;
 import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.Ingesta;
 import co.com.capacitanet.model.curso.Recurso;
 import co.com.capacitanet.model.curso.gateways.CursoRepository;
 import co.com.capacitanet.model.response.ResponseApp;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import co.com.capacitanet.model.response.Resultado;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,22 +22,29 @@ import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
-
-import java.io.File;
-import java.time.Duration;
+
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Clase que implementa la interfaz CursoRepository para manejar la lógica de negocio
@@ -39,76 +56,142 @@ import java.util.Map;
 public class CursoProcess implements CursoRepository {
 
     private static final Logger logger = LogManager.getLogger(CursoProcess.class);
-    private final ObjectMapper mapper = new ObjectMapper();
 
-    private static final String CLAVE = "cursoId";
-    private static final String DATOS = "datosCurso";
-    private static final String TABLE_NAME = "capacitanet_cursos";
-    private static final String BUCKET_NAME = "capacitanet-resource";
+    static final String CLAVE = "cursoId";
+    static final String DATOS = "datosCurso";
+    static final String ACTIVO = "active";
+    static final String CREADOR = "creadorUsername";
+    static final String CATALOGO = "catalogo";
+    static final String POSICIONES = "posiciones";
+    static final String GUARDADOS = "recursosGuardados";
+    static final String TABLE_NAME = "capacitanet_cursos";
+    private static final String INDICE_CATALOGO = "catalogo-index";
+    private static final String INDICE_CREADOR = "creadorUsername-active-index";
+    static final String BUCKET_NAME = "capacitanet-resource";
+    static final int LOTE_LECTURA = 100;
 
     private final DynamoDbClient client;
-    private final S3Client s3Client;
-    private final S3Presigner presigner;
+    private final BlobCodec codec;
+    private final ContentAddressedStore objetos;
+    private final PresignedUrlCache urlFirmadas;
+    private final RecursoStore recursos;
+    private final OptimisticUpdater actualizador;
+    private final EstadisticasCursos estadisticas;
+    private final LecturaAgrupada lecturas;
+    private final ObjectMapper mapper;
 
     /**
      * Constructor de la clase CursoProcess.
      *
-     * @param client    Cliente de DynamoDB para interactuar con la base de datos.
-     * @param s3Client  Cliente de S3 para interactuar con el almacenamiento de objetos.
-     * @param presigner Cliente para generar URLs prefirmadas de S3.
+     * @param client       Cliente de DynamoDB para interactuar con la base de datos.
+     * @param codec        Codificación de los datos de los cursos guardados en DynamoDB.
+     * @param objetos      Almacenamiento en S3 de los archivos según su contenido.
+     * @param urlFirmadas  Caché de URLs prefirmadas de S3.
+     * @param recursos     Acceso a la tabla de recursos de los cursos.
+     * @param actualizador Actualizaciones con control de concurrencia optimista.
+     * @param estadisticas Contadores de estadísticas de los cursos.
+     * @param lecturas     Lecturas agrupadas con reintento de las llaves no procesadas.
+     * @param mapper       Mapeador JSON compartido de la aplicación, para escribir las URLs de los recursos.
      */
-    public CursoProcess(DynamoDbClient client, S3Client s3Client, S3Presigner presigner) {
+    public CursoProcess(DynamoDbClient client, BlobCodec codec, ContentAddressedStore objetos,
+                        PresignedUrlCache urlFirmadas, RecursoStore recursos, OptimisticUpdater actualizador,
+                        EstadisticasCursos estadisticas, LecturaAgrupada lecturas, ObjectMapper mapper) {
         this.client = client;
-        this.s3Client = s3Client;
-        this.presigner = presigner;
+        this.codec = codec;
+        this.objetos = objetos;
+        this.urlFirmadas = urlFirmadas;
+        this.recursos = recursos;
+        this.actualizador = actualizador;
+        this.estadisticas = estadisticas;
+        this.lecturas = lecturas;
+        this.mapper = mapper;
     }
 
 
     /**
-     * Obtiene los cursos disponibles o inactivos según el estado.
+     * Recorre los cursos disponibles o inactivos según el estado. Cada curso se entrega al consumidor
+     * en cuanto su página se decodifica y sus recursos se cargan, sin reunir el listado completo en memoria.
      *
-     * @param userId ID del usuario que solicita los cursos.
-     * @param estado Estado de los cursos a filtrar (activos/inactivos).
-     * @return Respuesta con la lista de cursos o un mensaje de error.
+     * @param userId     ID del usuario que solicita los cursos.
+     * @param estado     Estado de los cursos a filtrar (activos/inactivos).
+     * @param consumidor Recibe cada curso obtenido.
+     * @return Resultado de la consulta o un mensaje de error.
      */
     @Override
-    public ResponseApp obtenerCursos(String userId, boolean estado) {
-        ScanRequest request = ScanRequest.builder()
-                .tableName(TABLE_NAME)
-                .build();
-
-        ScanResponse response = client.scan(request);
-
-        List<Curso> cursos = new ArrayList<>();
-        for (Map<String, AttributeValue> item : response.items()) {
-            String json = item.get(DATOS).s();
-            try {
-                Curso curso = new ObjectMapper().readValue(json, Curso.class);
-                if (curso.isActive() == estado) {
-                    for (Recurso rec : curso.getRecursos()) {
-                        String url = generarS3Url(rec.getS3Key());
-                        rec.setS3Key(url);
-                    }
-                    if (estado) {
-                        cursos.add(curso);
-                    } else {
-                        if (curso.getCreadorUsername().equalsIgnoreCase(userId)) {
-                            cursos.add(curso);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("Error al convertir el JSON a Curso: {}", e.getMessage());
-                return ResponseApp.builder().status(500).message("Error al convertir el JSON a Curso").build();
-            }
+    public Resultado<Void> obtenerCursos(String userId, boolean estado, Consumer<Curso> consumidor) {
+        Function<Map<String, AttributeValue>, Pagina> paginas;
+        if (estado) {
+            ScanRequest request = ScanRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .indexName(INDICE_CATALOGO)
+                    .build();
+            paginas = inicio -> {
+                ScanResponse response = client.scan(request.toBuilder().exclusiveStartKey(inicio).build());
+                return new Pagina(response.items(), response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null);
+            };
+        } else {
+            QueryRequest request = QueryRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .indexName(INDICE_CREADOR)
+                    .keyConditionExpression("#creador = :creador AND #activo = :activo")
+                    .expressionAttributeNames(Map.of("#creador", CREADOR, "#activo", ACTIVO))
+                    .expressionAttributeValues(Map.of(
+                            ":creador", AttributeValue.builder().s(creador(userId)).build(),
+                            ":activo", activo(false)))
+                    .build();
+            paginas = inicio -> {
+                QueryResponse response = client.query(request.toBuilder().exclusiveStartKey(inicio).build());
+                return new Pagina(response.items(), response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null);
+            };
         }
+
         try {
-            return ResponseApp.builder().status(200).message(mapper.writeValueAsString(cursos)).build();
-        } catch (JsonProcessingException e) {
-            return ResponseApp.builder().status(500).message("Error al convertir los cursos a JSON").build();
+            consultarCursos(paginas, consumidor);
+            return Resultado.ok(null);
+        } catch (CursoIlegibleException e) {
+            logger.error("Error al convertir el JSON a Curso: {}", e.getMessage());
+            return Resultado.error(500, "Error al convertir el JSON a Curso");
+        } catch (Exception e) {
+            logger.error("Error al consultar los cursos: {}", e.getMessage());
+            return Resultado.error(500, "Error al obtener los cursos");
         }
     }
 
+    /**
+     * Página de una lectura sobre un índice de cursos.
+     *
+     * @param items     Elementos de la página.
+     * @param siguiente Llave desde la que sigue la lectura, o {@code null} si es la última página.
+     */
+    private record Pagina(List<Map<String, AttributeValue>> items, Map<String, AttributeValue> siguiente) {
+    }
+
+    /**
+     * Recorre un índice de cursos siguiendo la paginación hasta el final, decodificando cada página
+     * a medida que llega y cargando en paralelo los recursos de sus cursos.
+     *
+     * @param paginas    Lee la página que empieza en la llave recibida ({@code null} para la primera).
+     * @param consumidor Recibe cada curso encontrado.
+     */
+    private void consultarCursos(Function<Map<String, AttributeValue>, Pagina> paginas, Consumer<Curso> consumidor) {
+        Map<String, AttributeValue> inicio = null;
+        do {
+            Pagina response = paginas.apply(inicio);
+            List<Curso> pagina = new ArrayList<>(response.items().size());
+            for (Map<String, AttributeValue> item : response.items()) {
+                pagina.add(leerCurso(item.get(DATOS)));
+            }
+            Map<String, List<Recurso>> recursosPagina = recursos.porCursos(
+                    pagina.stream().map(Curso::getCursoId).toList());
+            for (Curso curso : pagina) {
+                consumidor.accept(conRecursos(curso, recursosPagina.getOrDefault(curso.getCursoId(), List.of())));
+            }
+            inicio = response.siguiente() != null && !response.siguiente().isEmpty()
+                    ? response.siguiente()
+                    : null;
+        } while (inicio != null);
+    }
+
     /**
      * Crea un nuevo curso en la base de datos.
      *
@@ -118,10 +201,12 @@ public class CursoProcess implements CursoRepository {
     @Override
     public ResponseApp crearCurso(Curso curso) {
         try {
-            String json = mapper.writeValueAsString(curso);
             Map<String, AttributeValue> item = new HashMap<>();
             item.put(CLAVE, AttributeValue.builder().s(curso.getCursoId()).build());
-            item.put(DATOS, AttributeValue.builder().s(json).build());
+            item.put(DATOS, codec.codificar(curso));
+            item.putAll(atributosIndices(curso));
+            item.putAll(OptimisticUpdater.versionInicial());
+            item.put(GUARDADOS, AttributeValue.builder().n("0").build());
 
             PutItemRequest request = PutItemRequest.builder()
                     .tableName(TABLE_NAME)
@@ -132,7 +217,7 @@ public class CursoProcess implements CursoRepository {
             client.putItem(request);
             logger.info("Curso registrado exitosamente: {}", curso.getCursoId());
             return ResponseApp.builder().status(200).message("Curso registrado satisfactoriamente").build();
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             logger.error("Error al convertir un curso a JSON: {}", e.getMessage());
             return ResponseApp.builder().status(500).message("Error en el formato del curso").build();
         } catch (ConditionalCheckFailedException e) {
@@ -149,52 +234,94 @@ public class CursoProcess implements CursoRepository {
      *
      * @param cursoId ID del curso al que se desea agregar el recurso.
      * @param recurso Objeto Recurso con la información del recurso a agregar.
-     * @param file    Archivo asociado al recurso.
+     * @param archivo Archivo asociado al recurso; su contenido se lee una sola vez y se envía a S3 como
+     *                flujo. Si un archivo idéntico ya estaba almacenado, el recurso apunta a ese objeto.
      * @return Respuesta indicando el resultado de la operación.
      */
     @Override
-    public ResponseApp agregarRecurso(String cursoId, Recurso recurso, File file) {
+    public ResponseApp agregarRecurso(String cursoId, Recurso recurso, Archivo archivo) {
         try {
-            String keys3 = "cursos/" + cursoId + "/" + file.getName();
-
-            s3Client.putObject(builder -> builder.bucket(BUCKET_NAME).key(keys3).build(),
-                    file.toPath());
+            Integer posicion = asignarPosicion(cursoId);
+            if (posicion == null) {
+                logger.error("Curso no encontrado: {}", cursoId);
+                return ResponseApp.builder().status(404).message("Curso no encontrado").build();
+            }
 
+            recurso.setPosicion(posicion);
+            String keys3 = objetos.guardar(BUCKET_NAME, archivo);
 
             recurso.setS3Key(keys3);
+            recursos.agregar(cursoId, recurso);
+            logger.info("Recurso agregado al curso: {}", cursoId);
+            return ResponseApp.builder().status(200).message("Recurso agregado satisfactoriamente").build();
+        } catch (Exception e) {
+            logger.error("Error al agregar el recurso: {}", e.getMessage());
+            return ResponseApp.builder().status(500).message("Error al agregar el recurso").build();
+        }
+    }
 
-            Map<String, AttributeValue> key = new HashMap<>();
-            key.put(CLAVE, AttributeValue.builder().s(cursoId).build());
-            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
-            if (response.hasItem()) {
-                String jsonData = response.item().get(DATOS).s();
-                Curso cursoDB = mapper.readValue(jsonData, Curso.class);
-                cursoDB.getRecursos().add(recurso);
-
-                String json = mapper.writeValueAsString(cursoDB);
-
-                UpdateItemRequest request = UpdateItemRequest.builder()
-                        .tableName(TABLE_NAME)
-                        .key(key)
-                        .updateExpression("SET " + DATOS + " = :" + DATOS)
-                        .expressionAttributeValues(Map.of(
-                                ":" + DATOS, AttributeValue.builder().s(json).build()
-                        ))
-                        .build();
-
-                client.updateItem(request);
-                logger.info("Recurso agregado al curso: {}", cursoId);
-                return ResponseApp.builder().status(200).message("Recurso agregado satisfactoriamente").build();
-            } else {
+    /**
+     * Agrega un recurso a un curso existente sin bloquear al llamador durante la transferencia a S3.
+     * La existencia del curso se valida antes de iniciar la carga, de modo que un curso inexistente
+     * devuelve un futuro ya completado.
+     *
+     * @param cursoId ID del curso al que se desea agregar el recurso.
+     * @param recurso Objeto Recurso con la información del recurso a agregar.
+     * @param archivo Archivo asociado al recurso, ya recibido por completo.
+     * @param ingesta Estado de la ingesta, donde se reportan los bytes transferidos.
+     * @return Futuro con la respuesta de la operación.
+     */
+    @Override
+    public CompletableFuture<ResponseApp> agregarRecursoAsync(String cursoId, Recurso recurso, Archivo archivo,
+                                                             Ingesta ingesta) {
+        try {
+            Integer posicion = asignarPosicion(cursoId);
+            if (posicion == null) {
                 logger.error("Curso no encontrado: {}", cursoId);
-                return ResponseApp.builder().status(404).message("Curso no encontrado").build();
+                return CompletableFuture.completedFuture(ResponseApp.builder().status(404).message("Curso no encontrado").build());
             }
-        } catch (JsonProcessingException e) {
-            logger.error("Error al convertir el curso a JSON: {}", e.getMessage());
-            return ResponseApp.builder().status(500).message("Error en el formato del curso").build();
+            recurso.setPosicion(posicion);
         } catch (Exception e) {
-            logger.error("Error al agregar el recurso: {}", e.getMessage());
-            return ResponseApp.builder().status(500).message("Error al agregar el recurso").build();
+            logger.error("Error al consultar el curso {}: {}", cursoId, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseApp.builder().status(500).message("Error al agregar el recurso").build());
+        }
+
+        return objetos.guardarAsync(BUCKET_NAME, archivo, ingesta::setBytesTransferidos)
+                .thenCompose(keys3 -> {
+                    recurso.setS3Key(keys3);
+                    return recursos.agregarAsync(cursoId, recurso);
+                })
+                .thenApply(guardado -> {
+                    logger.info("Recurso agregado al curso: {}", cursoId);
+                    return ResponseApp.builder().status(200).message("Recurso agregado satisfactoriamente").build();
+                })
+                .exceptionally(e -> {
+                    logger.error("Error al agregar el recurso: {}", e.getMessage());
+                    return ResponseApp.builder().status(500).message("Error al agregar el recurso").build();
+                });
+    }
+
+    /**
+     * Reserva la siguiente posición de recurso del curso con un contador atómico en el elemento del curso.
+     * Las posiciones no se reutilizan, de modo que identifican a cada recurso en el progreso de las
+     * suscripciones aunque cambie el orden de presentación.
+     *
+     * @return La posición reservada, o {@code null} si el curso no existe.
+     */
+    private Integer asignarPosicion(String cursoId) {
+        try {
+            var response = client.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of(CLAVE, AttributeValue.builder().s(cursoId).build()))
+                    .updateExpression("ADD #posiciones :uno")
+                    .conditionExpression("attribute_exists(#clave)")
+                    .expressionAttributeNames(Map.of("#posiciones", POSICIONES, "#clave", CLAVE))
+                    .expressionAttributeValues(Map.of(":uno", AttributeValue.builder().n("1").build()))
+                    .returnValues(ReturnValue.UPDATED_NEW)
+                    .build());
+            return Integer.parseInt(response.attributes().get(POSICIONES).n()) - 1;
+        } catch (ConditionalCheckFailedException e) {
+            return null;
         }
     }
 
@@ -209,36 +336,34 @@ public class CursoProcess implements CursoRepository {
     @Override
     public ResponseApp activarCurso(String cursoId, String userId) {
         try {
-
             Map<String, AttributeValue> key = new HashMap<>();
             key.put(CLAVE, AttributeValue.builder().s(cursoId).build());
-            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
-            if (response.hasItem()) {
-                String jsonData = response.item().get(DATOS).s();
-                Curso cursoDB = mapper.readValue(jsonData, Curso.class);
-                if (!cursoDB.getCreadorUsername().equalsIgnoreCase(userId)) {
-                    return ResponseApp.builder().status(401).message("Cambios no autorizados").build();
+            AtomicBoolean autorizado = new AtomicBoolean(true);
+            Actualizacion resultado = actualizador.actualizar(TABLE_NAME, key, actual -> {
+                Curso cursoDB = codec.decodificar(actual.get(DATOS), Curso.class);
+                autorizado.set(cursoDB.getCreadorUsername().equalsIgnoreCase(userId));
+                if (!autorizado.get()) {
+                    return Map.of();
                 }
                 cursoDB.setActive(!cursoDB.isActive());
-                String json = mapper.writeValueAsString(cursoDB);
-
-                UpdateItemRequest request = UpdateItemRequest.builder()
-                        .tableName(TABLE_NAME)
-                        .key(key)
-                        .updateExpression("SET " + DATOS + " = :" + DATOS)
-                        .expressionAttributeValues(Map.of(
-                                ":" + DATOS, AttributeValue.builder().s(json).build()
-                        ))
-                        .build();
-
-                client.updateItem(request);
-                logger.info("Curso activado: {}", cursoId);
-                return ResponseApp.builder().status(200).message("Curso activado satisfactoriamente").build();
-
-            } else {
+                return Map.of(
+                        DATOS, codec.codificar(cursoDB),
+                        ACTIVO, activo(cursoDB.isActive()),
+                        CATALOGO, cursoDB.isActive() ? catalogo(cursoId) : OptimisticUpdater.ELIMINAR);
+            });
+
+            if (resultado == Actualizacion.NO_ENCONTRADO) {
                 logger.error("Curso no encontrado para activar: {}", cursoId);
                 return ResponseApp.builder().status(404).message("Curso no encontrado").build();
             }
+            if (!autorizado.get()) {
+                return ResponseApp.builder().status(401).message("Cambios no autorizados").build();
+            }
+            logger.info("Curso activado: {}", cursoId);
+            return ResponseApp.builder().status(200).message("Curso activado satisfactoriamente").build();
+        } catch (ConflictoConcurrenciaException e) {
+            logger.warn("Conflicto al activar el curso {}: {}", cursoId, e.getMessage());
+            return ResponseApp.builder().status(409).message("El curso fue modificado al mismo tiempo, intenta nuevamente").build();
         } catch (Exception e) {
             logger.error("Error al activar el recurso: {}", e.getMessage());
             return ResponseApp.builder().status(500).message("Error al activar el curso").build();
@@ -246,32 +371,214 @@ public class CursoProcess implements CursoRepository {
     }
 
     /**
-     * Genera una URL prefirmada para acceder a un recurso en S3.
+     * Obtiene la URL prefirmada de un recurso de un curso.
      *
-     * @param key Clave del recurso en S3.
-     * @return URL prefirmada o null en caso de error.
+     * @param cursoId   ID del curso al que pertenece el recurso.
+     * @param recursoId ID del recurso.
+     * @param userId    ID del usuario que solicita la URL.
+     * @return Respuesta con la URL prefirmada o un mensaje de error.
      */
-    private String generarS3Url(String key) {
+    @Override
+    public ResponseApp obtenerUrlRecurso(String cursoId, String recursoId, String userId) {
         try {
+            Curso curso = obtenerCursoPorId(cursoId);
+            ResponseApp denegado = validarAcceso(curso, cursoId, userId);
+            if (denegado != null) {
+                return denegado;
+            }
+            return urlRecurso(urlFirmadas, curso, cursoId, recursoId);
+        } catch (Exception e) {
+            logger.error("Error al obtener la URL del recurso: {}", e.getMessage());
+            return ResponseApp.builder().status(500).message("Error al generar la URL del recurso").build();
+        }
+    }
 
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(BUCKET_NAME)
-                    .key(key)
-                    .build();
+    /**
+     * Obtiene las URLs prefirmadas de todos los recursos de un curso en un solo lote.
+     *
+     * @param cursoId ID del curso.
+     * @param userId  ID del usuario que solicita las URLs.
+     * @return Respuesta con un JSON que asocia el ID de cada recurso con su URL, o un mensaje de error.
+     */
+    @Override
+    public ResponseApp obtenerUrlsRecursos(String cursoId, String userId) {
+        try {
+            Curso curso = obtenerCursoPorId(cursoId);
+            ResponseApp denegado = validarAcceso(curso, cursoId, userId);
+            if (denegado != null) {
+                return denegado;
+            }
+            List<Recurso> recursos = enOrden(curso);
+            Map<String, String> urlsPorKey = urlFirmadas.obtenerUrls(BUCKET_NAME,
+                    recursos.stream().map(Recurso::getS3Key).toList());
+            return ResponseApp.builder().status(200).message(mapper.writeValueAsString(urlsPorId(recursos, urlsPorKey))).build();
+        } catch (Exception e) {
+            logger.error("Error al obtener las URLs de los recursos: {}", e.getMessage());
+            return ResponseApp.builder().status(500).message("Error al generar las URLs de los recursos").build();
+        }
+    }
 
-            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofMinutes(5))
-                    .getObjectRequest(getObjectRequest)
-                    .build();
+    /**
+     * Obtiene las estadísticas de un curso sumando sus contadores fragmentados, sin recorrer las
+     * suscripciones. Solo cuando todos los contadores están en cero se lee el curso, para distinguir un
+     * curso sin actividad de uno que no existe.
+     *
+     * @param cursoId ID del curso.
+     * @return Resultado con las estadísticas del curso, 404 si el curso no existe o un mensaje de error.
+     */
+    @Override
+    public Resultado<EstadisticasCurso> obtenerEstadisticas(String cursoId) {
+        try {
+            EstadisticasCurso suma = estadisticas.obtener(cursoId);
+            if (sinActividad(suma) && !client.getItem(builder -> builder.tableName(TABLE_NAME)
+                    .key(Map.of(CLAVE, AttributeValue.builder().s(cursoId).build()))
+                    .projectionExpression("#clave")
+                    .expressionAttributeNames(Map.of("#clave", CLAVE))).hasItem()) {
+                logger.error("Curso no encontrado: {}", cursoId);
+                return Resultado.error(404, "Curso no encontrado");
+            }
+            return Resultado.ok(suma);
+        } catch (Exception e) {
+            logger.error("Error al obtener las estadísticas del curso {}: {}", cursoId, e.getMessage());
+            return Resultado.error(500, "Error al obtener las estadísticas del curso");
+        }
+    }
 
-            PresignedGetObjectRequest presignedGetObjectRequest = presigner.presignGetObject(presignRequest);
-            String url = presignedGetObjectRequest.url().toString();
+    /**
+     * Indica si un curso no registra suscriptores, insignias ni visualizaciones. Solo un curso así puede
+     * no existir, ya que los contadores se suman al suscribirse a un curso existente.
+     */
+    static boolean sinActividad(EstadisticasCurso suma) {
+        return suma.getSuscriptores() == 0 && suma.getCompletados() == 0 && suma.getVisualizaciones() == 0;
+    }
 
-            logger.info("URL de S3 generada: {}", url);
-            return url;
-        } catch (Exception e) {
-            logger.error("Error al generar la URL de S3: {}", e.getMessage());
-            return null;
+    /**
+     * Verifica que el curso exista y que el usuario pueda ver sus recursos: los cursos activos
+     * son visibles para todos, los pendientes solo para su creador.
+     *
+     * @return Respuesta de error si el acceso no está permitido, o null si lo está.
+     */
+    static ResponseApp validarAcceso(Curso curso, String cursoId, String userId) {
+        if (curso == null) {
+            logger.info("Curso no encontrado: {}", cursoId);
+            return ResponseApp.builder().status(404).message("Curso no encontrado").build();
+        }
+        if (!curso.isActive() && !userId.equalsIgnoreCase(curso.getCreadorUsername())) {
+            return ResponseApp.builder().status(401).message("Cambios no autorizados").build();
+        }
+        return null;
+    }
+
+    /**
+     * Firma la URL de un recurso de un curso al que el usuario ya tiene acceso.
+     *
+     * @return Respuesta con la URL prefirmada, o el error si el recurso no existe o no pudo firmarse.
+     */
+    static ResponseApp urlRecurso(PresignedUrlCache urlFirmadas, Curso curso, String cursoId, String recursoId) {
+        Recurso recurso = buscarRecurso(curso, recursoId);
+        if (recurso == null) {
+            logger.info("Recurso {} no encontrado en el curso {}", recursoId, cursoId);
+            return ResponseApp.builder().status(404).message("Recurso no encontrado").build();
+        }
+        String url = urlFirmadas.obtenerUrl(BUCKET_NAME, recurso.getS3Key());
+        if (url == null) {
+            return ResponseApp.builder().status(500).message("Error al generar la URL del recurso").build();
+        }
+        return ResponseApp.builder().status(200).message(url).build();
+    }
+
+    /**
+     * Recursos del curso ordenados por su orden de presentación.
+     */
+    static List<Recurso> enOrden(Curso curso) {
+        List<Recurso> recursos = new ArrayList<>(curso.getRecursos());
+        recursos.sort(Comparator.comparingInt(Recurso::getOrder));
+        return recursos;
+    }
+
+    /**
+     * Asocia el ID de cada recurso con la URL firmada de su objeto, conservando el orden de los recursos.
+     */
+    static Map<String, String> urlsPorId(List<Recurso> recursos, Map<String, String> urlsPorKey) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (Recurso rec : recursos) {
+            urls.put(rec.getId(), urlsPorKey.get(rec.getS3Key()));
+        }
+        return urls;
+    }
+
+    private static Recurso buscarRecurso(Curso curso, String recursoId) {
+        return curso.getRecursos().stream()
+                .filter(rec -> recursoId.equals(rec.getId()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Construye los atributos de primer nivel que alimentan los índices secundarios de cursos.
+     * Las llaves de un GSI no admiten booleanos, por lo que el estado se guarda como número (1/0),
+     * y el creador se normaliza a minúsculas para conservar la comparación sin distinguir mayúsculas.
+     * {@value #CATALOGO} solo existe en los cursos activos y lleva su ID, de modo que su índice es disperso:
+     * contiene solo el catálogo y reparte sus escrituras entre particiones.
+     *
+     * @param curso Curso del que se extraen los atributos.
+     * @return Mapa con los atributos {@value #ACTIVO}, {@value #CATALOGO} si el curso está activo y
+     * {@value #CREADOR} si existe.
+     */
+    static Map<String, AttributeValue> atributosIndices(Curso curso) {
+        Map<String, AttributeValue> atributos = new HashMap<>();
+        atributos.put(ACTIVO, activo(curso.isActive()));
+        if (curso.isActive()) {
+            atributos.put(CATALOGO, catalogo(curso.getCursoId()));
+        }
+        if (curso.getCreadorUsername() != null) {
+            atributos.put(CREADOR, AttributeValue.builder().s(creador(curso.getCreadorUsername())).build());
+        }
+        return atributos;
+    }
+
+    private static AttributeValue activo(boolean activo) {
+        return AttributeValue.builder().n(activo ? "1" : "0").build();
+    }
+
+    private static AttributeValue catalogo(String cursoId) {
+        return AttributeValue.builder().s(cursoId).build();
+    }
+
+    private static String creador(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Combina los recursos guardados en la tabla de recursos con los que aún estén dentro del JSON
+     * del curso (cursos que no han pasado por la migración), sin duplicarlos y ordenados por su orden.
+     *
+     * @param curso     Curso leído de la tabla de cursos.
+     * @param separados Recursos del curso leídos de la tabla de recursos.
+     * @return El mismo curso con la lista completa de recursos.
+     */
+    static Curso conRecursos(Curso curso, List<Recurso> separados) {
+        Map<String, Recurso> porId = new LinkedHashMap<>();
+        curso.getRecursos().forEach(rec -> porId.put(rec.getId(), rec));
+        separados.forEach(rec -> porId.put(rec.getId(), rec));
+        List<Recurso> todos = new ArrayList<>(porId.values());
+        todos.sort(Comparator.comparingInt(Recurso::getOrder));
+        curso.setRecursos(todos);
+        return curso;
+    }
+
+    /**
+     * Convierte los datos almacenados en DynamoDB a un objeto Curso.
+     *
+     * @param datos Atributo con los datos del curso.
+     * @return Objeto Curso.
+     * @throws CursoIlegibleException Si los datos no corresponden a un curso válido.
+     */
+    private Curso leerCurso(AttributeValue datos) {
+        try {
+            return codec.decodificar(datos, Curso.class);
+        } catch (IOException e) {
+            throw new CursoIlegibleException(e);
         }
     }
 
@@ -286,13 +593,93 @@ public class CursoProcess implements CursoRepository {
         key.put(CLAVE, AttributeValue.builder().s(cursoId).build());
         var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
         if (response.hasItem()) {
-            String json = response.item().get(DATOS).s();
             try {
-                return new ObjectMapper().readValue(json, Curso.class);
+                Curso curso = codec.decodificar(response.item().get(DATOS), Curso.class);
+                return conRecursos(curso, recursos.porCurso(cursoId));
             } catch (Exception e) {
                 logger.error("Error al convertir el JSON a Curso: {}", e.getMessage());
             }
         }
         return null;
     }
+
+    /**
+     * Obtiene un recurso de un curso. Los recursos de la tabla de recursos se leen por llave; los que aún
+     * están dentro del JSON del curso se buscan en el curso completo.
+     *
+     * @param cursoId   ID del curso.
+     * @param recursoId ID del recurso.
+     * @return El recurso, o {@code null} si el curso no lo contiene.
+     */
+    public Recurso obtenerRecurso(String cursoId, String recursoId) {
+        Recurso recurso = recursos.buscar(cursoId, recursoId);
+        if (recurso != null) {
+            return recurso;
+        }
+        Curso curso = obtenerCursoPorId(cursoId);
+        if (curso == null) {
+            return null;
+        }
+        return buscarRecurso(curso, recursoId);
+    }
+
+    /**
+     * Obtiene el número de recursos con posición de un curso, leyendo solo su contador de recursos
+     * guardados. Los cursos que no agregaron recursos desde que existe el contador usan el de posiciones.
+     *
+     * @param cursoId ID del curso.
+     * @return Número de recursos con posición, o 0 si el curso no existe o no tiene ninguno.
+     */
+    public int totalRecursos(String cursoId) {
+        var response = client.getItem(builder -> builder.tableName(TABLE_NAME)
+                .key(Map.of(CLAVE, AttributeValue.builder().s(cursoId).build()))
+                .projectionExpression("#guardados, #posiciones")
+                .expressionAttributeNames(Map.of("#guardados", GUARDADOS, "#posiciones", POSICIONES)));
+        if (!response.hasItem()) {
+            return 0;
+        }
+        AttributeValue total = response.item().getOrDefault(GUARDADOS, response.item().get(POSICIONES));
+        return total == null ? 0 : Integer.parseInt(total.n());
+    }
+
+    /**
+     * Obtiene varios cursos por su ID con lecturas agrupadas de hasta 100 cursos, y carga sus
+     * recursos en paralelo. Los cursos que no existen o no pueden leerse, incluidos los que DynamoDB
+     * no procesó en ninguna de las rondas de {@link LecturaAgrupada}, se omiten.
+     *
+     * @param cursoIds IDs de los cursos a buscar.
+     * @return Mapa de ID de curso al curso encontrado.
+     */
+    public Map<String, Curso> obtenerCursosPorIds(Collection<String> cursoIds) {
+        List<String> ids = List.copyOf(new LinkedHashSet<>(cursoIds));
+        Map<String, Curso> cursos = new LinkedHashMap<>();
+        for (int desde = 0; desde < ids.size(); desde += LOTE_LECTURA) {
+            List<Map<String, AttributeValue>> llaves = ids.subList(desde, Math.min(desde + LOTE_LECTURA, ids.size()))
+                    .stream()
+                    .map(id -> Map.of(CLAVE, AttributeValue.builder().s(id).build()))
+                    .toList();
+            lecturas.leer(Map.of(TABLE_NAME, KeysAndAttributes.builder().keys(llaves).build()), response -> {
+                for (Map<String, AttributeValue> item : response.responses().getOrDefault(TABLE_NAME, List.of())) {
+                    try {
+                        cursos.put(item.get(CLAVE).s(), codec.decodificar(item.get(DATOS), Curso.class));
+                    } catch (IOException e) {
+                        logger.error("Error al convertir el JSON a Curso: {}", e.getMessage());
+                    }
+                }
+            });
+        }
+        Map<String, List<Recurso>> recursosCursos = recursos.porCursos(cursos.keySet());
+        cursos.forEach((id, curso) -> conRecursos(curso, recursosCursos.getOrDefault(id, List.of())));
+        return cursos;
+    }
+
+    /**
+     * Indica que los datos de un curso guardados en DynamoDB no pudieron decodificarse, para
+     * distinguirlo de los errores del consumidor de un listado.
+     */
+    private static final class CursoIlegibleException extends RuntimeException {
+        private CursoIlegibleException(IOException causa) {
+            super(causa.getMessage(), causa);
+        }
+    }
 }
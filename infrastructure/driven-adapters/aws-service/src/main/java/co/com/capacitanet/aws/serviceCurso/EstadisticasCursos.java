@@ -0,0 +1,218 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.LecturaAgrupada;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contadores de estadísticas por curso: suscriptores, usuarios que completaron el curso y módulos
+ * visualizados. Cada contador se reparte en un número fijo de fragmentos con llave
+ * {@code cursoId#n}; cada evento suma con un {@code ADD} atómico sobre un fragmento elegido al azar, de
+ * modo que las escrituras de un curso popular se distribuyen entre varias particiones en lugar de
+ * concentrarse en un solo elemento.
+ * <p>
+ * La lectura obtiene todos los fragmentos de un curso en una sola lectura agrupada, suma sus valores y
+ * guarda el resultado en caché durante la vigencia configurada; nunca recorre la tabla. Si tras las rondas de
+ * {@link LecturaAgrupada} quedan fragmentos sin leer, la lectura falla en lugar de devolver una suma
+ * parcial. La lectura la hace la primera solicitud fuera del mapa de la caché y las demás esperan su futuro;
+ * las lecturas síncronas y asíncronas comparten la misma caché. Cualquier error de la lectura, sea o no una
+ * excepción en tiempo de ejecución, completa el futuro que esperan las demás, de modo que ninguna queda
+ * esperando. Un error al contar se registra y no interrumpe la operación del usuario que lo originó.
+ */
+@Component
+public class EstadisticasCursos {
+
+    private static final Logger logger = LogManager.getLogger(EstadisticasCursos.class);
+
+    static final String TABLE_NAME = "capacitanet_estadisticas";
+    static final String FRAGMENTO = "fragmento";
+    static final String SUSCRIPTORES = "suscriptores";
+    static final String COMPLETADOS = "completados";
+    static final String VISUALIZACIONES = "visualizaciones";
+
+    private final DynamoDbClient client;
+    private final int fragmentos;
+    private final LecturaAgrupada lecturas;
+    private final AsyncCache<String, EstadisticasCurso> estadisticas;
+
+    /**
+     * Constructor de la clase EstadisticasCursos.
+     *
+     * @param client     Cliente de DynamoDB.
+     * @param lecturas   Lecturas agrupadas con reintento de las llaves no procesadas.
+     * @param fragmentos Número de fragmentos en que se reparte el contador de cada curso.
+     * @param vigencia   Tiempo que una suma permanece en caché antes de volver a leerse.
+     * @param maximo     Número máximo de cursos con estadísticas en caché.
+     */
+    public EstadisticasCursos(DynamoDbClient client, LecturaAgrupada lecturas,
+                              @Value("${estadisticas.fragmentos:8}") int fragmentos,
+                              @Value("${estadisticas.vigencia:PT30S}") Duration vigencia,
+                              @Value("${estadisticas.maximo:10000}") long maximo) {
+        if (fragmentos < 1 || fragmentos > 100) {
+            throw new IllegalArgumentException("El número de fragmentos de las estadísticas debe estar entre 1 y 100");
+        }
+        this.client = client;
+        this.lecturas = lecturas;
+        this.fragmentos = fragmentos;
+        this.estadisticas = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(vigencia)
+                .buildAsync();
+    }
+
+    /**
+     * Suma eventos a los contadores de un curso en un fragmento al azar. Los contadores en cero no se
+     * escriben.
+     *
+     * @param cursoId         ID del curso.
+     * @param suscriptores    Nuevos suscriptores.
+     * @param visualizaciones Módulos visualizados.
+     * @param completados     Usuarios que completaron el curso.
+     */
+    public void registrar(String cursoId, long suscriptores, long visualizaciones, long completados) {
+        Map<String, String> nombres = new HashMap<>();
+        Map<String, AttributeValue> valores = new HashMap<>();
+        List<String> sumas = new ArrayList<>();
+        sumar(SUSCRIPTORES, suscriptores, nombres, valores, sumas);
+        sumar(VISUALIZACIONES, visualizaciones, nombres, valores, sumas);
+        sumar(COMPLETADOS, completados, nombres, valores, sumas);
+        if (sumas.isEmpty()) {
+            return;
+        }
+        String fragmento = llave(cursoId, ThreadLocalRandom.current().nextInt(fragmentos));
+        try {
+            client.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of(FRAGMENTO, AttributeValue.builder().s(fragmento).build()))
+                    .updateExpression("ADD " + String.join(", ", sumas))
+                    .expressionAttributeNames(nombres)
+                    .expressionAttributeValues(valores)
+                    .build());
+        } catch (Exception e) {
+            logger.error("Error al actualizar las estadísticas del curso {}: {}", cursoId, e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de un curso, desde la caché si se sumaron hace menos de la vigencia.
+     *
+     * @param cursoId ID del curso.
+     * @return Estadísticas del curso; en cero si aún no registra eventos.
+     */
+    public EstadisticasCurso obtener(String cursoId) {
+        CompletableFuture<EstadisticasCurso> propio = new CompletableFuture<>();
+        CompletableFuture<EstadisticasCurso> suma = estadisticas.get(cursoId, (llave, executor) -> propio);
+        if (suma == propio) {
+            try {
+                propio.complete(sumar(cursoId));
+            } catch (Throwable e) {
+                propio.completeExceptionally(e);
+            }
+        }
+        return suma.join();
+    }
+
+    /**
+     * Obtiene las estadísticas de un curso sin bloquear al llamador, desde la caché si se sumaron hace
+     * menos de la vigencia.
+     *
+     * @param cursoId ID del curso.
+     * @return Futuro con las estadísticas del curso; en cero si aún no registra eventos.
+     */
+    public CompletableFuture<EstadisticasCurso> obtenerAsync(String cursoId) {
+        CompletableFuture<EstadisticasCurso> propio = new CompletableFuture<>();
+        CompletableFuture<EstadisticasCurso> suma = estadisticas.get(cursoId, (llave, executor) -> propio);
+        if (suma == propio) {
+            try {
+                sumarAsync(cursoId).whenComplete((resultado, error) -> {
+                    if (error == null) {
+                        propio.complete(resultado);
+                    } else {
+                        propio.completeExceptionally(error);
+                    }
+                });
+            } catch (Throwable e) {
+                propio.completeExceptionally(e);
+            }
+        }
+        return suma;
+    }
+
+    private EstadisticasCurso sumar(String cursoId) {
+        EstadisticasCurso total = EstadisticasCurso.builder().cursoId(cursoId).build();
+        return completa(total, lecturas.leer(fragmentos(cursoId), response -> acumular(total, response)));
+    }
+
+    private CompletableFuture<EstadisticasCurso> sumarAsync(String cursoId) {
+        EstadisticasCurso total = EstadisticasCurso.builder().cursoId(cursoId).build();
+        return lecturas.leerAsync(fragmentos(cursoId), response -> acumular(total, response))
+                .thenApply(restantes -> completa(total, restantes));
+    }
+
+    /**
+     * Una suma a la que le faltan fragmentos no se devuelve ni se guarda en caché: sería menor que la real.
+     */
+    private static EstadisticasCurso completa(EstadisticasCurso total, Map<String, KeysAndAttributes> restantes) {
+        if (!restantes.isEmpty()) {
+            throw new IllegalStateException("No se pudieron leer todos los fragmentos de las estadísticas del curso "
+                    + total.getCursoId());
+        }
+        return total;
+    }
+
+    private Map<String, KeysAndAttributes> fragmentos(String cursoId) {
+        List<Map<String, AttributeValue>> llaves = new ArrayList<>(fragmentos);
+        for (int n = 0; n < fragmentos; n++) {
+            llaves.add(Map.of(FRAGMENTO, AttributeValue.builder().s(llave(cursoId, n)).build()));
+        }
+        return Map.of(TABLE_NAME, KeysAndAttributes.builder().keys(llaves).build());
+    }
+
+    /**
+     * Suma los fragmentos leídos al total.
+     */
+    private static void acumular(EstadisticasCurso total, BatchGetItemResponse response) {
+        for (Map<String, AttributeValue> item : response.responses().getOrDefault(TABLE_NAME, List.of())) {
+            total.setSuscriptores(total.getSuscriptores() + numero(item, SUSCRIPTORES));
+            total.setCompletados(total.getCompletados() + numero(item, COMPLETADOS));
+            total.setVisualizaciones(total.getVisualizaciones() + numero(item, VISUALIZACIONES));
+        }
+    }
+
+    private static void sumar(String atributo, long cantidad, Map<String, String> nombres,
+                              Map<String, AttributeValue> valores, List<String> sumas) {
+        if (cantidad == 0) {
+            return;
+        }
+        nombres.put("#" + atributo, atributo);
+        valores.put(":" + atributo, AttributeValue.builder().n(Long.toString(cantidad)).build());
+        sumas.add("#" + atributo + " :" + atributo);
+    }
+
+    private static long numero(Map<String, AttributeValue> item, String atributo) {
+        AttributeValue valor = item.get(atributo);
+        return valor == null ? 0 : Long.parseLong(valor.n());
+    }
+
+    static String llave(String cursoId, int fragmento) {
+        return cursoId + "#" + fragmento;
+    }
+}
@@ -0,0 +1,289 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.model.curso.Recurso;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acceso a la tabla de recursos de los cursos. Cada recurso es un elemento independiente con llave
+ * {@code (cursoId, recursoId)}, de modo que agregar un módulo es una única escritura y cargar los
+ * recursos de un curso es una única consulta, sin leer ni reescribir el JSON del curso.
+ * <p>
+ * Las lecturas asíncronas usan el cliente asíncrono de DynamoDB y no ocupan hilos mientras esperan.
+ */
+@Component
+public class RecursoStore implements DisposableBean {
+
+    static final String TABLE_NAME = "capacitanet_recursos";
+    static final String CURSO = "cursoId";
+    static final String RECURSO = "recursoId";
+    private static final String ORDEN = "order";
+    private static final String POSICION = "posicion";
+    private static final String TIPO = "tipo";
+    private static final String NOMBRE = "nombre";
+    private static final String S3_KEY = "s3Key";
+
+    private final DynamoDbClient client;
+    private final DynamoDbAsyncClient asyncClient;
+    private final ThreadPoolExecutor consultas;
+
+    /**
+     * Constructor de la clase RecursoStore.
+     *
+     * @param client      Cliente de DynamoDB para interactuar con la base de datos.
+     * @param asyncClient Cliente asíncrono de DynamoDB para las lecturas que no bloquean.
+     * @param hilos       Número de consultas de recursos que se ejecutan en paralelo al cargar varios cursos.
+     */
+    public RecursoStore(DynamoDbClient client, DynamoDbAsyncClient asyncClient,
+                        @Value("${aws.dynamodb.recursos.hilos:8}") int hilos) {
+        this.client = client;
+        this.asyncClient = asyncClient;
+        AtomicInteger contador = new AtomicInteger();
+        this.consultas = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hilos * 16),
+                runnable -> {
+                    Thread hilo = new Thread(runnable, "recursos-consulta-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Guarda un recurso como elemento independiente de la tabla de recursos.
+     *
+     * @param cursoId ID del curso al que pertenece el recurso.
+     * @param recurso Recurso a guardar.
+     */
+    public void guardar(String cursoId, Recurso recurso) {
+        client.putItem(PutItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .item(aItem(cursoId, recurso))
+                .build());
+    }
+
+    /**
+     * Guarda un recurso nuevo y suma uno al contador de recursos guardados del curso en una misma
+     * transacción, de modo que el contador cuenta solo los recursos que quedaron guardados, a diferencia
+     * del contador de posiciones, que también cuenta las reservas de cargas fallidas. Los cursos creados
+     * antes del contador lo inician con las posiciones reservadas antes que la del recurso.
+     *
+     * @param cursoId ID del curso al que pertenece el recurso.
+     * @param recurso Recurso a guardar, con su posición ya reservada.
+     * @throws software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException Si el curso no existe.
+     */
+    public void agregar(String cursoId, Recurso recurso) {
+        int previos = recurso.getPosicion() == null ? 0 : recurso.getPosicion();
+        client.transactWriteItems(TransactWriteItemsRequest.builder()
+                .transactItems(
+                        TransactWriteItem.builder().put(Put.builder()
+                                .tableName(TABLE_NAME)
+                                .item(aItem(cursoId, recurso))
+                                .build()).build(),
+                        TransactWriteItem.builder().update(Update.builder()
+                                .tableName(CursoProcess.TABLE_NAME)
+                                .key(Map.of(CursoProcess.CLAVE, AttributeValue.builder().s(cursoId).build()))
+                                .updateExpression("SET #guardados = if_not_exists(#guardados, :previos) + :uno")
+                                .conditionExpression("attribute_exists(#clave)")
+                                .expressionAttributeNames(Map.of(
+                                        "#guardados", CursoProcess.GUARDADOS, "#clave", CursoProcess.CLAVE))
+                                .expressionAttributeValues(Map.of(
+                                        ":previos", AttributeValue.builder().n(Integer.toString(previos)).build(),
+                                        ":uno", AttributeValue.builder().n("1").build()))
+                                .build()).build())
+                .build());
+    }
+
+    /**
+     * Agrega un recurso nuevo en el grupo de hilos de la tabla de recursos, para no ocupar el hilo
+     * que completó la operación anterior.
+     *
+     * @param cursoId ID del curso al que pertenece el recurso.
+     * @param recurso Recurso a guardar, con su posición ya reservada.
+     * @return Futuro que se completa cuando el recurso queda guardado y contado.
+     * @see #agregar(String, Recurso)
+     */
+    public CompletableFuture<Void> agregarAsync(String cursoId, Recurso recurso) {
+        return CompletableFuture.runAsync(() -> agregar(cursoId, recurso), consultas);
+    }
+
+    /**
+     * Obtiene un recurso de un curso con una lectura por llave.
+     *
+     * @param cursoId   ID del curso.
+     * @param recursoId ID del recurso.
+     * @return El recurso, o {@code null} si no está en la tabla de recursos.
+     */
+    public Recurso buscar(String cursoId, String recursoId) {
+        var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(Map.of(
+                CURSO, AttributeValue.builder().s(cursoId).build(),
+                RECURSO, AttributeValue.builder().s(recursoId).build())));
+        return response.hasItem() ? deItem(response.item()) : null;
+    }
+
+    /**
+     * Obtiene los recursos de un curso ordenados por su orden dentro del curso.
+     *
+     * @param cursoId ID del curso.
+     * @return Lista de recursos del curso.
+     */
+    public List<Recurso> porCurso(String cursoId) {
+        QueryRequest request = consulta(cursoId);
+
+        List<Recurso> recursos = new ArrayList<>();
+        Map<String, AttributeValue> inicio = null;
+        do {
+            QueryResponse response = client.query(request.toBuilder().exclusiveStartKey(inicio).build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                recursos.add(deItem(item));
+            }
+            inicio = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey()
+                    : null;
+        } while (inicio != null);
+        recursos.sort(Comparator.comparingInt(Recurso::getOrder));
+        return recursos;
+    }
+
+    /**
+     * Obtiene los recursos de varios cursos consultándolos en paralelo.
+     *
+     * @param cursoIds IDs de los cursos.
+     * @return Mapa de ID de curso a la lista de sus recursos.
+     */
+    public Map<String, List<Recurso>> porCursos(Collection<String> cursoIds) {
+        Map<String, CompletableFuture<List<Recurso>>> pendientes = new LinkedHashMap<>();
+        for (String cursoId : cursoIds) {
+            pendientes.put(cursoId, CompletableFuture.supplyAsync(() -> porCurso(cursoId), consultas));
+        }
+        Map<String, List<Recurso>> recursos = new HashMap<>();
+        try {
+            pendientes.forEach((cursoId, consulta) -> recursos.put(cursoId, consulta.join()));
+            return recursos;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene los recursos de un curso ordenados por su orden, sin bloquear al llamador.
+     *
+     * @param cursoId ID del curso.
+     * @return Futuro con la lista de recursos del curso.
+     */
+    public CompletableFuture<List<Recurso>> porCursoAsync(String cursoId) {
+        return consultarAsync(consulta(cursoId), null, new ArrayList<>())
+                .thenApply(recursos -> {
+                    recursos.sort(Comparator.comparingInt(Recurso::getOrder));
+                    return recursos;
+                });
+    }
+
+    /**
+     * Obtiene los recursos de varios cursos con consultas simultáneas, sin bloquear al llamador.
+     *
+     * @param cursoIds IDs de los cursos.
+     * @return Futuro con el mapa de ID de curso a la lista de sus recursos; falla si alguna consulta falla.
+     */
+    public CompletableFuture<Map<String, List<Recurso>>> porCursosAsync(Collection<String> cursoIds) {
+        Map<String, CompletableFuture<List<Recurso>>> pendientes = new LinkedHashMap<>();
+        for (String cursoId : cursoIds) {
+            pendientes.put(cursoId, porCursoAsync(cursoId));
+        }
+        return CompletableFuture.allOf(pendientes.values().toArray(CompletableFuture[]::new))
+                .thenApply(completadas -> {
+                    Map<String, List<Recurso>> recursos = new HashMap<>();
+                    pendientes.forEach((cursoId, consulta) -> recursos.put(cursoId, consulta.join()));
+                    return recursos;
+                });
+    }
+
+    private CompletableFuture<List<Recurso>> consultarAsync(QueryRequest request, Map<String, AttributeValue> inicio,
+                                                            List<Recurso> recursos) {
+        return asyncClient.query(request.toBuilder().exclusiveStartKey(inicio).build())
+                .thenCompose(response -> {
+                    response.items().forEach(item -> recursos.add(deItem(item)));
+                    return response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                            ? consultarAsync(request, response.lastEvaluatedKey(), recursos)
+                            : CompletableFuture.completedFuture(recursos);
+                });
+    }
+
+    private static QueryRequest consulta(String cursoId) {
+        return QueryRequest.builder()
+                .tableName(TABLE_NAME)
+                .keyConditionExpression("#curso = :curso")
+                .expressionAttributeNames(Map.of("#curso", CURSO))
+                .expressionAttributeValues(Map.of(":curso", AttributeValue.builder().s(cursoId).build()))
+                .build();
+    }
+
+    private static Map<String, AttributeValue> aItem(String cursoId, Recurso recurso) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put(CURSO, AttributeValue.builder().s(cursoId).build());
+        item.put(RECURSO, AttributeValue.builder().s(recurso.getId()).build());
+        item.put(ORDEN, AttributeValue.builder().n(Integer.toString(recurso.getOrder())).build());
+        if (recurso.getPosicion() != null) {
+            item.put(POSICION, AttributeValue.builder().n(Integer.toString(recurso.getPosicion())).build());
+        }
+        if (recurso.getTipo() != null) {
+            item.put(TIPO, AttributeValue.builder().s(recurso.getTipo()).build());
+        }
+        if (recurso.getNombre() != null) {
+            item.put(NOMBRE, AttributeValue.builder().s(recurso.getNombre()).build());
+        }
+        if (recurso.getS3Key() != null) {
+            item.put(S3_KEY, AttributeValue.builder().s(recurso.getS3Key()).build());
+        }
+        return item;
+    }
+
+    private static Recurso deItem(Map<String, AttributeValue> item) {
+        return Recurso.builder()
+                .id(item.get(RECURSO).s())
+                .order(item.containsKey(ORDEN) ? Integer.parseInt(item.get(ORDEN).n()) : 0)
+                .posicion(item.containsKey(POSICION) ? Integer.valueOf(item.get(POSICION).n()) : null)
+                .tipo(texto(item, TIPO))
+                .nombre(texto(item, NOMBRE))
+                .s3Key(texto(item, S3_KEY))
+                .build();
+    }
+
+    private static String texto(Map<String, AttributeValue> item, String atributo) {
+        AttributeValue valor = item.get(atributo);
+        return valor == null ? null : valor.s();
+    }
+
+    @Override
+    public void destroy() {
+        consultas.shutdownNow();
+    }
+}
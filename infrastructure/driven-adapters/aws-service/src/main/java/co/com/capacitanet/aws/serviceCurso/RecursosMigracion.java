@@ -0,0 +1,136 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
+import co.com.capacitanet.aws.dynamo.ParallelScanner;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.CLAVE;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.DATOS;
+import static co.com.capacitanet.aws.serviceCurso.CursoProcess.TABLE_NAME;
+
+/**
+ * Migración en línea de los recursos guardados dentro del JSON {@code datosCurso} hacia la tabla de
+ * recursos. Primero copia cada recurso como elemento independiente y luego lo retira del JSON del curso,
+ * condicionado a que el curso no haya cambiado, e incrementa su versión para que los escritores
+ * optimistas que lo leyeron antes vuelvan a leerlo. Mientras la migración avanza, las lecturas combinan
+ * ambas fuentes, por lo que ningún recurso deja de verse ni aparece duplicado.
+ * <p>
+ * Se ejecuta al iniciar la aplicación cuando {@code aws.dynamodb.migraciones.recursos-cursos} está
+ * habilitado y puede repetirse sin efectos adicionales. Solo los cursos guardados como JSON de texto pueden
+ * tener recursos dentro de sus datos, ya que el formato binario es posterior a la tabla de recursos.
+ */
+@Component
+public class RecursosMigracion {
+
+    private static final Logger logger = LogManager.getLogger(RecursosMigracion.class);
+    private static final String MARCA_RECURSOS = "\"recursos\":[{";
+
+    private final DynamoDbClient client;
+    private final BlobCodec codec;
+    private final ParallelScanner scanner;
+    private final RecursoStore recursos;
+    private final boolean habilitada;
+
+    /**
+     * Constructor de la clase RecursosMigracion.
+     *
+     * @param client     Cliente de DynamoDB para interactuar con la base de datos.
+     * @param codec      Codificación de los datos de los cursos guardados en DynamoDB.
+     * @param scanner    Motor de escaneo paginado y paralelo de DynamoDB.
+     * @param recursos   Acceso a la tabla de recursos de los cursos.
+     * @param habilitada Indica si la migración se ejecuta al iniciar la aplicación.
+     */
+    public RecursosMigracion(DynamoDbClient client, BlobCodec codec, ParallelScanner scanner, RecursoStore recursos,
+                             @Value("${aws.dynamodb.migraciones.recursos-cursos:false}") boolean habilitada) {
+        this.client = client;
+        this.codec = codec;
+        this.scanner = scanner;
+        this.recursos = recursos;
+        this.habilitada = habilitada;
+    }
+
+    /**
+     * Ejecuta la migración una vez el contexto de la aplicación está listo.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void alIniciar() {
+        if (habilitada) {
+            migrar();
+        }
+    }
+
+    /**
+     * Recorre los cursos que aún guardan recursos en su JSON y los traslada a la tabla de recursos.
+     *
+     * @return Número de cursos migrados.
+     */
+    public int migrar() {
+        ScanRequest request = ScanRequest.builder()
+                .tableName(TABLE_NAME)
+                .filterExpression("contains(#datos, :marca)")
+                .expressionAttributeNames(Map.of("#datos", DATOS))
+                .expressionAttributeValues(Map.of(":marca", AttributeValue.builder().s(MARCA_RECURSOS).build()))
+                .build();
+        List<Map<String, AttributeValue>> pendientes = scanner.escanear(request, Function.identity(), item -> true);
+
+        int migrados = 0;
+        for (Map<String, AttributeValue> item : pendientes) {
+            if (migrarCurso(item)) {
+                migrados++;
+            }
+        }
+        logger.info("Migración de recursos finalizada: {} de {} cursos actualizados", migrados, pendientes.size());
+        return migrados;
+    }
+
+    private boolean migrarCurso(Map<String, AttributeValue> item) {
+        String cursoId = item.get(CLAVE).s();
+        AttributeValue datos = item.get(DATOS);
+        try {
+            Curso curso = codec.decodificar(datos, Curso.class);
+            if (curso.getRecursos().isEmpty()) {
+                return false;
+            }
+            for (Recurso recurso : curso.getRecursos()) {
+                recursos.guardar(cursoId, recurso);
+            }
+            curso.setRecursos(new ArrayList<>());
+
+            client.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of(CLAVE, item.get(CLAVE)))
+                    .updateExpression("SET #datos = :nuevos ADD #version :uno")
+                    .conditionExpression("#datos = :datos")
+                    .expressionAttributeNames(Map.of("#datos", DATOS, "#version", OptimisticUpdater.VERSION))
+                    .expressionAttributeValues(Map.of(
+                            ":datos", datos,
+                            ":nuevos", codec.codificar(curso),
+                            ":uno", AttributeValue.builder().n("1").build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.info("El curso {} cambió durante la migración de recursos, se omite", cursoId);
+        } catch (Exception e) {
+            logger.error("Error al migrar los recursos del curso {}: {}", cursoId, e.getMessage());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,172 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.serviceCurso.CursoProcess;
+import co.com.capacitanet.aws.serviceCurso.EstadisticasCursos;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lleva el avance de los usuarios en sus cursos a medida que visualizan módulos. Cada escritura devuelve
+ * el número de módulos visualizados de la suscripción, que se compara con el contador de recursos
+ * guardados del curso; al alcanzarlo, la insignia se otorga con una escritura condicionada. La
+ * comparación solo se hace cuando la escritura marcó módulos nuevos, así volver a visualizar un módulo
+ * no lee el curso. Un curso completo sin insignia, por ejemplo tras una escritura fallida, la recibe al
+ * leer el perfil, que compara las suscripciones con los cursos que ya obtuvo del catálogo. Así el perfil
+ * obtiene el avance y las insignias de las suscripciones, sin recorrer los cursos.
+ * <p>
+ * Cada suscripción nueva, módulo visualizado por primera vez e insignia otorgada suma también a las
+ * estadísticas del curso; volver a visualizar un módulo no las cambia.
+ */
+@Component
+public class AvanceCursos {
+
+    private static final Logger logger = LogManager.getLogger(AvanceCursos.class);
+
+    private final SuscripcionStore suscripciones;
+    private final CursoProcess cursoProcess;
+    private final EstadisticasCursos estadisticas;
+
+    /**
+     * Constructor de la clase AvanceCursos.
+     *
+     * @param suscripciones Acceso a la tabla de suscripciones.
+     * @param cursoProcess  Proceso de cursos, para obtener el total de módulos de cada curso.
+     * @param estadisticas  Contadores de estadísticas de los cursos.
+     */
+    public AvanceCursos(SuscripcionStore suscripciones, CursoProcess cursoProcess,
+                        EstadisticasCursos estadisticas) {
+        this.suscripciones = suscripciones;
+        this.cursoProcess = cursoProcess;
+        this.estadisticas = estadisticas;
+    }
+
+    /**
+     * Suscribe a un usuario a un curso y lo cuenta como suscriptor si no lo estaba.
+     *
+     * @param username Nombre del usuario.
+     * @param cursoId  ID del curso.
+     * @return {@code true} si la suscripción se creó, {@code false} si ya existía.
+     */
+    public boolean suscribir(String username, String cursoId) {
+        if (!suscripciones.suscribir(username, cursoId)) {
+            return false;
+        }
+        estadisticas.registrar(cursoId, 1, 0, 0);
+        return true;
+    }
+
+    /**
+     * Marca módulos como visualizados y otorga la insignia del curso si quedó completo.
+     *
+     * @param username Nombre del usuario.
+     * @param cursoId  ID del curso.
+     * @param recursos Recursos visualizados del curso; al menos uno.
+     * @return {@code true} si el usuario está suscrito al curso, {@code false} en caso contrario.
+     */
+    public boolean registrar(String username, String cursoId, List<Recurso> recursos) {
+        SuscripcionStore.Marca marca = recursos.size() == 1
+                ? suscripciones.marcarVisualizado(username, cursoId, recursos.get(0))
+                : suscripciones.marcarVisualizados(username, cursoId, recursos);
+        if (!marca.suscrito()) {
+            return false;
+        }
+        int completados = 0;
+        if (marca.porCompletar()) {
+            int total = cursoProcess.totalRecursos(cursoId);
+            if (total > 0 && marca.visualizados() >= total && suscripciones.completar(username, cursoId, total)) {
+                logger.info("Insignia del curso {} otorgada al usuario {}", cursoId, username);
+                completados = 1;
+            }
+        }
+        estadisticas.registrar(cursoId, 0, marca.nuevos(), completados);
+        return true;
+    }
+
+    /**
+     * Otorga las insignias pendientes de un usuario: las de las suscripciones que ya tienen visualizados
+     * todos los módulos del curso en el catálogo pero no recibieron la insignia. Solo escribe cuando hay
+     * una pendiente; un error al otorgarla se registra y no interrumpe la lectura del perfil.
+     *
+     * @param username  Nombre del usuario.
+     * @param suscritas Suscripciones del usuario.
+     * @param catalogo  Cursos de las suscripciones, por ID.
+     * @return Las suscripciones, con las insignias otorgadas marcadas como completadas.
+     */
+    public List<SuscripcionStore.Suscripcion> completarPendientes(String username,
+                                                                  List<SuscripcionStore.Suscripcion> suscritas,
+                                                                  Map<String, Curso> catalogo) {
+        List<SuscripcionStore.Suscripcion> resultado = new ArrayList<>(suscritas.size());
+        for (SuscripcionStore.Suscripcion suscripcion : suscritas) {
+            int total = pendiente(suscripcion, catalogo.get(suscripcion.cursoId()));
+            boolean otorgada = false;
+            if (total > 0) {
+                try {
+                    otorgada = suscripciones.completar(username, suscripcion.cursoId(), total);
+                } catch (Exception e) {
+                    logger.error("Error al otorgar la insignia del curso {}: {}", suscripcion.cursoId(), e.getMessage());
+                }
+            }
+            resultado.add(otorgada ? otorgada(username, suscripcion) : suscripcion);
+        }
+        return resultado;
+    }
+
+    /**
+     * Otorga las insignias pendientes de un usuario sin bloquear al llamador, igual que
+     * {@link #completarPendientes(String, List, Map)}.
+     *
+     * @param username  Nombre del usuario.
+     * @param suscritas Suscripciones del usuario.
+     * @param catalogo  Cursos de las suscripciones, por ID.
+     * @return Futuro con las suscripciones, con las insignias otorgadas marcadas como completadas.
+     */
+    public CompletableFuture<List<SuscripcionStore.Suscripcion>> completarPendientesAsync(
+            String username, List<SuscripcionStore.Suscripcion> suscritas, Map<String, Curso> catalogo) {
+        List<CompletableFuture<SuscripcionStore.Suscripcion>> pendientes = new ArrayList<>(suscritas.size());
+        for (SuscripcionStore.Suscripcion suscripcion : suscritas) {
+            int total = pendiente(suscripcion, catalogo.get(suscripcion.cursoId()));
+            if (total == 0) {
+                pendientes.add(CompletableFuture.completedFuture(suscripcion));
+                continue;
+            }
+            pendientes.add(suscripciones.completarAsync(username, suscripcion.cursoId(), total)
+                    .handle((otorgada, error) -> {
+                        if (error != null) {
+                            logger.error("Error al otorgar la insignia del curso {}: {}",
+                                    suscripcion.cursoId(), error.getMessage());
+                            return suscripcion;
+                        }
+                        return otorgada ? otorgada(username, suscripcion) : suscripcion;
+                    }));
+        }
+        return CompletableFuture.allOf(pendientes.toArray(CompletableFuture[]::new))
+                .thenApply(completadas -> pendientes.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Número de módulos del curso si la suscripción ya los visualizó todos y aún no tiene insignia; cero
+     * en caso contrario.
+     */
+    static int pendiente(SuscripcionStore.Suscripcion suscripcion, Curso curso) {
+        if (suscripcion.completado() || curso == null || curso.getRecursos() == null) {
+            return 0;
+        }
+        int total = curso.getRecursos().size();
+        return total > 0 && suscripcion.posiciones().size() >= total ? total : 0;
+    }
+
+    private SuscripcionStore.Suscripcion otorgada(String username, SuscripcionStore.Suscripcion suscripcion) {
+        logger.info("Insignia pendiente del curso {} otorgada al usuario {}", suscripcion.cursoId(), username);
+        estadisticas.registrar(suscripcion.cursoId(), 0, 0, 1);
+        return new SuscripcionStore.Suscripcion(suscripcion.cursoId(), suscripcion.posiciones(),
+                suscripcion.visualizados(), true);
+    }
+}
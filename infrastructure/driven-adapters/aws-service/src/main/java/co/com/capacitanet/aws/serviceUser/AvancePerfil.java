@@ -0,0 +1,85 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater.Actualizacion;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.usuario.Usuario;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.PERFIL;
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.TABLE_NAME;
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.USERNAME;
+
+/**
+ * Avance de los usuarios en las suscripciones guardadas dentro de su perfil, previas a la tabla de
+ * suscripciones. Las marcas de un curso se aplican en una sola actualización del perfil, con control de
+ * concurrencia optimista, y no escriben nada si los módulos ya estaban visualizados.
+ */
+@Component
+public class AvancePerfil {
+
+    /**
+     * Resultado de marcar módulos en el perfil.
+     */
+    public enum Marca {
+        MARCADO, NO_SUSCRITO, NO_ENCONTRADO
+    }
+
+    private final BlobCodec codec;
+    private final OptimisticUpdater actualizador;
+
+    /**
+     * Constructor de la clase AvancePerfil.
+     *
+     * @param codec        Codificación del perfil guardado en DynamoDB.
+     * @param actualizador Actualizaciones con control de concurrencia optimista.
+     */
+    public AvancePerfil(BlobCodec codec, OptimisticUpdater actualizador) {
+        this.codec = codec;
+        this.actualizador = actualizador;
+    }
+
+    /**
+     * Marca módulos visualizados en la copia de un curso guardada dentro del perfil del usuario.
+     *
+     * @param username   Nombre del usuario.
+     * @param cursoId    ID del curso.
+     * @param recursoIds IDs de los recursos visualizados.
+     * @return {@link Marca#MARCADO} si el curso del perfil tiene alguno de los recursos, aunque ya estuviera
+     * visualizado; {@link Marca#NO_SUSCRITO} si no; {@link Marca#NO_ENCONTRADO} si el usuario no existe.
+     * @throws co.com.capacitanet.aws.dynamo.ConflictoConcurrenciaException Si el perfil cambió en todos los intentos.
+     */
+    public Marca marcar(String username, String cursoId, Collection<String> recursoIds) {
+        AtomicBoolean suscrito = new AtomicBoolean(false);
+        Actualizacion resultado = actualizador.actualizar(TABLE_NAME,
+                Map.of(USERNAME, AttributeValue.builder().s(username).build()), actual -> {
+                    Usuario user = codec.decodificar(actual.get(PERFIL), Usuario.class);
+                    boolean encontrado = false;
+                    boolean cambio = false;
+                    for (Curso curso : user.getCursos()) {
+                        if (curso.getCursoId().equals(cursoId)) {
+                            for (Recurso rec : curso.getRecursos()) {
+                                if (recursoIds.contains(rec.getId())) {
+                                    cambio |= !rec.isVisualizado();
+                                    rec.setVisualizado(true);
+                                    encontrado = true;
+                                }
+                            }
+                        }
+                    }
+                    suscrito.set(encontrado);
+                    return cambio ? Map.of(PERFIL, codec.codificar(user)) : Map.of();
+                });
+        if (resultado == Actualizacion.NO_ENCONTRADO) {
+            return Marca.NO_ENCONTRADO;
+        }
+        return suscrito.get() ? Marca.MARCADO : Marca.NO_SUSCRITO;
+    }
+}
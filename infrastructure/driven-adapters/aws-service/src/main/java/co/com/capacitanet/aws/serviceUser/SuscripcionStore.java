@@ -0,0 +1,391 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.model.curso.Recurso;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Acceso a la tabla de suscripciones. Cada suscripción es un elemento independiente con llave
+ * {@code (username, cursoId)} que guarda solo el progreso del usuario en el curso; el contenido del
+ * curso se toma del catálogo al leer el perfil. Así el perfil del usuario conserva un tamaño constante
+ * sin importar cuántos cursos tome, y marcar un módulo es una única actualización sin lectura previa.
+ * <p>
+ * El progreso se guarda como un conjunto numérico con la posición de cada recurso visualizado, unos
+ * pocos bytes por módulo; su tamaño es el número de módulos visualizados del curso. Los recursos creados
+ * antes de tener posición se guardan por su ID y no cuentan para el avance. Al completar el curso se
+ * registra la fecha y el total de módulos, que otorgan la insignia.
+ */
+@Component
+public class SuscripcionStore {
+
+    static final String TABLE_NAME = "capacitanet_suscripciones";
+    static final String USUARIO = "username";
+    static final String CURSO = "cursoId";
+    static final String VISUALIZADOS = "visualizados";
+    static final String POSICIONES = "vistos";
+    static final String TOTAL = "total";
+    static final String COMPLETADO = "completadoEn";
+    static final String FECHA = "suscritoEn";
+
+    private final DynamoDbClient client;
+    private final DynamoDbAsyncClient asyncClient;
+
+    /**
+     * Suscripción de un usuario a un curso.
+     *
+     * @param cursoId      ID del curso.
+     * @param posiciones   Posiciones de los recursos que el usuario ya visualizó.
+     * @param visualizados IDs de los recursos sin posición que el usuario ya visualizó.
+     * @param completado   Indica si el usuario completó el curso y recibió su insignia.
+     */
+    public record Suscripcion(String cursoId, Set<Integer> posiciones, Set<String> visualizados,
+                              boolean completado) {
+
+        /**
+         * Indica si el usuario visualizó un recurso del curso.
+         *
+         * @param recurso Recurso del curso.
+         * @return {@code true} si el recurso está marcado como visualizado.
+         */
+        public boolean visualizo(Recurso recurso) {
+            return recurso.getPosicion() != null && posiciones.contains(recurso.getPosicion())
+                    || visualizados.contains(recurso.getId());
+        }
+    }
+
+    /**
+     * Resultado de marcar recursos visualizados en una suscripción.
+     *
+     * @param suscrito     Indica si el usuario está suscrito al curso.
+     * @param nuevos       Número de recursos que la escritura marcó por primera vez.
+     * @param visualizados Número de módulos visualizados después de la escritura.
+     * @param completado   Indica si la suscripción ya tenía la insignia del curso.
+     */
+    public record Marca(boolean suscrito, int nuevos, int visualizados, boolean completado) {
+
+        static final Marca NO_SUSCRITO = new Marca(false, 0, 0, false);
+
+        /**
+         * @return {@code true} si la escritura marcó algún recurso por primera vez.
+         */
+        public boolean avanzo() {
+            return nuevos > 0;
+        }
+
+        /**
+         * @return {@code true} si la escritura marcó algún recurso por primera vez y el usuario aún no recibe
+         * la insignia, es decir, si el curso pudo quedar completo con esta escritura.
+         */
+        public boolean porCompletar() {
+            return suscrito && !completado && nuevos > 0;
+        }
+    }
+
+    /**
+     * Constructor de la clase SuscripcionStore.
+     *
+     * @param client      Cliente de DynamoDB para interactuar con la base de datos.
+     * @param asyncClient Cliente asíncrono de DynamoDB para las lecturas que no bloquean.
+     */
+    public SuscripcionStore(DynamoDbClient client, DynamoDbAsyncClient asyncClient) {
+        this.client = client;
+        this.asyncClient = asyncClient;
+    }
+
+    /**
+     * Crea la suscripción de un usuario a un curso si no existe.
+     *
+     * @param username Nombre del usuario.
+     * @param cursoId  ID del curso.
+     * @return {@code true} si la suscripción se creó, {@code false} si el usuario ya estaba suscrito.
+     */
+    public boolean suscribir(String username, String cursoId) {
+        Map<String, AttributeValue> item = new HashMap<>(llave(username, cursoId));
+        item.put(FECHA, AttributeValue.builder().n(Long.toString(System.currentTimeMillis())).build());
+        try {
+            client.putItem(PutItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .item(item)
+                    .conditionExpression("attribute_not_exists(#curso)")
+                    .expressionAttributeNames(Map.of("#curso", CURSO))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marca un recurso como visualizado en una suscripción con una única actualización. Si el recurso
+     * tiene posición, se agrega al conjunto de posiciones y la escritura se omite cuando ya estaba
+     * marcado; si no, se agrega su ID. En ambos casos la suscripción previa llega con la respuesta, sin
+     * otra lectura.
+     *
+     * @param username Nombre del usuario.
+     * @param cursoId  ID del curso.
+     * @param recurso  Recurso visualizado.
+     * @return Si el usuario está suscrito y el avance resultante.
+     */
+    public Marca marcarVisualizado(String username, String cursoId, Recurso recurso) {
+        if (recurso.getPosicion() == null) {
+            return marcarVisualizados(username, cursoId, List.of(recurso));
+        }
+        try {
+            var response = client.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(llave(username, cursoId))
+                    .updateExpression("ADD #vistos :posicion")
+                    .conditionExpression("attribute_exists(#curso) AND NOT contains(#vistos, :numero)")
+                    .expressionAttributeNames(Map.of("#vistos", POSICIONES, "#curso", CURSO))
+                    .expressionAttributeValues(Map.of(
+                            ":posicion", AttributeValue.builder().ns(Integer.toString(recurso.getPosicion())).build(),
+                            ":numero", AttributeValue.builder().n(Integer.toString(recurso.getPosicion())).build()))
+                    .returnValues(ReturnValue.ALL_OLD)
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                    .build());
+            return marca(response.attributes(), List.of(Integer.toString(recurso.getPosicion())), List.of());
+        } catch (ConditionalCheckFailedException e) {
+            return e.hasItem() && !e.item().isEmpty() ? marca(e.item(), List.of(), List.of()) : Marca.NO_SUSCRITO;
+        }
+    }
+
+    /**
+     * Marca varios recursos como visualizados en una suscripción con una única actualización.
+     *
+     * @param username Nombre del usuario.
+     * @param cursoId  ID del curso.
+     * @param recursos Recursos visualizados; al menos uno.
+     * @return Si el usuario está suscrito y el avance resultante.
+     */
+    public Marca marcarVisualizados(String username, String cursoId, Collection<Recurso> recursos) {
+        List<String> posiciones = recursos.stream()
+                .filter(recurso -> recurso.getPosicion() != null)
+                .map(recurso -> Integer.toString(recurso.getPosicion()))
+                .toList();
+        List<String> ids = recursos.stream()
+                .filter(recurso -> recurso.getPosicion() == null)
+                .map(Recurso::getId)
+                .toList();
+        Map<String, String> nombres = new HashMap<>(Map.of("#curso", CURSO));
+        Map<String, AttributeValue> valores = new HashMap<>();
+        List<String> acciones = new ArrayList<>();
+        if (!posiciones.isEmpty()) {
+            nombres.put("#vistos", POSICIONES);
+            valores.put(":posiciones", AttributeValue.builder().ns(posiciones).build());
+            acciones.add("#vistos :posiciones");
+        }
+        if (!ids.isEmpty()) {
+            nombres.put("#visualizados", VISUALIZADOS);
+            valores.put(":recursos", AttributeValue.builder().ss(ids).build());
+            acciones.add("#visualizados :recursos");
+        }
+        try {
+            var response = client.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(llave(username, cursoId))
+                    .updateExpression("ADD " + String.join(", ", acciones))
+                    .conditionExpression("attribute_exists(#curso)")
+                    .expressionAttributeNames(nombres)
+                    .expressionAttributeValues(valores)
+                    .returnValues(ReturnValue.ALL_OLD)
+                    .build());
+            return marca(response.attributes(), posiciones, ids);
+        } catch (ConditionalCheckFailedException e) {
+            return Marca.NO_SUSCRITO;
+        }
+    }
+
+    /**
+     * Marca el curso como completado y otorga su insignia. La condición vuelve a verificar el avance en
+     * la misma escritura, de modo que la insignia se otorga una sola vez y solo con todos los módulos
+     * visualizados, aunque varias solicitudes completen el curso al mismo tiempo.
+     *
+     * @param username Nombre del usuario.
+     * @param cursoId  ID del curso.
+     * @param total    Número de módulos del curso.
+     * @return {@code true} si esta escritura otorgó la insignia.
+     */
+    public boolean completar(String username, String cursoId, int total) {
+        try {
+            client.updateItem(completado(username, cursoId, total));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marca el curso como completado sin bloquear al llamador, con la misma condición que
+     * {@link #completar(String, String, int)}.
+     *
+     * @param username Nombre del usuario.
+     * @param cursoId  ID del curso.
+     * @param total    Número de módulos del curso.
+     * @return Futuro que indica si esta escritura otorgó la insignia.
+     */
+    public CompletableFuture<Boolean> completarAsync(String username, String cursoId, int total) {
+        return asyncClient.updateItem(completado(username, cursoId, total))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return true;
+                    }
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (causa instanceof ConditionalCheckFailedException) {
+                        return false;
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                });
+    }
+
+    private static UpdateItemRequest completado(String username, String cursoId, int total) {
+        return UpdateItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(llave(username, cursoId))
+                .updateExpression("SET #completado = :ahora, #total = :total")
+                .conditionExpression("attribute_exists(#curso) AND attribute_not_exists(#completado) "
+                        + "AND size(#vistos) >= :total")
+                .expressionAttributeNames(Map.of(
+                        "#completado", COMPLETADO, "#total", TOTAL, "#curso", CURSO, "#vistos", POSICIONES))
+                .expressionAttributeValues(Map.of(
+                        ":ahora", AttributeValue.builder().n(Long.toString(System.currentTimeMillis())).build(),
+                        ":total", AttributeValue.builder().n(Integer.toString(total)).build()))
+                .build();
+    }
+
+    /**
+     * Crea o completa una suscripción con los recursos ya visualizados, sin perder los que la
+     * suscripción tuviera. Se usa al trasladar las suscripciones guardadas en el perfil.
+     *
+     * @param username     Nombre del usuario.
+     * @param cursoId      ID del curso.
+     * @param visualizados IDs de los recursos visualizados.
+     */
+    public void importar(String username, String cursoId, Collection<String> visualizados) {
+        Map<String, String> nombres = new HashMap<>(Map.of("#fecha", FECHA));
+        Map<String, AttributeValue> valores = new HashMap<>(Map.of(
+                ":fecha", AttributeValue.builder().n(Long.toString(System.currentTimeMillis())).build()));
+        String expresion = "SET #fecha = if_not_exists(#fecha, :fecha)";
+        if (!visualizados.isEmpty()) {
+            nombres.put("#visualizados", VISUALIZADOS);
+            valores.put(":visualizados", AttributeValue.builder().ss(visualizados).build());
+            expresion += " ADD #visualizados :visualizados";
+        }
+        client.updateItem(UpdateItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(llave(username, cursoId))
+                .updateExpression(expresion)
+                .expressionAttributeNames(nombres)
+                .expressionAttributeValues(valores)
+                .build());
+    }
+
+    /**
+     * Obtiene las suscripciones de un usuario.
+     *
+     * @param username Nombre del usuario.
+     * @return Suscripciones del usuario, en el orden de la tabla.
+     */
+    public List<Suscripcion> porUsuario(String username) {
+        QueryRequest request = consulta(username);
+
+        List<Suscripcion> suscripciones = new ArrayList<>();
+        Map<String, AttributeValue> inicio = null;
+        do {
+            QueryResponse response = client.query(request.toBuilder().exclusiveStartKey(inicio).build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                suscripciones.add(deItem(item));
+            }
+            inicio = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey()
+                    : null;
+        } while (inicio != null);
+        return suscripciones;
+    }
+
+    /**
+     * Obtiene las suscripciones de un usuario sin bloquear al llamador.
+     *
+     * @param username Nombre del usuario.
+     * @return Futuro con las suscripciones del usuario, en el orden de la tabla.
+     */
+    public CompletableFuture<List<Suscripcion>> porUsuarioAsync(String username) {
+        return consultarAsync(consulta(username), null, new ArrayList<>());
+    }
+
+    private CompletableFuture<List<Suscripcion>> consultarAsync(QueryRequest request, Map<String, AttributeValue> inicio,
+                                                                List<Suscripcion> suscripciones) {
+        return asyncClient.query(request.toBuilder().exclusiveStartKey(inicio).build())
+                .thenCompose(response -> {
+                    response.items().forEach(item -> suscripciones.add(deItem(item)));
+                    return response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                            ? consultarAsync(request, response.lastEvaluatedKey(), suscripciones)
+                            : CompletableFuture.completedFuture(suscripciones);
+                });
+    }
+
+    private static QueryRequest consulta(String username) {
+        return QueryRequest.builder()
+                .tableName(TABLE_NAME)
+                .keyConditionExpression("#usuario = :usuario")
+                .expressionAttributeNames(Map.of("#usuario", USUARIO))
+                .expressionAttributeValues(Map.of(":usuario", AttributeValue.builder().s(username).build()))
+                .build();
+    }
+
+    private static Suscripcion deItem(Map<String, AttributeValue> item) {
+        AttributeValue posiciones = item.get(POSICIONES);
+        AttributeValue visualizados = item.get(VISUALIZADOS);
+        return new Suscripcion(item.get(CURSO).s(),
+                posiciones == null ? Set.of() : posiciones.ns().stream().map(Integer::valueOf).collect(Collectors.toSet()),
+                visualizados == null ? Set.of() : new LinkedHashSet<>(visualizados.ss()),
+                item.containsKey(COMPLETADO));
+    }
+
+    /**
+     * Calcula el resultado de una marca a partir de la suscripción previa a la escritura y los recursos
+     * que agregó.
+     */
+    private static Marca marca(Map<String, AttributeValue> anterior, Collection<String> posiciones,
+                               Collection<String> ids) {
+        AttributeValue vistosPrevios = anterior.get(POSICIONES);
+        AttributeValue visualizadosPrevios = anterior.get(VISUALIZADOS);
+        Set<String> vistos = vistosPrevios == null ? new HashSet<>() : new HashSet<>(vistosPrevios.ns());
+        Set<String> visualizados = visualizadosPrevios == null ? new HashSet<>() : new HashSet<>(visualizadosPrevios.ss());
+        int nuevos = 0;
+        for (String posicion : posiciones) {
+            nuevos += vistos.add(posicion) ? 1 : 0;
+        }
+        for (String id : ids) {
+            nuevos += visualizados.add(id) ? 1 : 0;
+        }
+        return new Marca(true, nuevos, vistos.size(), anterior.containsKey(COMPLETADO));
+    }
+
+    private static Map<String, AttributeValue> llave(String username, String cursoId) {
+        return Map.of(
+                USUARIO, AttributeValue.builder().s(username).build(),
+                CURSO, AttributeValue.builder().s(cursoId).build());
+    }
+}
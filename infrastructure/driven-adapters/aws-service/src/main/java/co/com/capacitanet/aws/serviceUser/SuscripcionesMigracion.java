@@ -0,0 +1,125 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater.Actualizacion;
+import co.com.capacitanet.aws.dynamo.ParallelScanner;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.usuario.Usuario;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.PERFIL;
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.TABLE_NAME;
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.USERNAME;
+
+/**
+ * Migración en línea de las suscripciones guardadas dentro del perfil de cada usuario hacia la tabla de
+ * suscripciones. Cada curso del perfil se copia como suscripción con sus recursos visualizados y luego se
+ * retira del perfil mediante una escritura optimista; si el perfil cambió entretanto, la copia se repite
+ * sobre la lectura nueva, así que ningún módulo marcado durante la migración se pierde. Mientras la
+ * migración avanza, el perfil combina ambas fuentes.
+ * <p>
+ * Se ejecuta al iniciar la aplicación cuando {@code aws.dynamodb.migraciones.suscripciones} está
+ * habilitado y puede repetirse sin efectos adicionales.
+ */
+@Component
+public class SuscripcionesMigracion {
+
+    private static final Logger logger = LogManager.getLogger(SuscripcionesMigracion.class);
+
+    private final BlobCodec codec;
+    private final ParallelScanner scanner;
+    private final OptimisticUpdater actualizador;
+    private final SuscripcionStore suscripciones;
+    private final boolean habilitada;
+
+    /**
+     * Constructor de la clase SuscripcionesMigracion.
+     *
+     * @param codec         Codificación de los perfiles guardados en DynamoDB.
+     * @param scanner       Motor de escaneo paginado y paralelo de DynamoDB.
+     * @param actualizador  Escritor optimista de elementos versionados.
+     * @param suscripciones Acceso a la tabla de suscripciones.
+     * @param habilitada    Indica si la migración se ejecuta al iniciar la aplicación.
+     */
+    public SuscripcionesMigracion(BlobCodec codec, ParallelScanner scanner, OptimisticUpdater actualizador,
+                                  SuscripcionStore suscripciones,
+                                  @Value("${aws.dynamodb.migraciones.suscripciones:false}") boolean habilitada) {
+        this.codec = codec;
+        this.scanner = scanner;
+        this.actualizador = actualizador;
+        this.suscripciones = suscripciones;
+        this.habilitada = habilitada;
+    }
+
+    /**
+     * Ejecuta la migración una vez el contexto de la aplicación está listo.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void alIniciar() {
+        if (habilitada) {
+            migrar();
+        }
+    }
+
+    /**
+     * Recorre los usuarios y traslada a la tabla de suscripciones los cursos que aún guardan en su perfil.
+     *
+     * @return Número de usuarios migrados.
+     */
+    public int migrar() {
+        ScanRequest request = ScanRequest.builder()
+                .tableName(TABLE_NAME)
+                .projectionExpression("#usuario")
+                .expressionAttributeNames(Map.of("#usuario", USERNAME))
+                .build();
+        List<String> usuarios = scanner.escanear(request, item -> item.get(USERNAME).s(), usuario -> true);
+
+        int migrados = 0;
+        for (String username : usuarios) {
+            if (migrarUsuario(username)) {
+                migrados++;
+            }
+        }
+        logger.info("Migración de suscripciones finalizada: {} de {} usuarios actualizados",
+                migrados, usuarios.size());
+        return migrados;
+    }
+
+    private boolean migrarUsuario(String username) {
+        try {
+            Actualizacion resultado = actualizador.actualizar(TABLE_NAME,
+                    Map.of(USERNAME, AttributeValue.builder().s(username).build()), actual -> {
+                        Usuario usuario = codec.decodificar(actual.get(PERFIL), Usuario.class);
+                        if (usuario.getCursos().isEmpty()) {
+                            return Map.of();
+                        }
+                        for (Curso curso : usuario.getCursos()) {
+                            suscripciones.importar(username, curso.getCursoId(), curso.getRecursos().stream()
+                                    .filter(Recurso::isVisualizado)
+                                    .map(Recurso::getId)
+                                    .toList());
+                        }
+                        usuario.setCursos(new ArrayList<>());
+                        return Map.of(PERFIL, codec.codificar(usuario));
+                    });
+            return resultado == Actualizacion.APLICADA;
+        } catch (Exception e) {
+            logger.error("Error al migrar las suscripciones del usuario {}: {}", username, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.serviceCurso.CursoAsyncProcess;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.model.usuario.Usuario;
+import co.com.capacitanet.model.usuario.gateways.UsuarioAsyncRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.PERFIL;
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.TABLE_NAME;
+import static co.com.capacitanet.aws.serviceUser.UsersProcess.USERNAME;
+
+/**
+ * Implementación asíncrona de las consultas de usuarios sobre el cliente asíncrono de DynamoDB. La lectura
+ * del perfil encadena el registro del usuario, sus suscripciones y los cursos suscritos sin bloquear al
+ * llamador en ninguna espera. Las respuestas son las mismas que las de {@link UsersProcess}.
+ */
+@Component
+public class UsersAsyncProcess implements UsuarioAsyncRepository {
+
+    private static final Logger logger = LogManager.getLogger(UsersAsyncProcess.class);
+
+    private final DynamoDbAsyncClient client;
+    private final BlobCodec codec;
+    private final SuscripcionStore suscripciones;
+    private final CursoAsyncProcess cursos;
+    private final AvanceCursos avance;
+
+    /**
+     * Constructor de la clase UsersAsyncProcess.
+     *
+     * @param client        Cliente asíncrono de DynamoDB.
+     * @param codec         Codificación del perfil guardado en DynamoDB.
+     * @param suscripciones Acceso a la tabla de suscripciones.
+     * @param cursos        Consultas asíncronas de cursos.
+     * @param avance        Avance de los usuarios, para otorgar las insignias pendientes.
+     */
+    public UsersAsyncProcess(DynamoDbAsyncClient client, BlobCodec codec, SuscripcionStore suscripciones,
+                             CursoAsyncProcess cursos, AvanceCursos avance) {
+        this.client = client;
+        this.codec = codec;
+        this.suscripciones = suscripciones;
+        this.cursos = cursos;
+        this.avance = avance;
+    }
+
+    /**
+     * Obtiene el perfil de un usuario por su ID. Los cursos suscritos se completan con su contenido actual
+     * del catálogo y con el progreso guardado en cada suscripción, y las insignias incluyen los cursos
+     * completados, también los que quedaron completos sin recibir su insignia.
+     *
+     * @param userId ID del usuario a buscar.
+     * @return Futuro con el perfil del usuario, con la contraseña enmascarada, o un mensaje de error.
+     */
+    @Override
+    public CompletableFuture<Resultado<Usuario>> perfilUsuario(String userId) {
+        return client.getItem(builder -> builder.tableName(TABLE_NAME)
+                        .key(Map.of(USERNAME, AttributeValue.builder().s(userId).build())))
+                .thenCompose(response -> {
+                    if (!response.hasItem()) {
+                        logger.info("Usuario no existe para obtener perfil: {}", userId);
+                        return CompletableFuture.completedFuture(Resultado.<Usuario>error(404, "Usuario no exite"));
+                    }
+                    Usuario storedUser = leerPerfil(response.item());
+                    storedUser.setPassword("********");
+                    return suscripciones.porUsuarioAsync(userId)
+                            .thenCompose(suscritas -> catalogo(suscritas)
+                                    .thenCompose(catalogo -> avance.completarPendientesAsync(userId, suscritas, catalogo)
+                                            .thenApply(completas -> {
+                                                storedUser.setCursos(UsersProcess.unirCursos(
+                                                        storedUser.getCursos(), completas, catalogo));
+                                                storedUser.setInsignias(
+                                                        UsersProcess.insignias(completas, storedUser.getInsignias()));
+                                                return Resultado.ok(storedUser);
+                                            })));
+                })
+                .exceptionally(e -> {
+                    if (e.getCause() instanceof UncheckedIOException) {
+                        logger.error("Error al procesar los datos en perfil del usuario: {}", e.getMessage());
+                        return Resultado.error(500, "Error al procesar los datos del usuario");
+                    }
+                    logger.error("Error al obtener el perfil del usuario: {}", e.getMessage());
+                    return Resultado.error(500, "Error al obtener el perfil del usuario");
+                });
+    }
+
+    private CompletableFuture<Map<String, Curso>> catalogo(List<SuscripcionStore.Suscripcion> suscritas) {
+        if (suscritas.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        return cursos.obtenerCursosPorIdsAsync(suscritas.stream().map(SuscripcionStore.Suscripcion::cursoId).toList());
+    }
+
+    private Usuario leerPerfil(Map<String, AttributeValue> item) {
+        try {
+            return codec.decodificar(item.get(PERFIL), Usuario.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
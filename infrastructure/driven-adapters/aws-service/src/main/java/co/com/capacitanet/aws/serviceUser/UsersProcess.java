@@ -1,17 +1,20 @@
 package co.com.capacitanet.aws.serviceUser;
 
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.ConflictoConcurrenciaException;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
 import co.com.capacitanet.aws.serviceCurso.CursoProcess;
 import co.com.capacitanet.helpers.AuthService;
-import co.com.capacitanet.helpers.Password;
+import co.com.capacitanet.helpers.PasswordHasher;
+import co.com.capacitanet.helpers.PasswordHasher.SaturacionException;
 import co.com.capacitanet.model.curso.Curso;
 import co.com.capacitanet.model.curso.Recurso;
 import co.com.capacitanet.model.curso.VerModulo;
 import co.com.capacitanet.model.response.ResponseApp;
-import co.com.capacitanet.model.usuario.ChangePassword;
+import co.com.capacitanet.model.response.Resultado;
 import co.com.capacitanet.model.usuario.Usuario;
+import co.com.capacitanet.model.usuario.UsuarioVerificado;
 import co.com.capacitanet.model.usuario.gateways.UsuarioRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Component;
@@ -19,10 +22,18 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Clase que implementa la interfaz UsuarioRepository para manejar la lógica de negocio
@@ -33,24 +44,47 @@ import java.util.Map;
 public class UsersProcess implements UsuarioRepository {
 
     private static final Logger logger = LogManager.getLogger(UsersProcess.class);
-    private final ObjectMapper mapper = new ObjectMapper();
 
     private final CursoProcess cursoProcess;
 
-    private static final String USERNAME = "username";
-    private static final String PERFIL = "perfil";
-    private static final String TABLE_NAME = "capacitanet_user";
+    static final String USERNAME = "username";
+    static final String PERFIL = "perfil";
+    static final String TABLE_NAME = "capacitanet_user";
+
+    private static final String CONFLICTO = "El usuario fue modificado al mismo tiempo, intenta nuevamente";
+    private static final String SATURADO = "Hay demasiadas solicitudes de autenticación, intenta más tarde";
+    private static final String VISUALIZACIONES_SATURADAS = "Hay demasiadas visualizaciones pendientes, intenta más tarde";
 
     private final DynamoDbClient client;
+    private final BlobCodec codec;
+    private final OptimisticUpdater actualizador;
+    private final AuthService authService;
+    private final PasswordHasher passwords;
+    private final SuscripcionStore suscripciones;
+    private final VisualizacionBuffer visualizaciones;
+    private final AvanceCursos avance;
+    private final AvancePerfil perfiles;
 
     /**
      * Clase que implementa la interfaz UsuarioRepository para manejar la lógica de negocio
      * relacionada con los usuarios. Esta clase interactúa con DynamoDB para almacenar y
-     * recuperar información de los usuarios.
+     * recuperar información de los usuarios. Las modificaciones del perfil se aplican con
+     * control de concurrencia optimista, de modo que las escrituras simultáneas no se pierden.
      */
-    public UsersProcess(CursoProcess cursoProcess, DynamoDbClient client) {
+    public UsersProcess(CursoProcess cursoProcess, DynamoDbClient client, BlobCodec codec,
+                        OptimisticUpdater actualizador, AuthService authService, PasswordHasher passwords,
+                        SuscripcionStore suscripciones, VisualizacionBuffer visualizaciones, AvanceCursos avance,
+                        AvancePerfil perfiles) {
         this.cursoProcess = cursoProcess;
         this.client = client;
+        this.codec = codec;
+        this.actualizador = actualizador;
+        this.authService = authService;
+        this.passwords = passwords;
+        this.suscripciones = suscripciones;
+        this.visualizaciones = visualizaciones;
+        this.avance = avance;
+        this.perfiles = perfiles;
     }
 
 
@@ -64,11 +98,11 @@ public class UsersProcess implements UsuarioRepository {
     public ResponseApp registrarUsuario(Usuario usuario) {
 
         try {
-            usuario.setPassword(Password.hash(usuario.getPassword()));
-            String json = mapper.writeValueAsString(usuario);
+            usuario.setPassword(passwords.hash(usuario.getPassword()));
             Map<String, AttributeValue> item = new HashMap<>();
             item.put(USERNAME, AttributeValue.builder().s(usuario.getUsername()).build());
-            item.put(PERFIL, AttributeValue.builder().s(json).build());
+            item.put(PERFIL, codec.codificar(usuario));
+            item.putAll(OptimisticUpdater.versionInicial());
 
             PutItemRequest request = PutItemRequest.builder()
                     .tableName(TABLE_NAME)
@@ -79,11 +113,13 @@ public class UsersProcess implements UsuarioRepository {
             client.putItem(request);
             logger.info("Usuario registrado: {}", usuario.getUsername());
             return ResponseApp.builder().status(200).message("Registro exitoso").build();
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             return ResponseApp.builder().status(500).message("Usuario no registrado").build();
         } catch (ConditionalCheckFailedException e) {
             logger.error("El usuario o correo ya está registrado en el sistema. {}", usuario.getUsername());
             return ResponseApp.builder().status(401).message("El usuario o correo ya está registrado en el sistema.").build();
+        } catch (SaturacionException e) {
+            return ResponseApp.builder().status(503).message(SATURADO).build();
         } catch (Exception e) {
             logger.error("Error al registrar el usuario: {}", e.getMessage());
             return ResponseApp.builder().status(500).message("Usuario no registrado satisfactoriamente").build();
@@ -91,41 +127,27 @@ public class UsersProcess implements UsuarioRepository {
     }
 
     /**
-     * Actualiza la contraseña de un usuario existente.
+     * Actualiza la contraseña de un usuario cuyas credenciales ya fueron verificadas. La escritura se
+     * condiciona a la versión leída en la verificación.
      *
-     * @param usuario Objeto ChangePassword con la información del usuario y la nueva contraseña.
+     * @param usuario       Usuario verificado, con la versión de su registro.
+     * @param passwordNueva Nueva contraseña.
      * @return Respuesta indicando el resultado de la operación.
      */
     @Override
-    public ResponseApp actualizarUsuario(ChangePassword usuario) {
+    public ResponseApp actualizarUsuario(UsuarioVerificado usuario, String passwordNueva) {
+        String username = usuario.getUsuario().getUsername();
         try {
-            Map<String, AttributeValue> key = new HashMap<>();
-            key.put(USERNAME, AttributeValue.builder().s(usuario.getUsername()).build());
-
-            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
-            if (response.hasItem()) {
-                String jsonData = response.item().get(PERFIL).s();
-                Usuario storedUser = mapper.readValue(jsonData, Usuario.class);
-                storedUser.setPassword(Password.hash(usuario.getPasswordNew()));
-
-                String json = mapper.writeValueAsString(storedUser);
-
-                UpdateItemRequest request = UpdateItemRequest.builder()
-                        .tableName(TABLE_NAME)
-                        .key(key)
-                        .updateExpression("SET perfil = :perfil")
-                        .expressionAttributeValues(Map.of(
-                                ":perfil", AttributeValue.builder().s(json).build()
-                        ))
-                        .build();
-
-                client.updateItem(request);
-                logger.info("Contraseña actualizada para el usuario: {}", usuario.getUsername());
-                return ResponseApp.builder().status(200).message("Contraseña actualizada exitosamente").build();
-            } else {
-                logger.info("Usuario no existe para actualizar: {}", usuario.getUsername());
-                return ResponseApp.builder().status(404).message("Usuario no exite").build();
-            }
+            Usuario storedUser = usuario.getUsuario();
+            storedUser.setPassword(passwords.hash(passwordNueva));
+            actualizador.escribir(TABLE_NAME, llave(username), usuario.getVersion(), perfil(storedUser));
+            logger.info("Contraseña actualizada para el usuario: {}", username);
+            return ResponseApp.builder().status(200).message("Contraseña actualizada exitosamente").build();
+        } catch (ConflictoConcurrenciaException e) {
+            logger.warn("Conflicto al actualizar la contraseña de {}", username);
+            return ResponseApp.builder().status(409).message(CONFLICTO).build();
+        } catch (SaturacionException e) {
+            return ResponseApp.builder().status(503).message(SATURADO).build();
         } catch (Exception e) {
             logger.error("Error al actualizar la contraseña: {}", e.getMessage());
             return ResponseApp.builder().status(500).message("Error al actualizar la contraseña").build();
@@ -133,118 +155,95 @@ public class UsersProcess implements UsuarioRepository {
     }
 
     /**
-     * Obtiene el perfil de un usuario por su ID.
+     * Obtiene el perfil de un usuario por su ID. Los cursos suscritos se completan con su contenido
+     * actual del catálogo y con el progreso guardado en cada suscripción, y las insignias incluyen los
+     * cursos completados, también los que quedaron completos sin recibir su insignia.
      *
      * @param userId ID del usuario a buscar.
-     * @return Respuesta con la información del perfil del usuario o un mensaje de error.
+     * @return Resultado con el perfil del usuario, con la contraseña enmascarada, o un mensaje de error.
      */
     @Override
-    public ResponseApp perfilUsuario(String userId) {
+    public Resultado<Usuario> perfilUsuario(String userId) {
         try {
             Map<String, AttributeValue> key = new HashMap<>();
             key.put(USERNAME, AttributeValue.builder().s(userId).build());
 
             var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
             if (response.hasItem()) {
-                String jsonData = response.item().get(PERFIL).s();
-                Usuario storedUser = mapper.readValue(jsonData, Usuario.class);
+                Usuario storedUser = leerPerfil(response.item());
                 storedUser.setPassword("********");
-                return ResponseApp.builder().status(200).message(mapper.writeValueAsString(storedUser)).build();
+                List<SuscripcionStore.Suscripcion> suscritas = suscripciones.porUsuario(userId);
+                Map<String, Curso> catalogo = catalogo(suscritas);
+                suscritas = avance.completarPendientes(userId, suscritas, catalogo);
+                storedUser.setCursos(unirCursos(storedUser.getCursos(), suscritas, catalogo));
+                storedUser.setInsignias(insignias(suscritas, storedUser.getInsignias()));
+                return Resultado.ok(storedUser);
             } else {
                 logger.info("Usuario no existe para obtener perfil: {}", userId);
-                return ResponseApp.builder().status(404).message("Usuario no exite").build();
+                return Resultado.error(404, "Usuario no exite");
             }
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             logger.error("Error al procesar los datos en perfil del usuario: {}", e.getMessage());
-            return ResponseApp.builder().status(500).message("Error al procesar los datos del usuario").build();
+            return Resultado.error(500, "Error al procesar los datos del usuario");
 
         } catch (Exception e) {
             logger.error("Error al obtener el perfil del usuario: {}", e.getMessage());
-            return ResponseApp.builder().status(500).message("Error al obtener el perfil del usuario").build();
+            return Resultado.error(500, "Error al obtener el perfil del usuario");
 
         }
     }
 
     /**
-     * Realiza el proceso de inicio de sesión para un usuario.
+     * Realiza el proceso de inicio de sesión para un usuario. Si la contraseña guardada usa un costo de
+     * BCrypt distinto al actual, se recalcula en segundo plano sin demorar la respuesta.
      *
      * @param usuario Objeto Usuario con las credenciales de inicio de sesión.
      * @return Respuesta indicando el resultado del inicio de sesión.
      */
     @Override
     public ResponseApp login(Usuario usuario) {
-        try {
-            Map<String, AttributeValue> key = new HashMap<>();
-            key.put(USERNAME, AttributeValue.builder().s(usuario.getUsername()).build());
-
-            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
-            if (response.hasItem()) {
-                String jsonData = response.item().get(PERFIL).s();
-                Usuario storedUser = mapper.readValue(jsonData, Usuario.class);
-
-                if (storedUser.isActive()) {
-                    if (Password.verificar(usuario.getPassword(), storedUser.getPassword())) {
-                        logger.info("Login exitoso para el usuario: {}", usuario.getUsername());
-                        return ResponseApp.builder().status(200).message(new AuthService().generaJWT(usuario.getUsername())).build();
-                    } else {
-                        logger.info("Credenciales incorrectas para el usuario: {}", usuario.getUsername());
-                        return ResponseApp.builder().status(401).message("El usuario o la contraseña no son correctos.").build();
-                    }
-                } else {
-                    logger.info("Usuario inactivo: {}", usuario.getUsername());
-                    return ResponseApp.builder().status(404).message("Usuario inactivo").build();
-                }
-            } else {
-                logger.info("Usuario no existe: {}", usuario.getUsername());
-                return ResponseApp.builder().status(404).message("Usuario no exite").build();
-            }
-        } catch (JsonProcessingException e) {
-            logger.error("Error al procesar los datos en login del usuario: {}", e.getMessage());
-            return ResponseApp.builder().status(500).message("Error al procesar los datos del usuario").build();
-        } catch (Exception e) {
-            logger.error("Error en el proceso de login: {}", e.getMessage());
-            return ResponseApp.builder().status(500).message("Error en el proceso de login").build();
+        Resultado<UsuarioVerificado> verificado = verificar(usuario.getUsername(), usuario.getPassword(), false);
+        if (!verificado.isExitoso()) {
+            return ResponseApp.builder().status(verificado.getStatus()).message(verificado.getMessage()).build();
         }
+        logger.info("Login exitoso para el usuario: {}", usuario.getUsername());
+        if (passwords.requiereRehash(verificado.getValor().getUsuario().getPassword())) {
+            rehash(verificado.getValor(), usuario.getPassword());
+        }
+        return ResponseApp.builder().status(200).message(authService.generaJWT(usuario.getUsername())).build();
     }
 
     /**
-     * Desactiva un usuario en la base de datos.
+     * Verifica las credenciales de un usuario con una lectura consistente de su registro.
      *
-     * @param usuario Objeto Usuario con la información del usuario a desactivar.
+     * @param username Nombre de usuario.
+     * @param password Contraseña a verificar.
+     * @return El usuario leído y la versión de su registro, o el error de la verificación.
+     */
+    @Override
+    public Resultado<UsuarioVerificado> verificarCredenciales(String username, String password) {
+        return verificar(username, password, true);
+    }
+
+    /**
+     * Desactiva un usuario cuyas credenciales ya fueron verificadas. La escritura se condiciona a la
+     * versión leída en la verificación.
+     *
+     * @param usuario Usuario verificado, con la versión de su registro.
      * @return Respuesta indicando el resultado de la operación.
      */
     @Override
-    public ResponseApp eliminarUsuario(Usuario usuario) {
+    public ResponseApp eliminarUsuario(UsuarioVerificado usuario) {
+        String username = usuario.getUsuario().getUsername();
         try {
-            Map<String, AttributeValue> key = new HashMap<>();
-            key.put(USERNAME, AttributeValue.builder().s(usuario.getUsername()).build());
-
-            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
-            if (response.hasItem()) {
-                String jsonData = response.item().get(PERFIL).s();
-                Usuario storedUser = mapper.readValue(jsonData, Usuario.class);
-                storedUser.setActive(false);
-
-                String json = mapper.writeValueAsString(storedUser);
-
-                UpdateItemRequest request = UpdateItemRequest.builder()
-                        .tableName(TABLE_NAME)
-                        .key(key)
-                        .updateExpression("SET perfil = :perfil")
-                        .expressionAttributeValues(Map.of(
-                                ":perfil", AttributeValue.builder().s(json).build()
-                        ))
-                        .build();
-
-                client.updateItem(request);
-                logger.info("Usuario desactivado: {}", usuario.getUsername());
-                return ResponseApp.builder().status(200).message("Usuario desactivado exitosamente").build();
-
-            } else {
-                logger.info("Usuario no existe para eliminar: {}", usuario.getUsername());
-                return ResponseApp.builder().status(404).message("Usuario no exite").build();
-
-            }
+            Usuario storedUser = usuario.getUsuario();
+            storedUser.setActive(false);
+            actualizador.escribir(TABLE_NAME, llave(username), usuario.getVersion(), perfil(storedUser));
+            logger.info("Usuario desactivado: {}", username);
+            return ResponseApp.builder().status(200).message("Usuario desactivado exitosamente").build();
+        } catch (ConflictoConcurrenciaException e) {
+            logger.warn("Conflicto al desactivar el usuario {}", username);
+            return ResponseApp.builder().status(409).message(CONFLICTO).build();
         } catch (Exception e) {
             logger.error("Error al eliminar el usuario: {}", e.getMessage());
             return ResponseApp.builder().status(500).message("Error al eliminar el usuario").build();
@@ -253,7 +252,8 @@ public class UsersProcess implements UsuarioRepository {
     }
 
     /**
-     * Suscribe a un usuario a un curso específico.
+     * Suscribe a un usuario a un curso específico. La suscripción se guarda como un elemento propio
+     * que no copia el contenido del curso.
      *
      * @param userId  ID del usuario a suscribir.
      * @param idCurso ID del curso al que se desea suscribir.
@@ -262,48 +262,17 @@ public class UsersProcess implements UsuarioRepository {
     @Override
     public ResponseApp suscribirCurso(String userId, String idCurso) {
         try {
-            // buscar el usuario en la base de datos
-            Map<String, AttributeValue> key = new HashMap<>();
-            key.put(USERNAME, AttributeValue.builder().s(userId).build());
-            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
-            if (response.hasItem()) {
-                String jsonData = response.item().get(PERFIL).s();
-                Usuario storedUser = mapper.readValue(jsonData, Usuario.class);
-
-                // verificar si el curso ya está en la lista de cursos suscritos
-                if (storedUser.getCursos() != null &&
-                        storedUser.getCursos().stream().anyMatch(c -> c.getCursoId().equals(idCurso))) {
-                    logger.info("El usuario ya está suscrito al curso: {}", idCurso);
-                    return ResponseApp.builder().status(200).message("Ya estás suscrito a este curso").build();
-
-                } else {
-                    // agregar el curso a la lista de cursos suscritos
-                    Curso agregar = cursoProcess.obtenerCursoPorId(idCurso);
-                    if (agregar.isActive()) {
-                        storedUser.getCursos().add(cursoProcess.obtenerCursoPorId(idCurso));
-                    } else {
-                        logger.info("Curso inactivo");
-                        return ResponseApp.builder().status(404).message("Curso inactivo o inexistente").build();
-                    }
-
-                    String json = mapper.writeValueAsString(storedUser);
-                    UpdateItemRequest request = UpdateItemRequest.builder()
-                            .tableName(TABLE_NAME)
-                            .key(key)
-                            .updateExpression("SET perfil = :perfil")
-                            .expressionAttributeValues(Map.of(
-                                    ":perfil", AttributeValue.builder().s(json).build()
-                            ))
-                            .build();
-
-                    client.updateItem(request);
-                    logger.info("Usuario {} suscrito al curso: {}", userId, idCurso);
-                    return ResponseApp.builder().status(200).message("Suscripción al curso exitosa").build();
-                }
-            } else {
-                logger.info("Usuario no existe para suscribir al curso: {}", userId);
-                return ResponseApp.builder().status(404).message("Usuario no exite").build();
+            Curso curso = cursoProcess.obtenerCursoPorId(idCurso);
+            if (curso == null || !curso.isActive()) {
+                logger.info("Curso inactivo");
+                return ResponseApp.builder().status(404).message("Curso inactivo o inexistente").build();
+            }
+            if (!avance.suscribir(userId, idCurso)) {
+                logger.info("El usuario ya está suscrito al curso: {}", idCurso);
+                return ResponseApp.builder().status(200).message("Ya estás suscrito a este curso").build();
             }
+            logger.info("Usuario {} suscrito al curso: {}", userId, idCurso);
+            return ResponseApp.builder().status(200).message("Suscripción al curso exitosa").build();
         } catch (Exception e) {
             logger.error("Error al suscribir el curso: {}", e.getMessage());
             return ResponseApp.builder().status(500).message("Accion no permitida").build();
@@ -312,7 +281,10 @@ public class UsersProcess implements UsuarioRepository {
     }
 
     /**
-     * Marca un módulo como visualizado para un usuario.
+     * Marca un módulo como visualizado para un usuario: una lectura por llave del recurso y una única
+     * actualización de su suscripción, que no escribe nada si el módulo ya estaba marcado. Si el módulo
+     * completa el curso, se otorga su insignia.
+     * Las suscripciones que aún están dentro del perfil se actualizan allí hasta que se trasladen.
      *
      * @param userId    ID del usuario que visualizó el módulo.
      * @param verModulo Objeto VerModulo con la información del módulo visualizado.
@@ -321,71 +293,172 @@ public class UsersProcess implements UsuarioRepository {
     @Override
     public ResponseApp verModulo(String userId, VerModulo verModulo) {
         try {
-            boolean update = false;
-            Usuario user = getUsuarioPorId(userId);
-            if (user == null) {
-                logger.warn("Usuario no encontrado al intentar ver módulo: {}", userId);
-                return ResponseApp.builder().status(404).message("Usuario no encontrado").build();
-            }
-            for (Curso curso : user.getCursos()) {
-                if (curso.getCursoId().equals(verModulo.getCursoId())) {
-                    for (Recurso rec : curso.getRecursos()) {
-                        if (rec.getId().equals(verModulo.getRecursoId())) {
-                            rec.setVisualizado(true);
-                            update = true;
-                        }
-                    }
-                }
+            Recurso recurso = cursoProcess.obtenerRecurso(verModulo.getCursoId(), verModulo.getRecursoId());
+            if (recurso != null && avance.registrar(userId, verModulo.getCursoId(), List.of(recurso))) {
+                logger.info("Modulo visualizado correctamente in curso {} recurso {}",
+                        verModulo.getCursoId(), verModulo.getRecursoId());
+                return ResponseApp.builder().status(200).message("Módulo visualizado correctamente").build();
             }
-            Map<String, AttributeValue> key = new HashMap<>();
-            key.put(USERNAME, AttributeValue.builder().s(userId).build());
+        } catch (Exception e) {
+            logger.error("Error al marcar el modulo {}: {}", verModulo.getRecursoId(), e.getMessage());
+            return ResponseApp.builder().status(500).message("Error al marcar el módulo").build();
+        }
+        return verModuloEnPerfil(userId, verModulo);
+    }
 
-            String json = mapper.writeValueAsString(user);
-            UpdateItemRequest request = UpdateItemRequest.builder()
-                    .tableName(TABLE_NAME)
-                    .key(key)
-                    .updateExpression("SET perfil = :perfil")
-                    .expressionAttributeValues(Map.of(
-                            ":perfil", AttributeValue.builder().s(json).build()
-                    ))
-                    .build();
+    /**
+     * Registra varios módulos visualizados para escribirlos en el siguiente lote de la tabla de
+     * suscripciones, combinados con los demás eventos del mismo usuario y curso.
+     *
+     * @param userId  ID del usuario que visualizó los módulos.
+     * @param eventos Módulos visualizados.
+     * @return Respuesta indicando que los eventos fueron recibidos, o 503 si hay demasiados eventos pendientes.
+     */
+    @Override
+    public ResponseApp verModulos(String userId, List<VerModulo> eventos) {
+        if (!visualizaciones.registrar(userId, eventos)) {
+            logger.warn("Visualizaciones del usuario {} rechazadas: el lote pendiente está lleno", userId);
+            return ResponseApp.builder().status(503).message(VISUALIZACIONES_SATURADAS).build();
+        }
+        return ResponseApp.builder().status(202).message("Visualizaciones registradas").build();
+    }
 
-            client.updateItem(request);
+    /**
+     * Marca un módulo visualizado en una suscripción guardada dentro del perfil, previa a la tabla
+     * de suscripciones.
+     */
+    private ResponseApp verModuloEnPerfil(String userId, VerModulo verModulo) {
+        try {
+            AvancePerfil.Marca marca = perfiles.marcar(userId, verModulo.getCursoId(), List.of(verModulo.getRecursoId()));
+            if (marca == AvancePerfil.Marca.NO_ENCONTRADO) {
+                logger.warn("Usuario no encontrado al intentar ver módulo: {}", userId);
+                return ResponseApp.builder().status(404).message("Usuario no encontrado").build();
+            }
             logger.info("Modulo visualizado correctamente in curso {} recurso {}",
                     verModulo.getCursoId(), verModulo.getRecursoId());
-            if (update) {
+            if (marca == AvancePerfil.Marca.MARCADO) {
                 return ResponseApp.builder().status(200).message("Módulo visualizado correctamente").build();
             } else {
                 return ResponseApp.builder().status(200).message("No estas suscrito a este módulo").build();
             }
+        } catch (ConflictoConcurrenciaException e) {
+            logger.warn("Conflicto al marcar el módulo {} del usuario {}", verModulo.getRecursoId(), userId);
+            return ResponseApp.builder().status(409).message(CONFLICTO).build();
         } catch (Exception e) {
             logger.error("Error al obtener el modulo");
         }
         return null;
     }
 
-    /**
-     * Obtiene un usuario por su ID.
-     *
-     * @param userId ID del usuario a buscar.
-     * @return Objeto Usuario con la información del usuario o null si no se encuentra.
-     */
-    private Usuario getUsuarioPorId(String userId) {
+    private Resultado<UsuarioVerificado> verificar(String username, String password, boolean consistente) {
         try {
-            Map<String, AttributeValue> key = new HashMap<>();
-            key.put(USERNAME, AttributeValue.builder().s(userId).build());
-            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(key));
-            if (response.hasItem()) {
-                String json = response.item().get(PERFIL).s();
-                try {
-                    return mapper.readValue(json, Usuario.class);
-                } catch (Exception e) {
-                    logger.error("Error al convertir el JSON a Usuario: {}", e.getMessage());
-                }
+            var response = client.getItem(builder -> builder.tableName(TABLE_NAME).key(llave(username))
+                    .consistentRead(consistente));
+            if (!response.hasItem()) {
+                logger.info("Usuario no existe: {}", username);
+                return Resultado.error(404, "Usuario no exite");
             }
+            Usuario storedUser = leerPerfil(response.item());
+            if (!storedUser.isActive()) {
+                logger.info("Usuario inactivo: {}", username);
+                return Resultado.error(404, "Usuario inactivo");
+            }
+            if (!passwords.verificar(password, storedUser.getPassword())) {
+                logger.info("Credenciales incorrectas para el usuario: {}", username);
+                return Resultado.error(401, "El usuario o la contraseña no son correctos.");
+            }
+            return Resultado.ok(new UsuarioVerificado(storedUser, OptimisticUpdater.version(response.item())));
+        } catch (IOException e) {
+            logger.error("Error al procesar los datos en login del usuario: {}", e.getMessage());
+            return Resultado.error(500, "Error al procesar los datos del usuario");
+        } catch (SaturacionException e) {
+            return Resultado.error(503, SATURADO);
         } catch (Exception e) {
-            logger.error("Error al obtener el usuario por ID: {}", e.getMessage(), e);
+            logger.error("Error en el proceso de login: {}", e.getMessage());
+            return Resultado.error(500, "Error en el proceso de login");
         }
-        return null;
+    }
+
+    /**
+     * Recalcula el hash de la contraseña con el costo actual y lo guarda sobre la lectura verificada.
+     * Si el pool de cifrado está ocupado o el usuario cambió entretanto, se descarta: el siguiente
+     * inicio de sesión lo vuelve a intentar.
+     */
+    private void rehash(UsuarioVerificado verificado, String password) {
+        Usuario storedUser = verificado.getUsuario();
+        passwords.hashEnSegundoPlano(password).thenAccept(hash -> {
+            try {
+                storedUser.setPassword(hash);
+                actualizador.escribir(TABLE_NAME, llave(storedUser.getUsername()), verificado.getVersion(), perfil(storedUser));
+                logger.info("Contraseña del usuario {} recalculada con costo {}", storedUser.getUsername(), passwords.getCosto());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).exceptionally(error -> {
+            logger.debug("Recálculo de la contraseña del usuario {} descartado: {}", storedUser.getUsername(), error.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Une las suscripciones del usuario con el contenido actual de sus cursos. Los cursos que aún están
+     * dentro del perfil se conservan tal como están guardados, salvo que también tengan suscripción en la
+     * tabla: entonces prevalece la suscripción, que es donde se registra el avance.
+     */
+    private Map<String, Curso> catalogo(List<SuscripcionStore.Suscripcion> suscritas) {
+        if (suscritas.isEmpty()) {
+            return Map.of();
+        }
+        return cursoProcess.obtenerCursosPorIds(suscritas.stream().map(SuscripcionStore.Suscripcion::cursoId).toList());
+    }
+
+    /**
+     * Une los cursos del perfil con los del catálogo de cada suscripción, marcando los recursos visualizados
+     * según la suscripción. Si un curso está en ambos lugares se usa el del catálogo, conservando además los
+     * recursos que la copia del perfil ya tenía visualizados; si ya no existe en el catálogo se conserva la
+     * copia del perfil. Las suscripciones cuyo curso no está en ninguno se omiten.
+     */
+    static List<Curso> unirCursos(List<Curso> enPerfil, List<SuscripcionStore.Suscripcion> suscritas,
+                                  Map<String, Curso> catalogo) {
+        Map<String, Curso> cursos = new LinkedHashMap<>();
+        enPerfil.forEach(curso -> cursos.put(curso.getCursoId(), curso));
+        for (SuscripcionStore.Suscripcion suscripcion : suscritas) {
+            Curso curso = catalogo.get(suscripcion.cursoId());
+            if (curso == null) {
+                continue;
+            }
+            Set<String> vistosEnPerfil = new HashSet<>();
+            Curso copia = cursos.get(suscripcion.cursoId());
+            if (copia != null) {
+                copia.getRecursos().stream().filter(Recurso::isVisualizado).forEach(rec -> vistosEnPerfil.add(rec.getId()));
+            }
+            curso.getRecursos().forEach(rec -> rec.setVisualizado(
+                    suscripcion.visualizo(rec) || vistosEnPerfil.contains(rec.getId())));
+            cursos.put(suscripcion.cursoId(), curso);
+        }
+        return new ArrayList<>(cursos.values());
+    }
+
+    /**
+     * Agrega a las insignias guardadas en el perfil las de los cursos completados en las suscripciones.
+     */
+    static List<String> insignias(List<SuscripcionStore.Suscripcion> suscritas, List<String> enPerfil) {
+        Set<String> insignias = new LinkedHashSet<>(enPerfil);
+        suscritas.stream()
+                .filter(SuscripcionStore.Suscripcion::completado)
+                .forEach(suscripcion -> insignias.add(suscripcion.cursoId()));
+        return new ArrayList<>(insignias);
+    }
+
+    private static Map<String, AttributeValue> llave(String userId) {
+        return Map.of(USERNAME, AttributeValue.builder().s(userId).build());
+    }
+
+    private Usuario leerPerfil(Map<String, AttributeValue> item) throws IOException {
+        return codec.decodificar(item.get(PERFIL), Usuario.class);
+    }
+
+    private Map<String, AttributeValue> perfil(Usuario usuario) throws IOException {
+        return Map.of(PERFIL, codec.codificar(usuario));
     }
 }
@@ -0,0 +1,295 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.serviceCurso.CursoProcess;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.curso.VerModulo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agrupa en memoria los módulos visualizados antes de escribirlos en la tabla de suscripciones. Los
+ * eventos de un mismo usuario y curso se combinan en un único conjunto de recursos, y cada intervalo se
+ * escribe una sola actualización por suscripción con todos los recursos acumulados; así el número de
+ * escrituras depende de los usuarios activos y no de la cantidad de eventos que envían los reproductores.
+ * Las suscripciones que aún están dentro del perfil se actualizan allí, igual que al marcar un solo módulo.
+ * <p>
+ * Los lotes se programan siempre en el hilo de escritura, nunca en el de quien registra los eventos, y sus
+ * suscripciones se escriben en paralelo en un pool acotado de escritores. Al llegar a la mitad del máximo de
+ * suscripciones pendientes se adelanta la escritura del lote; con el máximo alcanzado los eventos nuevos se
+ * rechazan hasta que el lote se escriba. Una escritura fallida vuelve al lote siguiente hasta el número
+ * máximo de intentos, tras el cual se descarta. Al cerrar la aplicación se escriben los eventos pendientes
+ * durante el tiempo de cierre configurado; los que no alcanzan a escribirse se descartan y se registran.
+ */
+@Component
+public class VisualizacionBuffer implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(VisualizacionBuffer.class);
+
+    private final AvanceCursos avance;
+    private final AvancePerfil perfiles;
+    private final CursoProcess cursoProcess;
+    private final int maximo;
+    private final int intentos;
+    private final Duration cierre;
+    private final Map<Llave, Pendiente> pendientes = new ConcurrentHashMap<>();
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final AtomicBoolean adelantado = new AtomicBoolean();
+    private final ScheduledThreadPoolExecutor programador;
+    private final ThreadPoolExecutor escritores;
+
+    private record Llave(String username, String cursoId) {
+    }
+
+    /**
+     * Recursos visualizados de una suscripción y escrituras fallidas que acumulan.
+     */
+    private record Pendiente(Set<String> recursoIds, int fallos) {
+    }
+
+    /**
+     * Constructor de la clase VisualizacionBuffer.
+     *
+     * @param avance       Avance de los usuarios en sus cursos, donde se escriben los eventos combinados.
+     * @param perfiles     Avance en las suscripciones que aún están dentro del perfil.
+     * @param cursoProcess Proceso de cursos, para obtener la posición de cada recurso.
+     * @param intervalo    Tiempo máximo que un evento espera antes de escribirse.
+     * @param maximo       Número máximo de suscripciones pendientes; al alcanzarlo se rechazan los eventos nuevos.
+     * @param intentos     Número máximo de intentos de escritura de una suscripción antes de descartar sus eventos.
+     * @param hilos        Número de suscripciones que se escriben en paralelo.
+     * @param cierre       Tiempo máximo para escribir los eventos pendientes al cerrar la aplicación.
+     */
+    public VisualizacionBuffer(AvanceCursos avance, AvancePerfil perfiles, CursoProcess cursoProcess,
+                               @Value("${suscripciones.visualizaciones.intervalo:PT1S}") Duration intervalo,
+                               @Value("${suscripciones.visualizaciones.maximo:10000}") int maximo,
+                               @Value("${suscripciones.visualizaciones.intentos:3}") int intentos,
+                               @Value("${suscripciones.visualizaciones.hilos:16}") int hilos,
+                               @Value("${suscripciones.visualizaciones.cierre:PT10S}") Duration cierre) {
+        this.avance = avance;
+        this.perfiles = perfiles;
+        this.cursoProcess = cursoProcess;
+        this.maximo = maximo;
+        this.intentos = intentos;
+        this.cierre = cierre;
+        AtomicInteger contador = new AtomicInteger();
+        this.escritores = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread hilo = new Thread(runnable, "visualizaciones-escritor-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        this.programador = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread hilo = new Thread(runnable, "visualizaciones-escritura");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1, intervalo.toMillis());
+        programador.scheduleWithFixedDelay(this::vaciarSinErrores, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra los módulos visualizados por un usuario para escribirlos en el siguiente lote, sin esperar
+     * la escritura.
+     *
+     * @param username Nombre del usuario.
+     * @param eventos  Módulos visualizados; los eventos sin curso o recurso se descartan.
+     * @return {@code false} si los eventos se rechazaron porque hay demasiadas suscripciones pendientes.
+     */
+    public boolean registrar(String username, Collection<VerModulo> eventos) {
+        if (pendientes.size() >= maximo) {
+            adelantar();
+            return false;
+        }
+        for (VerModulo evento : eventos) {
+            if (evento.getCursoId() == null || evento.getRecursoId() == null) {
+                continue;
+            }
+            pendientes.merge(new Llave(username, evento.getCursoId()), new Pendiente(Set.of(evento.getRecursoId()), 0),
+                    VisualizacionBuffer::unir);
+        }
+        if (pendientes.size() >= maximo / 2) {
+            adelantar();
+        }
+        return true;
+    }
+
+    /**
+     * Programa la escritura inmediata del lote en el hilo de escritura, si no está programada ya.
+     */
+    private void adelantar() {
+        if (adelantado.compareAndSet(false, true)) {
+            try {
+                programador.execute(() -> {
+                    adelantado.set(false);
+                    vaciarSinErrores();
+                });
+            } catch (RejectedExecutionException e) {
+                adelantado.set(false);
+            }
+        }
+    }
+
+    /**
+     * Escribe todas las suscripciones pendientes, una actualización por suscripción, en paralelo en el pool
+     * de escritores. La posición de cada recurso se consulta una sola vez por lote, aunque varios usuarios lo
+     * hayan visualizado.
+     *
+     * @return Número de suscripciones actualizadas.
+     */
+    public int vaciar() {
+        escritura.lock();
+        try {
+            return escribirLote(Long.MAX_VALUE);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Escribe el lote y espera sus escrituras como máximo el tiempo indicado. Las que no terminan a tiempo
+     * siguen en el pool de escritores.
+     */
+    private int escribirLote(long esperaNanos) {
+        Map<String, CompletableFuture<Optional<Recurso>>> recursos = new ConcurrentHashMap<>();
+        AtomicInteger escritas = new AtomicInteger();
+        List<CompletableFuture<Void>> escrituras = new ArrayList<>();
+        for (Llave llave : List.copyOf(pendientes.keySet())) {
+            Pendiente pendiente = pendientes.remove(llave);
+            if (pendiente != null) {
+                escrituras.add(CompletableFuture.runAsync(() -> {
+                    if (escribir(llave, pendiente, recursos)) {
+                        escritas.incrementAndGet();
+                    }
+                }, escritores));
+            }
+        }
+        try {
+            CompletableFuture.allOf(escrituras.toArray(CompletableFuture[]::new)).get(esperaNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.error("Tiempo agotado al escribir el lote de visualizaciones: quedan {} suscripciones sin escribir",
+                    escrituras.stream().filter(tarea -> !tarea.isDone()).count());
+        } catch (ExecutionException e) {
+            logger.error("Error al escribir el lote de visualizaciones: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return escritas.get();
+    }
+
+    private boolean escribir(Llave llave, Pendiente pendiente, Map<String, CompletableFuture<Optional<Recurso>>> recursos) {
+        try {
+            List<Recurso> visualizados = new ArrayList<>();
+            for (String recursoId : pendiente.recursoIds()) {
+                recurso(recursos, llave.cursoId(), recursoId).ifPresent(visualizados::add);
+            }
+            if (visualizados.isEmpty()) {
+                return false;
+            }
+            if (avance.registrar(llave.username(), llave.cursoId(), visualizados)) {
+                return true;
+            }
+            List<String> ids = visualizados.stream().map(Recurso::getId).toList();
+            if (perfiles.marcar(llave.username(), llave.cursoId(), ids) == AvancePerfil.Marca.MARCADO) {
+                return true;
+            }
+            logger.info("El usuario {} no está suscrito al curso {}, se descartan sus visualizaciones",
+                    llave.username(), llave.cursoId());
+            return false;
+        } catch (Exception e) {
+            int fallos = pendiente.fallos() + 1;
+            if (fallos >= intentos) {
+                logger.error("Error al escribir las visualizaciones del usuario {} en el curso {}, se descartan tras {} intentos: {}",
+                        llave.username(), llave.cursoId(), fallos, e.getMessage());
+                return false;
+            }
+            logger.error("Error al escribir las visualizaciones del usuario {} en el curso {}, se reintentan en el siguiente lote: {}",
+                    llave.username(), llave.cursoId(), e.getMessage());
+            pendientes.merge(llave, new Pendiente(pendiente.recursoIds(), fallos), VisualizacionBuffer::unir);
+            return false;
+        }
+    }
+
+    /**
+     * Obtiene un recurso del curso una sola vez por lote: la primera escritura que lo necesita lo consulta y
+     * las demás esperan su resultado.
+     */
+    private Optional<Recurso> recurso(Map<String, CompletableFuture<Optional<Recurso>>> recursos,
+                                      String cursoId, String recursoId) {
+        CompletableFuture<Optional<Recurso>> propio = new CompletableFuture<>();
+        CompletableFuture<Optional<Recurso>> existente = recursos.putIfAbsent(cursoId + "/" + recursoId, propio);
+        if (existente != null) {
+            return existente.join();
+        }
+        try {
+            propio.complete(Optional.ofNullable(cursoProcess.obtenerRecurso(cursoId, recursoId)));
+        } catch (Throwable e) {
+            propio.completeExceptionally(e);
+            throw e;
+        }
+        return propio.join();
+    }
+
+    private static Pendiente unir(Pendiente actual, Pendiente nuevo) {
+        Set<String> union = new HashSet<>(actual.recursoIds());
+        union.addAll(nuevo.recursoIds());
+        return new Pendiente(union, Math.max(actual.fallos(), nuevo.fallos()));
+    }
+
+    private void vaciarSinErrores() {
+        try {
+            vaciar();
+        } catch (Exception e) {
+            logger.error("Error al escribir el lote de visualizaciones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Detiene la escritura periódica y escribe los eventos que aún estén pendientes, como máximo durante el
+     * tiempo de cierre. Los eventos que no alcanzan a escribirse se descartan.
+     */
+    @Override
+    public void destroy() {
+        long limite = System.nanoTime() + cierre.toNanos();
+        programador.shutdown();
+        try {
+            if (programador.awaitTermination(cierre.toNanos(), TimeUnit.NANOSECONDS)
+                    && escritura.tryLock(limite - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                try {
+                    int escritas = escribirLote(limite - System.nanoTime());
+                    logger.info("Visualizaciones pendientes escritas al cerrar: {}", escritas);
+                } finally {
+                    escritura.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int descartadas = escritores.shutdownNow().size() + pendientes.size();
+        if (descartadas > 0) {
+            logger.error("Se descartan al cerrar las visualizaciones de {} suscripciones sin escribir", descartadas);
+        }
+    }
+}
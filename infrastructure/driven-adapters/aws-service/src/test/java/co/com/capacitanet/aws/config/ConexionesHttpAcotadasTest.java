@@ -0,0 +1,102 @@
+package co.com.capacitanet.aws.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConexionesHttpAcotadasTest {
+
+    private SdkHttpClient delegado;
+    private ExecutableHttpRequest ejecutable;
+    private ConexionesHttpAcotadas http;
+
+    @BeforeEach
+    void setUp() {
+        delegado = mock(SdkHttpClient.class);
+        ejecutable = mock(ExecutableHttpRequest.class);
+        when(delegado.prepareRequest(any())).thenReturn(ejecutable);
+        http = new ConexionesHttpAcotadas(delegado, 1, Duration.ofMillis(50));
+    }
+
+    private HttpExecuteResponse llamar() throws IOException {
+        return http.prepareRequest(mock(HttpExecuteRequest.class)).call();
+    }
+
+    private static HttpExecuteResponse respuesta(AbortableInputStream cuerpo) {
+        return HttpExecuteResponse.builder()
+                .response(SdkHttpResponse.builder().statusCode(200).build())
+                .responseBody(cuerpo)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should hold the connection permit until the response body is closed")
+    void shouldHoldPermitUntilBodyIsClosed() throws IOException {
+        when(ejecutable.call()).thenReturn(respuesta(AbortableInputStream.create(new ByteArrayInputStream(new byte[]{1}))));
+
+        HttpExecuteResponse response = llamar();
+
+        assertEquals(0, http.disponibles());
+        try (InputStream cuerpo = response.responseBody().orElseThrow()) {
+            assertEquals(1, cuerpo.read());
+        }
+        assertEquals(1, http.disponibles());
+    }
+
+    @Test
+    @DisplayName("Should fail like a pool timeout when every connection is in use")
+    void shouldFailWhenNoPermitIsAvailable() throws IOException {
+        when(ejecutable.call()).thenReturn(respuesta(AbortableInputStream.create(new ByteArrayInputStream(new byte[0]))));
+        llamar();
+
+        assertThrows(IOException.class, this::llamar);
+        verify(delegado, never()).close();
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the response has no body or the call fails")
+    void shouldReleasePermitWithoutBodyOrOnFailure() throws IOException {
+        when(ejecutable.call())
+                .thenReturn(HttpExecuteResponse.builder().response(SdkHttpResponse.builder().statusCode(204).build()).build())
+                .thenThrow(new IOException("conexión rechazada"));
+
+        llamar();
+        assertEquals(1, http.disponibles());
+
+        assertThrows(IOException.class, this::llamar);
+        assertEquals(1, http.disponibles());
+    }
+
+    @Test
+    @DisplayName("Should release the permit once when the body is aborted and then closed")
+    void shouldReleasePermitOnceWhenAborted() throws IOException {
+        AbortableInputStream original = mock(AbortableInputStream.class);
+        when(ejecutable.call()).thenReturn(respuesta(original));
+
+        AbortableInputStream cuerpo = llamar().responseBody().orElseThrow();
+        cuerpo.abort();
+        cuerpo.close();
+
+        verify(original).abort();
+        assertEquals(1, http.disponibles());
+    }
+}
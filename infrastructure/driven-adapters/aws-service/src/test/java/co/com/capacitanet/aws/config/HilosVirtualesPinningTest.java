@@ -0,0 +1,169 @@
+package co.com.capacitanet.aws.config;
+
+import co.com.capacitanet.aws.dynamo.LecturaAgrupada;
+import co.com.capacitanet.aws.serviceCurso.EstadisticasCursos;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ejecuta llamadas bloqueantes reales del cliente HTTP del SDK desde hilos virtuales, contra un servidor
+ * local, y verifica con JFR que ningún hilo virtual quede fijado a su portador mientras espera la red o una
+ * conexión libre. Hay más hilos que conexiones, así que las solicitudes compiten por el pool.
+ * <p>
+ * El cliente Apache toma el candado interno del pool dentro de un bloque {@code synchronized}; cuando dos
+ * hilos lo disputan, el que espera queda fijado durante el traspaso del candado, sin esperar red. Esa es la
+ * única espera fijada que se admite.
+ */
+class HilosVirtualesPinningTest {
+
+    private static final String RESPUESTA = "{\"Responses\":{},\"Item\":{\"username\":{\"S\":\"usuario\"}}}";
+
+    private static final int CONEXIONES = 8;
+
+    private HttpServer servidor;
+    private ConexionesHttpAcotadas http;
+    private DynamoDbClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/", intercambio -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] cuerpo = RESPUESTA.getBytes(StandardCharsets.UTF_8);
+            intercambio.getRequestBody().readAllBytes();
+            intercambio.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+        http = new ConexionesHttpAcotadas(ApacheHttpClient.builder().maxConnections(CONEXIONES).build(),
+                CONEXIONES, Duration.ofSeconds(30));
+        client = DynamoDbClient.builder()
+                .httpClient(http)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("clave", "secreto")))
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create("http://127.0.0.1:" + servidor.getAddress().getPort()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        http.close();
+        servidor.stop(0);
+    }
+
+    private static List<RecordedEvent> fijados(Runnable carga) throws Exception {
+        List<RecordedEvent> eventos = new CopyOnWriteArrayList<>();
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", eventos::add);
+            stream.startAsync();
+            try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> tareas = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    tareas.add(hilos.submit(carga));
+                }
+                for (Future<?> tarea : tareas) {
+                    tarea.get();
+                }
+            }
+            stream.stop();
+        }
+        return eventos;
+    }
+
+    private static String pila(RecordedEvent evento) {
+        return evento.getStackTrace() == null ? "?" : evento.getStackTrace().getFrames().stream()
+                .limit(12)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static List<String> esperasFijadas(List<RecordedEvent> eventos) {
+        return eventos.stream()
+                .map(HilosVirtualesPinningTest::pila)
+                .filter(pila -> !pila.contains("java.util.concurrent.locks.ReentrantLock.lock"))
+                .distinct()
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should detect a virtual thread blocking inside a synchronized block")
+    void shouldDetectPinning() throws Exception {
+        Object monitor = new Object();
+
+        List<RecordedEvent> eventos = fijados(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        assertFalse(eventos.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not pin carriers while the SDK HTTP client waits for DynamoDB")
+    void shouldNotPinWhileWaitingForDynamo() throws Exception {
+        Map<String, AttributeValue> llave = Map.of("username", AttributeValue.builder().s("usuario").build());
+
+        List<RecordedEvent> eventos = fijados(() -> assertEquals(1,
+                client.getItem(builder -> builder.tableName("capacitanet_user").key(llave)).item().size()));
+
+        List<String> esperas = esperasFijadas(eventos);
+        assertTrue(esperas.isEmpty(), String.join("\n", esperas));
+        assertEquals(CONEXIONES, http.disponibles());
+    }
+
+    @Test
+    @DisplayName("Should not pin carriers while concurrent cache misses wait for one read")
+    void shouldNotPinWhileWaitingForCachedRead() throws Exception {
+        EstadisticasCursos estadisticas = new EstadisticasCursos(client, new LecturaAgrupada(client, null, 8, Duration.ZERO, Duration.ZERO), 8, Duration.ofMinutes(1), 100);
+
+        List<RecordedEvent> eventos = fijados(() -> estadisticas.obtener("c1"));
+
+        List<String> esperas = esperasFijadas(eventos);
+        assertTrue(esperas.isEmpty(), String.join("\n", esperas));
+    }
+}
@@ -0,0 +1,132 @@
+package co.com.capacitanet.aws.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.retries.AdaptiveRetryStrategy;
+import software.amazon.awssdk.retries.StandardRetryStrategy;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransporteAwsTest {
+
+    private HttpServer servidor;
+    private final AtomicInteger solicitudes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/", intercambio -> {
+            solicitudes.incrementAndGet();
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            intercambio.close();
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    private static TransporteAws transporte(Duration timeoutLectura, RetryMode modo, int intentos) {
+        return new TransporteAws(4, Duration.ofSeconds(1), Duration.ofSeconds(1), timeoutLectura,
+                Duration.ofSeconds(60), Duration.ZERO, true, modo, intentos);
+    }
+
+    private DynamoDbClient dynamo(SdkHttpClient http, ClientOverrideConfiguration configuracion) {
+        return DynamoDbClient.builder()
+                .httpClient(http)
+                .overrideConfiguration(configuracion)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("clave", "secreto")))
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create("http://127.0.0.1:" + servidor.getAddress().getPort()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should configure the retry mode, the attempts and the call timeouts")
+    void shouldConfigureRetryModeAndTimeouts() {
+        ClientOverrideConfiguration adaptativa = transporte(Duration.ofSeconds(30), RetryMode.ADAPTIVE_V2, 5)
+                .configuracion(Duration.ofSeconds(10), Duration.ofSeconds(3));
+        ClientOverrideConfiguration estandar = transporte(Duration.ofSeconds(30), RetryMode.STANDARD, 2)
+                .configuracion(Duration.ZERO, Duration.ZERO);
+
+        assertInstanceOf(AdaptiveRetryStrategy.class, adaptativa.retryStrategy().orElseThrow());
+        assertEquals(5, adaptativa.retryStrategy().orElseThrow().maxAttempts());
+        assertEquals(Duration.ofSeconds(10), adaptativa.apiCallTimeout().orElseThrow());
+        assertEquals(Duration.ofSeconds(3), adaptativa.apiCallAttemptTimeout().orElseThrow());
+        assertInstanceOf(StandardRetryStrategy.class, estandar.retryStrategy().orElseThrow());
+        assertEquals(2, estandar.retryStrategy().orElseThrow().maxAttempts());
+        assertFalse(estandar.apiCallTimeout().isPresent());
+        assertFalse(estandar.apiCallAttemptTimeout().isPresent());
+    }
+
+    @Test
+    @DisplayName("Should retry a read that exceeds the socket timeout up to the configured attempts")
+    void shouldRetryReadTimeoutsUpToTheAttempts() {
+        TransporteAws transporte = transporte(Duration.ofMillis(100), RetryMode.STANDARD, 2);
+        SdkHttpClient http = transporte.clienteSincrono();
+
+        try (DynamoDbClient client = dynamo(http, transporte.configuracion(Duration.ZERO, Duration.ZERO))) {
+            assertThrows(SdkClientException.class, () -> client.describeTable(builder -> builder.tableName("tabla")));
+        }
+        assertEquals(2, solicitudes.get());
+        http.close();
+    }
+
+    @Test
+    @DisplayName("Should end the call when it exceeds the API call timeout")
+    void shouldEndCallAfterApiCallTimeout() {
+        TransporteAws transporte = transporte(Duration.ofSeconds(30), RetryMode.STANDARD, 3);
+        SdkHttpClient http = transporte.clienteSincrono();
+
+        try (DynamoDbClient client = dynamo(http, transporte.configuracion(Duration.ofMillis(200), Duration.ZERO))) {
+            assertThrows(ApiCallTimeoutException.class, () -> client.describeTable(builder -> builder.tableName("tabla")));
+        }
+        assertEquals(1, solicitudes.get());
+        http.close();
+    }
+
+    @Test
+    @DisplayName("Should give each synchronous client its own bounded pool")
+    void shouldGiveEachClientItsOwnPool() {
+        TransporteAws transporte = transporte(Duration.ofSeconds(30), RetryMode.STANDARD, 1);
+        ConexionesHttpAcotadas dynamo = assertInstanceOf(ConexionesHttpAcotadas.class, transporte.clienteSincrono(2));
+        ConexionesHttpAcotadas s3 = assertInstanceOf(ConexionesHttpAcotadas.class, transporte.clienteSincrono(6));
+        ConexionesHttpAcotadas porDefecto = assertInstanceOf(ConexionesHttpAcotadas.class, transporte.clienteSincrono());
+
+        assertEquals(2, dynamo.disponibles());
+        assertEquals(6, s3.disponibles());
+        assertEquals(4, porDefecto.disponibles());
+        dynamo.close();
+        s3.close();
+        porDefecto.close();
+    }
+}
@@ -0,0 +1,97 @@
+package co.com.capacitanet.aws.dynamo;
+
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.usuario.Usuario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlobCodecTest {
+
+    private static Curso curso(int recursos) {
+        List<Recurso> lista = new ArrayList<>();
+        for (int i = 0; i < recursos; i++) {
+            lista.add(Recurso.builder().id("r" + i).order(i).tipo("video").nombre("modulo-" + i + ".mp4").build());
+        }
+        return Curso.builder().cursoId("1").titulo("Java").descripcion("Curso de Java").creadorUsername("autor")
+                .active(true).tags(List.of("backend")).recursos(lista).build();
+    }
+
+    @Test
+    @DisplayName("Should keep writing JSON text when the JSON format is configured")
+    void shouldWriteJsonText() throws IOException {
+        BlobCodec codec = new BlobCodec(BlobCodec.Formato.JSON, 1024);
+
+        AttributeValue valor = codec.codificar(curso(1));
+
+        assertNotNull(valor.s());
+        assertTrue(valor.s().startsWith("{\"cursoId\":\"1\""));
+        assertEquals("Java", codec.decodificar(valor, Curso.class).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Should write small objects as uncompressed Smile binary")
+    void shouldWriteSmallObjectsAsSmile() throws IOException {
+        BlobCodec codec = new BlobCodec(BlobCodec.Formato.SMILE, 1024);
+
+        AttributeValue valor = codec.codificar(Usuario.builder().username("u1").nombre("Ana").build());
+
+        assertNull(valor.s());
+        byte[] contenido = valor.b().asByteArray();
+        assertEquals(':', contenido[0]);
+        assertEquals(')', contenido[1]);
+        assertEquals("Ana", codec.decodificar(valor, Usuario.class).getNombre());
+    }
+
+    @Test
+    @DisplayName("Should compress large objects and read them back smaller than their JSON")
+    void shouldCompressLargeObjects() throws IOException {
+        BlobCodec json = new BlobCodec(BlobCodec.Formato.JSON, 1024);
+        BlobCodec smile = new BlobCodec(BlobCodec.Formato.SMILE, 1024);
+        Curso curso = curso(50);
+
+        AttributeValue texto = json.codificar(curso);
+        AttributeValue binario = smile.codificar(curso);
+
+        assertEquals(0x1f, binario.b().asByteArray()[0] & 0xff);
+        assertTrue(binario.b().asByteArray().length * 4 < texto.s().length());
+        Curso leido = smile.decodificar(binario, Curso.class);
+        assertEquals(50, leido.getRecursos().size());
+        assertEquals("modulo-49.mp4", leido.getRecursos().get(49).getNombre());
+    }
+
+    @Test
+    @DisplayName("Should read every stored format regardless of the configured one")
+    void shouldReadEveryFormat() throws IOException {
+        BlobCodec smile = new BlobCodec(BlobCodec.Formato.SMILE, 0);
+        AttributeValue heredado = AttributeValue.builder().s("{\"cursoId\":\"7\",\"titulo\":\"Heredado\"}").build();
+        AttributeValue comprimido = smile.codificar(curso(1));
+
+        BlobCodec json = new BlobCodec(BlobCodec.Formato.JSON, 1024);
+
+        assertEquals("Heredado", smile.decodificar(heredado, Curso.class).getTitulo());
+        assertEquals("Java", json.decodificar(comprimido, Curso.class).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Should reject attributes without an encoded object")
+    void shouldRejectEmptyAttributes() {
+        BlobCodec codec = new BlobCodec(BlobCodec.Formato.SMILE, 1024);
+
+        assertThrows(IOException.class, () -> codec.decodificar(AttributeValue.builder().n("1").build(), Curso.class));
+        assertThrows(IOException.class, () -> codec.decodificar(
+                AttributeValue.builder().b(SdkBytes.fromUtf8String("no es smile")).build(), Curso.class));
+    }
+}
@@ -0,0 +1,101 @@
+package co.com.capacitanet.aws.dynamo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LecturaAgrupadaTest {
+
+    private static final String TABLA = "capacitanet_cursos";
+    private static final Map<String, KeysAndAttributes> LLAVES = Map.of(TABLA, KeysAndAttributes.builder()
+            .keys(List.of(Map.of("cursoId", AttributeValue.builder().s("c1").build()))).build());
+
+    private DynamoDbClient client;
+    private DynamoDbAsyncClient asyncClient;
+    private LecturaAgrupada lecturas;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(DynamoDbClient.class);
+        asyncClient = mock(DynamoDbAsyncClient.class);
+        lecturas = new LecturaAgrupada(client, asyncClient, 3, Duration.ofMillis(1), Duration.ofMillis(2));
+    }
+
+    private static BatchGetItemResponse sinProcesar() {
+        return BatchGetItemResponse.builder().unprocessedKeys(LLAVES).build();
+    }
+
+    private static BatchGetItemResponse leida() {
+        return BatchGetItemResponse.builder()
+                .responses(Map.of(TABLA, List.of(Map.of("cursoId", AttributeValue.builder().s("c1").build()))))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should read the unprocessed keys again until every key is read")
+    void shouldRetryUnprocessedKeys() {
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(sinProcesar(), leida());
+        List<BatchGetItemResponse> respuestas = new ArrayList<>();
+
+        Map<String, KeysAndAttributes> restantes = lecturas.leer(LLAVES, respuestas::add);
+
+        assertTrue(restantes.isEmpty());
+        assertEquals(2, respuestas.size());
+        verify(client, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should stop after the configured rounds and return the keys left unread")
+    void shouldStopAfterTheRounds() {
+        when(client.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(sinProcesar());
+
+        Map<String, KeysAndAttributes> restantes = lecturas.leer(LLAVES, respuesta -> { });
+
+        assertEquals(LLAVES, restantes);
+        verify(client, times(3)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should retry unprocessed keys without blocking and stop after the configured rounds")
+    void shouldRetryAsynchronouslyWithinTheRounds() throws Exception {
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sinProcesar()), CompletableFuture.completedFuture(leida()));
+
+        assertTrue(lecturas.leerAsync(LLAVES, respuesta -> { }).get(5, TimeUnit.SECONDS).isEmpty());
+
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sinProcesar()));
+
+        assertEquals(LLAVES, lecturas.leerAsync(LLAVES, respuesta -> { }).get(5, TimeUnit.SECONDS));
+        verify(asyncClient, times(5)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a configuration without rounds")
+    void shouldRejectZeroRounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LecturaAgrupada(client, asyncClient, 0, Duration.ZERO, Duration.ZERO));
+    }
+}
@@ -0,0 +1,159 @@
+package co.com.capacitanet.aws.dynamo;
+
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater.Actualizacion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OptimisticUpdaterTest {
+
+    private static final String TABLA = "capacitanet_user";
+    private static final Map<String, AttributeValue> LLAVE = Map.of("username", AttributeValue.builder().s("u1").build());
+
+    private DynamoDbClient dynamoDbClient;
+    private SimpleMeterRegistry registry;
+    private OptimisticUpdater actualizador;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        registry = new SimpleMeterRegistry();
+        actualizador = new OptimisticUpdater(dynamoDbClient, registry, 3, Duration.ZERO);
+    }
+
+    private static GetItemResponse elemento(String perfil, String version) {
+        Map<String, AttributeValue> item = new HashMap<>(LLAVE);
+        item.put("perfil", AttributeValue.builder().s(perfil).build());
+        if (version != null) {
+            item.put("version", AttributeValue.builder().n(version).build());
+        }
+        return GetItemResponse.builder().item(item).build();
+    }
+
+    private double conflictos(String resultado) {
+        return registry.get("capacitanet.dynamodb.conflictos").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should write conditioned on the read version and increment it")
+    void shouldWriteConditionedOnVersion() {
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(elemento("a", "4"));
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+        Actualizacion resultado = actualizador.actualizar(TABLA, LLAVE,
+                actual -> Map.of("perfil", AttributeValue.builder().s(actual.get("perfil").s() + "b").build()));
+
+        assertEquals(Actualizacion.APLICADA, resultado);
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        UpdateItemRequest request = captor.getValue();
+        assertEquals("#version = :version", request.conditionExpression());
+        assertEquals("4", request.expressionAttributeValues().get(":version").n());
+        assertEquals("5", request.expressionAttributeValues().get(":siguiente").n());
+        assertEquals("ab", request.expressionAttributeValues().get(":a0").s());
+    }
+
+    @Test
+    @DisplayName("Should remove the attributes marked for removal instead of writing them")
+    void shouldRemoveMarkedAttributes() {
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(elemento("a", "1"));
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+        actualizador.actualizar(TABLA, LLAVE, actual -> Map.of("indice", OptimisticUpdater.ELIMINAR));
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        assertEquals("SET #version = :siguiente REMOVE #a0", captor.getValue().updateExpression());
+        assertEquals("indice", captor.getValue().expressionAttributeNames().get("#a0"));
+        assertNull(captor.getValue().expressionAttributeValues().get(":a0"));
+    }
+
+    @Test
+    @DisplayName("Should version items created before version tracking on their first write")
+    void shouldVersionLegacyItems() {
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(elemento("a", null));
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+        actualizador.actualizar(TABLA, LLAVE, actual -> Map.of("perfil", AttributeValue.builder().s("b").build()));
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        assertEquals("attribute_not_exists(#version)", captor.getValue().conditionExpression());
+        assertEquals("1", captor.getValue().expressionAttributeValues().get(":siguiente").n());
+    }
+
+    @Test
+    @DisplayName("Should reapply the change on the latest state after a conflict")
+    void shouldRebaseAfterConflict() {
+        when(dynamoDbClient.getItem(any(Consumer.class)))
+                .thenReturn(elemento("a", "1"))
+                .thenReturn(elemento("ax", "2"));
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build())
+                .thenReturn(UpdateItemResponse.builder().build());
+        List<String> vistos = new ArrayList<>();
+
+        Actualizacion resultado = actualizador.actualizar(TABLA, LLAVE, actual -> {
+            vistos.add(actual.get("perfil").s());
+            return Map.of("perfil", AttributeValue.builder().s(actual.get("perfil").s() + "y").build());
+        });
+
+        assertEquals(Actualizacion.APLICADA, resultado);
+        assertEquals(List.of("a", "ax"), vistos);
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient, times(2)).updateItem(captor.capture());
+        assertEquals("axy", captor.getValue().expressionAttributeValues().get(":a0").s());
+        assertEquals(1.0, conflictos("reintentado"));
+    }
+
+    @Test
+    @DisplayName("Should give up after the configured attempts")
+    void shouldGiveUpAfterConfiguredAttempts() {
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(elemento("a", "1"));
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+
+        assertThrows(ConflictoConcurrenciaException.class, () -> actualizador.actualizar(TABLA, LLAVE,
+                actual -> Map.of("perfil", AttributeValue.builder().s("b").build())));
+
+        verify(dynamoDbClient, times(3)).updateItem(any(UpdateItemRequest.class));
+        assertEquals(2.0, conflictos("reintentado"));
+        assertEquals(1.0, conflictos("agotado"));
+    }
+
+    @Test
+    @DisplayName("Should not write when the change leaves the item as it is")
+    void shouldNotWriteWithoutChanges() {
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(elemento("a", "1"));
+
+        Actualizacion resultado = actualizador.actualizar(TABLA, LLAVE, actual -> Map.of());
+
+        assertEquals(Actualizacion.SIN_CAMBIOS, resultado);
+        verify(dynamoDbClient, never()).updateItem(any(UpdateItemRequest.class));
+    }
+}
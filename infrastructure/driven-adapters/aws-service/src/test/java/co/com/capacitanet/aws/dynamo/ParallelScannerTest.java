@@ -0,0 +1,94 @@
+package co.com.capacitanet.aws.dynamo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParallelScannerTest {
+
+    private DynamoDbClient dynamoDbClient;
+    private ParallelScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scanner.destroy();
+    }
+
+    private static Map<String, AttributeValue> item(String id) {
+        return Map.of("id", AttributeValue.builder().s(id).build());
+    }
+
+    @Test
+    @DisplayName("Should follow LastEvaluatedKey until the last page")
+    void shouldFollowPaginationUntilLastPage() {
+        scanner = new ParallelScanner(dynamoDbClient, 1, 1);
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(ScanResponse.builder().items(item("1"), item("2")).lastEvaluatedKey(item("2")).build())
+                .thenReturn(ScanResponse.builder().items(item("3")).build());
+
+        List<String> ids = scanner.escanear(ScanRequest.builder().tableName("tabla").build(),
+                item -> item.get("id").s(), id -> !id.equals("2"));
+
+        assertEquals(List.of("1", "3"), ids);
+        ArgumentCaptor<ScanRequest> captor = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(dynamoDbClient, times(2)).scan(captor.capture());
+        assertEquals(item("2"), captor.getAllValues().get(1).exclusiveStartKey());
+    }
+
+    @Test
+    @DisplayName("Should scan every segment of the table")
+    void shouldScanEverySegment() {
+        scanner = new ParallelScanner(dynamoDbClient, 3, 2);
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenAnswer(invocation -> {
+            ScanRequest request = invocation.getArgument(0);
+            return ScanResponse.builder().items(item("segmento-" + request.segment())).build();
+        });
+
+        List<String> ids = scanner.escanear(ScanRequest.builder().tableName("tabla").build(),
+                item -> item.get("id").s(), id -> true);
+
+        assertEquals(List.of("segmento-0", "segmento-1", "segmento-2"), ids);
+        ArgumentCaptor<ScanRequest> captor = ArgumentCaptor.forClass(ScanRequest.class);
+        verify(dynamoDbClient, times(3)).scan(captor.capture());
+        Set<Integer> totales = captor.getAllValues().stream().map(ScanRequest::totalSegments).collect(Collectors.toSet());
+        assertEquals(Set.of(3), totales);
+    }
+
+    @Test
+    @DisplayName("Should propagate decoding errors")
+    void shouldPropagateDecodingErrors() {
+        scanner = new ParallelScanner(dynamoDbClient, 2, 2);
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(ScanResponse.builder().items(item("1")).build());
+
+        ScanRequest request = ScanRequest.builder().tableName("tabla").build();
+        assertThrows(IllegalStateException.class, () -> scanner.escanear(request,
+                item -> {
+                    throw new IllegalStateException("JSON inválido");
+                }, id -> true));
+    }
+}
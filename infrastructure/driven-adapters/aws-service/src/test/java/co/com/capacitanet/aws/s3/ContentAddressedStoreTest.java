@@ -0,0 +1,232 @@
+package co.com.capacitanet.aws.s3;
+
+import co.com.capacitanet.model.curso.Archivo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContentAddressedStoreTest {
+
+    private static final String BUCKET = "capacitanet-resource";
+    private static final String LLAVE_ABC = ContentAddressedStore.PREFIJO
+            + "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.pdf";
+
+    private S3Client s3Client;
+    private S3AsyncClient s3AsyncClient;
+    private S3MultipartUploader cargas;
+    private S3AsyncUploader cargasAsync;
+    private SimpleMeterRegistry registry;
+    private ContentAddressedStore store;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+        s3AsyncClient = mock(S3AsyncClient.class);
+        cargas = mock(S3MultipartUploader.class);
+        cargasAsync = mock(S3AsyncUploader.class);
+        registry = new SimpleMeterRegistry();
+        store = new ContentAddressedStore(s3Client, s3AsyncClient, cargas, cargasAsync, registry);
+    }
+
+    private static Archivo archivo(String nombre, String contenido) {
+        byte[] bytes = contenido.getBytes(StandardCharsets.UTF_8);
+        return Archivo.builder()
+                .nombre(nombre)
+                .tamano(bytes.length)
+                .tipoContenido("application/pdf")
+                .contenido(() -> new ByteArrayInputStream(bytes))
+                .build();
+    }
+
+    private double cargas(String resultado) {
+        return registry.counter("capacitanet.s3.recursos", "resultado", resultado).count();
+    }
+
+    @Test
+    @DisplayName("Should derive the key from the SHA-256 of the content and the extension")
+    void shouldDeriveKeyFromContent() throws Exception {
+        assertEquals(LLAVE_ABC, ContentAddressedStore.llave(archivo("Guia.PDF", "abc")));
+        assertEquals(LLAVE_ABC, ContentAddressedStore.llave(archivo("otra-guia.pdf", "abc")));
+    }
+
+    @Nested
+    @DisplayName("guardar")
+    class Guardar {
+
+        @BeforeEach
+        void leerCarga() throws Exception {
+            doAnswer(invocation -> {
+                Archivo subido = invocation.getArgument(2);
+                try (InputStream contenido = subido.getContenido().abrir()) {
+                    contenido.readAllBytes();
+                }
+                return null;
+            }).when(cargas).subir(eq(BUCKET), any(), any());
+        }
+
+        private String temporal() throws Exception {
+            ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+            verify(cargas).subir(eq(BUCKET), key.capture(), any());
+            return key.getValue();
+        }
+
+        private void verificarEliminado(String key) {
+            ArgumentCaptor<Consumer<DeleteObjectRequest.Builder>> captor = ArgumentCaptor.forClass(Consumer.class);
+            verify(s3Client).deleteObject(captor.capture());
+            DeleteObjectRequest.Builder builder = DeleteObjectRequest.builder();
+            captor.getValue().accept(builder);
+            assertEquals(key, builder.build().key());
+        }
+
+        @Test
+        @DisplayName("Should read the content once, hashing it while it is uploaded to a temporary key")
+        void shouldHashWhileUploading() throws Exception {
+            when(s3Client.headObject(any(Consumer.class)))
+                    .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+            AtomicInteger aperturas = new AtomicInteger();
+            Archivo archivo = archivo("guia.pdf", "abc").toBuilder()
+                    .tamano(-1)
+                    .contenido(() -> {
+                        if (aperturas.incrementAndGet() > 1) {
+                            throw new IOException("El contenido ya fue leído");
+                        }
+                        return new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8));
+                    })
+                    .build();
+
+            assertEquals(LLAVE_ABC, store.guardar(BUCKET, archivo));
+
+            assertEquals(1, aperturas.get());
+            assertTrue(temporal().startsWith(ContentAddressedStore.TEMPORAL));
+            assertTrue(temporal().endsWith(".pdf"));
+        }
+
+        @Test
+        @DisplayName("Should discard the temporary copy when the content is already stored")
+        void shouldDiscardCopyWhenStored() throws Exception {
+            when(s3Client.headObject(any(Consumer.class))).thenReturn(HeadObjectResponse.builder().build());
+
+            String key = store.guardar(BUCKET, archivo("guia.pdf", "abc"));
+
+            assertEquals(LLAVE_ABC, key);
+            verify(s3Client, never()).copyObject(any(Consumer.class));
+            verificarEliminado(temporal());
+            assertEquals(1.0, cargas("deduplicado"));
+        }
+
+        @Test
+        @DisplayName("Should copy the temporary object to its content key when the object does not exist")
+        void shouldCopyWhenMissing() throws Exception {
+            when(s3Client.headObject(any(Consumer.class)))
+                    .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+
+            String key = store.guardar(BUCKET, archivo("guia.pdf", "abc"));
+
+            assertEquals(LLAVE_ABC, key);
+            ArgumentCaptor<Consumer<CopyObjectRequest.Builder>> captor = ArgumentCaptor.forClass(Consumer.class);
+            verify(s3Client).copyObject(captor.capture());
+            CopyObjectRequest.Builder builder = CopyObjectRequest.builder();
+            captor.getValue().accept(builder);
+            CopyObjectRequest copia = builder.build();
+            assertEquals(temporal(), copia.sourceKey());
+            assertEquals(LLAVE_ABC, copia.destinationKey());
+            verificarEliminado(temporal());
+            assertEquals(1.0, cargas("transferido"));
+        }
+
+        @Test
+        @DisplayName("Should propagate errors other than a missing object and still delete the temporary copy")
+        void shouldPropagateOtherErrors() throws Exception {
+            when(s3Client.headObject(any(Consumer.class)))
+                    .thenThrow(S3Exception.builder().statusCode(403).build());
+
+            assertThrows(S3Exception.class, () -> store.guardar(BUCKET, archivo("guia.pdf", "abc")));
+            verify(s3Client, never()).copyObject(any(Consumer.class));
+            verificarEliminado(temporal());
+        }
+
+        @Test
+        @DisplayName("Should keep the stored key when the temporary copy cannot be deleted")
+        void shouldIgnoreDeleteFailures() throws Exception {
+            when(s3Client.headObject(any(Consumer.class))).thenReturn(HeadObjectResponse.builder().build());
+            when(s3Client.deleteObject(any(Consumer.class))).thenThrow(SdkClientException.create("S3 no disponible"));
+
+            assertEquals(LLAVE_ABC, store.guardar(BUCKET, archivo("guia.pdf", "abc")));
+        }
+    }
+
+    @Nested
+    @DisplayName("guardarAsync")
+    class GuardarAsync {
+
+        @Test
+        @DisplayName("Should complete with the shared key without transferring when the content is stored")
+        void shouldSkipTransferWhenStored() {
+            when(s3AsyncClient.headObject(any(Consumer.class)))
+                    .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().build()));
+
+            String key = store.guardarAsync(BUCKET, archivo("guia.pdf", "abc"), bytes -> { }).join();
+
+            assertEquals(LLAVE_ABC, key);
+            verify(cargasAsync, never()).subir(any(), any(), any(), any());
+            assertEquals(1.0, cargas("deduplicado"));
+        }
+
+        @Test
+        @DisplayName("Should transfer the content when the object does not exist")
+        void shouldUploadWhenMissing() {
+            when(s3AsyncClient.headObject(any(Consumer.class)))
+                    .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().statusCode(404).build()));
+            CompletableFuture<Void> transferencia = new CompletableFuture<>();
+            when(cargasAsync.subir(eq(BUCKET), eq(LLAVE_ABC), any(), any())).thenReturn(transferencia);
+
+            CompletableFuture<String> futuro = store.guardarAsync(BUCKET, archivo("guia.pdf", "abc"), bytes -> { });
+
+            transferencia.complete(null);
+            assertEquals(LLAVE_ABC, futuro.join());
+            assertEquals(1.0, cargas("transferido"));
+        }
+
+        @Test
+        @DisplayName("Should fail when the existence check fails for another reason")
+        void shouldFailOnOtherErrors() {
+            when(s3AsyncClient.headObject(any(Consumer.class)))
+                    .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().statusCode(500).build()));
+
+            CompletableFuture<String> futuro = store.guardarAsync(BUCKET, archivo("guia.pdf", "abc"), bytes -> { });
+
+            assertTrue(futuro.isCompletedExceptionally());
+            verify(cargasAsync, never()).subir(any(), any(), any(), any());
+        }
+    }
+}
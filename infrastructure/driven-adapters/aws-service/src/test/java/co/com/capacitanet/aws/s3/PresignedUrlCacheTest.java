@@ -0,0 +1,95 @@
+package co.com.capacitanet.aws.s3;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresignedUrlCacheTest {
+
+    private static final String BUCKET = "capacitanet-resource";
+
+    private S3Presigner presigner;
+    private SimpleMeterRegistry registry;
+    private PresignedUrlCache cache;
+
+    @BeforeEach
+    void setUp() {
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+                .build();
+        registry = new SimpleMeterRegistry();
+        cache = new PresignedUrlCache(presigner, registry, Duration.ofMinutes(5), Duration.ofMinutes(2), 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.destroy();
+        presigner.close();
+    }
+
+    private double contador(String resultado) {
+        return registry.get("capacitanet.s3.presign").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should reuse a signed URL while it is inside its validity window")
+    void shouldReuseSignedUrl() {
+        String primera = cache.obtenerUrl(BUCKET, "cursos/1/video.mp4");
+        String segunda = cache.obtenerUrl(BUCKET, "cursos/1/video.mp4");
+
+        assertEquals(primera, segunda);
+        assertTrue(primera.contains("X-Amz-Signature"));
+        assertEquals(1.0, contador("firmada"));
+        assertEquals(1.0, contador("reutilizada"));
+    }
+
+    @Test
+    @DisplayName("Should sign only the missing keys of a batch")
+    void shouldSignOnlyMissingKeysOfBatch() {
+        cache.obtenerUrl(BUCKET, "cursos/1/a.pdf");
+
+        Map<String, String> urls = cache.obtenerUrls(BUCKET, List.of("cursos/1/a.pdf", "cursos/1/b.pdf", "cursos/1/b.pdf"));
+
+        assertEquals(2, urls.size());
+        assertTrue(urls.get("cursos/1/b.pdf").contains("cursos/1/b.pdf"));
+        assertEquals(2.0, contador("firmada"));
+        assertEquals(1.0, contador("reutilizada"));
+    }
+
+    @Test
+    @DisplayName("Should sign on the calling thread once the pool is closed")
+    void shouldSignOnCallerAfterDestroy() {
+        cache.destroy();
+
+        Map<String, String> urls = cache.obtenerUrlsAsync(BUCKET, List.of("cursos/1/a.pdf", "cursos/1/b.pdf"))
+                .orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertEquals(2, urls.size());
+        assertTrue(urls.get("cursos/1/a.pdf").contains("X-Amz-Signature"));
+        assertEquals(2.0, contador("firmada"));
+    }
+
+    @Test
+    @DisplayName("Should reject a safety margin longer than the signature")
+    void shouldRejectInvalidMargin() {
+        Duration vigencia = Duration.ofMinutes(5);
+        assertThrows(IllegalArgumentException.class,
+                () -> new PresignedUrlCache(presigner, registry, vigencia, vigencia, 100, 1));
+    }
+}
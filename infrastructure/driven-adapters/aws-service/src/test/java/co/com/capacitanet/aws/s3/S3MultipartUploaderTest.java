@@ -0,0 +1,152 @@
+package co.com.capacitanet.aws.s3;
+
+import co.com.capacitanet.model.curso.Archivo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class S3MultipartUploaderTest {
+
+    private static final int PARTE = S3MultipartUploader.PARTE_MINIMA;
+    private static final String BUCKET = "capacitanet-resource";
+
+    private S3Client s3Client;
+    private S3MultipartUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+        uploader = new S3MultipartUploader(s3Client, PARTE, 2L * PARTE, 2);
+        when(s3Client.createMultipartUpload(any(Consumer.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("carga-1").build());
+        when(s3Client.completeMultipartUpload(any(Consumer.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.destroy();
+    }
+
+    private static Archivo archivo(int tamano) {
+        byte[] contenido = new byte[tamano];
+        return Archivo.builder()
+                .nombre("video.mp4")
+                .tamano(tamano)
+                .tipoContenido("video/mp4")
+                .contenido(() -> new ByteArrayInputStream(contenido))
+                .build();
+    }
+
+    private static Archivo sinTamano(int tamano) {
+        return archivo(tamano).toBuilder().tamano(-1).build();
+    }
+
+    @Test
+    @DisplayName("Should send files that fit in one part with a single PutObject")
+    void shouldSendSmallFilesWithSinglePut() throws Exception {
+        when(s3Client.putObject(any(Consumer.class), any(RequestBody.class))).thenReturn(PutObjectResponse.builder().build());
+
+        uploader.subir(BUCKET, "cursos/1/guia.pdf", archivo(1024));
+
+        verify(s3Client).putObject(any(Consumer.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Should split large files into parts and complete them in order")
+    void shouldUploadLargeFilesInParts() {
+        when(s3Client.uploadPart(any(Consumer.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            Consumer<UploadPartRequest.Builder> consumer = invocation.getArgument(0);
+            UploadPartRequest.Builder builder = UploadPartRequest.builder();
+            consumer.accept(builder);
+            return UploadPartResponse.builder().eTag("etag-" + builder.build().partNumber()).build();
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> uploader.subir(BUCKET, "cursos/1/video.mp4", archivo(2 * PARTE + 10)));
+
+        verify(s3Client, times(3)).uploadPart(any(Consumer.class), any(RequestBody.class));
+        ArgumentCaptor<Consumer<CompleteMultipartUploadRequest.Builder>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(s3Client).completeMultipartUpload(captor.capture());
+        CompleteMultipartUploadRequest.Builder builder = CompleteMultipartUploadRequest.builder();
+        captor.getValue().accept(builder);
+        assertEquals(List.of("etag-1", "etag-2", "etag-3"),
+                builder.build().multipartUpload().parts().stream().map(parte -> parte.eTag()).toList());
+    }
+
+    @Test
+    @DisplayName("Should abort the upload and release its memory when a part fails")
+    void shouldAbortAndReleaseMemoryOnFailure() {
+        when(s3Client.uploadPart(any(Consumer.class), any(RequestBody.class)))
+                .thenThrow(SdkClientException.create("S3 no disponible"));
+
+        for (int intento = 0; intento < 3; intento++) {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(SdkClientException.class,
+                    () -> uploader.subir(BUCKET, "cursos/1/video.mp4", archivo(2 * PARTE + 10))));
+        }
+
+        verify(s3Client, times(3)).abortMultipartUpload(any(Consumer.class));
+        verify(s3Client, never()).completeMultipartUpload(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Should send content of unknown size that fits in one part with a single PutObject")
+    void shouldSendSmallUnknownSizeWithSinglePut() throws Exception {
+        when(s3Client.putObject(any(Consumer.class), any(RequestBody.class))).thenReturn(PutObjectResponse.builder().build());
+
+        uploader.subir(BUCKET, "cursos/1/guia.pdf", sinTamano(1024));
+
+        ArgumentCaptor<RequestBody> cuerpo = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3Client).putObject(any(Consumer.class), cuerpo.capture());
+        assertEquals(1024L, cuerpo.getValue().optionalContentLength().orElseThrow());
+        verify(s3Client, never()).createMultipartUpload(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Should upload content of unknown size in parts, reading it once")
+    void shouldUploadUnknownSizeInParts() {
+        when(s3Client.uploadPart(any(Consumer.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> uploader.subir(BUCKET, "cursos/1/video.mp4", sinTamano(2 * PARTE)));
+
+        verify(s3Client, times(2)).uploadPart(any(Consumer.class), any(RequestBody.class));
+        verify(s3Client).completeMultipartUpload(any(Consumer.class));
+        verify(s3Client, never()).putObject(any(Consumer.class), any(RequestBody.class));
+    }
+
+    @Test
+    @DisplayName("Should reject parts smaller than the S3 minimum")
+    void shouldRejectSmallParts() {
+        assertThrows(IllegalArgumentException.class, () -> new S3MultipartUploader(s3Client, 1024, PARTE, 1));
+    }
+}
@@ -0,0 +1,215 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.LecturaAgrupada;
+import co.com.capacitanet.aws.s3.PresignedUrlCache;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CursoAsyncProcessTest {
+
+    private static final String CURSO_ACTIVO = "{\"cursoId\":\"1\",\"active\":true,\"creadorUsername\":\"autor\","
+            + "\"recursos\":[{\"id\":\"r1\",\"order\":2,\"s3Key\":\"cursos/1/intro.mp4\"}]}";
+
+    private DynamoDbClient dynamoDbClient;
+    private DynamoDbAsyncClient asyncClient;
+    private S3Presigner s3Presigner;
+    private RecursoStore recursos;
+    private CursoAsyncProcess cursoAsyncProcess;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        asyncClient = mock(DynamoDbAsyncClient.class);
+        s3Presigner = mock(S3Presigner.class);
+        recursos = new RecursoStore(dynamoDbClient, asyncClient, 1);
+        LecturaAgrupada lecturas = new LecturaAgrupada(dynamoDbClient, asyncClient, 8, Duration.ZERO, Duration.ZERO);
+        cursoAsyncProcess = new CursoAsyncProcess(asyncClient, new BlobCodec(BlobCodec.Formato.JSON, 1024),
+                new PresignedUrlCache(s3Presigner, new SimpleMeterRegistry(), Duration.ofMinutes(5), Duration.ofMinutes(2), 100, 1),
+                recursos,
+                new EstadisticasCursos(dynamoDbClient, lecturas, 4, Duration.ofSeconds(30), 100), lecturas,
+                new ObjectMapper());
+        when(asyncClient.query(any(QueryRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(QueryResponse.builder().items(List.of()).build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        recursos.destroy();
+    }
+
+    private static GetItemResponse curso(String json) {
+        return GetItemResponse.builder()
+                .item(Map.of("datosCurso", AttributeValue.builder().s(json).build()))
+                .build();
+    }
+
+    private void firmaUrls() throws Exception {
+        when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenAnswer(invocation -> {
+            GetObjectPresignRequest request = invocation.getArgument(0);
+            PresignedGetObjectRequest presigned = mock(PresignedGetObjectRequest.class);
+            when(presigned.url()).thenReturn(URI.create("https://s3/" + request.getObjectRequest().key()).toURL());
+            return presigned;
+        });
+    }
+
+    @Test
+    @DisplayName("Should sign the resource URL once the course read completes")
+    void shouldSignResourceUrlWhenReadCompletes() throws Exception {
+        firmaUrls();
+        CompletableFuture<GetItemResponse> lectura = new CompletableFuture<>();
+        when(asyncClient.getItem(any(Consumer.class))).thenReturn(lectura);
+
+        CompletableFuture<ResponseApp> response = cursoAsyncProcess.obtenerUrlRecurso("1", "r1", "user1");
+
+        assertFalse(response.isDone());
+        lectura.complete(curso(CURSO_ACTIVO));
+        assertEquals(200, response.join().getStatus());
+        assertEquals("https://s3/cursos/1/intro.mp4", response.join().getMessage());
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    @DisplayName("Should return 404 when the course does not exist")
+    void shouldReturnNotFoundForMissingCourse() {
+        when(asyncClient.getItem(any(Consumer.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetItemResponse.builder().build()));
+
+        assertEquals(404, cursoAsyncProcess.obtenerUrlRecurso("1", "r1", "user1").join().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should deny the URLs of a pending course to other users")
+    void shouldDenyPendingCourseToOtherUsers() {
+        when(asyncClient.getItem(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(
+                curso("{\"cursoId\":\"1\",\"active\":false,\"creadorUsername\":\"autor\"}")));
+
+        assertEquals(401, cursoAsyncProcess.obtenerUrlsRecursos("1", "user1").join().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should sign the URLs of every resource in order, including those in the resources table")
+    void shouldSignEveryResourceUrlInOrder() throws Exception {
+        firmaUrls();
+        when(asyncClient.getItem(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(curso(CURSO_ACTIVO)));
+        when(asyncClient.query(any(QueryRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                QueryResponse.builder().items(List.of(Map.of(
+                        "cursoId", AttributeValue.builder().s("1").build(),
+                        "recursoId", AttributeValue.builder().s("r0").build(),
+                        "order", AttributeValue.builder().n("1").build(),
+                        "s3Key", AttributeValue.builder().s("cursos/1/guia.pdf").build()))).build()));
+
+        ResponseApp response = cursoAsyncProcess.obtenerUrlsRecursos("1", "autor").join();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"r0\":\"https://s3/cursos/1/guia.pdf\",\"r1\":\"https://s3/cursos/1/intro.mp4\"}",
+                response.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should return 500 when the course read fails")
+    void shouldReturnServerErrorWhenReadFails() {
+        when(asyncClient.getItem(any(Consumer.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("throttled")));
+
+        assertEquals(500, cursoAsyncProcess.obtenerUrlRecurso("1", "r1", "user1").join().getStatus());
+        assertEquals(500, cursoAsyncProcess.obtenerUrlsRecursos("1", "user1").join().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should sum the statistics shards or report the read failure")
+    void shouldReturnStatisticsOrError() {
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("throttled")))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Map.of(EstadisticasCursos.TABLE_NAME, List.of(Map.of(
+                                EstadisticasCursos.FRAGMENTO, AttributeValue.builder().s("1#0").build(),
+                                EstadisticasCursos.SUSCRIPTORES, AttributeValue.builder().n("5").build()))))
+                        .build()));
+
+        assertEquals(500, cursoAsyncProcess.obtenerEstadisticas("1").join().getStatus());
+        Resultado<EstadisticasCurso> resultado = cursoAsyncProcess.obtenerEstadisticas("1").join();
+        assertEquals(5, resultado.getValor().getSuscriptores());
+        verify(asyncClient, never()).getItem(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for the statistics of a course that does not exist")
+    void shouldReturnNotFoundForStatisticsOfUnknownCourse() {
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder().build()));
+        when(asyncClient.getItem(any(Consumer.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetItemResponse.builder().build()))
+                .thenReturn(CompletableFuture.completedFuture(GetItemResponse.builder()
+                        .item(Map.of("cursoId", AttributeValue.builder().s("2").build())).build()));
+
+        assertEquals(404, cursoAsyncProcess.obtenerEstadisticas("1").join().getStatus());
+        Resultado<EstadisticasCurso> resultado = cursoAsyncProcess.obtenerEstadisticas("2").join();
+        assertEquals(200, resultado.getStatus());
+        assertEquals(0, resultado.getValor().getSuscriptores());
+    }
+
+    @Test
+    @DisplayName("Should read the courses in one batch, retry unprocessed keys and load their resources")
+    void shouldReadCoursesInBatchAndRetryUnprocessedKeys() {
+        Map<String, AttributeValue> curso2 = Map.of(
+                "cursoId", AttributeValue.builder().s("2").build(),
+                "datosCurso", AttributeValue.builder().s("{\"cursoId\":\"2\"}").build());
+        Map<String, AttributeValue> curso1 = Map.of(
+                "cursoId", AttributeValue.builder().s("1").build(),
+                "datosCurso", AttributeValue.builder().s(CURSO_ACTIVO).build());
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Map.of(CursoProcess.TABLE_NAME, List.of(curso2)))
+                        .unprocessedKeys(Map.of(CursoProcess.TABLE_NAME, KeysAndAttributes.builder()
+                                .keys(List.of(Map.of("cursoId", AttributeValue.builder().s("1").build()))).build()))
+                        .build()))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Map.of(CursoProcess.TABLE_NAME, List.of(curso1)))
+                        .build()));
+
+        Map<String, Curso> cursos = cursoAsyncProcess.obtenerCursosPorIdsAsync(List.of("1", "2", "1")).join();
+
+        assertEquals(List.of("2", "1"), List.copyOf(cursos.keySet()));
+        assertEquals("r1", cursos.get("1").getRecursos().get(0).getId());
+        verify(asyncClient, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+        verify(asyncClient, times(2)).query(any(QueryRequest.class));
+    }
+}
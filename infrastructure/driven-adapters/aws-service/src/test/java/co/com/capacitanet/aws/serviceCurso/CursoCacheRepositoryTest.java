@@ -0,0 +1,232 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CursoCacheRepositoryTest {
+
+    private CursoProcess cursoProcess;
+    private SimpleMeterRegistry registry;
+    private CursoCacheRepository repository;
+
+    private static final Curso CURSO = Curso.builder().cursoId("1").titulo("Java").build();
+
+    @BeforeEach
+    void setUp() {
+        cursoProcess = mock(CursoProcess.class);
+        registry = new SimpleMeterRegistry();
+        repository = new CursoCacheRepository(cursoProcess, registry, 1024 * 1024, 4096, Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Answer<Resultado<Void>> entrega(Curso... cursos) {
+        return invocation -> {
+            Consumer<Curso> consumidor = invocation.getArgument(2);
+            List.of(cursos).forEach(consumidor);
+            return Resultado.ok(null);
+        };
+    }
+
+    private void listado(String userId, boolean estado) {
+        when(cursoProcess.obtenerCursos(eq(userId), eq(estado), any())).thenAnswer(entrega(CURSO));
+    }
+
+    private List<Curso> recorrer(String userId, boolean estado) {
+        List<Curso> cursos = new ArrayList<>();
+        Resultado<Void> resultado = repository.obtenerCursos(userId, estado, cursos::add);
+        assertTrue(resultado.isExitoso());
+        return cursos;
+    }
+
+    @Test
+    @DisplayName("Should serve repeated listings from memory")
+    void shouldServeRepeatedListingsFromMemory() {
+        listado("user1", true);
+
+        recorrer("user1", true);
+        List<Curso> cursos = recorrer("user2", true);
+
+        assertEquals(1, cursos.size());
+        assertSame(CURSO, cursos.get(0));
+        verify(cursoProcess, times(1)).obtenerCursos(eq("user1"), eq(true), any());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "cursos").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should stream the courses of a failed listing to its request without caching the error")
+    void shouldNotCacheErrors() {
+        Resultado<Void> error = Resultado.error(500, "Error al obtener los cursos");
+        when(cursoProcess.obtenerCursos(eq("user1"), eq(true), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<Curso> consumidor = invocation.getArgument(2);
+                    consumidor.accept(CURSO);
+                    return error;
+                })
+                .thenAnswer(entrega(CURSO));
+
+        List<Curso> parciales = new ArrayList<>();
+        assertSame(error, repository.obtenerCursos("user1", true, parciales::add));
+        assertEquals(List.of(CURSO), parciales);
+        assertEquals(1, recorrer("user1", true).size());
+    }
+
+    @Test
+    @DisplayName("Should stream listings larger than the per-listing bound without caching them")
+    void shouldNotCacheOversizedListings() {
+        Curso grande = Curso.builder().cursoId("2").descripcion("x".repeat(4096)).build();
+        when(cursoProcess.obtenerCursos(eq("user1"), eq(true), any())).thenAnswer(entrega(CURSO, grande));
+
+        List<Curso> primera = recorrer("user1", true);
+        List<Curso> segunda = recorrer("user1", true);
+
+        assertEquals(List.of(CURSO, grande), primera);
+        assertEquals(List.of(CURSO, grande), segunda);
+        verify(cursoProcess, times(2)).obtenerCursos(eq("user1"), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Should deliver each course as the query reads it")
+    void shouldStreamCoursesOnMiss() {
+        List<Curso> recibidos = new ArrayList<>();
+        when(cursoProcess.obtenerCursos(eq("user1"), eq(true), any())).thenAnswer(invocation -> {
+            Consumer<Curso> consumidor = invocation.getArgument(2);
+            consumidor.accept(CURSO);
+            assertEquals(List.of(CURSO), recibidos);
+            return Resultado.ok(null);
+        });
+
+        assertTrue(repository.obtenerCursos("user1", true, recibidos::add).isExitoso());
+    }
+
+    @Test
+    @DisplayName("Should make concurrent requests for a missing listing wait for a single query")
+    void shouldShareOneQueryBetweenConcurrentRequests() throws Exception {
+        Resultado<Void> error = Resultado.error(503, "Servicio no disponible");
+        CountDownLatch consultando = new CountDownLatch(1);
+        CountDownLatch responder = new CountDownLatch(1);
+        when(cursoProcess.obtenerCursos(eq("user1"), eq(true), any())).thenAnswer(invocation -> {
+            consultando.countDown();
+            responder.await(5, TimeUnit.SECONDS);
+            return error;
+        });
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Resultado<Void>> primera = hilos.submit(() -> repository.obtenerCursos("user1", true, curso -> { }));
+            assertTrue(consultando.await(5, TimeUnit.SECONDS));
+            Future<Resultado<Void>> segunda = hilos.submit(() -> repository.obtenerCursos("user1", true, curso -> { }));
+            while (registry.get("cache.gets").tag("cache", "cursos").tag("result", "hit").functionCounter().count() < 1) {
+                Thread.onSpinWait();
+            }
+            responder.countDown();
+
+            assertSame(error, primera.get(5, TimeUnit.SECONDS));
+            assertSame(error, segunda.get(5, TimeUnit.SECONDS));
+        }
+        verify(cursoProcess, times(1)).obtenerCursos(eq("user1"), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Should complete the shared listing when the query fails with an error")
+    void shouldCompleteListingWhenQueryThrowsError() {
+        when(cursoProcess.obtenerCursos(eq("user1"), eq(true), any()))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(entrega(CURSO));
+
+        assertThrows(StackOverflowError.class, () -> repository.obtenerCursos("user1", true, curso -> { }));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertEquals(1, recorrer("user1", true).size()));
+    }
+
+    @Test
+    @DisplayName("Should query on its own when the shared listing takes longer than the wait")
+    void shouldQueryOnItsOwnAfterTheWait() throws Exception {
+        CursoCacheRepository breve = new CursoCacheRepository(cursoProcess, registry, 1024 * 1024, 4096,
+                Duration.ofMinutes(1), Duration.ofMillis(50));
+        CountDownLatch consultando = new CountDownLatch(1);
+        CountDownLatch responder = new CountDownLatch(1);
+        when(cursoProcess.obtenerCursos(eq("user1"), eq(true), any()))
+                .thenAnswer(invocation -> {
+                    consultando.countDown();
+                    responder.await(5, TimeUnit.SECONDS);
+                    return Resultado.ok(null);
+                })
+                .thenAnswer(entrega(CURSO));
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Resultado<Void>> lenta = hilos.submit(() -> breve.obtenerCursos("user1", true, curso -> { }));
+            assertTrue(consultando.await(5, TimeUnit.SECONDS));
+
+            List<Curso> cursos = new ArrayList<>();
+            assertTrue(breve.obtenerCursos("user1", true, cursos::add).isExitoso());
+            assertEquals(List.of(CURSO), cursos);
+
+            responder.countDown();
+            assertTrue(lenta.get(5, TimeUnit.SECONDS).isExitoso());
+        }
+        verify(cursoProcess, times(2)).obtenerCursos(eq("user1"), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("Should invalidate listings after activating a course")
+    void shouldInvalidateAfterActivation() {
+        listado("user1", true);
+        listado("User1", false);
+        when(cursoProcess.activarCurso("1", "user1")).thenReturn(ResponseApp.builder().status(200).build());
+
+        recorrer("user1", true);
+        recorrer("User1", false);
+        repository.activarCurso("1", "user1");
+        recorrer("user1", true);
+        recorrer("User1", false);
+
+        verify(cursoProcess, times(2)).obtenerCursos(eq("user1"), eq(true), any());
+        verify(cursoProcess, times(2)).obtenerCursos(eq("User1"), eq(false), any());
+    }
+
+    @Test
+    @DisplayName("Should invalidate the creator pending listing after creating a course")
+    void shouldInvalidatePendingAfterCreation() {
+        Curso curso = Curso.builder().cursoId("1").creadorUsername("user1").build();
+        listado("user1", false);
+        listado("user1", true);
+        when(cursoProcess.crearCurso(curso)).thenReturn(ResponseApp.builder().status(200).build());
+
+        recorrer("user1", false);
+        recorrer("user1", true);
+        repository.crearCurso(curso);
+        recorrer("user1", false);
+        recorrer("user1", true);
+
+        verify(cursoProcess, times(2)).obtenerCursos(eq("user1"), eq(false), any());
+        verify(cursoProcess, times(1)).obtenerCursos(eq("user1"), eq(true), any());
+    }
+}
@@ -0,0 +1,90 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.ParallelScanner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CursoIndicesMigracionTest {
+
+    private DynamoDbClient dynamoDbClient;
+    private ParallelScanner scanner;
+    private CursoIndicesMigracion migracion;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        scanner = new ParallelScanner(dynamoDbClient, 1, 1);
+        migracion = new CursoIndicesMigracion(dynamoDbClient, new BlobCodec(BlobCodec.Formato.JSON, 1024), scanner, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scanner.destroy();
+    }
+
+    private static Map<String, AttributeValue> curso(String json) {
+        return Map.of(
+                "cursoId", AttributeValue.builder().s("1").build(),
+                "datosCurso", AttributeValue.builder().s(json).build());
+    }
+
+    @Test
+    @DisplayName("Should fill index attributes from the stored JSON")
+    void shouldFillIndexAttributes() {
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .items(curso("{\"cursoId\":\"1\",\"active\":true,\"creadorUsername\":\"Autor@test.com\"}"))
+                .build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+        int migrados = migracion.migrar();
+
+        assertEquals(1, migrados);
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        Map<String, AttributeValue> valores = captor.getValue().expressionAttributeValues();
+        assertEquals("1", valores.get(":active").n());
+        assertEquals("autor@test.com", valores.get(":creadorUsername").s());
+        assertEquals("1", valores.get(":catalogo").s());
+        assertEquals("#datos = :datos", captor.getValue().conditionExpression());
+    }
+
+    @Test
+    @DisplayName("Should skip courses modified during the migration")
+    void shouldSkipModifiedCourses() {
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .items(curso("{\"cursoId\":\"1\",\"active\":false}"))
+                .build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+
+        assertEquals(0, migracion.migrar());
+    }
+
+    @Test
+    @DisplayName("Should not run on startup when disabled")
+    void shouldNotRunWhenDisabled() {
+        migracion.alIniciar();
+
+        verify(dynamoDbClient, never()).scan(any(ScanRequest.class));
+    }
+}
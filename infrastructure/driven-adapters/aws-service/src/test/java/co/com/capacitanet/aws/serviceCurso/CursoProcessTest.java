@@ -1,63 +1,184 @@
 package co.com.capacitanet.aws.serviceCurso;
 
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.LecturaAgrupada;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
+import co.com.capacitanet.aws.s3.ContentAddressedStore;
+import co.com.capacitanet.aws.s3.PresignedUrlCache;
+import co.com.capacitanet.model.curso.Archivo;
 import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Ingesta;
+import co.com.capacitanet.model.curso.Recurso;
 import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class CursoProcessTest {
 
     private DynamoDbClient dynamoDbClient;
-    private S3Client s3Client;
     private S3Presigner s3Presigner;
+    private ContentAddressedStore objetos;
     private CursoProcess cursoProcess;
 
+    private static final String CURSO_ACTIVO = "{\"cursoId\":\"1\",\"active\":true,\"creadorUsername\":\"autor\","
+            + "\"recursos\":[{\"id\":\"r1\",\"order\":1,\"tipo\":\"video\",\"nombre\":\"intro.mp4\",\"s3Key\":\"cursos/1/intro.mp4\"}]}";
+
+    private void cursoEnTabla(String json) {
+        GetItemResponse getItemResponse = GetItemResponse.builder()
+                .item(Map.of("datosCurso", AttributeValue.builder().s(json).build()))
+                .build();
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(getItemResponse);
+    }
+
+    private void posicionesAsignadas(int total) {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder()
+                .attributes(Map.of("posiciones", AttributeValue.builder().n(Integer.toString(total)).build()))
+                .build());
+    }
+
     @BeforeEach
     void setUp() {
         dynamoDbClient = mock(DynamoDbClient.class);
-        s3Client = mock(S3Client.class);
         s3Presigner = mock(S3Presigner.class);
-        cursoProcess = new CursoProcess(dynamoDbClient, s3Client, s3Presigner);
+        objetos = mock(ContentAddressedStore.class);
+        LecturaAgrupada lecturas = new LecturaAgrupada(dynamoDbClient, mock(DynamoDbAsyncClient.class), 8, Duration.ZERO, Duration.ZERO);
+        cursoProcess = new CursoProcess(dynamoDbClient, new BlobCodec(BlobCodec.Formato.JSON, 1024), objetos,
+                new PresignedUrlCache(s3Presigner, new SimpleMeterRegistry(), Duration.ofMinutes(5), Duration.ofMinutes(2), 100, 1),
+                new RecursoStore(dynamoDbClient, mock(DynamoDbAsyncClient.class), 1),
+                new OptimisticUpdater(dynamoDbClient, new SimpleMeterRegistry(), 3, Duration.ZERO),
+                new EstadisticasCursos(dynamoDbClient, lecturas, 4, Duration.ofSeconds(30), 100), lecturas,
+                new ObjectMapper());
+        when(dynamoDbClient.query(argThat(enTabla(RecursoStore.TABLE_NAME))))
+                .thenReturn(QueryResponse.builder().items(List.of()).build());
+    }
+
+    private static ArgumentMatcher<QueryRequest> enTabla(String tabla) {
+        return request -> request != null && tabla.equals(request.tableName());
+    }
+
+    private List<QueryRequest> consultasA(String tabla) {
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient, atLeastOnce()).query(captor.capture());
+        return captor.getAllValues().stream().filter(enTabla(tabla)::matches).toList();
     }
 
     @Nested
     @DisplayName("obtenerCursos")
     class ObtenerCursos {
 
+        private final List<Curso> cursos = new ArrayList<>();
+
         @Test
-        @DisplayName("Should return active courses for a user")
+        @DisplayName("Should scan the sparse catalog index following pagination")
         void shouldReturnActiveCoursesForUser() {
-            ScanResponse scanResponse = ScanResponse.builder()
-                    .items(List.of(
-                            Map.of("datosCurso", AttributeValue.builder().s("{\"cursoId\":\"1\",\"active\":true,\"recursos\":[]}").build())
-                    ))
-                    .build();
-            when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(scanResponse);
+            Map<String, AttributeValue> item = Map.of("datosCurso", AttributeValue.builder().s(CURSO_ACTIVO).build());
+            when(dynamoDbClient.scan(any(ScanRequest.class)))
+                    .thenReturn(ScanResponse.builder().items(List.of(item))
+                            .lastEvaluatedKey(Map.of("catalogo", AttributeValue.builder().s("1").build())).build())
+                    .thenReturn(ScanResponse.builder().items(List.of(item)).build());
 
-            ResponseApp response = cursoProcess.obtenerCursos("user1", true);
+            Resultado<Void> resultado = cursoProcess.obtenerCursos("user1", true, cursos::add);
 
-            assertEquals(200, response.getStatus());
-            assertTrue(response.getMessage().contains("cursoId"));
+            assertEquals(200, resultado.getStatus());
+            assertEquals(2, cursos.size());
+            assertEquals("1", cursos.get(0).getCursoId());
+            ArgumentCaptor<ScanRequest> captor = ArgumentCaptor.forClass(ScanRequest.class);
+            verify(dynamoDbClient, times(2)).scan(captor.capture());
+            assertEquals("catalogo-index", captor.getAllValues().get(0).indexName());
+            assertEquals("1", captor.getAllValues().get(1).exclusiveStartKey().get("catalogo").s());
+            assertTrue(consultasA(CursoProcess.TABLE_NAME).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should query pending courses of the creator following pagination")
+        void shouldQueryPendingCoursesOfCreator() {
+            Map<String, AttributeValue> item = Map.of("datosCurso",
+                    AttributeValue.builder().s("{\"cursoId\":\"1\",\"active\":false,\"creadorUsername\":\"User1\"}").build());
+            when(dynamoDbClient.query(argThat(enTabla(CursoProcess.TABLE_NAME))))
+                    .thenReturn(QueryResponse.builder().items(List.of(item))
+                            .lastEvaluatedKey(Map.of("cursoId", AttributeValue.builder().s("1").build())).build())
+                    .thenReturn(QueryResponse.builder().items(List.of(item)).build());
+
+            Resultado<Void> resultado = cursoProcess.obtenerCursos("User1", false, cursos::add);
+
+            assertEquals(200, resultado.getStatus());
+            assertEquals(2, cursos.size());
+            List<QueryRequest> consultas = consultasA(CursoProcess.TABLE_NAME);
+            assertEquals(2, consultas.size());
+            QueryRequest primera = consultas.get(0);
+            assertEquals("creadorUsername-active-index", primera.indexName());
+            assertEquals("user1", primera.expressionAttributeValues().get(":creador").s());
+            assertEquals("0", primera.expressionAttributeValues().get(":activo").n());
+        }
+
+        @Test
+        @DisplayName("Should merge resources from the resources table with those still in the course JSON")
+        void shouldMergeResourcesFromTable() {
+            when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                    .items(List.of(Map.of("datosCurso", AttributeValue.builder().s(CURSO_ACTIVO).build())))
+                    .build());
+            when(dynamoDbClient.query(argThat(enTabla(RecursoStore.TABLE_NAME)))).thenReturn(QueryResponse.builder()
+                    .items(List.of(Map.of(
+                            "cursoId", AttributeValue.builder().s("1").build(),
+                            "recursoId", AttributeValue.builder().s("r0").build(),
+                            "order", AttributeValue.builder().n("0").build(),
+                            "nombre", AttributeValue.builder().s("bienvenida.pdf").build())))
+                    .build());
+
+            Resultado<Void> resultado = cursoProcess.obtenerCursos("user1", true, cursos::add);
+
+            assertEquals(200, resultado.getStatus());
+            assertEquals(List.of("r0", "r1"), cursos.get(0).getRecursos().stream().map(Recurso::getId).toList());
+            assertEquals(1, consultasA(RecursoStore.TABLE_NAME).size());
         }
 
         @Test
@@ -70,10 +191,11 @@ class CursoProcessTest {
                     .build();
             when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(scanResponse);
 
-            ResponseApp response = cursoProcess.obtenerCursos("user1", true);
+            Resultado<Void> resultado = cursoProcess.obtenerCursos("user1", true, cursos::add);
 
-            assertEquals(500, response.getStatus());
-            assertEquals("Error al convertir el JSON a Curso", response.getMessage());
+            assertEquals(500, resultado.getStatus());
+            assertEquals("Error al convertir el JSON a Curso", resultado.getMessage());
+            assertTrue(cursos.isEmpty());
         }
     }
 
@@ -93,6 +215,11 @@ class CursoProcessTest {
 
             assertEquals(200, response.getStatus());
             assertEquals("Curso registrado satisfactoriamente", response.getMessage());
+            ArgumentCaptor<PutItemRequest> captor = ArgumentCaptor.forClass(PutItemRequest.class);
+            verify(dynamoDbClient).putItem(captor.capture());
+            assertEquals("0", captor.getValue().item().get("active").n());
+            assertFalse(captor.getValue().item().containsKey("catalogo"));
+            assertEquals("0", captor.getValue().item().get("recursosGuardados").n());
         }
 
         @Test
@@ -111,4 +238,211 @@ class CursoProcessTest {
         }
     }
 
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("activarCurso")
+    class ActivarCurso {
+
+        private UpdateItemRequest actualizacion() {
+            ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+            verify(dynamoDbClient).updateItem(captor.capture());
+            return captor.getValue();
+        }
+
+        @Test
+        @DisplayName("Should add the course to the sparse catalog index when it is activated")
+        void shouldAddCatalogKeyWhenActivated() {
+            cursoEnTabla(CURSO_ACTIVO.replace("\"active\":true", "\"active\":false"));
+
+            assertEquals(200, cursoProcess.activarCurso("1", "autor").getStatus());
+
+            UpdateItemRequest request = actualizacion();
+            assertFalse(request.updateExpression().contains("REMOVE"));
+            assertTrue(request.expressionAttributeValues().containsValue(AttributeValue.builder().s("1").build()));
+        }
+
+        @Test
+        @DisplayName("Should remove the course from the sparse catalog index when it is deactivated")
+        void shouldRemoveCatalogKeyWhenDeactivated() {
+            cursoEnTabla(CURSO_ACTIVO);
+
+            assertEquals(200, cursoProcess.activarCurso("1", "autor").getStatus());
+
+            UpdateItemRequest request = actualizacion();
+            String eliminado = request.updateExpression().substring(request.updateExpression().indexOf(" REMOVE ") + 8);
+            assertEquals("catalogo", request.expressionAttributeNames().get(eliminado));
+        }
+    }
+    @Nested
+    @DisplayName("agregarRecursoAsync")
+    class AgregarRecursoAsync {
+
+        private final Archivo archivo = Archivo.builder()
+                .nombre("guia.pdf")
+                .tamano(3)
+                .contenido(() -> new ByteArrayInputStream(new byte[3]))
+                .build();
+
+        @Test
+        @DisplayName("Should complete immediately with 404 when the course does not exist")
+        void shouldCompleteImmediatelyWhenCourseMissing() {
+            when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                    .thenThrow(ConditionalCheckFailedException.builder().build());
+
+            CompletableFuture<ResponseApp> futuro = cursoProcess.agregarRecursoAsync("1",
+                    Recurso.builder().id("r9").build(), archivo, new Ingesta());
+
+            assertTrue(futuro.isDone());
+            assertEquals(404, futuro.join().getStatus());
+            verify(objetos, never()).guardarAsync(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should store and count the resource with the next position once the transfer completes")
+        void shouldStoreResourceAfterTransfer() {
+            posicionesAsignadas(3);
+            CompletableFuture<String> transferencia = new CompletableFuture<>();
+            when(objetos.guardarAsync(any(), any(), any())).thenReturn(transferencia);
+
+            CompletableFuture<ResponseApp> futuro = cursoProcess.agregarRecursoAsync("1",
+                    Recurso.builder().id("r9").build(), archivo, new Ingesta());
+
+            assertFalse(futuro.isDone());
+            transferencia.complete("recursos/sha256/abc.pdf");
+            assertEquals(200, futuro.join().getStatus());
+            ArgumentCaptor<TransactWriteItemsRequest> captor = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+            verify(dynamoDbClient).transactWriteItems(captor.capture());
+            Map<String, AttributeValue> item = captor.getValue().transactItems().get(0).put().item();
+            assertEquals("recursos/sha256/abc.pdf", item.get("s3Key").s());
+            assertEquals("2", item.get("posicion").n());
+            Update contador = captor.getValue().transactItems().get(1).update();
+            assertEquals("capacitanet_cursos", contador.tableName());
+            assertEquals("SET #guardados = if_not_exists(#guardados, :previos) + :uno", contador.updateExpression());
+            assertEquals("2", contador.expressionAttributeValues().get(":previos").n());
+        }
+
+        @Test
+        @DisplayName("Should answer 500 without storing the resource when the transfer fails")
+        void shouldFailWhenTransferFails() {
+            posicionesAsignadas(1);
+            when(objetos.guardarAsync(any(), any(), any()))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("S3 no disponible")));
+
+            ResponseApp response = cursoProcess.agregarRecursoAsync("1",
+                    Recurso.builder().id("r9").build(), archivo, new Ingesta()).join();
+
+            assertEquals(500, response.getStatus());
+            verify(dynamoDbClient, never()).transactWriteItems(any(TransactWriteItemsRequest.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("obtenerUrlRecurso")
+    class ObtenerUrlRecurso {
+
+        @Test
+        @DisplayName("Should return 404 when the resource does not exist")
+        void shouldReturnNotFoundWhenResourceMissing() {
+            cursoEnTabla(CURSO_ACTIVO);
+
+            ResponseApp response = cursoProcess.obtenerUrlRecurso("1", "r2", "user1");
+
+            assertEquals(404, response.getStatus());
+            assertEquals("Recurso no encontrado", response.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should deny resources of pending courses to other users")
+        void shouldDenyPendingCourseToOtherUsers() {
+            cursoEnTabla(CURSO_ACTIVO.replace("\"active\":true", "\"active\":false"));
+
+            ResponseApp response = cursoProcess.obtenerUrlsRecursos("1", "user1");
+
+            assertEquals(401, response.getStatus());
+        }
+
+        @Test
+        @DisplayName("Should sign the URL of a resource on demand")
+        void shouldSignResourceUrlOnDemand() throws Exception {
+            cursoEnTabla(CURSO_ACTIVO);
+            PresignedGetObjectRequest presigned = mock(PresignedGetObjectRequest.class);
+            when(presigned.url()).thenReturn(URI.create("https://s3/cursos/1/intro.mp4?X-Amz-Signature=abc").toURL());
+            when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presigned);
+
+            ResponseApp response = cursoProcess.obtenerUrlRecurso("1", "r1", "user1");
+
+            assertEquals(200, response.getStatus());
+            assertEquals("https://s3/cursos/1/intro.mp4?X-Amz-Signature=abc", response.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("obtenerCursosPorIds")
+    class ObtenerCursosPorIds {
+
+        @Test
+        @DisplayName("Should read the courses in one batch and retry unprocessed keys")
+        void shouldReadCoursesInBatchAndRetryUnprocessedKeys() {
+            Map<String, AttributeValue> curso2 = Map.of(
+                    "cursoId", AttributeValue.builder().s("2").build(),
+                    "datosCurso", AttributeValue.builder().s("{\"cursoId\":\"2\"}").build());
+            when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class)))
+                    .thenReturn(BatchGetItemResponse.builder()
+                            .responses(Map.of(CursoProcess.TABLE_NAME, List.of(Map.of(
+                                    "cursoId", AttributeValue.builder().s("1").build(),
+                                    "datosCurso", AttributeValue.builder().s(CURSO_ACTIVO).build()))))
+                            .unprocessedKeys(Map.of(CursoProcess.TABLE_NAME, KeysAndAttributes.builder()
+                                    .keys(Map.of("cursoId", AttributeValue.builder().s("2").build())).build()))
+                            .build())
+                    .thenReturn(BatchGetItemResponse.builder()
+                            .responses(Map.of(CursoProcess.TABLE_NAME, List.of(curso2)))
+                            .build());
+
+            Map<String, Curso> cursos = cursoProcess.obtenerCursosPorIds(List.of("1", "2", "1"));
+
+            assertEquals(List.of("1", "2"), List.copyOf(cursos.keySet()));
+            assertEquals("r1", cursos.get("1").getRecursos().get(0).getId());
+            verify(dynamoDbClient, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("obtenerEstadisticas")
+    class ObtenerEstadisticas {
+
+        @Test
+        @DisplayName("Should return 404 for the statistics of a course that does not exist")
+        void shouldReturnNotFoundForUnknownCourse() {
+            when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class)))
+                    .thenReturn(BatchGetItemResponse.builder().build());
+            when(dynamoDbClient.getItem(any(Consumer.class)))
+                    .thenReturn(GetItemResponse.builder().build())
+                    .thenReturn(GetItemResponse.builder()
+                            .item(Map.of("cursoId", AttributeValue.builder().s("2").build())).build());
+
+            assertEquals(404, cursoProcess.obtenerEstadisticas("1").getStatus());
+            assertEquals(200, cursoProcess.obtenerEstadisticas("2").getStatus());
+        }
+    }
+
+    @Nested
+    @DisplayName("totalRecursos")
+    class TotalRecursos {
+
+        @Test
+        @DisplayName("Should count only the stored resources and fall back to the positions of older courses")
+        void shouldPreferStoredResourcesOverPositions() {
+            when(dynamoDbClient.getItem(any(Consumer.class)))
+                    .thenReturn(GetItemResponse.builder().item(Map.of(
+                            "recursosGuardados", AttributeValue.builder().n("2").build(),
+                            "posiciones", AttributeValue.builder().n("3").build())).build())
+                    .thenReturn(GetItemResponse.builder().item(Map.of(
+                            "posiciones", AttributeValue.builder().n("3").build())).build())
+                    .thenReturn(GetItemResponse.builder().build());
+
+            assertEquals(2, cursoProcess.totalRecursos("1"));
+            assertEquals(3, cursoProcess.totalRecursos("1"));
+            assertEquals(0, cursoProcess.totalRecursos("1"));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.LecturaAgrupada;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EstadisticasCursosTest {
+
+    private DynamoDbClient client;
+    private DynamoDbAsyncClient asyncClient;
+    private EstadisticasCursos estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(DynamoDbClient.class);
+        asyncClient = mock(DynamoDbAsyncClient.class);
+        estadisticas = new EstadisticasCursos(client, new LecturaAgrupada(client, asyncClient, 8, Duration.ZERO, Duration.ZERO), 4, Duration.ofMinutes(1), 100);
+    }
+
+    private static Map<String, AttributeValue> fragmento(String llave, long suscriptores, long visualizaciones) {
+        return Map.of(EstadisticasCursos.FRAGMENTO, AttributeValue.builder().s(llave).build(),
+                EstadisticasCursos.SUSCRIPTORES, AttributeValue.builder().n(Long.toString(suscriptores)).build(),
+                EstadisticasCursos.VISUALIZACIONES, AttributeValue.builder().n(Long.toString(visualizaciones)).build());
+    }
+
+    private static Map<String, KeysAndAttributes> llaves(String... fragmentos) {
+        return Map.of(EstadisticasCursos.TABLE_NAME, KeysAndAttributes.builder()
+                .keys(List.of(fragmentos).stream()
+                        .map(f -> Map.of(EstadisticasCursos.FRAGMENTO, AttributeValue.builder().s(f).build()))
+                        .toList())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should add the counters atomically to one of the course shards")
+    void shouldAddCountersToOneShard() {
+        estadisticas.registrar("c1", 1, 0, 0);
+        estadisticas.registrar("c1", 0, 3, 1);
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(client, times(2)).updateItem(captor.capture());
+        UpdateItemRequest suscripcion = captor.getAllValues().get(0);
+        assertEquals("ADD #suscriptores :suscriptores", suscripcion.updateExpression());
+        assertEquals("1", suscripcion.expressionAttributeValues().get(":suscriptores").n());
+        assertTrue(suscripcion.key().get(EstadisticasCursos.FRAGMENTO).s().matches("c1#[0-3]"));
+        UpdateItemRequest visualizacion = captor.getAllValues().get(1);
+        assertEquals("ADD #visualizaciones :visualizaciones, #completados :completados",
+                visualizacion.updateExpression());
+        assertEquals("3", visualizacion.expressionAttributeValues().get(":visualizaciones").n());
+    }
+
+    @Test
+    @DisplayName("Should not write when every counter is zero")
+    void shouldSkipEmptyEvents() {
+        estadisticas.registrar("c1", 0, 0, 0);
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("Should not fail the caller when a counter cannot be written")
+    void shouldSwallowWriteErrors() {
+        when(client.updateItem(any(UpdateItemRequest.class))).thenThrow(new RuntimeException("throttled"));
+
+        estadisticas.registrar("c1", 1, 0, 0);
+
+        verify(client).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should sum every shard in a single batch read and cache the result")
+    void shouldSumShardsAndCache() {
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(EstadisticasCursos.TABLE_NAME,
+                                List.of(fragmento("c1#0", 2, 10), fragmento("c1#3", 1, 5))))
+                        .unprocessedKeys(llaves("c1#2"))
+                        .build())
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(EstadisticasCursos.TABLE_NAME, List.of(fragmento("c1#2", 4, 0))))
+                        .build());
+
+        EstadisticasCurso resultado = estadisticas.obtener("c1");
+        estadisticas.obtener("c1");
+
+        assertEquals("c1", resultado.getCursoId());
+        assertEquals(7, resultado.getSuscriptores());
+        assertEquals(15, resultado.getVisualizaciones());
+        assertEquals(0, resultado.getCompletados());
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(client, times(2)).batchGetItem(captor.capture());
+        Set<String> leidas = captor.getAllValues().get(0).requestItems().get(EstadisticasCursos.TABLE_NAME).keys()
+                .stream().map(llave -> llave.get(EstadisticasCursos.FRAGMENTO).s()).collect(Collectors.toSet());
+        assertEquals(Set.of("c1#0", "c1#1", "c1#2", "c1#3"), leidas);
+    }
+
+    @Test
+    @DisplayName("Should sum the shards through the async client and share the cache with blocking reads")
+    void shouldSumShardsAsynchronously() {
+        CompletableFuture<BatchGetItemResponse> respuesta = new CompletableFuture<>();
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(respuesta);
+
+        CompletableFuture<EstadisticasCurso> resultado = estadisticas.obtenerAsync("c1");
+
+        assertFalse(resultado.isDone());
+        respuesta.complete(BatchGetItemResponse.builder()
+                .responses(Map.of(EstadisticasCursos.TABLE_NAME, List.of(fragmento("c1#1", 3, 8))))
+                .build());
+        assertEquals(3, resultado.join().getSuscriptores());
+        assertEquals(8, estadisticas.obtener("c1").getVisualizaciones());
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    @DisplayName("Should not cache a failed async read")
+    void shouldNotCacheFailedAsyncRead() {
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("throttled")))
+                .thenReturn(CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                        .responses(Map.of(EstadisticasCursos.TABLE_NAME, List.of(fragmento("c1#0", 1, 0))))
+                        .build()));
+
+        assertThrows(CompletionException.class, () -> estadisticas.obtenerAsync("c1").join());
+        assertEquals(1, estadisticas.obtenerAsync("c1").join().getSuscriptores());
+    }
+
+    @Test
+    @DisplayName("Should complete the shared read when the sum fails with an error")
+    void shouldCompleteSharedReadOnError() {
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(EstadisticasCursos.TABLE_NAME, List.of(fragmento("c1#0", 1, 0))))
+                        .build());
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class))).thenThrow(new StackOverflowError());
+
+        CompletionException error = assertThrows(CompletionException.class, () -> estadisticas.obtener("c1"));
+        assertInstanceOf(StackOverflowError.class, error.getCause());
+        assertEquals(1, estadisticas.obtener("c1").getSuscriptores());
+        assertThrows(CompletionException.class, () -> estadisticas.obtenerAsync("c2").join());
+    }
+
+    @Test
+    @DisplayName("Should reject shard counts a single batch read cannot cover")
+    void shouldRejectInvalidShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> new EstadisticasCursos(client, null, 0, Duration.ofMinutes(1), 100));
+        assertThrows(IllegalArgumentException.class, () -> new EstadisticasCursos(client, null, 101, Duration.ofMinutes(1), 100));
+    }
+}
@@ -0,0 +1,130 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.model.curso.Recurso;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RecursoStoreTest {
+
+    private DynamoDbClient dynamoDbClient;
+    private DynamoDbAsyncClient asyncClient;
+    private RecursoStore store;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        asyncClient = mock(DynamoDbAsyncClient.class);
+        store = new RecursoStore(dynamoDbClient, asyncClient, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+    }
+
+    private static Map<String, AttributeValue> recurso(String id, int orden) {
+        return Map.of(
+                "cursoId", AttributeValue.builder().s("1").build(),
+                "recursoId", AttributeValue.builder().s(id).build(),
+                "order", AttributeValue.builder().n(Integer.toString(orden)).build());
+    }
+
+    @Test
+    @DisplayName("Should store a resource as its own item keyed by course and resource")
+    void shouldStoreResourceAsItem() {
+        store.guardar("1", Recurso.builder().id("r1").order(3).nombre("intro.mp4").s3Key("cursos/1/intro.mp4").build());
+
+        ArgumentCaptor<PutItemRequest> captor = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient).putItem(captor.capture());
+        Map<String, AttributeValue> item = captor.getValue().item();
+        assertEquals("1", item.get("cursoId").s());
+        assertEquals("r1", item.get("recursoId").s());
+        assertEquals("3", item.get("order").n());
+    }
+
+    @Test
+    @DisplayName("Should follow pagination and sort the resources by order")
+    void shouldFollowPaginationAndSortByOrder() {
+        when(dynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(QueryResponse.builder().items(List.of(recurso("r2", 2)))
+                        .lastEvaluatedKey(recurso("r2", 2)).build())
+                .thenReturn(QueryResponse.builder().items(List.of(recurso("r1", 1))).build());
+
+        List<Recurso> recursos = store.porCurso("1");
+
+        assertEquals(List.of("r1", "r2"), recursos.stream().map(Recurso::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should read a single resource with its position by key")
+    void shouldReadSingleResourceByKey() {
+        Map<String, AttributeValue> item = new HashMap<>(recurso("r1", 1));
+        item.put("posicion", AttributeValue.builder().n("4").build());
+        when(dynamoDbClient.getItem(any(Consumer.class)))
+                .thenReturn(GetItemResponse.builder().item(item).build())
+                .thenReturn(GetItemResponse.builder().build());
+
+        assertEquals(4, store.buscar("1", "r1").getPosicion());
+        assertNull(store.buscar("1", "r2"));
+    }
+
+    @Test
+    @DisplayName("Should follow pagination and sort the resources by order when reading asynchronously")
+    void shouldFollowPaginationAsynchronously() {
+        when(asyncClient.query(any(QueryRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(QueryResponse.builder().items(List.of(recurso("r2", 2)))
+                        .lastEvaluatedKey(recurso("r2", 2)).build()))
+                .thenReturn(CompletableFuture.completedFuture(QueryResponse.builder()
+                        .items(List.of(recurso("r1", 1))).build()));
+
+        List<Recurso> recursos = store.porCursoAsync("1").join();
+
+        assertEquals(List.of("r1", "r2"), recursos.stream().map(Recurso::getId).toList());
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    @DisplayName("Should start the queries of every course before any of them answers")
+    void shouldQueryEveryCourseConcurrently() {
+        Map<String, CompletableFuture<QueryResponse>> respuestas = new HashMap<>();
+        when(asyncClient.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            return respuestas.computeIfAbsent(request.expressionAttributeValues().get(":curso").s(),
+                    curso -> new CompletableFuture<>());
+        });
+
+        CompletableFuture<Map<String, List<Recurso>>> recursos = store.porCursosAsync(List.of("1", "2"));
+
+        assertEquals(2, respuestas.size());
+        assertFalse(recursos.isDone());
+        respuestas.get("2").complete(QueryResponse.builder().items(List.of()).build());
+        respuestas.get("1").complete(QueryResponse.builder().items(List.of(recurso("r1", 1))).build());
+        assertEquals(List.of("r1"), recursos.join().get("1").stream().map(Recurso::getId).toList());
+        assertEquals(List.of(), recursos.join().get("2"));
+    }
+}
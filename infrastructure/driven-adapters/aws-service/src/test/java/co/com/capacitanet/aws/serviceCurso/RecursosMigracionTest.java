@@ -0,0 +1,94 @@
+package co.com.capacitanet.aws.serviceCurso;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.ParallelScanner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecursosMigracionTest {
+
+    private static final String CURSO = "{\"cursoId\":\"1\",\"recursos\":["
+            + "{\"id\":\"r1\",\"order\":1,\"tipo\":\"video\",\"nombre\":\"intro.mp4\",\"s3Key\":\"cursos/1/intro.mp4\"},"
+            + "{\"id\":\"r2\",\"order\":2,\"tipo\":\"pdf\",\"nombre\":\"guia.pdf\",\"s3Key\":\"cursos/1/guia.pdf\"}]}";
+
+    private DynamoDbClient dynamoDbClient;
+    private ParallelScanner scanner;
+    private RecursoStore recursos;
+    private RecursosMigracion migracion;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        scanner = new ParallelScanner(dynamoDbClient, 1, 1);
+        recursos = new RecursoStore(dynamoDbClient, mock(DynamoDbAsyncClient.class), 1);
+        migracion = new RecursosMigracion(dynamoDbClient, new BlobCodec(BlobCodec.Formato.JSON, 1024), scanner, recursos, false);
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .items(Map.of(
+                        "cursoId", AttributeValue.builder().s("1").build(),
+                        "datosCurso", AttributeValue.builder().s(CURSO).build()))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scanner.destroy();
+        recursos.destroy();
+    }
+
+    @Test
+    @DisplayName("Should copy every resource to the resources table and remove them from the course JSON")
+    void shouldMoveResourcesOutOfCourseJson() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+        assertEquals(1, migracion.migrar());
+
+        ArgumentCaptor<PutItemRequest> puts = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient, times(2)).putItem(puts.capture());
+        assertEquals(RecursoStore.TABLE_NAME, puts.getValue().tableName());
+        assertEquals("r2", puts.getValue().item().get("recursoId").s());
+        ArgumentCaptor<UpdateItemRequest> update = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(update.capture());
+        assertEquals("#datos = :datos", update.getValue().conditionExpression());
+        assertFalse(update.getValue().expressionAttributeValues().get(":nuevos").s().contains("s3Key"));
+    }
+
+    @Test
+    @DisplayName("Should leave the course untouched when it changed during the migration")
+    void shouldSkipModifiedCourses() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+
+        assertEquals(0, migracion.migrar());
+    }
+
+    @Test
+    @DisplayName("Should not run on startup when disabled")
+    void shouldNotRunWhenDisabled() {
+        migracion.alIniciar();
+
+        verify(dynamoDbClient, never()).scan(any(ScanRequest.class));
+    }
+}
@@ -0,0 +1,141 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.serviceCurso.CursoProcess;
+import co.com.capacitanet.aws.serviceCurso.EstadisticasCursos;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AvanceCursosTest {
+
+    private SuscripcionStore suscripciones;
+    private CursoProcess cursoProcess;
+    private EstadisticasCursos estadisticas;
+    private AvanceCursos avance;
+
+    private final Recurso recurso = Recurso.builder().id("r1").posicion(0).build();
+
+    @BeforeEach
+    void setUp() {
+        suscripciones = mock(SuscripcionStore.class);
+        cursoProcess = mock(CursoProcess.class);
+        estadisticas = mock(EstadisticasCursos.class);
+        avance = new AvanceCursos(suscripciones, cursoProcess, estadisticas);
+        when(cursoProcess.totalRecursos("c1")).thenReturn(3);
+    }
+
+    @Test
+    @DisplayName("Should award the badge when the view completes the course")
+    void shouldAwardBadgeWhenCourseCompletes() {
+        when(suscripciones.marcarVisualizado("user1", "c1", recurso)).thenReturn(new SuscripcionStore.Marca(true, 1, 3, false));
+        when(suscripciones.completar("user1", "c1", 3)).thenReturn(true);
+
+        assertTrue(avance.registrar("user1", "c1", List.of(recurso)));
+
+        verify(suscripciones).completar("user1", "c1", 3);
+        verify(estadisticas).registrar("c1", 0, 1, 1);
+    }
+
+    @Test
+    @DisplayName("Should only record progress while modules are missing")
+    void shouldOnlyRecordProgressWhileModulesAreMissing() {
+        List<Recurso> recursos = List.of(recurso, Recurso.builder().id("r2").posicion(1).build());
+        when(suscripciones.marcarVisualizados("user1", "c1", recursos)).thenReturn(new SuscripcionStore.Marca(true, 2, 2, false));
+
+        assertTrue(avance.registrar("user1", "c1", recursos));
+
+        verify(suscripciones, never()).completar(anyString(), anyString(), anyInt());
+        verify(estadisticas).registrar("c1", 0, 2, 0);
+    }
+
+    @Test
+    @DisplayName("Should count only the modules viewed for the first time")
+    void shouldCountOnlyNewViews() {
+        List<Recurso> recursos = List.of(recurso, Recurso.builder().id("r2").posicion(1).build());
+        when(suscripciones.marcarVisualizados("user1", "c1", recursos)).thenReturn(new SuscripcionStore.Marca(true, 1, 2, false));
+
+        assertTrue(avance.registrar("user1", "c1", recursos));
+
+        verify(estadisticas).registrar("c1", 0, 1, 0);
+    }
+
+    @Test
+    @DisplayName("Should skip the course total once the badge was awarded")
+    void shouldSkipTotalOnceBadgeAwarded() {
+        when(suscripciones.marcarVisualizado("user1", "c1", recurso)).thenReturn(new SuscripcionStore.Marca(true, 0, 3, true));
+
+        assertTrue(avance.registrar("user1", "c1", List.of(recurso)));
+
+        verify(cursoProcess, never()).totalRecursos(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not read the course total when the view changed nothing")
+    void shouldSkipTotalWhenNothingChanged() {
+        when(suscripciones.marcarVisualizado("user1", "c1", recurso)).thenReturn(new SuscripcionStore.Marca(true, 0, 3, false));
+
+        assertTrue(avance.registrar("user1", "c1", List.of(recurso)));
+
+        verify(cursoProcess, never()).totalRecursos(anyString());
+        verify(suscripciones, never()).completar(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should award the pending badges of complete courses when the profile is read")
+    void shouldAwardPendingBadgesOnProfileRead() {
+        Curso curso = Curso.builder().cursoId("c1").recursos(List.of(recurso, Recurso.builder().id("r2").posicion(1).build()))
+                .build();
+        List<SuscripcionStore.Suscripcion> suscritas = List.of(
+                new SuscripcionStore.Suscripcion("c1", Set.of(0, 1), Set.of(), false),
+                new SuscripcionStore.Suscripcion("c2", Set.of(0), Set.of(), false),
+                new SuscripcionStore.Suscripcion("c3", Set.of(0, 1), Set.of(), true));
+        when(suscripciones.completar("user1", "c1", 2)).thenReturn(true);
+
+        List<SuscripcionStore.Suscripcion> resultado = avance.completarPendientes("user1", suscritas,
+                Map.of("c1", curso, "c2", curso, "c3", curso));
+
+        assertEquals(List.of(true, false, true), resultado.stream().map(SuscripcionStore.Suscripcion::completado).toList());
+        verify(suscripciones).completar("user1", "c1", 2);
+        verify(suscripciones, never()).completar("user1", "c2", 2);
+        verify(suscripciones, never()).completar("user1", "c3", 2);
+        verify(estadisticas).registrar("c1", 0, 0, 1);
+        verifyNoInteractions(cursoProcess);
+    }
+
+    @Test
+    @DisplayName("Should report users that are not subscribed")
+    void shouldReportUsersNotSubscribed() {
+        when(suscripciones.marcarVisualizado("user1", "c1", recurso)).thenReturn(SuscripcionStore.Marca.NO_SUSCRITO);
+
+        assertFalse(avance.registrar("user1", "c1", List.of(recurso)));
+        verifyNoInteractions(estadisticas);
+    }
+
+    @Test
+    @DisplayName("Should count a subscriber only when the subscription is new")
+    void shouldCountNewSubscribersOnly() {
+        when(suscripciones.suscribir("user1", "c1")).thenReturn(true, false);
+
+        assertTrue(avance.suscribir("user1", "c1"));
+        assertFalse(avance.suscribir("user1", "c1"));
+
+        verify(estadisticas).registrar("c1", 1, 0, 0);
+    }
+}
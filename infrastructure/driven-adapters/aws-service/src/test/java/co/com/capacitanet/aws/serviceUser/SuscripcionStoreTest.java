@@ -0,0 +1,231 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.model.curso.Recurso;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SuscripcionStoreTest {
+
+    private DynamoDbClient dynamoDbClient;
+    private DynamoDbAsyncClient asyncClient;
+    private SuscripcionStore store;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        asyncClient = mock(DynamoDbAsyncClient.class);
+        store = new SuscripcionStore(dynamoDbClient, asyncClient);
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+    }
+
+    private void vistosAntes(String... posiciones) {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder()
+                .attributes(Map.of("vistos", AttributeValue.builder().ns(posiciones).build()))
+                .build());
+    }
+
+    private static Map<String, AttributeValue> suscripcion(String cursoId, String... posiciones) {
+        if (posiciones.length == 0) {
+            return Map.of(
+                    "username", AttributeValue.builder().s("user1").build(),
+                    "cursoId", AttributeValue.builder().s(cursoId).build());
+        }
+        return Map.of(
+                "username", AttributeValue.builder().s("user1").build(),
+                "cursoId", AttributeValue.builder().s(cursoId).build(),
+                "vistos", AttributeValue.builder().ns(posiciones).build(),
+                "visualizados", AttributeValue.builder().ss("legacy").build(),
+                "completadoEn", AttributeValue.builder().n("1").build());
+    }
+
+    @Test
+    @DisplayName("Should create the subscription only when it does not exist")
+    void shouldCreateSubscriptionOnlyOnce() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class)))
+                .thenReturn(null)
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+
+        assertTrue(store.suscribir("user1", "c1"));
+        assertFalse(store.suscribir("user1", "c1"));
+
+        ArgumentCaptor<PutItemRequest> captor = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient, times(2)).putItem(captor.capture());
+        PutItemRequest request = captor.getValue();
+        assertEquals("capacitanet_suscripciones", request.tableName());
+        assertEquals("c1", request.item().get("cursoId").s());
+        assertEquals("attribute_not_exists(#curso)", request.conditionExpression());
+    }
+
+    @Test
+    @DisplayName("Should add the resource position to the number set with one conditional update")
+    void shouldAddPositionToNumberSet() {
+        vistosAntes("1");
+
+        SuscripcionStore.Marca marca = store.marcarVisualizado("user1", "c1", Recurso.builder().id("r1").posicion(3).build());
+
+        assertTrue(marca.suscrito());
+        assertEquals(1, marca.nuevos());
+        assertEquals(2, marca.visualizados());
+        assertTrue(marca.porCompletar());
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        UpdateItemRequest request = captor.getValue();
+        assertEquals("ADD #vistos :posicion", request.updateExpression());
+        assertEquals("attribute_exists(#curso) AND NOT contains(#vistos, :numero)", request.conditionExpression());
+        assertEquals(List.of("3"), request.expressionAttributeValues().get(":posicion").ns());
+    }
+
+    @Test
+    @DisplayName("Should treat an already viewed position as done without writing")
+    void shouldTreatViewedPositionAsDone() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().item(suscripcion("c1")).build());
+
+        SuscripcionStore.Marca marca = store.marcarVisualizado("user1", "c1", Recurso.builder().id("r1").posicion(3).build());
+
+        assertTrue(marca.suscrito());
+        assertFalse(marca.avanzo());
+    }
+
+    @Test
+    @DisplayName("Should report the progress and badge of the subscription when the view changed nothing")
+    void shouldReportProgressOfUnchangedSubscription() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().item(suscripcion("c1", "1", "3")).build());
+
+        SuscripcionStore.Marca marca = store.marcarVisualizado("user1", "c1", Recurso.builder().id("r1").posicion(3).build());
+
+        assertFalse(marca.avanzo());
+        assertEquals(2, marca.visualizados());
+        assertTrue(marca.completado());
+        assertFalse(marca.porCompletar());
+    }
+
+    @Test
+    @DisplayName("Should store resources without position by their ID")
+    void shouldStoreResourcesWithoutPositionById() {
+        SuscripcionStore.Marca marca = store.marcarVisualizado("user1", "c1", Recurso.builder().id("r1").build());
+
+        assertTrue(marca.suscrito());
+        assertEquals(1, marca.nuevos());
+        assertEquals(0, marca.visualizados());
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        assertEquals("ADD #visualizados :recursos", captor.getValue().updateExpression());
+        assertEquals(List.of("r1"), captor.getValue().expressionAttributeValues().get(":recursos").ss());
+    }
+
+    @Test
+    @DisplayName("Should add several resources with a single update")
+    void shouldAddSeveralResourcesWithSingleUpdate() {
+        vistosAntes("0", "1");
+
+        SuscripcionStore.Marca marca = store.marcarVisualizados("user1", "c1", List.of(
+                Recurso.builder().id("r1").posicion(1).build(),
+                Recurso.builder().id("r2").posicion(2).build(),
+                Recurso.builder().id("legacy").build()));
+
+        assertEquals(2, marca.nuevos());
+        assertEquals(3, marca.visualizados());
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        UpdateItemRequest request = captor.getValue();
+        assertEquals("ADD #vistos :posiciones, #visualizados :recursos", request.updateExpression());
+        assertEquals(List.of("1", "2"), request.expressionAttributeValues().get(":posiciones").ns());
+        assertEquals(List.of("legacy"), request.expressionAttributeValues().get(":recursos").ss());
+    }
+
+    @Test
+    @DisplayName("Should report a missing subscription when marking a module")
+    void shouldReportMissingSubscription() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+
+        assertFalse(store.marcarVisualizado("user1", "c1", Recurso.builder().id("r1").posicion(3).build()).suscrito());
+    }
+
+    @Test
+    @DisplayName("Should award the badge only while every module is viewed and no badge exists")
+    void shouldAwardBadgeWithConditionalWrite() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().build())
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+
+        assertTrue(store.completar("user1", "c1", 4));
+        assertFalse(store.completar("user1", "c1", 4));
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient, times(2)).updateItem(captor.capture());
+        UpdateItemRequest request = captor.getValue();
+        assertEquals("attribute_exists(#curso) AND attribute_not_exists(#completado) AND size(#vistos) >= :total",
+                request.conditionExpression());
+        assertEquals("4", request.expressionAttributeValues().get(":total").n());
+    }
+
+    @Test
+    @DisplayName("Should follow pagination when listing the subscriptions of a user")
+    void shouldFollowPaginationWhenListing() {
+        when(dynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(QueryResponse.builder().items(List.of(suscripcion("c1", "0", "2")))
+                        .lastEvaluatedKey(suscripcion("c1")).build())
+                .thenReturn(QueryResponse.builder().items(List.of(suscripcion("c2"))).build());
+
+        List<SuscripcionStore.Suscripcion> suscripciones = store.porUsuario("user1");
+
+        assertEquals(List.of(
+                new SuscripcionStore.Suscripcion("c1", Set.of(0, 2), Set.of("legacy"), true),
+                new SuscripcionStore.Suscripcion("c2", Set.of(), Set.of(), false)), suscripciones);
+        assertTrue(suscripciones.get(0).visualizo(Recurso.builder().id("r3").posicion(2).build()));
+        assertTrue(suscripciones.get(0).visualizo(Recurso.builder().id("legacy").build()));
+        assertFalse(suscripciones.get(0).visualizo(Recurso.builder().id("r2").posicion(1).build()));
+    }
+
+    @Test
+    @DisplayName("Should follow pagination when listing the subscriptions of a user asynchronously")
+    void shouldFollowPaginationWhenListingAsynchronously() {
+        when(asyncClient.query(any(QueryRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(QueryResponse.builder()
+                        .items(List.of(suscripcion("c1", "0", "2"))).lastEvaluatedKey(suscripcion("c1")).build()))
+                .thenReturn(CompletableFuture.completedFuture(QueryResponse.builder()
+                        .items(List.of(suscripcion("c2"))).build()));
+
+        List<SuscripcionStore.Suscripcion> suscripciones = store.porUsuarioAsync("user1").join();
+
+        assertEquals(List.of(
+                new SuscripcionStore.Suscripcion("c1", Set.of(0, 2), Set.of("legacy"), true),
+                new SuscripcionStore.Suscripcion("c2", Set.of(), Set.of(), false)), suscripciones);
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(asyncClient, times(2)).query(captor.capture());
+        assertEquals("c1", captor.getAllValues().get(1).exclusiveStartKey().get("cursoId").s());
+        verifyNoInteractions(dynamoDbClient);
+    }
+}
@@ -0,0 +1,126 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
+import co.com.capacitanet.aws.dynamo.ParallelScanner;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.usuario.Usuario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SuscripcionesMigracionTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private DynamoDbClient dynamoDbClient;
+    private ParallelScanner scanner;
+    private SuscripcionStore suscripciones;
+    private SuscripcionesMigracion migracion;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDbClient = mock(DynamoDbClient.class);
+        scanner = new ParallelScanner(dynamoDbClient, 1, 1);
+        suscripciones = mock(SuscripcionStore.class);
+        migracion = new SuscripcionesMigracion(new BlobCodec(BlobCodec.Formato.JSON, 1024), scanner,
+                new OptimisticUpdater(dynamoDbClient, new SimpleMeterRegistry(), 3, Duration.ZERO), suscripciones, false);
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .items(Map.of("username", AttributeValue.builder().s("user1").build()))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scanner.destroy();
+    }
+
+    private GetItemResponse perfil(Usuario usuario, String version) throws JsonProcessingException {
+        return GetItemResponse.builder().item(Map.of(
+                "username", AttributeValue.builder().s(usuario.getUsername()).build(),
+                "perfil", AttributeValue.builder().s(mapper.writeValueAsString(usuario)).build(),
+                "version", AttributeValue.builder().n(version).build())).build();
+    }
+
+    private static Usuario usuarioConCurso(boolean visualizado) {
+        Curso curso = Curso.builder().cursoId("c1").recursos(List.of(
+                Recurso.builder().id("r1").visualizado(visualizado).build(),
+                Recurso.builder().id("r2").build())).build();
+        return new Usuario("user1", "Test", "User", "hash", true, new ArrayList<>(List.of(curso)), new ArrayList<>());
+    }
+
+    @Test
+    @DisplayName("Should copy subscriptions with their progress and empty the profile")
+    void shouldCopySubscriptionsAndEmptyProfile() throws Exception {
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(perfil(usuarioConCurso(true), "4"));
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+        assertEquals(1, migracion.migrar());
+
+        verify(suscripciones).importar("user1", "c1", List.of("r1"));
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        String guardado = captor.getValue().expressionAttributeValues().values().stream()
+                .filter(valor -> valor.s() != null).findFirst().orElseThrow().s();
+        assertTrue(mapper.readValue(guardado, Usuario.class).getCursos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should copy again the progress read after a concurrent change")
+    void shouldCopyAgainAfterConcurrentChange() throws Exception {
+        when(dynamoDbClient.getItem(any(Consumer.class)))
+                .thenReturn(perfil(usuarioConCurso(false), "4"))
+                .thenReturn(perfil(usuarioConCurso(true), "5"));
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build())
+                .thenReturn(UpdateItemResponse.builder().build());
+
+        assertEquals(1, migracion.migrar());
+
+        verify(suscripciones).importar("user1", "c1", List.of());
+        verify(suscripciones).importar("user1", "c1", List.of("r1"));
+        verify(dynamoDbClient, times(2)).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should skip users without subscriptions in their profile")
+    void shouldSkipUsersWithoutSubscriptions() throws Exception {
+        when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(perfil(
+                new Usuario("user1", "Test", "User", "hash", true, new ArrayList<>(), new ArrayList<>()), "4"));
+
+        assertEquals(0, migracion.migrar());
+
+        verify(suscripciones, never()).importar(eq("user1"), any(), any());
+        verify(dynamoDbClient, never()).updateItem(any(UpdateItemRequest.class));
+    }
+}
@@ -0,0 +1,156 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.serviceCurso.CursoAsyncProcess;
+import co.com.capacitanet.aws.serviceCurso.CursoProcess;
+import co.com.capacitanet.aws.serviceCurso.EstadisticasCursos;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.model.usuario.Usuario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UsersAsyncProcessTest {
+
+    @Mock
+    private DynamoDbAsyncClient asyncClient;
+
+    @Mock
+    private SuscripcionStore suscripciones;
+
+    @Mock
+    private CursoAsyncProcess cursos;
+
+    @Mock
+    private EstadisticasCursos estadisticas;
+
+    private UsersAsyncProcess usersAsyncProcess;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        usersAsyncProcess = new UsersAsyncProcess(asyncClient, new BlobCodec(BlobCodec.Formato.JSON, 1024),
+                suscripciones, cursos, new AvanceCursos(suscripciones, mock(CursoProcess.class), estadisticas));
+    }
+
+    private GetItemResponse perfil(Usuario usuario) throws JsonProcessingException {
+        return GetItemResponse.builder()
+                .item(Map.of("perfil", AttributeValue.builder().s(mapper.writeValueAsString(usuario)).build()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should join subscriptions with the current catalog content and their badges")
+    void shouldJoinSubscriptionsWithCatalog() throws JsonProcessingException {
+        Curso enPerfil = Curso.builder().cursoId("legacy").build();
+        Usuario storedUser = new Usuario("testuser", "Test", "User", "password", true,
+                new ArrayList<>(List.of(enPerfil)), new ArrayList<>());
+        when(asyncClient.getItem(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(perfil(storedUser)));
+        CompletableFuture<List<SuscripcionStore.Suscripcion>> suscritas = new CompletableFuture<>();
+        when(suscripciones.porUsuarioAsync("testuser")).thenReturn(suscritas);
+        when(cursos.obtenerCursosPorIdsAsync(List.of("legacy", "course1"))).thenReturn(CompletableFuture.completedFuture(Map.of("course1",
+                Curso.builder().cursoId("course1").recursos(List.of(
+                        Recurso.builder().id("r1").posicion(0).build(),
+                        Recurso.builder().id("r2").posicion(1).build())).build())));
+
+        CompletableFuture<Resultado<Usuario>> resultado = usersAsyncProcess.perfilUsuario("testuser");
+
+        assertFalse(resultado.isDone());
+        suscritas.complete(List.of(
+                new SuscripcionStore.Suscripcion("legacy", Set.of(), Set.of(), false),
+                new SuscripcionStore.Suscripcion("course1", Set.of(1), Set.of(), true)));
+        Usuario usuario = resultado.join().getValor();
+        assertEquals("********", usuario.getPassword());
+        assertEquals(List.of("legacy", "course1"), usuario.getCursos().stream().map(Curso::getCursoId).toList());
+        assertEquals(List.of(false, true), usuario.getCursos().get(1).getRecursos().stream().map(Recurso::isVisualizado).toList());
+        assertEquals(List.of("course1"), usuario.getInsignias());
+    }
+
+    @Test
+    @DisplayName("Should award a badge left pending on a course whose modules were all viewed")
+    void shouldAwardPendingBadge() throws JsonProcessingException {
+        when(asyncClient.getItem(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(perfil(
+                new Usuario("testuser", "Test", "User", "password", true, new ArrayList<>(), new ArrayList<>()))));
+        when(suscripciones.porUsuarioAsync("testuser")).thenReturn(CompletableFuture.completedFuture(List.of(
+                new SuscripcionStore.Suscripcion("course1", Set.of(0, 1), Set.of(), false))));
+        when(cursos.obtenerCursosPorIdsAsync(List.of("course1"))).thenReturn(CompletableFuture.completedFuture(Map.of("course1",
+                Curso.builder().cursoId("course1").recursos(List.of(
+                        Recurso.builder().id("r1").posicion(0).build(),
+                        Recurso.builder().id("r2").posicion(1).build())).build())));
+        when(suscripciones.completarAsync("testuser", "course1", 2)).thenReturn(CompletableFuture.completedFuture(true));
+
+        Usuario usuario = usersAsyncProcess.perfilUsuario("testuser").join().getValor();
+
+        assertEquals(List.of("course1"), usuario.getInsignias());
+        verify(estadisticas).registrar("course1", 0, 0, 1);
+    }
+
+    @Test
+    @DisplayName("Should not read the catalog when every subscription is stored in the profile")
+    void shouldSkipCatalogWithoutPendingSubscriptions() throws JsonProcessingException {
+        Usuario storedUser = new Usuario("testuser", "Test", "User", "password", true,
+                new ArrayList<>(List.of(Curso.builder().cursoId("legacy").build())), new ArrayList<>());
+        when(asyncClient.getItem(any(Consumer.class))).thenReturn(CompletableFuture.completedFuture(perfil(storedUser)));
+        when(suscripciones.porUsuarioAsync("testuser")).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        assertEquals(List.of("legacy"), usersAsyncProcess.perfilUsuario("testuser").join().getValor().getCursos()
+                .stream().map(Curso::getCursoId).toList());
+        verifyNoInteractions(cursos);
+    }
+
+    @Test
+    @DisplayName("Should return 404 when the user does not exist")
+    void shouldReturnNotFoundForMissingUser() {
+        when(asyncClient.getItem(any(Consumer.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetItemResponse.builder().build()));
+
+        assertEquals(404, usersAsyncProcess.perfilUsuario("testuser").join().getStatus());
+        verifyNoInteractions(suscripciones);
+    }
+
+    @Test
+    @DisplayName("Should return 500 when the profile cannot be decoded or a read fails")
+    void shouldReturnServerErrorOnFailure() throws JsonProcessingException {
+        when(asyncClient.getItem(any(Consumer.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetItemResponse.builder()
+                        .item(Map.of("perfil", AttributeValue.builder().s("{no es json").build())).build()))
+                .thenReturn(CompletableFuture.completedFuture(perfil(new Usuario("testuser", "Test", "User", "password",
+                        true, new ArrayList<>(), new ArrayList<>()))));
+        when(suscripciones.porUsuarioAsync("testuser"))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("throttled")));
+
+        Resultado<Usuario> ilegible = usersAsyncProcess.perfilUsuario("testuser").join();
+        Resultado<Usuario> fallido = usersAsyncProcess.perfilUsuario("testuser").join();
+
+        assertEquals(500, ilegible.getStatus());
+        assertEquals("Error al procesar los datos del usuario", ilegible.getMessage());
+        assertEquals(500, fallido.getStatus());
+        assertEquals("Error al obtener el perfil del usuario", fallido.getMessage());
+    }
+}
@@ -1,17 +1,27 @@
 package co.com.capacitanet.aws.serviceUser;
 
+import co.com.capacitanet.aws.dynamo.BlobCodec;
+import co.com.capacitanet.aws.dynamo.OptimisticUpdater;
 import co.com.capacitanet.aws.serviceCurso.CursoProcess;
+import co.com.capacitanet.helpers.AuthService;
+import co.com.capacitanet.helpers.Password;
+import co.com.capacitanet.helpers.PasswordHasher;
 import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.curso.VerModulo;
 import co.com.capacitanet.model.response.ResponseApp;
-import co.com.capacitanet.model.usuario.ChangePassword;
+import co.com.capacitanet.model.response.Resultado;
 import co.com.capacitanet.model.usuario.Usuario;
+import co.com.capacitanet.model.usuario.UsuarioVerificado;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
@@ -24,14 +34,21 @@ import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class UsersProcessTest {
@@ -42,7 +59,20 @@ class UsersProcessTest {
     @Mock
     private CursoProcess cursoProcess;
 
-    @InjectMocks
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private SuscripcionStore suscripciones;
+
+    @Mock
+    private VisualizacionBuffer visualizaciones;
+
+    @Mock
+    private AvanceCursos avance;
+
+    private PasswordHasher hasher;
+
     private UsersProcess usersProcess;
 
     private final ObjectMapper mapper = new ObjectMapper();
@@ -50,6 +80,17 @@ class UsersProcessTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        BlobCodec codec = new BlobCodec(BlobCodec.Formato.JSON, 1024);
+        OptimisticUpdater actualizador = new OptimisticUpdater(dynamoDbClient, new SimpleMeterRegistry(), 3, Duration.ZERO);
+        hasher = new PasswordHasher(new SimpleMeterRegistry(), 2, 8, 4, Duration.ZERO);
+        usersProcess = new UsersProcess(cursoProcess, dynamoDbClient, codec, actualizador, authService, hasher,
+                suscripciones, visualizaciones, avance, new AvancePerfil(codec, actualizador));
+        when(avance.completarPendientes(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hasher.destroy();
     }
 
     @Nested
@@ -101,32 +142,32 @@ class UsersProcessTest {
     class ActualizarUsuario {
 
         @Test
-        @DisplayName("Should update user password successfully")
-        void shouldUpdateUserPasswordSuccessfully() throws JsonProcessingException {
-            ChangePassword changePassword = ChangePassword.builder()
-                    .password("testuser")
-                    .passwordNew("newPassword")
-                    .build();
-            Usuario storedUser = new Usuario("testuser", "Test", "User", "test@test.com", true, new ArrayList<>(), new ArrayList<>());
-            String userJson = mapper.writeValueAsString(storedUser);
-
-            GetItemResponse getItemResponse = GetItemResponse.builder()
-                    .item(Map.of("perfil", AttributeValue.builder().s(userJson).build()))
-                    .build();
-
-            when(dynamoDbClient.getItem(any(Consumer.class))).thenAnswer(invocation -> {
-                Consumer<GetItemRequest.Builder> consumer = invocation.getArgument(0);
-                GetItemRequest.Builder builder = GetItemRequest.builder();
-                consumer.accept(builder);
-                return getItemResponse;
-            });
+        @DisplayName("Should write the new password over the verified snapshot without reading it again")
+        void shouldUpdateUserPasswordSuccessfully() {
+            Usuario storedUser = new Usuario("testuser", "Test", "User", hasher.hash("old"), true, new ArrayList<>(), new ArrayList<>());
             when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
 
-            ResponseApp response = usersProcess.actualizarUsuario(changePassword);
+            ResponseApp response = usersProcess.actualizarUsuario(new UsuarioVerificado(storedUser, 4L), "newPassword");
 
             assertEquals(200, response.getStatus());
             assertEquals("Contraseña actualizada exitosamente", response.getMessage());
-            verify(dynamoDbClient).updateItem(any(UpdateItemRequest.class));
+            ArgumentCaptor<UpdateItemRequest> escritura = ArgumentCaptor.forClass(UpdateItemRequest.class);
+            verify(dynamoDbClient).updateItem(escritura.capture());
+            assertEquals("4", escritura.getValue().expressionAttributeValues().get(":version").n());
+            verify(dynamoDbClient, never()).getItem(any(Consumer.class));
+        }
+
+        @Test
+        @DisplayName("Should return conflict when the user changed after verification")
+        void shouldReturnConflictWhenUserChangedAfterVerification() {
+            Usuario storedUser = new Usuario("testuser", "Test", "User", hasher.hash("old"), true, new ArrayList<>(), new ArrayList<>());
+            when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                    .thenThrow(ConditionalCheckFailedException.builder().build());
+
+            ResponseApp response = usersProcess.actualizarUsuario(new UsuarioVerificado(storedUser, 4L), "newPassword");
+
+            assertEquals(409, response.getStatus());
+            verify(dynamoDbClient, times(1)).updateItem(any(UpdateItemRequest.class));
         }
 
 
@@ -152,14 +193,65 @@ class UsersProcessTest {
                     return getItemResponse;
                 });
 
-                ResponseApp response = usersProcess.perfilUsuario(userId);
+                Resultado<Usuario> response = usersProcess.perfilUsuario(userId);
 
                 assertEquals(200, response.getStatus());
-                Usuario responseUser = mapper.readValue(response.getMessage(), Usuario.class);
+                Usuario responseUser = response.getValor();
                 assertEquals("********", responseUser.getPassword());
                 assertEquals(userId, responseUser.getUsername());
             }
 
+            @Test
+            @DisplayName("Should join subscriptions with the current catalog content and their badges")
+            void shouldJoinSubscriptionsWithCatalog() throws JsonProcessingException {
+                Curso enPerfil = Curso.builder().cursoId("legacy").build();
+                Usuario storedUser = new Usuario("testuser", "Test", "User", "password", true,
+                        new ArrayList<>(List.of(enPerfil)), new ArrayList<>());
+                when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(GetItemResponse.builder()
+                        .item(Map.of("perfil", AttributeValue.builder().s(mapper.writeValueAsString(storedUser)).build()))
+                        .build());
+                when(suscripciones.porUsuario("testuser")).thenReturn(List.of(
+                        new SuscripcionStore.Suscripcion("legacy", Set.of(), Set.of(), false),
+                        new SuscripcionStore.Suscripcion("course1", Set.of(1), Set.of(), true)));
+                when(cursoProcess.obtenerCursosPorIds(List.of("legacy", "course1"))).thenReturn(Map.of("course1",
+                        Curso.builder().cursoId("course1").recursos(List.of(
+                                Recurso.builder().id("r1").posicion(0).build(),
+                                Recurso.builder().id("r2").posicion(1).build())).build()));
+
+                Usuario perfil = usersProcess.perfilUsuario("testuser").getValor();
+                List<Curso> cursos = perfil.getCursos();
+
+                assertEquals(List.of("legacy", "course1"), cursos.stream().map(Curso::getCursoId).toList());
+                assertEquals(List.of(false, true), cursos.get(1).getRecursos().stream().map(Recurso::isVisualizado).toList());
+                assertEquals(List.of("course1"), perfil.getInsignias());
+            }
+
+            @Test
+            @DisplayName("Should prefer the subscription item over the profile copy, keeping both progresses")
+            void shouldPreferSubscriptionOverProfileCopy() throws JsonProcessingException {
+                Curso enPerfil = Curso.builder().cursoId("course1").titulo("Anterior").recursos(List.of(
+                        Recurso.builder().id("r1").visualizado(true).build(),
+                        Recurso.builder().id("r2").build())).build();
+                Usuario storedUser = new Usuario("testuser", "Test", "User", "password", true,
+                        new ArrayList<>(List.of(enPerfil)), new ArrayList<>());
+                when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(GetItemResponse.builder()
+                        .item(Map.of("perfil", AttributeValue.builder().s(mapper.writeValueAsString(storedUser)).build()))
+                        .build());
+                when(suscripciones.porUsuario("testuser")).thenReturn(List.of(
+                        new SuscripcionStore.Suscripcion("course1", Set.of(), Set.of("r2"), false)));
+                when(cursoProcess.obtenerCursosPorIds(List.of("course1"))).thenReturn(Map.of("course1",
+                        Curso.builder().cursoId("course1").titulo("Actual").recursos(List.of(
+                                Recurso.builder().id("r1").build(),
+                                Recurso.builder().id("r2").build(),
+                                Recurso.builder().id("r3").build())).build()));
+
+                List<Curso> cursos = usersProcess.perfilUsuario("testuser").getValor().getCursos();
+
+                assertEquals(1, cursos.size());
+                assertEquals("Actual", cursos.get(0).getTitulo());
+                assertEquals(List.of(true, true, false), cursos.get(0).getRecursos().stream().map(Recurso::isVisualizado).toList());
+            }
+
         }
 
 
@@ -169,26 +261,116 @@ class UsersProcessTest {
 
             @Test
             @DisplayName("Should deactivate user successfully")
-            void shouldDeactivateUserSuccessfully() throws JsonProcessingException {
-                Usuario userToDelete = new Usuario("testuser", null, null, null, false, null, null);
-                Usuario storedUser = new Usuario("test@test.com", "Test", "User", "password", true, new ArrayList<>(), new ArrayList<>());
-                String userJson = mapper.writeValueAsString(storedUser);
+            void shouldDeactivateUserSuccessfully() {
+                Usuario storedUser = new Usuario("testuser", "Test", "User", "password", true, new ArrayList<>(), new ArrayList<>());
+                when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+                ResponseApp response = usersProcess.eliminarUsuario(new UsuarioVerificado(storedUser, null));
 
+                assertEquals(200, response.getStatus());
+                assertEquals("Usuario desactivado exitosamente", response.getMessage());
+                ArgumentCaptor<UpdateItemRequest> escritura = ArgumentCaptor.forClass(UpdateItemRequest.class);
+                verify(dynamoDbClient).updateItem(escritura.capture());
+                assertEquals("attribute_not_exists(#version)", escritura.getValue().conditionExpression());
+            }
+        }
+
+        @Nested
+        @DisplayName("verificarCredenciales")
+        class VerificarCredenciales {
+
+            private void usuarioGuardado(Usuario usuario, String version) throws JsonProcessingException {
                 GetItemResponse getItemResponse = GetItemResponse.builder()
-                        .item(Map.of("perfil", AttributeValue.builder().s(userJson).build()))
+                        .item(Map.of("perfil", AttributeValue.builder().s(mapper.writeValueAsString(usuario)).build(),
+                                "version", AttributeValue.builder().n(version).build()))
                         .build();
-                when(dynamoDbClient.getItem(any(Consumer.class))).thenAnswer(invocation -> {
-                    Consumer<GetItemRequest.Builder> consumer = invocation.getArgument(0);
-                    GetItemRequest.Builder builder = GetItemRequest.builder();
-                    consumer.accept(builder);
-                    return getItemResponse;
-                });
+                when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(getItemResponse);
+            }
+
+            @Test
+            @DisplayName("Should return the loaded user and its version when the password matches")
+            void shouldReturnLoadedUserWhenPasswordMatches() throws JsonProcessingException {
+                usuarioGuardado(new Usuario("testuser", "Test", "User", hasher.hash("secreto"), true, new ArrayList<>(), new ArrayList<>()), "7");
+
+                Resultado<UsuarioVerificado> resultado = usersProcess.verificarCredenciales("testuser", "secreto");
+
+                assertEquals(200, resultado.getStatus());
+                assertEquals("Test", resultado.getValor().getUsuario().getNombre());
+                assertEquals(7L, resultado.getValor().getVersion());
+                verifyNoInteractions(authService);
+            }
+
+            @Test
+            @DisplayName("Should reject a wrong password")
+            void shouldRejectWrongPassword() throws JsonProcessingException {
+                usuarioGuardado(new Usuario("testuser", "Test", "User", hasher.hash("secreto"), true, new ArrayList<>(), new ArrayList<>()), "7");
+
+                Resultado<UsuarioVerificado> resultado = usersProcess.verificarCredenciales("testuser", "otro");
+
+                assertEquals(401, resultado.getStatus());
+            }
+
+            @Test
+            @DisplayName("Should reject an inactive user")
+            void shouldRejectInactiveUser() throws JsonProcessingException {
+                usuarioGuardado(new Usuario("testuser", "Test", "User", hasher.hash("secreto"), false, new ArrayList<>(), new ArrayList<>()), "7");
+
+                Resultado<UsuarioVerificado> resultado = usersProcess.verificarCredenciales("testuser", "secreto");
+
+                assertEquals(404, resultado.getStatus());
+            }
+
+            @Test
+            @DisplayName("Should rehash a password stored with a lower cost after a successful login")
+            void shouldRehashPasswordWithLowerCostAfterLogin() throws JsonProcessingException {
+                PasswordHasher mayor = new PasswordHasher(new SimpleMeterRegistry(), 2, 8, 11, Duration.ZERO);
+                UsersProcess process = new UsersProcess(cursoProcess, dynamoDbClient, new BlobCodec(BlobCodec.Formato.JSON, 1024),
+                        new OptimisticUpdater(dynamoDbClient, new SimpleMeterRegistry(), 3, Duration.ZERO), authService, mayor,
+                        suscripciones, visualizaciones, avance, mock(AvancePerfil.class));
+                usuarioGuardado(new Usuario("testuser", "Test", "User", hasher.hash("secreto"), true, new ArrayList<>(), new ArrayList<>()), "7");
+                when(authService.generaJWT("testuser")).thenReturn("a.b.c");
                 when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
 
-                ResponseApp response = usersProcess.eliminarUsuario(userToDelete);
+                ResponseApp response = process.login(Usuario.builder().username("testuser").password("secreto").build());
 
                 assertEquals(200, response.getStatus());
-                assertEquals("Usuario desactivado exitosamente", response.getMessage());
+                ArgumentCaptor<UpdateItemRequest> escritura = ArgumentCaptor.forClass(UpdateItemRequest.class);
+                verify(dynamoDbClient, timeout(5000)).updateItem(escritura.capture());
+                assertEquals("7", escritura.getValue().expressionAttributeValues().get(":version").n());
+                String perfil = escritura.getValue().expressionAttributeValues().values().stream()
+                        .filter(valor -> valor.s() != null).findFirst().orElseThrow().s();
+                assertEquals(11, Password.costo(mapper.readValue(perfil, Usuario.class).getPassword()));
+                mayor.destroy();
+            }
+
+            @Test
+            @DisplayName("Should keep a password stored with a higher cost after a successful login")
+            void shouldKeepPasswordWithHigherCostAfterLogin() throws JsonProcessingException {
+                PasswordHasher costoso = new PasswordHasher(new SimpleMeterRegistry(), 1, 1, 6, Duration.ZERO);
+                String hash = costoso.hash("secreto");
+                costoso.destroy();
+                usuarioGuardado(new Usuario("testuser", "Test", "User", hash, true, new ArrayList<>(), new ArrayList<>()), "7");
+                when(authService.generaJWT("testuser")).thenReturn("a.b.c");
+
+                ResponseApp response = usersProcess.login(Usuario.builder().username("testuser").password("secreto").build());
+
+                assertEquals(200, response.getStatus());
+                verify(dynamoDbClient, never()).updateItem(any(UpdateItemRequest.class));
+            }
+
+            @Test
+            @DisplayName("Should fail fast with 503 when the bcrypt queue is full")
+            void shouldFailFastWhenBcryptQueueIsFull() throws JsonProcessingException {
+                PasswordHasher saturado = mock(PasswordHasher.class);
+                when(saturado.verificar(any(), any())).thenThrow(new PasswordHasher.SaturacionException());
+                UsersProcess process = new UsersProcess(cursoProcess, dynamoDbClient, new BlobCodec(BlobCodec.Formato.JSON, 1024),
+                        new OptimisticUpdater(dynamoDbClient, new SimpleMeterRegistry(), 3, Duration.ZERO), authService, saturado,
+                        suscripciones, visualizaciones, avance, mock(AvancePerfil.class));
+                usuarioGuardado(new Usuario("testuser", "Test", "User", "hash", true, new ArrayList<>(), new ArrayList<>()), "7");
+
+                assertEquals(503, process.verificarCredenciales("testuser", "secreto").getStatus());
+                assertEquals(503, process.login(Usuario.builder().username("testuser").password("secreto").build()).getStatus());
+                verifyNoInteractions(authService);
             }
         }
 
@@ -197,59 +379,134 @@ class UsersProcessTest {
         class SuscribirCurso {
 
             @Test
-            @DisplayName("Should subscribe user to an active course successfully")
-            void shouldSubscribeUserToCourseSuccessfully() throws JsonProcessingException {
-                String userId = "testuser";
-                String cursoId = "course1";
-                Usuario storedUser = new Usuario(userId, "Test", "test@test.com", "password", true, new ArrayList<>(), new ArrayList<>());
-                String userJson = mapper.writeValueAsString(storedUser);
-                Curso courseToSubscribe = new Curso();
-                courseToSubscribe.setCursoId(cursoId);
-                courseToSubscribe.setActive(true);
-
-                GetItemResponse getItemResponse = GetItemResponse.builder()
-                        .item(Map.of("perfil", AttributeValue.builder().s(userJson).build()))
-                        .build();
-                when(dynamoDbClient.getItem(any(Consumer.class))).thenAnswer(invocation -> {
-                    Consumer<GetItemRequest.Builder> consumer = invocation.getArgument(0);
-                    GetItemRequest.Builder builder = GetItemRequest.builder();
-                    consumer.accept(builder);
-                    return getItemResponse;
-                });
-                when(cursoProcess.obtenerCursoPorId(cursoId)).thenReturn(courseToSubscribe);
-                when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+            @DisplayName("Should store the subscription as its own item without touching the profile")
+            void shouldSubscribeUserToCourseSuccessfully() {
+                Curso courseToSubscribe = Curso.builder().cursoId("course1").active(true).build();
+                when(cursoProcess.obtenerCursoPorId("course1")).thenReturn(courseToSubscribe);
+                when(avance.suscribir("testuser", "course1")).thenReturn(true);
 
-                ResponseApp response = usersProcess.suscribirCurso(userId, cursoId);
+                ResponseApp response = usersProcess.suscribirCurso("testuser", "course1");
 
                 assertEquals(200, response.getStatus());
                 assertEquals("Suscripción al curso exitosa", response.getMessage());
+                verifyNoInteractions(dynamoDbClient);
             }
 
             @Test
             @DisplayName("Should return message when user is already subscribed")
-            void shouldReturnMessageWhenUserAlreadySubscribed() throws JsonProcessingException {
-                String userId = "testuser";
-                String cursoId = "course1";
-                Curso existingCourse = new Curso();
-                existingCourse.setCursoId(cursoId);
-                Usuario storedUser = new Usuario(userId, "Test", "test@test.com", "password", true, new ArrayList<>(List.of(existingCourse)), new ArrayList<>());
-                String userJson = mapper.writeValueAsString(storedUser);
+            void shouldReturnMessageWhenUserAlreadySubscribed() {
+                when(cursoProcess.obtenerCursoPorId("course1"))
+                        .thenReturn(Curso.builder().cursoId("course1").active(true).build());
+                when(avance.suscribir("testuser", "course1")).thenReturn(false);
 
-                GetItemResponse getItemResponse = GetItemResponse.builder()
-                        .item(Map.of("perfil", AttributeValue.builder().s(userJson).build()))
-                        .build();
-                when(dynamoDbClient.getItem(any(Consumer.class))).thenAnswer(invocation -> {
-                    Consumer<GetItemRequest.Builder> consumer = invocation.getArgument(0);
-                    GetItemRequest.Builder builder = GetItemRequest.builder();
-                    consumer.accept(builder);
-                    return getItemResponse;
-                });
-
-                ResponseApp response = usersProcess.suscribirCurso(userId, cursoId);
+                ResponseApp response = usersProcess.suscribirCurso("testuser", "course1");
 
                 assertEquals(200, response.getStatus());
                 assertEquals("Ya estás suscrito a este curso", response.getMessage());
             }
+
+            @Test
+            @DisplayName("Should reject an inactive course")
+            void shouldRejectInactiveCourse() {
+                when(cursoProcess.obtenerCursoPorId("course1")).thenReturn(Curso.builder().cursoId("course1").build());
+
+                ResponseApp response = usersProcess.suscribirCurso("testuser", "course1");
+
+                assertEquals(404, response.getStatus());
+                verifyNoInteractions(avance);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("verModulo")
+    class VerModuloVisualizado {
+
+        @Test
+        @DisplayName("Should accept a batch of module views without writing it right away")
+        void shouldBufferBatchOfModuleViews() {
+            List<VerModulo> eventos = List.of(VerModulo.builder().cursoId("course1").recursoId("r1").build());
+            when(visualizaciones.registrar("testuser", eventos)).thenReturn(true);
+
+            ResponseApp response = usersProcess.verModulos("testuser", eventos);
+
+            assertEquals(202, response.getStatus());
+            verify(visualizaciones).registrar("testuser", eventos);
+            verifyNoInteractions(dynamoDbClient, suscripciones);
+        }
+
+        @Test
+        @DisplayName("Should return 503 when the batch of pending views is full")
+        void shouldRejectModuleViewsWhenBufferIsFull() {
+            List<VerModulo> eventos = List.of(VerModulo.builder().cursoId("course1").recursoId("r1").build());
+            when(visualizaciones.registrar("testuser", eventos)).thenReturn(false);
+
+            ResponseApp response = usersProcess.verModulos("testuser", eventos);
+
+            assertEquals(503, response.getStatus());
+            verifyNoInteractions(dynamoDbClient, suscripciones);
+        }
+
+        @Test
+        @DisplayName("Should mark the module with a single update on the subscription item")
+        void shouldMarkModuleOnSubscription() {
+            Recurso recurso = Recurso.builder().id("r1").posicion(0).build();
+            when(cursoProcess.obtenerRecurso("course1", "r1")).thenReturn(recurso);
+            when(avance.registrar("testuser", "course1", List.of(recurso))).thenReturn(true);
+
+            ResponseApp response = usersProcess.verModulo("testuser",
+                    VerModulo.builder().cursoId("course1").recursoId("r1").build());
+
+            assertEquals(200, response.getStatus());
+            assertEquals("Módulo visualizado correctamente", response.getMessage());
+            verifyNoInteractions(dynamoDbClient);
+        }
+
+        @Test
+        @DisplayName("Should reapply the module view when the profile changed concurrently")
+        void shouldRebaseModuleViewOnConflict() throws JsonProcessingException {
+            Curso curso = new Curso();
+            curso.setCursoId("course1");
+            curso.setRecursos(new ArrayList<>(List.of(Recurso.builder().id("r1").build())));
+            Usuario storedUser = new Usuario("testuser", "Test", "User", "password", true,
+                    new ArrayList<>(List.of(curso)), new ArrayList<>());
+            GetItemResponse getItemResponse = GetItemResponse.builder()
+                    .item(Map.of(
+                            "perfil", AttributeValue.builder().s(mapper.writeValueAsString(storedUser)).build(),
+                            "version", AttributeValue.builder().n("7").build()))
+                    .build();
+            when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(getItemResponse);
+            when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                    .thenThrow(ConditionalCheckFailedException.builder().build())
+                    .thenReturn(UpdateItemResponse.builder().build());
+
+            ResponseApp response = usersProcess.verModulo("testuser",
+                    VerModulo.builder().cursoId("course1").recursoId("r1").build());
+
+            assertEquals(200, response.getStatus());
+            assertEquals("Módulo visualizado correctamente", response.getMessage());
+            verify(dynamoDbClient, times(2)).updateItem(any(UpdateItemRequest.class));
+        }
+
+        @Test
+        @DisplayName("Should answer 409 when the profile keeps changing")
+        void shouldReturnConflictWhenRetriesAreExhausted() throws JsonProcessingException {
+            Curso curso = new Curso();
+            curso.setCursoId("course1");
+            curso.setRecursos(new ArrayList<>(List.of(Recurso.builder().id("r1").build())));
+            Usuario storedUser = new Usuario("testuser", "Test", "User", "password", true,
+                    new ArrayList<>(List.of(curso)), new ArrayList<>());
+            GetItemResponse getItemResponse = GetItemResponse.builder()
+                    .item(Map.of("perfil", AttributeValue.builder().s(mapper.writeValueAsString(storedUser)).build()))
+                    .build();
+            when(dynamoDbClient.getItem(any(Consumer.class))).thenReturn(getItemResponse);
+            when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                    .thenThrow(ConditionalCheckFailedException.builder().build());
+
+            ResponseApp response = usersProcess.verModulo("testuser",
+                    VerModulo.builder().cursoId("course1").recursoId("r1").build());
+
+            assertEquals(409, response.getStatus());
         }
     }
-}
\ No newline at end of file
+}
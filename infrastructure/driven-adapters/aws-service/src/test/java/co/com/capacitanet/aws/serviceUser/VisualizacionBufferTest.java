@@ -0,0 +1,211 @@
+package co.com.capacitanet.aws.serviceUser;
+
+import co.com.capacitanet.aws.serviceCurso.CursoProcess;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.curso.VerModulo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VisualizacionBufferTest {
+
+    private AvanceCursos avance;
+    private AvancePerfil perfiles;
+    private CursoProcess cursoProcess;
+    private VisualizacionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        avance = mock(AvanceCursos.class);
+        perfiles = mock(AvancePerfil.class);
+        when(perfiles.marcar(anyString(), anyString(), any())).thenReturn(AvancePerfil.Marca.NO_SUSCRITO);
+        cursoProcess = mock(CursoProcess.class);
+        when(cursoProcess.obtenerRecurso(anyString(), anyString())).thenAnswer(invocation ->
+                Recurso.builder().id(invocation.getArgument(1))
+                        .posicion(Integer.parseInt(invocation.<String>getArgument(1).substring(1))).build());
+        when(avance.registrar(anyString(), anyString(), any())).thenReturn(true);
+        buffer = new VisualizacionBuffer(avance, perfiles, cursoProcess, Duration.ofHours(1), 100, 3, 4, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.destroy();
+    }
+
+    private static VerModulo evento(String cursoId, String recursoId) {
+        return VerModulo.builder().cursoId(cursoId).recursoId(recursoId).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Recurso>> escritos(String username, String cursoId, int veces) {
+        ArgumentCaptor<List<Recurso>> captor = ArgumentCaptor.forClass(List.class);
+        verify(avance, times(veces)).registrar(eq(username), eq(cursoId), captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("Should merge repeated events into one write per subscription")
+    void shouldMergeEventsIntoOneWritePerSubscription() {
+        buffer.registrar("user1", List.of(evento("c1", "r1"), evento("c1", "r2"), evento("c1", "r1")));
+        buffer.registrar("user1", List.of(evento("c1", "r2"), evento("c2", "r1")));
+        buffer.registrar("user2", List.of(evento("c1", "r1"), evento(null, "r3")));
+
+        assertEquals(3, buffer.vaciar());
+
+        List<Recurso> recursos = escritos("user1", "c1", 1).get(0);
+        assertEquals(Set.of(1, 2), Set.copyOf(recursos.stream().map(Recurso::getPosicion).toList()));
+        escritos("user1", "c2", 1);
+        escritos("user2", "c1", 1);
+        verify(cursoProcess, times(1)).obtenerRecurso("c1", "r1");
+        assertEquals(0, buffer.vaciar());
+    }
+
+    @Test
+    @DisplayName("Should keep failed writes for the next batch")
+    void shouldKeepFailedWritesForNextBatch() {
+        when(avance.registrar(anyString(), anyString(), any()))
+                .thenThrow(new IllegalStateException("DynamoDB no disponible"))
+                .thenReturn(true);
+        buffer.registrar("user1", List.of(evento("c1", "r1")));
+
+        assertEquals(0, buffer.vaciar());
+        assertEquals(1, buffer.vaciar());
+
+        escritos("user1", "c1", 2);
+    }
+
+    @Test
+    @DisplayName("Should mark the events of subscriptions still stored in the profile there")
+    void shouldFallBackToProfileSubscriptions() {
+        when(avance.registrar(anyString(), eq("legacy"), any())).thenReturn(false);
+        when(perfiles.marcar("user1", "legacy", List.of("r1"))).thenReturn(AvancePerfil.Marca.MARCADO);
+        buffer.registrar("user1", List.of(evento("legacy", "r1"), evento("c1", "r1")));
+        buffer.registrar("user2", List.of(evento("legacy", "r1")));
+
+        assertEquals(2, buffer.vaciar());
+
+        verify(perfiles).marcar("user1", "legacy", List.of("r1"));
+        verify(perfiles, never()).marcar(eq("user1"), eq("c1"), any());
+    }
+
+    @Test
+    @DisplayName("Should write pending events on shutdown")
+    void shouldWritePendingEventsOnShutdown() {
+        buffer.registrar("user1", List.of(evento("c1", "r1")));
+
+        buffer.destroy();
+
+        escritos("user1", "c1", 1);
+    }
+
+    @Test
+    @DisplayName("Should drop the events of a subscription after the configured write attempts")
+    void shouldDropEventsAfterTheAttempts() {
+        when(avance.registrar(anyString(), anyString(), any()))
+                .thenThrow(new IllegalStateException("DynamoDB no disponible"));
+        buffer.registrar("user1", List.of(evento("c1", "r1")));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, buffer.vaciar());
+        }
+
+        escritos("user1", "c1", 3);
+    }
+
+    @Test
+    @DisplayName("Should flush on the writer thread and reject events while the pending limit is reached")
+    void shouldFlushEarlyAndRejectWhenFull() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(avance.registrar(eq("user1"), anyString(), any())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        VisualizacionBuffer pequeno = new VisualizacionBuffer(avance, perfiles, cursoProcess, Duration.ofHours(1), 2, 3, 4, Duration.ofSeconds(5));
+        try {
+            assertTrue(pequeno.registrar("user1", List.of(evento("c1", "r1"))));
+            verify(avance, timeout(5000)).registrar(eq("user1"), eq("c1"), any());
+
+            assertTrue(pequeno.registrar("user2", List.of(evento("c1", "r1"))));
+            assertTrue(pequeno.registrar("user3", List.of(evento("c1", "r1"))));
+            assertFalse(pequeno.registrar("user4", List.of(evento("c1", "r1"))));
+            verify(avance, never()).registrar(eq("user2"), anyString(), any());
+
+            liberar.countDown();
+            verify(avance, timeout(5000)).registrar(eq("user2"), eq("c1"), any());
+            verify(avance, timeout(5000)).registrar(eq("user3"), eq("c1"), any());
+            verify(avance, never()).registrar(eq("user4"), anyString(), any());
+        } finally {
+            liberar.countDown();
+            pequeno.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write the subscriptions of a batch in parallel")
+    void shouldWriteSubscriptionsInParallel() throws Exception {
+        CountDownLatch ambas = new CountDownLatch(2);
+        when(avance.registrar(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            ambas.countDown();
+            return ambas.await(5, TimeUnit.SECONDS);
+        });
+        buffer.registrar("user1", List.of(evento("c1", "r1")));
+        buffer.registrar("user2", List.of(evento("c1", "r1")));
+
+        assertEquals(2, buffer.vaciar());
+        verify(cursoProcess, times(1)).obtenerRecurso("c1", "r1");
+    }
+
+    @Test
+    @DisplayName("Should stop waiting for pending writes after the shutdown time")
+    void shouldBoundTheShutdownDrain() {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(avance.registrar(anyString(), anyString(), any())).thenAnswer(invocation -> liberar.await(5, TimeUnit.SECONDS));
+        VisualizacionBuffer lento = new VisualizacionBuffer(avance, perfiles, cursoProcess, Duration.ofHours(1), 100, 3, 1,
+                Duration.ofMillis(200));
+        try {
+            lento.registrar("user1", List.of(evento("c1", "r1")));
+            lento.registrar("user2", List.of(evento("c1", "r1")));
+
+            long inicio = System.nanoTime();
+            lento.destroy();
+
+            assertTrue(Duration.ofNanos(System.nanoTime() - inicio).compareTo(Duration.ofSeconds(2)) < 0);
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush periodically")
+    void shouldFlushPeriodically() {
+        VisualizacionBuffer rapido = new VisualizacionBuffer(avance, perfiles, cursoProcess, Duration.ofMillis(10), 100, 3, 4, Duration.ofSeconds(5));
+        try {
+            rapido.registrar("user1", List.of(evento("c1", "r1")));
+
+            verify(avance, timeout(5000)).registrar(eq("user1"), eq("c1"), any());
+        } finally {
+            rapido.destroy();
+        }
+    }
+}
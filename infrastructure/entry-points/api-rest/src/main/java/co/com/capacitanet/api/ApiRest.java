@@ -1,14 +1,22 @@
 package co.com.capacitanet.api;
 
+import co.com.capacitanet.api.carga.CargaMultipart;
+import co.com.capacitanet.api.ingesta.IngestaRecursos;
+import co.com.capacitanet.api.listado.CatalogoSnapshot;
+import co.com.capacitanet.api.listado.ListadoCursos;
 import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.Ingesta;
 import co.com.capacitanet.model.curso.Recurso;
 import co.com.capacitanet.model.curso.VerModulo;
 import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
 import co.com.capacitanet.model.usuario.ChangePassword;
 import co.com.capacitanet.model.usuario.Usuario;
 import co.com.capacitanet.usecase.curso.CursoUseCase;
 import co.com.capacitanet.usecase.usuario.UsuarioUseCase;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,8 +31,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -40,6 +49,9 @@ public class ApiRest {
 
     private final UsuarioUseCase usuarioUseCase;
     private final CursoUseCase cursoUseCase;
+    private final IngestaRecursos ingestaRecursos;
+    private final CatalogoSnapshot catalogo;
+    private final CargaMultipart cargaMultipart;
 
     /**
      * Verifica el estado de salud del servicio.
@@ -88,8 +100,11 @@ public class ApiRest {
     public ResponseEntity<Object> perfilUsuario(HttpServletRequest request) {
         String userId = (String) request.getAttribute(USER_ID);
         logger.info("Iniciando obtencion de perfil para el usuario: {}", userId);
-        ResponseApp response = usuarioUseCase.perfilUsuario(userId);
-        return ResponseEntity.status(response.getStatus()).body(response.getMessage());
+        Resultado<Usuario> resultado = usuarioUseCase.perfilUsuario(userId);
+        if (!resultado.isExitoso()) {
+            return ResponseEntity.status(resultado.getStatus()).body(resultado.getMessage());
+        }
+        return ResponseEntity.ok(resultado.getValor());
     }
 
     /**
@@ -161,25 +176,30 @@ public class ApiRest {
     }
 
     /**
-     * Obtiene los cursos disponibles para el usuario autenticado.
+     * Obtiene los cursos disponibles para el usuario autenticado. Se responde desde la instantánea
+     * del catálogo, con {@code 304} si el cliente envía el ETag vigente.
      *
-     * @param request Objeto HttpServletRequest que contiene información de la solicitud.
-     * @return Lista de cursos disponibles.
+     * @param request  Objeto HttpServletRequest que contiene información de la solicitud.
+     * @param response Respuesta donde se escribe la lista de cursos disponibles.
+     * @throws IOException Si la respuesta no puede escribirse.
      */
     @GetMapping(path = "/obtener-cursos", produces = "application/json")
-    public ResponseEntity<Object> obtenerCurso(HttpServletRequest request) {
+    public void obtenerCurso(HttpServletRequest request, HttpServletResponse response) throws IOException {
         logger.info("Iniciando obtencion de cursos");
-        String userId = (String) request.getAttribute(USER_ID);
-        ResponseApp response = cursoUseCase.obtenerCursos(userId, true);
-        return ResponseEntity.status(response.getStatus()).body(response.getMessage());
+        catalogo.responder((String) request.getAttribute(USER_ID), request, response);
     }
 
+    /**
+     * Obtiene los cursos pendientes de activación creados por el usuario autenticado.
+     *
+     * @param request  Objeto HttpServletRequest que contiene información de la solicitud.
+     * @param response Respuesta donde se escribe la lista de cursos pendientes.
+     * @throws IOException Si la respuesta no puede escribirse.
+     */
     @GetMapping(path = "/obtener-cursos-pendientes", produces = "application/json")
-    public ResponseEntity<Object> obtenerCursoFalse(HttpServletRequest request) {
+    public void obtenerCursoFalse(HttpServletRequest request, HttpServletResponse response) throws IOException {
         logger.info("Iniciando obtencion de cursos pendientes");
-        String userId = (String) request.getAttribute(USER_ID);
-        ResponseApp response = cursoUseCase.obtenerCursos(userId, false);
-        return ResponseEntity.status(response.getStatus()).body(response.getMessage());
+        escribirCursos((String) request.getAttribute(USER_ID), false, response);
     }
 
     /**
@@ -195,53 +215,150 @@ public class ApiRest {
         logger.info("Iniciando activacion de curso: {}", curso.getCursoId());
         String userId = (String) request.getAttribute(USER_ID);
         ResponseApp response = cursoUseCase.activarCurso(curso.getCursoId(), userId);
+        if (response.getStatus() == 200) {
+            catalogo.invalidar();
+        }
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
     /**
-     * Sube un recurso a un curso específico.
+     * Sube un recurso a un curso específico. La solicitud se lee como flujo: el formato se valida con el
+     * nombre del encabezado de la parte, antes de leer el contenido, que luego se envía a S3 a medida que
+     * llega, sin guardarlo en disco. Los campos {@code order} y {@code tipo} deben enviarse antes que
+     * {@code file}.
      *
      * @param cursoId ID del curso al que se desea agregar el recurso.
-     * @param file    Archivo que se desea subir.
-     * @param order   Orden del recurso dentro del curso.
-     * @param tipo    Tipo del recurso (por ejemplo, video, documento, etc.).
+     * @param request Solicitud multipart con los campos {@code order}, {@code tipo} y {@code file}.
      * @return Mensaje de confirmación de la subida del recurso.
-     * @throws IOException Si ocurre un error al manejar el archivo.
      */
     @PostMapping("/cursos/{cursoId}/recursos")
     public ResponseEntity<ResponseApp> subirRecurso(
+            @PathVariable("cursoId") String cursoId,
+            HttpServletRequest request) {
+
+        ResponseApp response = cargaMultipart.recibir(request, (campos, archivo) -> {
+            if (!formatoSoportado(archivo.getNombre())) {
+                return ResponseApp.builder().status(400).message("Formato de archivo no soportado").build();
+            }
+            String order = campos.get("order");
+            String tipo = campos.get("tipo");
+            if (order == null || tipo == null) {
+                return ResponseApp.builder().status(400)
+                        .message("Los campos order y tipo deben enviarse antes del archivo").build();
+            }
+            return cursoUseCase.agregarRecurso(cursoId, nuevoRecurso(order, tipo, archivo.getNombre()), archivo);
+        });
+        if (response.getStatus() == 200) {
+            catalogo.invalidar();
+        }
+
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Inicia la carga de un recurso en segundo plano. Responde {@code 202} con el identificador de la
+     * ingesta en cuanto el archivo se recibe, sin esperar la transferencia a S3.
+     *
+     * @param cursoId ID del curso al que se desea agregar el recurso.
+     * @param file    Archivo que se desea subir.
+     * @param order   Orden del recurso dentro del curso.
+     * @param tipo    Tipo del recurso (por ejemplo, video, documento, etc.).
+     * @param request Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return Identificador de la ingesta, con la ruta de consulta en el encabezado {@code Location}.
+     */
+    @PostMapping("/cursos/{cursoId}/recursos/ingestas")
+    public ResponseEntity<ResponseApp> ingestarRecurso(
             @PathVariable("cursoId") String cursoId,
             @RequestParam("file") MultipartFile file,
             @RequestParam("order") String order,
-            @RequestParam("tipo") String tipo) throws IOException {
-
-        // Crear un archivo temporal para almacenar el contenido del MultipartFile
-        File temp = File.createTempFile("capacitaNet_", file.getOriginalFilename());
-        file.transferTo(temp);
+            @RequestParam("tipo") String tipo,
+            HttpServletRequest request) {
 
         String originalName = file.getOriginalFilename();
-        if (originalName != null &&
-                !(originalName.endsWith(".pdf") ||
-                        originalName.endsWith(".pptx") ||
-                        originalName.endsWith(".docx") ||
-                        originalName.endsWith(".mp4"))) {
-
+        if (!formatoSoportado(originalName)) {
             return ResponseEntity.status(400).body(ResponseApp.builder()
                     .status(400).message("Formato de archivo no soportado").build());
         }
 
-        // Construir el objeto Recurso y agregarlo al curso
-        ResponseApp response = cursoUseCase.agregarRecurso(cursoId, Recurso.builder()
-                .id(UUID.randomUUID().toString())
-                .order(Integer.parseInt(order))
-                .visualizado(false)
-                .tipo(tipo)
-                .nombre(file.getOriginalFilename())
-                .build(), temp);
+        String userId = (String) request.getAttribute(USER_ID);
+        ResponseApp response = ingestaRecursos.iniciar(cursoId, nuevoRecurso(order, tipo, originalName), file, userId);
+        if (response.getStatus() == 202) {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/capacitanet/cursos/" + cursoId + "/recursos/ingestas/" + response.getMessage()))
+                    .body(response);
+        }
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Consulta el estado de una ingesta de recurso iniciada por el usuario autenticado.
+     *
+     * @param cursoId   ID del curso de la ingesta.
+     * @param ingestaId ID de la ingesta.
+     * @param request   Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return Estado y progreso de la ingesta.
+     */
+    @GetMapping(path = "/cursos/{cursoId}/recursos/ingestas/{ingestaId}", produces = "application/json")
+    public ResponseEntity<Object> estadoIngesta(@PathVariable("cursoId") String cursoId,
+                                                @PathVariable("ingestaId") String ingestaId,
+                                                HttpServletRequest request) {
+        String userId = (String) request.getAttribute(USER_ID);
+        Ingesta ingesta = ingestaRecursos.consultar(ingestaId, userId);
+        if (ingesta == null || !ingesta.getCursoId().equals(cursoId)) {
+            return ResponseEntity.status(404).body(ResponseApp.builder()
+                    .status(404).message("Ingesta no encontrada").build());
+        }
+        return ResponseEntity.ok(ingesta);
+    }
 
+    /**
+     * Obtiene la URL de descarga de un recurso. Los listados de cursos solo incluyen los metadatos
+     * de los recursos; la URL prefirmada se solicita cuando el cliente abre el recurso.
+     *
+     * @param cursoId   ID del curso al que pertenece el recurso.
+     * @param recursoId ID del recurso.
+     * @param request   Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return URL prefirmada del recurso.
+     */
+    @GetMapping(path = "/cursos/{cursoId}/recursos/{recursoId}/url", produces = "application/json")
+    public ResponseEntity<ResponseApp> obtenerUrlRecurso(@PathVariable("cursoId") String cursoId,
+                                                         @PathVariable("recursoId") String recursoId,
+                                                         HttpServletRequest request) {
+        String userId = (String) request.getAttribute(USER_ID);
+        ResponseApp response = cursoUseCase.obtenerUrlRecurso(cursoId, recursoId, userId);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    /**
+     * Obtiene las URLs de descarga de todos los recursos de un curso.
+     *
+     * @param cursoId ID del curso.
+     * @param request Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return Objeto JSON que asocia el ID de cada recurso con su URL prefirmada.
+     */
+    @GetMapping(path = "/cursos/{cursoId}/recursos/urls", produces = "application/json")
+    public ResponseEntity<Object> obtenerUrlsRecursos(@PathVariable("cursoId") String cursoId,
+                                                      HttpServletRequest request) {
+        String userId = (String) request.getAttribute(USER_ID);
+        ResponseApp response = cursoUseCase.obtenerUrlsRecursos(cursoId, userId);
+        return ResponseEntity.status(response.getStatus()).body(response.getMessage());
+    }
+
+    /**
+     * Obtiene las estadísticas de un curso: suscriptores, usuarios que lo completaron y módulos visualizados.
+     *
+     * @param cursoId ID del curso.
+     * @return Estadísticas del curso.
+     */
+    @GetMapping(path = "/cursos/{cursoId}/estadisticas", produces = "application/json")
+    public ResponseEntity<Object> obtenerEstadisticas(@PathVariable("cursoId") String cursoId) {
+        Resultado<EstadisticasCurso> resultado = cursoUseCase.obtenerEstadisticas(cursoId);
+        if (!resultado.isExitoso()) {
+            return ResponseEntity.status(resultado.getStatus()).body(resultado.getMessage());
+        }
+        return ResponseEntity.ok(resultado.getValor());
+    }
+
     /**
      * Marca un módulo como visualizado para un usuario autenticado.
      *
@@ -257,4 +374,42 @@ public class ApiRest {
         ResponseApp response = usuarioUseCase.verModulo(userId, verModulo);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Registra varios módulos visualizados por un usuario autenticado en una sola solicitud.
+     *
+     * @param eventos Lista de módulos visualizados.
+     * @param request Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return Respuesta indicando que los eventos fueron recibidos.
+     */
+    @PostMapping(path = "/ver-modulos", produces = "application/json")
+    public ResponseEntity<ResponseApp> visualizarModulos(@RequestBody List<VerModulo> eventos,
+                                                         HttpServletRequest request) {
+        String userId = (String) request.getAttribute(USER_ID);
+        ResponseApp response = usuarioUseCase.verModulos(userId, eventos);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    private void escribirCursos(String userId, boolean estado, HttpServletResponse response) throws IOException {
+        ListadoCursos listado = new ListadoCursos(response);
+        listado.terminar(cursoUseCase.obtenerCursos(userId, estado, listado));
+    }
+
+    private static boolean formatoSoportado(String originalName) {
+        return originalName == null ||
+                originalName.endsWith(".pdf") ||
+                originalName.endsWith(".pptx") ||
+                originalName.endsWith(".docx") ||
+                originalName.endsWith(".mp4");
+    }
+
+    private static Recurso nuevoRecurso(String order, String tipo, String nombre) {
+        return Recurso.builder()
+                .id(UUID.randomUUID().toString())
+                .order(Integer.parseInt(order))
+                .visualizado(false)
+                .tipo(tipo)
+                .nombre(nombre)
+                .build();
+    }
+}
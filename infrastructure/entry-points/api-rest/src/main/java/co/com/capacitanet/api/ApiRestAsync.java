@@ -0,0 +1,98 @@
+package co.com.capacitanet.api;
+
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.usecase.curso.CursoAsyncUseCase;
+import co.com.capacitanet.usecase.usuario.UsuarioAsyncUseCase;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador REST asíncrono para las consultas de usuarios y cursos. Cada operación devuelve un futuro:
+ * el hilo de la solicitud se libera en cuanto la consulta a DynamoDB queda en curso y la respuesta se
+ * escribe cuando el futuro se completa. Responde lo mismo que las rutas equivalentes de {@link ApiRest}.
+ */
+@RestController
+@RequestMapping(value = "/capacitanet/async", produces = MediaType.APPLICATION_JSON_VALUE)
+@AllArgsConstructor
+public class ApiRestAsync {
+
+    private static final Logger logger = LogManager.getLogger(ApiRestAsync.class);
+    private static final String USER_ID = "userId";
+
+    private final UsuarioAsyncUseCase usuarioAsyncUseCase;
+    private final CursoAsyncUseCase cursoAsyncUseCase;
+
+    /**
+     * Obtiene el perfil del usuario autenticado.
+     *
+     * @param request Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return Futuro con la información del perfil del usuario.
+     */
+    @GetMapping(path = "/perfil-usuario", produces = "application/json")
+    public CompletableFuture<ResponseEntity<Object>> perfilUsuario(HttpServletRequest request) {
+        String userId = (String) request.getAttribute(USER_ID);
+        logger.info("Iniciando obtencion de perfil para el usuario: {}", userId);
+        return usuarioAsyncUseCase.perfilUsuario(userId).thenApply(ApiRestAsync::respuesta);
+    }
+
+    /**
+     * Obtiene la URL de descarga de un recurso.
+     *
+     * @param cursoId   ID del curso al que pertenece el recurso.
+     * @param recursoId ID del recurso.
+     * @param request   Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return Futuro con la URL prefirmada del recurso.
+     */
+    @GetMapping(path = "/cursos/{cursoId}/recursos/{recursoId}/url", produces = "application/json")
+    public CompletableFuture<ResponseEntity<ResponseApp>> obtenerUrlRecurso(@PathVariable("cursoId") String cursoId,
+                                                                            @PathVariable("recursoId") String recursoId,
+                                                                            HttpServletRequest request) {
+        String userId = (String) request.getAttribute(USER_ID);
+        return cursoAsyncUseCase.obtenerUrlRecurso(cursoId, recursoId, userId)
+                .thenApply(response -> ResponseEntity.status(response.getStatus()).body(response));
+    }
+
+    /**
+     * Obtiene las URLs de descarga de todos los recursos de un curso.
+     *
+     * @param cursoId ID del curso.
+     * @param request Objeto HttpServletRequest que contiene información de la solicitud.
+     * @return Futuro con el objeto JSON que asocia el ID de cada recurso con su URL prefirmada.
+     */
+    @GetMapping(path = "/cursos/{cursoId}/recursos/urls", produces = "application/json")
+    public CompletableFuture<ResponseEntity<Object>> obtenerUrlsRecursos(@PathVariable("cursoId") String cursoId,
+                                                                         HttpServletRequest request) {
+        String userId = (String) request.getAttribute(USER_ID);
+        return cursoAsyncUseCase.obtenerUrlsRecursos(cursoId, userId)
+                .thenApply(response -> ResponseEntity.status(response.getStatus()).body(response.getMessage()));
+    }
+
+    /**
+     * Obtiene las estadísticas de un curso: suscriptores, usuarios que lo completaron y módulos visualizados.
+     *
+     * @param cursoId ID del curso.
+     * @return Futuro con las estadísticas del curso.
+     */
+    @GetMapping(path = "/cursos/{cursoId}/estadisticas", produces = "application/json")
+    public CompletableFuture<ResponseEntity<Object>> obtenerEstadisticas(@PathVariable("cursoId") String cursoId) {
+        return cursoAsyncUseCase.obtenerEstadisticas(cursoId).thenApply(ApiRestAsync::respuesta);
+    }
+
+    private static ResponseEntity<Object> respuesta(Resultado<?> resultado) {
+        if (!resultado.isExitoso()) {
+            return ResponseEntity.status(resultado.getStatus()).body(resultado.getMessage());
+        }
+        return ResponseEntity.ok(resultado.getValor());
+    }
+}
@@ -0,0 +1,146 @@
+package co.com.capacitanet.api.carga;
+
+import co.com.capacitanet.model.curso.Archivo;
+import co.com.capacitanet.model.response.ResponseApp;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadException;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lee una solicitud {@code multipart/form-data} como flujo, sin guardar sus partes en disco ni en memoria.
+ * Los campos de texto se leen hasta encontrar la parte {@code file}; en ese momento se entrega el archivo
+ * al destino con su nombre y tipo tomados del encabezado de la parte, y su contenido se lee directamente
+ * de la solicitud, una sola vez. Por eso los campos deben enviarse antes que el archivo.
+ * <p>
+ * Los límites de tamaño son los mismos que Spring aplica al resto de cargas
+ * ({@code spring.servlet.multipart.*}). Como el tamaño del archivo no se conoce hasta terminar de leerlo,
+ * el exceso se detecta durante la lectura y se responde con {@code 413}.
+ */
+@Component
+public class CargaMultipart {
+
+    private static final Logger logger = LogManager.getLogger(CargaMultipart.class);
+
+    static final String ARCHIVO = "file";
+
+    private final long tamanoArchivo;
+    private final long tamanoSolicitud;
+
+    /**
+     * Recibe los campos leídos y el archivo de la solicitud.
+     */
+    @FunctionalInterface
+    public interface Destino {
+        ResponseApp guardar(Map<String, String> campos, Archivo archivo);
+    }
+
+    /**
+     * Constructor de la clase CargaMultipart.
+     *
+     * @param tamanoArchivo   Tamaño máximo del archivo.
+     * @param tamanoSolicitud Tamaño máximo de la solicitud completa.
+     */
+    public CargaMultipart(@Value("${spring.servlet.multipart.max-file-size:20MB}") DataSize tamanoArchivo,
+                          @Value("${spring.servlet.multipart.max-request-size:20MB}") DataSize tamanoSolicitud) {
+        this.tamanoArchivo = tamanoArchivo.toBytes();
+        this.tamanoSolicitud = tamanoSolicitud.toBytes();
+    }
+
+    /**
+     * Lee la solicitud y entrega su archivo al destino.
+     *
+     * @param request Solicitud multipart.
+     * @param destino Destino del archivo; su contenido puede abrirse una sola vez.
+     * @return Respuesta del destino, {@code 413} si el archivo excede el tamaño permitido o {@code 400}
+     * si la solicitud no es multipart o no incluye el archivo.
+     */
+    public ResponseApp recibir(HttpServletRequest request, Destino destino) {
+        JakartaServletFileUpload<?, ?> upload = new JakartaServletFileUpload<>();
+        upload.setFileSizeMax(tamanoArchivo);
+        upload.setSizeMax(tamanoSolicitud);
+        try {
+            FileItemInputIterator partes = upload.getItemIterator(request);
+            Map<String, String> campos = new HashMap<>();
+            while (partes.hasNext()) {
+                FileItemInput parte = partes.next();
+                if (parte.isFormField()) {
+                    try (InputStream valor = parte.getInputStream()) {
+                        campos.put(parte.getFieldName(), new String(valor.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                } else if (ARCHIVO.equals(parte.getFieldName())) {
+                    AtomicBoolean excedido = new AtomicBoolean();
+                    ResponseApp response = destino.guardar(campos, Archivo.builder()
+                            .nombre(parte.getName())
+                            .tamano(-1)
+                            .tipoContenido(parte.getContentType())
+                            .contenido(() -> new Limitado(parte.getInputStream(), excedido))
+                            .build());
+                    return excedido.get() ? excedido() : response;
+                }
+            }
+            return ResponseApp.builder().status(400).message("La solicitud no incluye el archivo").build();
+        } catch (FileUploadSizeException e) {
+            return excedido();
+        } catch (FileUploadException e) {
+            logger.warn("Solicitud multipart inválida: {}", e.getMessage());
+            return ResponseApp.builder().status(400).message("La solicitud multipart no es válida").build();
+        } catch (IOException e) {
+            logger.error("Error al leer la solicitud multipart: {}", e.getMessage());
+            return ResponseApp.builder().status(500).message("Error al leer el archivo").build();
+        }
+    }
+
+    private static ResponseApp excedido() {
+        return ResponseApp.builder().status(413).message("El archivo excede el tamaño máximo permitido").build();
+    }
+
+    /**
+     * Contenido de la parte que registra si la lectura se detuvo por exceder el tamaño permitido, ya que
+     * el destino solo ve un error de lectura.
+     */
+    private static final class Limitado extends FilterInputStream {
+
+        private final AtomicBoolean excedido;
+
+        private Limitado(InputStream contenido, AtomicBoolean excedido) {
+            super(contenido);
+            this.excedido = excedido;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (FileUploadSizeException e) {
+                excedido.set(true);
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] bufer, int inicio, int longitud) throws IOException {
+            try {
+                return super.read(bufer, inicio, longitud);
+            } catch (FileUploadSizeException e) {
+                excedido.set(true);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package co.com.capacitanet.api.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Atiende las solicitudes en hilos virtuales cuando {@code spring.threads.virtual.enabled} está habilitado.
+ * Spring Boot solo lo hace por su cuenta con Tomcat y Jetty; en Undertow cada solicitud del servlet se
+ * despacha a un hilo virtual propio en lugar del pool fijo de workers, de modo que las llamadas bloqueantes
+ * a DynamoDB y S3 dejan libre el hilo del sistema mientras esperan y la concurrencia ya no queda limitada por
+ * {@code server.undertow.threads.worker}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HilosVirtualesConfig {
+
+    private static final Logger logger = LogManager.getLogger(HilosVirtualesConfig.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowHilosVirtuales() {
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+            ExecutorService solicitudes = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("undertow-virtual-", 0).factory());
+            deploymentInfo.setExecutor(solicitudes);
+            deploymentInfo.setAsyncExecutor(solicitudes);
+            logger.info("Solicitudes de Undertow atendidas en hilos virtuales");
+        });
+    }
+}
@@ -3,7 +3,6 @@ package co.com.capacitanet.api.config;
 import co.com.capacitanet.helpers.AuthService;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +23,17 @@ public class JwtFilter extends OncePerRequestFilter {
     private static final String PATH_APP = "/capacitanet";
     private static final String ENCODING = "UTF-8";
 
+    private final AuthService authService;
+
+    /**
+     * Constructor de la clase JwtFilter.
+     *
+     * @param authService Servicio de autenticación que verifica los tokens.
+     */
+    public JwtFilter(AuthService authService) {
+        this.authService = authService;
+    }
+
     /**
      * Metodo que realiza el filtrado de las solicitudes HTTP.
      * Verifica si la solicitud es para un endpoint público o si contiene un token JWT válido.
@@ -58,8 +68,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String token = header.substring(7);
         try {
-            DecodedJWT decodedJWT = new AuthService().validarToken(token);
-            request.setAttribute("userId", decodedJWT.getSubject());
+            request.setAttribute("userId", authService.autenticar(token));
             filterChain.doFilter(request, response);
 
         } catch (TokenExpiredException e) {
@@ -6,15 +6,26 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.IOException;
+import java.util.Map;
 
 @Configuration
 @WebFilter("/**")
 public class SecurityHeadersFilter implements Filter {
 
+    /**
+     * Política de caché de las rutas que pueden reutilizarse. El catálogo se guarda solo en el cliente
+     * y se revalida en cada uso con su ETag; las demás rutas, que incluyen perfiles, credenciales y
+     * URLs prefirmadas, no se guardan en ninguna caché.
+     */
+    private static final Map<String, String> POLITICAS_CACHE = Map.of(
+            "/capacitanet/obtener-cursos", "private, no-cache"
+    );
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -23,8 +34,13 @@ public class SecurityHeadersFilter implements Filter {
         header.setHeader("Strict-Transport-Security", "max-age=31536000;");
         header.setHeader("X-Content-Type-Options", "nosniff");
         header.setHeader("Server", "");
-        header.setHeader("Cache-Control", "no-store");
-        header.setHeader("Pragma", "no-cache");
+        String politica = POLITICAS_CACHE.get(((HttpServletRequest) request).getRequestURI());
+        if (politica != null) {
+            header.setHeader("Cache-Control", politica);
+        } else {
+            header.setHeader("Cache-Control", "no-store");
+            header.setHeader("Pragma", "no-cache");
+        }
         header.setHeader("Referrer-Policy", "strict-origin-when-cross-origin");
         chain.doFilter(request, response);
     }
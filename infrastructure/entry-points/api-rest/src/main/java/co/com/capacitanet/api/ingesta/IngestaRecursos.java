@@ -0,0 +1,155 @@
+package co.com.capacitanet.api.ingesta;
+
+import co.com.capacitanet.api.listado.CatalogoSnapshot;
+import co.com.capacitanet.model.curso.Archivo;
+import co.com.capacitanet.model.curso.Ingesta;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.usecase.curso.CursoUseCase;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ingesta asíncrona de recursos. Recibe el archivo completo en el hilo de la solicitud, inicia la carga
+ * en segundo plano y responde de inmediato con el identificador de la ingesta, que luego se consulta
+ * para conocer su progreso.
+ * <p>
+ * El número de ingestas en curso está acotado: cada una retiene su archivo en memoria hasta terminar,
+ * así que cuando no hay cupo la solicitud se rechaza con {@code 503} en lugar de acumular archivos.
+ */
+@Component
+public class IngestaRecursos {
+
+    private static final Logger logger = LogManager.getLogger(IngestaRecursos.class);
+
+    private final CursoUseCase cursoUseCase;
+    private final CatalogoSnapshot catalogo;
+    private final Semaphore cupos;
+    private final Cache<String, Registro> ingestas;
+
+    private record Registro(Ingesta ingesta, String userId) {
+    }
+
+    /**
+     * Constructor de la clase IngestaRecursos.
+     *
+     * @param cursoUseCase Casos de uso de cursos.
+     * @param catalogo     Instantánea del catálogo, que se invalida al completar cada ingesta.
+     * @param capacidad    Número máximo de ingestas en curso.
+     * @param retencion    Tiempo durante el cual se puede consultar una ingesta después de iniciarla.
+     */
+    public IngestaRecursos(CursoUseCase cursoUseCase,
+                           CatalogoSnapshot catalogo,
+                           @Value("${ingesta.recursos.capacidad:8}") int capacidad,
+                           @Value("${ingesta.recursos.retencion:PT15M}") Duration retencion) {
+        this.cursoUseCase = cursoUseCase;
+        this.catalogo = catalogo;
+        this.cupos = new Semaphore(capacidad);
+        this.ingestas = Caffeine.newBuilder()
+                .expireAfterWrite(retencion)
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /**
+     * Inicia la ingesta de un recurso.
+     *
+     * @param cursoId ID del curso al que se agrega el recurso.
+     * @param recurso Recurso a agregar.
+     * @param file    Archivo recibido en la solicitud.
+     * @param userId  ID del usuario que realiza la carga.
+     * @return Respuesta {@code 202} con el identificador de la ingesta, o el error si no pudo iniciarse.
+     */
+    public ResponseApp iniciar(String cursoId, Recurso recurso, MultipartFile file, String userId) {
+        if (!cupos.tryAcquire()) {
+            logger.warn("Ingesta rechazada por falta de cupo para el curso {}", cursoId);
+            return ResponseApp.builder().status(503).message("Hay demasiadas cargas en curso, intenta más tarde").build();
+        }
+
+        byte[] contenido;
+        try {
+            contenido = file.getBytes();
+        } catch (IOException e) {
+            cupos.release();
+            logger.error("Error al recibir el archivo del curso {}: {}", cursoId, e.getMessage());
+            return ResponseApp.builder().status(500).message("Error al recibir el archivo").build();
+        }
+
+        Ingesta ingesta = Ingesta.builder()
+                .id(UUID.randomUUID().toString())
+                .cursoId(cursoId)
+                .recursoId(recurso.getId())
+                .bytesTotales(contenido.length)
+                .estado(Ingesta.Estado.EN_CURSO)
+                .build();
+        Archivo archivo = Archivo.builder()
+                .nombre(recurso.getNombre())
+                .tamano(contenido.length)
+                .tipoContenido(file.getContentType())
+                .contenido(() -> new ByteArrayInputStream(contenido))
+                .build();
+        ingestas.put(ingesta.getId(), new Registro(ingesta, userId));
+
+        CompletableFuture<ResponseApp> futuro;
+        try {
+            futuro = cursoUseCase.agregarRecursoAsync(cursoId, recurso, archivo, ingesta);
+        } catch (RuntimeException e) {
+            futuro = CompletableFuture.failedFuture(e);
+        }
+        futuro = futuro.whenComplete((response, error) -> finalizar(ingesta, response, error));
+
+        if (futuro.isDone()) {
+            ResponseApp inmediata = futuro.exceptionally(error -> null).join();
+            if (inmediata == null || inmediata.getStatus() != 200) {
+                ingestas.invalidate(ingesta.getId());
+                return inmediata != null ? inmediata
+                        : ResponseApp.builder().status(500).message("Error al agregar el recurso").build();
+            }
+        }
+        logger.info("Ingesta {} iniciada para el curso {}", ingesta.getId(), cursoId);
+        return ResponseApp.builder().status(202).message(ingesta.getId()).build();
+    }
+
+    /**
+     * Consulta una ingesta iniciada por el usuario.
+     *
+     * @param ingestaId ID de la ingesta.
+     * @param userId    ID del usuario que la consulta.
+     * @return Estado de la ingesta, o {@code null} si no existe, expiró o pertenece a otro usuario.
+     */
+    public Ingesta consultar(String ingestaId, String userId) {
+        Registro registro = ingestas.getIfPresent(ingestaId);
+        if (registro == null || !registro.userId().equalsIgnoreCase(userId)) {
+            return null;
+        }
+        return registro.ingesta();
+    }
+
+    private void finalizar(Ingesta ingesta, ResponseApp response, Throwable error) {
+        cupos.release();
+        if (error == null && response.getStatus() == 200) {
+            ingesta.setBytesTransferidos(ingesta.getBytesTotales());
+            ingesta.setMensaje(response.getMessage());
+            ingesta.setEstado(Ingesta.Estado.COMPLETADA);
+            catalogo.invalidar();
+            logger.info("Ingesta {} completada", ingesta.getId());
+        } else {
+            ingesta.setMensaje(error == null ? response.getMessage() : "Error al agregar el recurso");
+            ingesta.setEstado(Ingesta.Estado.FALLIDA);
+            logger.error("Ingesta {} fallida: {}", ingesta.getId(),
+                    error == null ? response.getMessage() : error.getMessage());
+        }
+    }
+}
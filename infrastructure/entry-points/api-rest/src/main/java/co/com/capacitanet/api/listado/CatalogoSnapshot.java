@@ -0,0 +1,250 @@
+package co.com.capacitanet.api.listado;
+
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.usecase.curso.CursoUseCase;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Instantánea del catálogo de cursos activos. El catálogo es el mismo para todos los usuarios, así que se
+ * serializa una sola vez, se guarda también comprimido con gzip y cada representación se identifica con su
+ * propio ETag fuerte calculado sobre el contenido. Las consultas siguientes se responden con esos bytes, o
+ * con {@code 304} si el cliente ya tiene la versión vigente, sin consultar el repositorio.
+ * <p>
+ * La instantánea se reconstruye cuando vence su vigencia o cuando se invalida porque esta instancia
+ * modificó el catálogo. Una sola solicitud la reconstruye; las demás esperan y usan el resultado.
+ */
+@Component
+public class CatalogoSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(CatalogoSnapshot.class);
+
+    private final CursoUseCase cursoUseCase;
+    private final long vigenciaNanos;
+    private final AtomicLong generacion = new AtomicLong();
+    private final ReentrantLock construccion = new ReentrantLock();
+    private volatile Version actual;
+
+    /**
+     * Versión serializada del catálogo.
+     *
+     * @param generacion Generación de invalidación con que se construyó.
+     * @param creada     Instante de construcción, en {@link System#nanoTime()}.
+     * @param etag       ETag fuerte del contenido sin comprimir.
+     * @param json       Catálogo serializado como arreglo JSON.
+     * @param gzip       El mismo arreglo comprimido con gzip.
+     */
+    public record Version(long generacion, long creada, String etag, byte[] json, byte[] gzip) {
+
+        /**
+         * ETag de la representación comprimida: el del contenido con el sufijo {@code -gz}, ya que sus
+         * bytes son distintos y un ETag fuerte identifica bytes exactos.
+         *
+         * @return ETag fuerte del contenido comprimido con gzip.
+         */
+        public String etagGzip() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    /**
+     * Constructor de la clase CatalogoSnapshot.
+     *
+     * @param cursoUseCase Casos de uso de cursos.
+     * @param vigencia     Tiempo durante el cual una instantánea se sirve sin reconstruirse.
+     */
+    public CatalogoSnapshot(CursoUseCase cursoUseCase,
+                            @Value("${catalogo.vigencia:PT30S}") Duration vigencia) {
+        this.cursoUseCase = cursoUseCase;
+        this.vigenciaNanos = vigencia.toNanos();
+    }
+
+    /**
+     * Responde una consulta del catálogo con la representación comprimida cuando el cliente acepta gzip, o
+     * sin comprimir en caso contrario. Si el encabezado {@code If-None-Match} contiene el ETag vigente de esa
+     * representación responde {@code 304} sin cuerpo.
+     *
+     * @param userId   ID del usuario que consulta el catálogo.
+     * @param request  Solicitud HTTP.
+     * @param response Respuesta HTTP donde se escribe el catálogo.
+     * @throws IOException Si la respuesta no puede escribirse.
+     */
+    public void responder(String userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Resultado<Version> resultado = obtener(userId);
+        if (!resultado.isExitoso()) {
+            response.setStatus(resultado.getStatus());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ListadoCursos.WRITER.writeValue(response.getOutputStream(), ResponseApp.builder()
+                    .status(resultado.getStatus())
+                    .message(resultado.getMessage())
+                    .build());
+            return;
+        }
+
+        Version version = resultado.getValor();
+        boolean gzip = aceptaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? version.etagGzip() : version.etag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (coincide(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] cuerpo = version.json();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            cuerpo = version.gzip();
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+
+    /**
+     * Obtiene la instantánea vigente, construyéndola si venció o fue invalidada.
+     *
+     * @param userId ID del usuario que consulta el catálogo.
+     * @return La instantánea, o el error del repositorio si no pudo construirse.
+     */
+    public Resultado<Version> obtener(String userId) {
+        Version version = actual;
+        if (vigente(version)) {
+            return Resultado.ok(version);
+        }
+        construccion.lock();
+        try {
+            version = actual;
+            if (vigente(version)) {
+                return Resultado.ok(version);
+            }
+            Resultado<Version> resultado = construir(userId);
+            if (resultado.isExitoso()) {
+                actual = resultado.getValor();
+            }
+            return resultado;
+        } finally {
+            construccion.unlock();
+        }
+    }
+
+    /**
+     * Descarta la instantánea vigente. La siguiente consulta la reconstruye desde el repositorio.
+     */
+    public void invalidar() {
+        generacion.incrementAndGet();
+    }
+
+    private boolean vigente(Version version) {
+        return version != null
+                && version.generacion() == generacion.get()
+                && System.nanoTime() - version.creada() < vigenciaNanos;
+    }
+
+    private Resultado<Version> construir(String userId) {
+        long generacionInicial = generacion.get();
+        ByteArrayOutputStream json = new ByteArrayOutputStream(8192);
+        Resultado<Void> resultado;
+        try (JsonGenerator generador = ListadoCursos.WRITER.createGenerator(json, JsonEncoding.UTF8)) {
+            generador.writeStartArray();
+            resultado = cursoUseCase.obtenerCursos(userId, true, curso -> {
+                try {
+                    ListadoCursos.WRITER.writeValue(generador, curso);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generador.writeEndArray();
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error al serializar el catálogo de cursos: {}", e.getMessage());
+            return Resultado.error(500, "Error al obtener los cursos");
+        }
+        if (!resultado.isExitoso()) {
+            return Resultado.error(resultado.getStatus(), resultado.getMessage());
+        }
+
+        byte[] contenido = json.toByteArray();
+        try {
+            Version version = new Version(generacionInicial, System.nanoTime(), etag(contenido), contenido, comprimir(contenido));
+            logger.info("Catálogo de cursos reconstruido: {} bytes, {} comprimido, ETag {}",
+                    contenido.length, version.gzip().length, version.etag());
+            return Resultado.ok(version);
+        } catch (IOException e) {
+            logger.error("Error al comprimir el catálogo de cursos: {}", e.getMessage());
+            return Resultado.error(500, "Error al obtener los cursos");
+        }
+    }
+
+    static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < partes.length; i++) {
+                    String parametro = partes[i].trim().replace(" ", "");
+                    if (parametro.matches("q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etag(byte[] contenido) {
+        try {
+            byte[] resumen = MessageDigest.getInstance("SHA-256").digest(contenido);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(resumen) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] contenido) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, contenido.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(contenido);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,106 @@
+package co.com.capacitanet.api.listado;
+
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Escribe un listado de cursos como arreglo JSON directamente en la respuesta HTTP, un curso a la vez
+ * a medida que el repositorio los entrega. La memoria usada no depende del tamaño del listado: solo
+ * se conserva el búfer del generador, que se vacía en la respuesta cuando se llena.
+ * <p>
+ * El estado {@code 200} se fija con el primer curso. Si la consulta falla antes, se responde el error con su
+ * estado como {@link ResponseApp} en JSON; si falla después, la respuesta ya no puede corregirse y se
+ * interrumpe con una excepción para que el cliente no reciba un arreglo incompleto como si fuera válido.
+ */
+public class ListadoCursos implements Consumer<Curso> {
+
+    static final ObjectWriter WRITER = new ObjectMapper()
+            .addMixIn(Recurso.class, RecursoListado.class)
+            .writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final HttpServletResponse response;
+    private JsonGenerator generador;
+
+    /**
+     * Constructor de la clase ListadoCursos.
+     *
+     * @param response Respuesta HTTP donde se escribe el listado.
+     */
+    public ListadoCursos(HttpServletResponse response) {
+        this.response = response;
+    }
+
+    /**
+     * Escribe un curso en el arreglo, iniciándolo si es el primero.
+     *
+     * @param curso Curso a escribir.
+     * @throws UncheckedIOException Si la respuesta no puede escribirse.
+     */
+    @Override
+    public void accept(Curso curso) {
+        try {
+            iniciar();
+            WRITER.writeValue(generador, curso);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Cierra el listado según el resultado de la consulta.
+     *
+     * @param resultado Resultado devuelto por el repositorio.
+     * @throws IOException Si la respuesta no puede escribirse, o si la consulta falló después de
+     *                     haber escrito parte del listado.
+     */
+    public void terminar(Resultado<?> resultado) throws IOException {
+        if (!resultado.isExitoso()) {
+            if (generador != null) {
+                throw new IOException("El listado de cursos falló después de iniciar la respuesta: " + resultado.getMessage());
+            }
+            response.setStatus(resultado.getStatus());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            WRITER.writeValue(response.getOutputStream(), ResponseApp.builder()
+                    .status(resultado.getStatus())
+                    .message(resultado.getMessage())
+                    .build());
+            return;
+        }
+        iniciar();
+        generador.writeEndArray();
+        generador.close();
+    }
+
+    private void iniciar() throws IOException {
+        if (generador != null) {
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        generador = WRITER.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        generador.writeStartArray();
+    }
+
+    /**
+     * Vista de un recurso en los listados de cursos: solo sus metadatos. La URL de descarga
+     * se solicita aparte, cuando el cliente abre el recurso.
+     */
+    @JsonIgnoreProperties({"s3Key", "visualizado"})
+    private abstract static class RecursoListado {
+    }
+}
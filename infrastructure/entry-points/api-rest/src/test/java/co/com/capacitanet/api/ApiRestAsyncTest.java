@@ -0,0 +1,101 @@
+package co.com.capacitanet.api;
+
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.model.usuario.Usuario;
+import co.com.capacitanet.usecase.curso.CursoAsyncUseCase;
+import co.com.capacitanet.usecase.usuario.UsuarioAsyncUseCase;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiRestAsyncTest {
+
+    @Mock
+    private UsuarioAsyncUseCase usuarioAsyncUseCase;
+
+    @Mock
+    private CursoAsyncUseCase cursoAsyncUseCase;
+
+    @InjectMocks
+    private ApiRestAsync apiRestAsync;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Test
+    void perfilUsuarioRespondsWhenTheProfileReadCompletes() {
+        Usuario usuario = new Usuario();
+        CompletableFuture<Resultado<Usuario>> perfil = new CompletableFuture<>();
+        when(request.getAttribute("userId")).thenReturn("user1");
+        when(usuarioAsyncUseCase.perfilUsuario("user1")).thenReturn(perfil);
+
+        CompletableFuture<ResponseEntity<Object>> response = apiRestAsync.perfilUsuario(request);
+
+        assertFalse(response.isDone());
+        perfil.complete(Resultado.ok(usuario));
+        assertEquals(200, response.join().getStatusCode().value());
+        assertSame(usuario, response.join().getBody());
+    }
+
+    @Test
+    void perfilUsuarioReturnsErrorStatusAndMessage() {
+        when(request.getAttribute("userId")).thenReturn("user1");
+        when(usuarioAsyncUseCase.perfilUsuario("user1"))
+                .thenReturn(CompletableFuture.completedFuture(Resultado.error(404, "Usuario no exite")));
+
+        ResponseEntity<Object> response = apiRestAsync.perfilUsuario(request).join();
+
+        assertEquals(404, response.getStatusCode().value());
+        assertEquals("Usuario no exite", response.getBody());
+    }
+
+    @Test
+    void obtenerUrlRecursoReturnsResponseStatus() {
+        when(request.getAttribute("userId")).thenReturn("user1");
+        when(cursoAsyncUseCase.obtenerUrlRecurso("c1", "r1", "user1")).thenReturn(CompletableFuture.completedFuture(
+                ResponseApp.builder().status(401).message("Cambios no autorizados").build()));
+
+        ResponseEntity<ResponseApp> response = apiRestAsync.obtenerUrlRecurso("c1", "r1", request).join();
+
+        assertEquals(401, response.getStatusCode().value());
+        assertEquals("Cambios no autorizados", response.getBody().getMessage());
+    }
+
+    @Test
+    void obtenerUrlsRecursosReturnsTheUrlsJson() {
+        when(request.getAttribute("userId")).thenReturn("user1");
+        when(cursoAsyncUseCase.obtenerUrlsRecursos("c1", "user1")).thenReturn(CompletableFuture.completedFuture(
+                ResponseApp.builder().status(200).message("{\"r1\":\"https://s3/r1\"}").build()));
+
+        ResponseEntity<Object> response = apiRestAsync.obtenerUrlsRecursos("c1", request).join();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("{\"r1\":\"https://s3/r1\"}", response.getBody());
+    }
+
+    @Test
+    void obtenerEstadisticasReturnsTheStatistics() {
+        EstadisticasCurso estadisticas = EstadisticasCurso.builder().cursoId("c1").suscriptores(3).build();
+        when(cursoAsyncUseCase.obtenerEstadisticas("c1"))
+                .thenReturn(CompletableFuture.completedFuture(Resultado.ok(estadisticas)));
+
+        ResponseEntity<Object> response = apiRestAsync.obtenerEstadisticas("c1").join();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(estadisticas, response.getBody());
+    }
+}
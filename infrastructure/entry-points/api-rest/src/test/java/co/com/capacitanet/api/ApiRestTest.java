@@ -1,19 +1,47 @@
 package co.com.capacitanet.api;
 
+import co.com.capacitanet.api.carga.CargaMultipart;
+import co.com.capacitanet.api.ingesta.IngestaRecursos;
+import co.com.capacitanet.api.listado.CatalogoSnapshot;
+import co.com.capacitanet.model.curso.Archivo;
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.EstadisticasCurso;
+import co.com.capacitanet.model.curso.Recurso;
 import co.com.capacitanet.model.curso.VerModulo;
 import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.model.response.Resultado;
 import co.com.capacitanet.model.usuario.Usuario;
 import co.com.capacitanet.usecase.curso.CursoUseCase;
 import co.com.capacitanet.usecase.usuario.UsuarioUseCase;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +53,15 @@ class ApiRestTest {
     @Mock
     private CursoUseCase cursoUseCase;
 
+    @Mock
+    private IngestaRecursos ingestaRecursos;
+
+    @Mock
+    private CatalogoSnapshot catalogo;
+
+    @Spy
+    private CargaMultipart cargaMultipart = new CargaMultipart(DataSize.ofMegabytes(20), DataSize.ofMegabytes(20));
+
     @InjectMocks
     private ApiRest apiRest;
 
@@ -62,4 +99,191 @@ class ApiRestTest {
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Módulo visualizado", response.getBody().getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void visualizarModulosForwardsTheWholeBatch() {
+        List<VerModulo> eventos = List.of(
+                VerModulo.builder().cursoId("c1").recursoId("r1").build(),
+                VerModulo.builder().cursoId("c1").recursoId("r2").build());
+        when(request.getAttribute("userId")).thenReturn("user123");
+        when(usuarioUseCase.verModulos("user123", eventos))
+                .thenReturn(ResponseApp.builder().status(202).message("Visualizaciones registradas").build());
+
+        ResponseEntity<ResponseApp> response = apiRest.visualizarModulos(eventos, request);
+
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("Visualizaciones registradas", response.getBody().getMessage());
+    }
+
+    @Test
+    void obtenerCursoRespondsFromCatalogSnapshot() throws Exception {
+        when(request.getAttribute("userId")).thenReturn("user123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        apiRest.obtenerCurso(request, response);
+
+        verify(catalogo).responder("user123", request, response);
+        verifyNoInteractions(cursoUseCase);
+    }
+
+    @Test
+    void obtenerCursoFalseWritesCoursesAsTheyAreReadWithoutStorageKeys() throws Exception {
+        when(request.getAttribute("userId")).thenReturn("user123");
+        when(cursoUseCase.obtenerCursos(eq("user123"), eq(false), any())).thenAnswer(invocation -> {
+            Consumer<Curso> consumidor = invocation.getArgument(2);
+            consumidor.accept(Curso.builder().cursoId("c1")
+                    .recursos(List.of(Recurso.builder().id("r1").s3Key("recursos/sha256/abc.pdf").build())).build());
+            consumidor.accept(Curso.builder().cursoId("c2").build());
+            return Resultado.ok(null);
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        apiRest.obtenerCursoFalse(request, response);
+
+        assertEquals(200, response.getStatus());
+        String body = response.getContentAsString();
+        assertEquals('[', body.charAt(0));
+        assertEquals(2, body.split("\"cursoId\"").length - 1);
+        assertFalse(body.contains("s3Key"));
+    }
+
+    @Test
+    void obtenerCursoFalseWritesEmptyArrayWhenThereAreNoPendingCourses() throws Exception {
+        when(request.getAttribute("userId")).thenReturn("user123");
+        when(cursoUseCase.obtenerCursos(eq("user123"), eq(false), any())).thenReturn(Resultado.ok(null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        apiRest.obtenerCursoFalse(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void obtenerCursoFalseReturnsErrorStatusWhenListingFailsBeforeFirstCourse() throws Exception {
+        when(request.getAttribute("userId")).thenReturn("user123");
+        when(cursoUseCase.obtenerCursos(eq("user123"), eq(false), any()))
+                .thenReturn(Resultado.error(500, "Error al obtener los cursos"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        apiRest.obtenerCursoFalse(request, response);
+
+        assertEquals(500, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{\"status\":500,\"message\":\"Error al obtener los cursos\"}", response.getContentAsString());
+    }
+
+    @Test
+    void obtenerCursoFalseAbortsResponseWhenListingFailsAfterFirstCourse() {
+        when(request.getAttribute("userId")).thenReturn("user123");
+        when(cursoUseCase.obtenerCursos(eq("user123"), eq(false), any())).thenAnswer(invocation -> {
+            Consumer<Curso> consumidor = invocation.getArgument(2);
+            consumidor.accept(Curso.builder().cursoId("c1").build());
+            return Resultado.error(500, "Error al obtener los cursos");
+        });
+
+        assertThrows(IOException.class, () -> apiRest.obtenerCursoFalse(request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void perfilUsuarioReturnsProfileObjectForAuthenticatedUser() {
+        when(request.getAttribute("userId")).thenReturn("user123");
+        Usuario usuario = Usuario.builder().username("user123").password("********").build();
+        when(usuarioUseCase.perfilUsuario("user123")).thenReturn(Resultado.ok(usuario));
+
+        ResponseEntity<Object> response = apiRest.perfilUsuario(request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(usuario, response.getBody());
+    }
+
+    @Test
+    void obtenerEstadisticasReturnsCourseCounters() {
+        EstadisticasCurso estadisticas = EstadisticasCurso.builder().cursoId("curso1").suscriptores(3).build();
+        when(cursoUseCase.obtenerEstadisticas("curso1")).thenReturn(Resultado.ok(estadisticas));
+
+        ResponseEntity<Object> response = apiRest.obtenerEstadisticas("curso1");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(estadisticas, response.getBody());
+    }
+
+    @Test
+    void obtenerUrlRecursoReturnsSignedUrlForAuthenticatedUser() {
+        when(request.getAttribute("userId")).thenReturn("user123");
+
+        ResponseApp mockResponse = ResponseApp.builder().status(200).message("https://s3/url").build();
+        when(cursoUseCase.obtenerUrlRecurso("curso1", "rec1", "user123")).thenReturn(mockResponse);
+
+        ResponseEntity<ResponseApp> response = apiRest.obtenerUrlRecurso("curso1", "rec1", request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("https://s3/url", response.getBody().getMessage());
+    }
+
+    private static MockHttpServletRequest multipart(String nombre, String... campos) {
+        StringBuilder cuerpo = new StringBuilder();
+        for (int i = 0; i < campos.length; i += 2) {
+            cuerpo.append("--limite\r\nContent-Disposition: form-data; name=\"").append(campos[i]).append("\"\r\n\r\n")
+                    .append(campos[i + 1]).append("\r\n");
+        }
+        cuerpo.append("--limite\r\nContent-Disposition: form-data; name=\"file\"; filename=\"").append(nombre)
+                .append("\"\r\nContent-Type: application/pdf\r\n\r\ncontenido\r\n--limite--\r\n");
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/capacitanet/cursos/curso1/recursos");
+        request.setContentType("multipart/form-data; boundary=limite");
+        request.setContent(cuerpo.toString().getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    void subirRecursoRejectsUnsupportedFormatBeforeReadingContent() {
+        ResponseEntity<ResponseApp> response = apiRest.subirRecurso("curso1",
+                multipart("instalador.exe", "order", "1", "tipo", "video"));
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(cursoUseCase);
+    }
+
+    @Test
+    void subirRecursoRequiresFieldsBeforeFile() {
+        ResponseEntity<ResponseApp> response = apiRest.subirRecurso("curso1", multipart("guia.pdf"));
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(cursoUseCase);
+    }
+
+    @Test
+    void subirRecursoStreamsContentOfMultipartPart() {
+        List<String> leido = new ArrayList<>();
+        ArgumentCaptor<Archivo> archivo = ArgumentCaptor.forClass(Archivo.class);
+        when(cursoUseCase.agregarRecurso(eq("curso1"), any(Recurso.class), archivo.capture())).thenAnswer(invocation -> {
+            try (InputStream contenido = archivo.getValue().getContenido().abrir()) {
+                leido.add(new String(contenido.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            return ResponseApp.builder().status(200).message("Recurso agregado satisfactoriamente").build();
+        });
+
+        ResponseEntity<ResponseApp> response = apiRest.subirRecurso("curso1",
+                multipart("guia.pdf", "order", "1", "tipo", "documento"));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of("contenido"), leido);
+        assertEquals("guia.pdf", archivo.getValue().getNombre());
+        assertEquals(-1, archivo.getValue().getTamano());
+        assertEquals("application/pdf", archivo.getValue().getTipoContenido());
+        verify(catalogo).invalidar();
+    }
+
+    @Test
+    void ingestarRecursoReturnsAcceptedWithStatusLocation() {
+        MockMultipartFile file = new MockMultipartFile("file", "video.mp4", "video/mp4", new byte[8]);
+        when(request.getAttribute("userId")).thenReturn("user123");
+        when(ingestaRecursos.iniciar(eq("curso1"), any(Recurso.class), eq(file), eq("user123")))
+                .thenReturn(ResponseApp.builder().status(202).message("ing-1").build());
+
+        ResponseEntity<ResponseApp> response = apiRest.ingestarRecurso("curso1", file, "1", "video", request);
+
+        assertEquals(202, response.getStatusCodeValue());
+        assertEquals("/capacitanet/cursos/curso1/recursos/ingestas/ing-1", response.getHeaders().getLocation().toString());
+    }
+}
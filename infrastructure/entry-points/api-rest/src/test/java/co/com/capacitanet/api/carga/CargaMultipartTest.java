@@ -0,0 +1,93 @@
+package co.com.capacitanet.api.carga;
+
+import co.com.capacitanet.model.response.ResponseApp;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CargaMultipartTest {
+
+    private final CargaMultipart carga = new CargaMultipart(DataSize.ofBytes(16), DataSize.ofKilobytes(1));
+
+    private static MockHttpServletRequest multipart(String contenido) {
+        String cuerpo = "--limite\r\nContent-Disposition: form-data; name=\"order\"\r\n\r\n1\r\n"
+                + "--limite\r\nContent-Disposition: form-data; name=\"file\"; filename=\"guia.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n" + contenido + "\r\n--limite--\r\n";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/capacitanet/cursos/c1/recursos");
+        request.setContentType("multipart/form-data; boundary=limite");
+        request.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static ResponseApp ok() {
+        return ResponseApp.builder().status(200).message("ok").build();
+    }
+
+    @Test
+    void recibirPassesFieldsReadBeforeTheFile() {
+        Map<String, String> recibidos = new HashMap<>();
+
+        ResponseApp response = carga.recibir(multipart("contenido"), (campos, archivo) -> {
+            recibidos.putAll(campos);
+            recibidos.put("nombre", archivo.getNombre());
+            try (InputStream contenido = archivo.getContenido().abrir()) {
+                recibidos.put("contenido", new String(contenido.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            return ok();
+        });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(Map.of("order", "1", "nombre", "guia.pdf", "contenido", "contenido"), recibidos);
+    }
+
+    @Test
+    void recibirReturnsPayloadTooLargeWhenTheFileExceedsTheLimit() {
+        ResponseApp response = carga.recibir(multipart("contenido demasiado largo"), (campos, archivo) -> {
+            assertThrows(IOException.class, () -> {
+                try (InputStream contenido = archivo.getContenido().abrir()) {
+                    contenido.readAllBytes();
+                }
+            });
+            return ResponseApp.builder().status(500).message("Error al agregar el recurso").build();
+        });
+
+        assertEquals(413, response.getStatus());
+    }
+
+    @Test
+    void recibirReturnsPayloadTooLargeWhenTheRequestExceedsTheLimit() {
+        MockHttpServletRequest request = multipart("x".repeat(2048));
+
+        assertEquals(413, carga.recibir(request, (campos, archivo) -> ok()).getStatus());
+    }
+
+    @Test
+    void recibirReturnsBadRequestWhenTheFileIsMissing() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/capacitanet/cursos/c1/recursos");
+        request.setContentType("multipart/form-data; boundary=limite");
+        request.setContent("--limite\r\nContent-Disposition: form-data; name=\"order\"\r\n\r\n1\r\n--limite--\r\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(400, carga.recibir(request, (campos, archivo) -> ok()).getStatus());
+    }
+
+    @Test
+    void recibirReturnsBadRequestWhenTheRequestIsNotMultipart() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/capacitanet/cursos/c1/recursos");
+        request.setContentType("application/json");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(400, carga.recibir(request, (campos, archivo) -> ok()).getStatus());
+    }
+}
@@ -0,0 +1,41 @@
+package co.com.capacitanet.api.config;
+
+import io.undertow.servlet.api.DeploymentInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HilosVirtualesConfigTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withUserConfiguration(HilosVirtualesConfig.class);
+
+    @Test
+    void customizerIsOnlyRegisteredWhenVirtualThreadsAreEnabled() {
+        contexto.run(context -> assertFalse(context.containsBean("undertowHilosVirtuales")));
+        contexto.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertTrue(context.containsBean("undertowHilosVirtuales")));
+    }
+
+    @Test
+    void servletRequestsAreDispatchedToVirtualThreads() throws Exception {
+        UndertowServletWebServerFactory factory = new UndertowServletWebServerFactory();
+        new HilosVirtualesConfig().undertowHilosVirtuales().customize(factory);
+        DeploymentInfo deploymentInfo = new DeploymentInfo();
+
+        assertEquals(1, factory.getDeploymentInfoCustomizers().size());
+        factory.getDeploymentInfoCustomizers().forEach(customizer -> customizer.customize(deploymentInfo));
+
+        CompletableFuture<Thread> hilo = new CompletableFuture<>();
+        deploymentInfo.getExecutor().execute(() -> hilo.complete(Thread.currentThread()));
+        assertTrue(hilo.get(5, TimeUnit.SECONDS).isVirtual());
+        assertEquals(deploymentInfo.getExecutor(), deploymentInfo.getAsyncExecutor());
+    }
+}
@@ -0,0 +1,93 @@
+package co.com.capacitanet.api.config;
+
+import co.com.capacitanet.helpers.AuthService;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtFilterTest {
+
+    private static final String SECRETO = "secreto-de-pruebas";
+
+    private AuthService authService;
+    private JwtFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(SECRETO, 100);
+        filter = new JwtFilter(authService);
+    }
+
+    private static MockHttpServletRequest solicitud(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/capacitanet/obtener-cursos");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Test
+    void validTokenSetsUserIdOnEveryRequest() throws ServletException, IOException {
+        String token = authService.generaJWT("user1");
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = solicitud(token);
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertEquals("user1", request.getAttribute("userId"));
+            assertNotNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws ServletException, IOException {
+        String token = JWT.create().withSubject("user1")
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+                .sign(Algorithm.HMAC256(SECRETO));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(solicitud(token), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Token expirado", response.getContentAsString());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejectedEveryTime() throws ServletException, IOException {
+        String token = new AuthService("otro-secreto", 100).generaJWT("user1");
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(solicitud(token), response, chain);
+
+            assertEquals(401, response.getStatus());
+            assertEquals("Token inválido", response.getContentAsString());
+            assertNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    void publicEndpointsSkipAuthentication() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/capacitanet/login"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+}
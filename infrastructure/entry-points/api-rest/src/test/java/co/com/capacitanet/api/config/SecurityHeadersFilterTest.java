@@ -11,6 +11,7 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class SecurityHeadersFilterTest {
 
@@ -39,4 +40,25 @@ class SecurityHeadersFilterTest {
         assertEquals("no-cache", response.getHeader("Pragma"));
         assertEquals("strict-origin-when-cross-origin", response.getHeader("Referrer-Policy"));
     }
+
+    @Test
+    void catalogIsRevalidatedInsteadOfNeverStored() throws IOException, ServletException {
+        request.setRequestURI("/capacitanet/obtener-cursos");
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals("private, no-cache", response.getHeader("Cache-Control"));
+        assertNull(response.getHeader("Pragma"));
+        assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+    }
+
+    @Test
+    void sensitiveEndpointsAreNeverStored() throws IOException, ServletException {
+        request.setRequestURI("/capacitanet/perfil-usuario");
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals("no-store", response.getHeader("Cache-Control"));
+        assertEquals("no-cache", response.getHeader("Pragma"));
+    }
 }
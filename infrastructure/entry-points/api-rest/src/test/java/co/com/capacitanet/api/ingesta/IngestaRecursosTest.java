@@ -0,0 +1,94 @@
+package co.com.capacitanet.api.ingesta;
+
+import co.com.capacitanet.api.listado.CatalogoSnapshot;
+import co.com.capacitanet.model.curso.Ingesta;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.response.ResponseApp;
+import co.com.capacitanet.usecase.curso.CursoUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestaRecursosTest {
+
+    private CursoUseCase cursoUseCase;
+    private CatalogoSnapshot catalogo;
+    private IngestaRecursos ingestaRecursos;
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "video.mp4", "video/mp4", new byte[64]);
+
+    @BeforeEach
+    void setUp() {
+        cursoUseCase = mock(CursoUseCase.class);
+        catalogo = mock(CatalogoSnapshot.class);
+        ingestaRecursos = new IngestaRecursos(cursoUseCase, catalogo, 1, Duration.ofMinutes(5));
+    }
+
+    private static Recurso recurso() {
+        return Recurso.builder().id("r1").nombre("video.mp4").build();
+    }
+
+    @Test
+    void iniciarReturnsAcceptedAndTracksProgressUntilCompletion() {
+        CompletableFuture<ResponseApp> carga = new CompletableFuture<>();
+        when(cursoUseCase.agregarRecursoAsync(eq("curso1"), any(), any(), any())).thenReturn(carga);
+
+        ResponseApp response = ingestaRecursos.iniciar("curso1", recurso(), file, "user1");
+
+        assertEquals(202, response.getStatus());
+        Ingesta ingesta = ingestaRecursos.consultar(response.getMessage(), "user1");
+        assertEquals(Ingesta.Estado.EN_CURSO, ingesta.getEstado());
+        assertEquals(64, ingesta.getBytesTotales());
+
+        carga.complete(ResponseApp.builder().status(200).message("Recurso agregado satisfactoriamente").build());
+
+        assertEquals(Ingesta.Estado.COMPLETADA, ingesta.getEstado());
+        assertEquals(64, ingesta.getBytesTransferidos());
+        verify(catalogo).invalidar();
+    }
+
+    @Test
+    void iniciarRejectsWhenCapacityIsExhaustedAndFreesItOnCompletion() {
+        CompletableFuture<ResponseApp> carga = new CompletableFuture<>();
+        when(cursoUseCase.agregarRecursoAsync(eq("curso1"), any(), any(), any()))
+                .thenReturn(carga, new CompletableFuture<>());
+
+        ingestaRecursos.iniciar("curso1", recurso(), file, "user1");
+        assertEquals(503, ingestaRecursos.iniciar("curso1", recurso(), file, "user1").getStatus());
+
+        carga.complete(ResponseApp.builder().status(500).message("Error al agregar el recurso").build());
+        assertEquals(202, ingestaRecursos.iniciar("curso1", recurso(), file, "user1").getStatus());
+    }
+
+    @Test
+    void iniciarReturnsImmediateErrorsWithoutTrackingIngestion() {
+        when(cursoUseCase.agregarRecursoAsync(eq("curso1"), any(), any(), any())).thenReturn(
+                CompletableFuture.completedFuture(ResponseApp.builder().status(404).message("Curso no encontrado").build()));
+
+        ResponseApp response = ingestaRecursos.iniciar("curso1", recurso(), file, "user1");
+
+        assertEquals(404, response.getStatus());
+        // el cupo se liberó: la siguiente solicitud vuelve a llegar al caso de uso
+        assertEquals(404, ingestaRecursos.iniciar("curso1", recurso(), file, "user1").getStatus());
+    }
+
+    @Test
+    void consultarHidesIngestionsOfOtherUsers() {
+        when(cursoUseCase.agregarRecursoAsync(eq("curso1"), any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        ResponseApp response = ingestaRecursos.iniciar("curso1", recurso(), file, "user1");
+
+        assertNull(ingestaRecursos.consultar(response.getMessage(), "user2"));
+    }
+}
@@ -0,0 +1,164 @@
+package co.com.capacitanet.api.listado;
+
+import co.com.capacitanet.model.curso.Curso;
+import co.com.capacitanet.model.curso.Recurso;
+import co.com.capacitanet.model.response.Resultado;
+import co.com.capacitanet.usecase.curso.CursoUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogoSnapshotTest {
+
+    private CursoUseCase cursoUseCase;
+    private CatalogoSnapshot catalogo;
+    private List<Curso> cursos;
+
+    @BeforeEach
+    void setUp() {
+        cursoUseCase = mock(CursoUseCase.class);
+        catalogo = new CatalogoSnapshot(cursoUseCase, Duration.ofMinutes(5));
+        cursos = List.of(
+                Curso.builder().cursoId("c1")
+                        .recursos(List.of(Recurso.builder().id("r1").s3Key("recursos/sha256/abc.pdf").build())).build(),
+                Curso.builder().cursoId("c2").build());
+        when(cursoUseCase.obtenerCursos(anyString(), eq(true), any())).thenAnswer(invocation -> {
+            Consumer<Curso> consumidor = invocation.getArgument(2);
+            cursos.forEach(consumidor);
+            return Resultado.ok(null);
+        });
+    }
+
+    private MockHttpServletResponse consultar(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        catalogo.responder("user1", request, response);
+        return response;
+    }
+
+    @Test
+    void responderSerializesCatalogOnceAndServesItWithStrongEtag() throws IOException {
+        MockHttpServletResponse primera = consultar(new MockHttpServletRequest());
+        MockHttpServletResponse segunda = consultar(new MockHttpServletRequest());
+
+        assertEquals(200, primera.getStatus());
+        String body = primera.getContentAsString();
+        assertEquals('[', body.charAt(0));
+        assertEquals(2, body.split("\"cursoId\"").length - 1);
+        assertFalse(body.contains("s3Key"));
+        assertTrue(primera.getHeader("ETag").startsWith("\""));
+        assertEquals(primera.getHeader("ETag"), segunda.getHeader("ETag"));
+        assertEquals(body, segunda.getContentAsString());
+        verify(cursoUseCase, times(1)).obtenerCursos(anyString(), eq(true), any());
+    }
+
+    @Test
+    void responderReturnsNotModifiedWhenClientHasCurrentEtag() throws IOException {
+        String etag = consultar(new MockHttpServletRequest()).getHeader("ETag");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "\"otro\", " + etag);
+
+        MockHttpServletResponse response = consultar(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(etag, response.getHeader("ETag"));
+        verify(cursoUseCase, times(1)).obtenerCursos(anyString(), eq(true), any());
+    }
+
+    @Test
+    void responderServesPrecompressedBodyWhenClientAcceptsGzip() throws IOException {
+        String json = consultar(new MockHttpServletRequest()).getContentAsString();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", "br, gzip");
+
+        MockHttpServletResponse response = consultar(request);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(json, new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void responderGivesEachEncodingItsOwnEtag() throws IOException {
+        String identidad = consultar(new MockHttpServletRequest()).getHeader("ETag");
+        MockHttpServletRequest gzip = new MockHttpServletRequest();
+        gzip.addHeader("Accept-Encoding", "gzip");
+        gzip.addHeader("If-None-Match", identidad);
+
+        MockHttpServletResponse response = consultar(gzip);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(identidad.substring(0, identidad.length() - 1) + "-gz\"", response.getHeader("ETag"));
+        MockHttpServletRequest revalidacion = new MockHttpServletRequest();
+        revalidacion.addHeader("Accept-Encoding", "gzip");
+        revalidacion.addHeader("If-None-Match", response.getHeader("ETag"));
+        assertEquals(304, consultar(revalidacion).getStatus());
+        MockHttpServletRequest sinGzip = new MockHttpServletRequest();
+        sinGzip.addHeader("If-None-Match", response.getHeader("ETag"));
+        assertEquals(200, consultar(sinGzip).getStatus());
+    }
+
+    @Test
+    void responderSkipsGzipWhenClientRefusesIt() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", "gzip;q=0, identity");
+
+        MockHttpServletResponse response = consultar(request);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals('[', response.getContentAsString().charAt(0));
+    }
+
+    @Test
+    void invalidarRebuildsSnapshotWithNewEtagWhenCatalogChanged() throws IOException {
+        String anterior = consultar(new MockHttpServletRequest()).getHeader("ETag");
+        cursos = List.of(Curso.builder().cursoId("c3").build());
+
+        catalogo.invalidar();
+        MockHttpServletResponse response = consultar(new MockHttpServletRequest());
+
+        assertNotEquals(anterior, response.getHeader("ETag"));
+        assertTrue(response.getContentAsString().contains("c3"));
+        verify(cursoUseCase, times(2)).obtenerCursos(anyString(), eq(true), any());
+    }
+
+    @Test
+    void responderReturnsRepositoryErrorWithoutCachingIt() throws IOException {
+        when(cursoUseCase.obtenerCursos(anyString(), eq(true), any()))
+                .thenReturn(Resultado.error(500, "Error al obtener los cursos"));
+
+        MockHttpServletResponse response = consultar(new MockHttpServletRequest());
+
+        assertEquals(500, response.getStatus());
+        assertEquals("{\"status\":500,\"message\":\"Error al obtener los cursos\"}", response.getContentAsString());
+        assertNull(response.getHeader("ETag"));
+        consultar(new MockHttpServletRequest());
+        verify(cursoUseCase, times(2)).obtenerCursos(anyString(), eq(true), any());
+    }
+}
@@ -4,27 +4,56 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
 /**
  * Clase que proporciona servicios de autenticación utilizando JWT (JSON Web Tokens).
  * Permite generar, validar y extraer información de tokens JWT.
+ * <p>
+ * Un mismo cliente envía el mismo token en cada solicitud durante toda su vigencia, así que los tokens
+ * verificados se guardan en una caché acotada, indexada por el SHA-256 del token, con el usuario y la
+ * expiración. Cada entrada se descarta al llegar la expiración del token; los tokens inválidos no se
+ * guardan y se verifican completos en cada intento.
  */
+@Component
 public class AuthService {
 
     private final Algorithm algorithm;
     private final JWTVerifier verifier;
+    private final Cache<String, Sesion> sesiones;
     private static final long EXPIRATION_TIME_MS = 2L * 60 * 60 * 1000; // 2 hours
 
+    private record Sesion(String usuario, Instant expira) {
+    }
+
     /**
      * Constructor de la clase AuthService.
-     * Inicializa el algoritmo de firma HMAC256 utilizando una clave secreta obtenida de las variables de entorno
-     * y configura el verificador de tokens JWT.
+     * Inicializa el algoritmo de firma HMAC256 con la clave secreta y configura el verificador de tokens JWT.
+     *
+     * @param secreto Clave secreta de firma, tomada de la variable de entorno {@code SECRET_KEY}.
+     * @param maximo  Número máximo de tokens verificados que se conservan en la caché.
      */
-    public AuthService() {
-        this.algorithm = Algorithm.HMAC256(System.getenv("SECRET_KEY"));
+    public AuthService(@Value("${SECRET_KEY}") String secreto,
+                       @Value("${auth.tokens.maximo:10000}") long maximo) {
+        this.algorithm = Algorithm.HMAC256(secreto);
         this.verifier = JWT.require(algorithm).build();
+        this.sesiones = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(Expiry.creating((String llave, Sesion sesion) ->
+                        Duration.between(Instant.now(), sesion.expira())))
+                .build();
     }
 
     /**
@@ -52,6 +81,28 @@ public class AuthService {
         return verifier.verify(token);
     }
 
+    /**
+     * Autentica un token JWT y devuelve el usuario que contiene. Si el token ya fue verificado y no ha
+     * expirado, se responde desde la caché sin volver a verificar la firma.
+     *
+     * @param token El token JWT a autenticar.
+     * @return El nombre de usuario contenido en el token.
+     * @throws com.auth0.jwt.exceptions.JWTVerificationException Si el token no es válido o ha expirado.
+     */
+    public String autenticar(String token) {
+        String llave = resumen(token);
+        Sesion sesion = sesiones.getIfPresent(llave);
+        if (sesion != null) {
+            return sesion.usuario();
+        }
+        DecodedJWT jwt = verifier.verify(token);
+        Instant expira = jwt.getExpiresAtAsInstant();
+        if (expira != null) {
+            sesiones.put(llave, new Sesion(jwt.getSubject(), expira));
+        }
+        return jwt.getSubject();
+    }
+
     /**
      * Obtiene el nombre de usuario (subject) de un token JWT decodificado.
      *
@@ -62,4 +113,13 @@ public class AuthService {
         return jwt.getSubject();
     }
 
+    private static String resumen(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
 }
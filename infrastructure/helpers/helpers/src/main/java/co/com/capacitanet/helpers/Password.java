@@ -1,18 +1,29 @@
 package co.com.capacitanet.helpers;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-
-
+/**
+ * Utilidades sobre hashes de contraseñas ya calculados. El cifrado y la verificación los hace
+ * {@link PasswordHasher}.
+ */
 public class Password {
 
-    private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-
-    public static String hash(String plainPassword) {
-        return encoder.encode(plainPassword);
+    private Password() {
     }
 
-    public static boolean verificar(String plainPassword, String hash) {
-        return encoder.matches(plainPassword, hash);
+    /**
+     * Obtiene el costo (factor de trabajo) con que se generó un hash BCrypt.
+     *
+     * @param hash Hash BCrypt, con la forma {@code $2a$10$...}.
+     * @return El costo del hash, o {@code -1} si no tiene el formato de BCrypt.
+     */
+    public static int costo(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
 }
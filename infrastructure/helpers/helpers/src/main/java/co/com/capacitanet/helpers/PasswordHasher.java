@@ -0,0 +1,260 @@
+package co.com.capacitanet.helpers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta el cifrado y la verificación de contraseñas con BCrypt en un pool propio, del tamaño de los
+ * núcleos disponibles y con una cola acotada. Así una ráfaga de inicios de sesión ocupa como máximo ese
+ * pool y no todos los hilos del servidor, que siguen atendiendo las demás consultas.
+ * <p>
+ * El costo de BCrypt se toma de la configuración o, si no se indica, se calibra al iniciar: se elige el
+ * mayor costo cuyo hash tarda como máximo la latencia objetivo en este equipo. Los hashes guardados con
+ * un costo menor se detectan con {@link #requiereRehash(String)} para recalcularlos tras un inicio de sesión;
+ * los de costo mayor se conservan, ya que instancias calibradas en equipos distintos no coinciden en el costo
+ * y, de otro modo, cada una rebajaría o subiría el hash según la que atienda el inicio de sesión.
+ * <p>
+ * Las operaciones admitidas se limitan con un semáforo a los hilos del pool más una cola pequeña, que por
+ * defecto tiene un lugar por hilo. Quien solicita una operación espera su resultado, así que ese límite
+ * debe quedar por debajo de los hilos que atienden solicitudes en el servidor; con los valores por defecto
+ * es el doble de núcleos, frente a los ocho por núcleo del pool de Undertow. Cuando no hay lugar la
+ * operación se rechaza de inmediato con {@link SaturacionException}, sin bloquear, en lugar de esperar
+ * turno. Publica el tamaño de la cola ({@code capacitanet.bcrypt.cola}), la duración de cada operación
+ * ({@code capacitanet.bcrypt.duracion}, etiquetada por {@code operacion}) y los rechazos
+ * ({@code capacitanet.bcrypt.rechazos}).
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(PasswordHasher.class);
+    private static final String DURACION = "capacitanet.bcrypt.duracion";
+
+    static final int COSTO_MINIMO = 10;
+    static final int COSTO_MAXIMO = 16;
+
+    private final ThreadPoolExecutor cifradores;
+    private final Semaphore admitidas;
+    private final BCryptPasswordEncoder encoder;
+    private final int costo;
+    private final Timer cifrados;
+    private final Timer verificaciones;
+    private final Counter rechazos;
+
+    /**
+     * Indica que la operación se rechazó porque la cola de cifrado está llena.
+     */
+    public static class SaturacionException extends RuntimeException {
+        public SaturacionException() {
+            super("La cola de cifrado de contraseñas está llena");
+        }
+    }
+
+    /**
+     * Constructor de la clase PasswordHasher.
+     *
+     * @param registry Registro de métricas.
+     * @param hilos    Número de hilos de cifrado; con {@code 0} se usa el número de núcleos.
+     * @param cola     Número máximo de operaciones en espera; con {@code 0} se usa el número de hilos.
+     * @param costo    Costo de BCrypt; con {@code 0} se calibra contra la latencia objetivo.
+     * @param objetivo Latencia objetivo de un hash al calibrar el costo.
+     */
+    public PasswordHasher(MeterRegistry registry,
+                          @Value("${password.hilos:0}") int hilos,
+                          @Value("${password.cola:0}") int cola,
+                          @Value("${password.costo:0}") int costo,
+                          @Value("${password.latencia-objetivo:PT0.25S}") Duration objetivo) {
+        this.costo = costo > 0 ? costo : calibrar(objetivo);
+        this.encoder = new BCryptPasswordEncoder(this.costo);
+        int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.admitidas = new Semaphore(tamano + (cola > 0 ? cola : tamano));
+        AtomicInteger contador = new AtomicInteger();
+        this.cifradores = new ThreadPoolExecutor(tamano, tamano, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread hilo = new Thread(runnable, "bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("capacitanet.bcrypt.cola", cifradores, pool -> pool.getQueue().size())
+                .description("Operaciones de BCrypt en espera").register(registry);
+        this.cifrados = Timer.builder(DURACION).tag("operacion", "hash")
+                .description("Duración del cifrado de contraseñas").register(registry);
+        this.verificaciones = Timer.builder(DURACION).tag("operacion", "verificar")
+                .description("Duración de la verificación de contraseñas").register(registry);
+        this.rechazos = Counter.builder("capacitanet.bcrypt.rechazos")
+                .description("Operaciones de BCrypt rechazadas por cola llena").register(registry);
+    }
+
+    /**
+     * Cifra una contraseña.
+     *
+     * @param plainPassword Contraseña en texto plano.
+     * @return Hash BCrypt de la contraseña.
+     * @throws SaturacionException Si la cola de cifrado está llena.
+     */
+    public String hash(String plainPassword) {
+        return ejecutar(() -> cifrados.recordCallable(() -> encoder.encode(plainPassword)));
+    }
+
+    /**
+     * Cifra una contraseña en segundo plano, sin bloquear al solicitante. Si la cola está llena la
+     * operación no se encola y el resultado falla con {@link SaturacionException}.
+     *
+     * @param plainPassword Contraseña en texto plano.
+     * @return Hash BCrypt de la contraseña, cuando termine.
+     */
+    public CompletableFuture<String> hashEnSegundoPlano(String plainPassword) {
+        if (!admitir()) {
+            return CompletableFuture.failedFuture(new SaturacionException());
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return cifrados.record(() -> encoder.encode(plainPassword));
+                } finally {
+                    admitidas.release();
+                }
+            }, cifradores);
+        } catch (RejectedExecutionException e) {
+            admitidas.release();
+            rechazos.increment();
+            return CompletableFuture.failedFuture(new SaturacionException());
+        }
+    }
+
+    /**
+     * Indica si un hash se generó con un costo menor al de esta instancia. Un hash nunca se recalcula
+     * para bajar su costo.
+     *
+     * @param hash Hash BCrypt guardado.
+     * @return {@code true} si el hash debe recalcularse con el costo actual.
+     */
+    public boolean requiereRehash(String hash) {
+        return Password.costo(hash) < costo;
+    }
+
+    /**
+     * @return Costo de BCrypt con que se generan los hashes.
+     */
+    public int getCosto() {
+        return costo;
+    }
+
+    /**
+     * Verifica una contraseña contra su hash.
+     *
+     * @param plainPassword Contraseña en texto plano.
+     * @param hash          Hash BCrypt guardado.
+     * @return {@code true} si la contraseña corresponde al hash.
+     * @throws SaturacionException Si la cola de cifrado está llena.
+     */
+    public boolean verificar(String plainPassword, String hash) {
+        return ejecutar(() -> verificaciones.recordCallable(() -> encoder.matches(plainPassword, hash)));
+    }
+
+    <T> T ejecutar(Callable<T> operacion) {
+        if (!admitir()) {
+            throw new SaturacionException();
+        }
+        Admitida<T> futuro = new Admitida<>(operacion);
+        try {
+            cifradores.execute(futuro);
+        } catch (RejectedExecutionException e) {
+            admitidas.release();
+            rechazos.increment();
+            throw new SaturacionException();
+        }
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operación de BCrypt interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Toma un lugar para una operación sin esperar.
+     *
+     * @return {@code false} si todos los lugares están ocupados y la operación debe rechazarse.
+     */
+    private boolean admitir() {
+        if (admitidas.tryAcquire()) {
+            return true;
+        }
+        rechazos.increment();
+        logger.warn("Operación de BCrypt rechazada: {} en cola", cifradores.getQueue().size());
+        return false;
+    }
+
+    /**
+     * Operación admitida que devuelve su lugar al terminar o al cancelarse antes de ejecutarse.
+     */
+    private final class Admitida<T> extends FutureTask<T> {
+        private Admitida(Callable<T> operacion) {
+            super(operacion);
+        }
+
+        @Override
+        protected void done() {
+            admitidas.release();
+        }
+    }
+
+    /**
+     * Calcula el mayor costo cuyo hash no supera la latencia objetivo. El tiempo se duplica con cada
+     * punto de costo, así que basta medir el costo mínimo y extrapolar.
+     *
+     * @param objetivo Latencia objetivo de un hash.
+     * @return Costo calibrado, entre {@link #COSTO_MINIMO} y {@link #COSTO_MAXIMO}.
+     */
+    static int calibrar(Duration objetivo) {
+        BCryptPasswordEncoder referencia = new BCryptPasswordEncoder(COSTO_MINIMO);
+        referencia.encode("calibracion");
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long inicio = System.nanoTime();
+            referencia.encode("calibracion");
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        int costo = COSTO_MINIMO;
+        long estimado = mejor;
+        while (costo < COSTO_MAXIMO && estimado * 2 <= objetivo.toNanos()) {
+            estimado *= 2;
+            costo++;
+        }
+        logger.info("Costo de BCrypt calibrado en {}: {} ms estimados por hash", costo, estimado / 1_000_000);
+        return costo;
+    }
+
+    @Override
+    public void destroy() {
+        cifradores.shutdownNow();
+    }
+}
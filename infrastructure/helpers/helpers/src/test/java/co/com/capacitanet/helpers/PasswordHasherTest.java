@@ -0,0 +1,118 @@
+package co.com.capacitanet.helpers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    private SimpleMeterRegistry registry;
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        hasher = new PasswordHasher(registry, 1, 1, 4, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hasher.destroy();
+    }
+
+    @Test
+    void hashAndVerifyRunOnThePoolAndRecordLatency() {
+        String hash = hasher.hash("secreto");
+
+        assertTrue(hasher.verificar("secreto", hash));
+        assertFalse(hasher.verificar("otro", hash));
+        assertEquals(1, registry.get("capacitanet.bcrypt.duracion").tag("operacion", "hash").timer().count());
+        assertEquals(2, registry.get("capacitanet.bcrypt.duracion").tag("operacion", "verificar").timer().count());
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Object> enCurso = CompletableFuture.supplyAsync(() -> hasher.ejecutar(() -> {
+            ocupado.countDown();
+            return liberar.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> enCola = CompletableFuture.supplyAsync(() -> hasher.hash("en-cola"));
+        while (registry.get("capacitanet.bcrypt.cola").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHasher.SaturacionException.class, () -> hasher.verificar("secreto", "hash"));
+        assertEquals(1, registry.get("capacitanet.bcrypt.rechazos").counter().count());
+
+        liberar.countDown();
+        enCurso.get(5, TimeUnit.SECONDS);
+        assertTrue(hasher.verificar("en-cola", enCola.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void backgroundHashesShareTheAdmissionLimit() throws Exception {
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Object> enCurso = CompletableFuture.supplyAsync(() -> hasher.ejecutar(() -> {
+            ocupado.countDown();
+            return liberar.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> enCola = hasher.hashEnSegundoPlano("en-cola");
+
+        CompletableFuture<String> rechazado = hasher.hashEnSegundoPlano("rechazado");
+
+        assertInstanceOf(PasswordHasher.SaturacionException.class,
+                assertThrows(ExecutionException.class, () -> rechazado.get(5, TimeUnit.SECONDS)).getCause());
+        liberar.countDown();
+        enCurso.get(5, TimeUnit.SECONDS);
+        assertTrue(hasher.verificar("en-cola", enCola.get(5, TimeUnit.SECONDS)));
+        assertTrue(hasher.verificar("en-cola", hasher.hash("en-cola")));
+    }
+
+    @Test
+    void rehashesOnlyHashesWithLowerCostInBackground() throws Exception {
+        PasswordHasher mayor = new PasswordHasher(registry, 1, 1, 5, Duration.ZERO);
+        PasswordHasher costosos = new PasswordHasher(registry, 1, 1, 6, Duration.ZERO);
+        try {
+            String anterior = hasher.hash("secreto");
+            String costoso = costosos.hash("secreto");
+
+            assertTrue(mayor.requiereRehash(anterior));
+            assertFalse(mayor.requiereRehash(costoso));
+            assertFalse(hasher.requiereRehash(costoso));
+
+            String nuevo = mayor.hashEnSegundoPlano("secreto").get(5, TimeUnit.SECONDS);
+
+            assertEquals(5, Password.costo(nuevo));
+            assertFalse(mayor.requiereRehash(nuevo));
+            assertTrue(mayor.verificar("secreto", anterior));
+            assertTrue(mayor.verificar("secreto", nuevo));
+        } finally {
+            mayor.destroy();
+            costosos.destroy();
+        }
+    }
+
+    @Test
+    void calibrationNeverGoesBelowMinimumCost() {
+        assertEquals(PasswordHasher.COSTO_MINIMO, PasswordHasher.calibrar(Duration.ofNanos(1)));
+        assertEquals(-1, Password.costo("texto plano"));
+    }
+}